@@ -0,0 +1,128 @@
+/*
+ *    Copyright 2021 Alexis Armin Huf
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.github.lapesd.rdfit.benchmarks;
+
+import com.github.lapesd.rdfit.components.converters.ConversionFinder;
+import com.github.lapesd.rdfit.components.converters.ConversionManager;
+import com.github.lapesd.rdfit.components.converters.ConversionPath;
+import com.github.lapesd.rdfit.components.converters.FusedConverter;
+import com.github.lapesd.rdfit.components.converters.util.ConversionCache;
+import com.github.lapesd.rdfit.components.converters.util.ConversionPathSingletonCache;
+import com.github.lapesd.rdfit.errors.ConversionException;
+import com.github.lapesd.rdfit.errors.InconvertibleException;
+import com.github.lapesd.rdfit.impl.DefaultRDFItFactory;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.rdfhdt.hdt.triples.TripleString;
+
+import javax.annotation.Nonnull;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares running a multi-hop {@link ConversionPath} step by step against its compiled
+ * {@link FusedConverter} and against a {@link ConversionPathSingletonCache} (which caches the
+ * compiled form). Covers every pair of types handled by the bundles whose shortest path
+ * has more than one {@link com.github.lapesd.rdfit.components.Converter}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConversionPathBenchmark {
+    private static final Map<String, Class<?>> CLASSES = new HashMap<>();
+    static {
+        CLASSES.put("hdt",            TripleString.class);
+        CLASSES.put("jena",           Triple.class);
+        CLASSES.put("jenaQuad",       org.apache.jena.sparql.core.Quad.class);
+        CLASSES.put("jenaStatement",  org.apache.jena.rdf.model.Statement.class);
+        CLASSES.put("rdf4j",          org.eclipse.rdf4j.model.Statement.class);
+        CLASSES.put("commons",        org.apache.commons.rdf.api.Triple.class);
+        CLASSES.put("commonsQuad",    org.apache.commons.rdf.api.Quad.class);
+    }
+
+    @Param({"hdt:jenaQuad", "hdt:jenaStatement", "hdt:rdf4j", "hdt:commons", "hdt:commonsQuad",
+            "jenaQuad:hdt", "jenaStatement:hdt", "rdf4j:hdt", "commons:hdt", "commonsQuad:hdt"})
+    public String conversion;
+
+    @Param({"1024"})
+    public int size;
+
+    private Object[] inputs;
+    private ConversionPath path;
+    private FusedConverter fused;
+    private ConversionCache cache;
+
+    private static @Nonnull Object convert(@Nonnull ConversionManager mgr, @Nonnull Object in,
+                                           @Nonnull Class<?> desired) {
+        if (desired.isInstance(in))
+            return in;
+        ConversionFinder finder = mgr.findPath(in, desired);
+        while (finder.hasNext()) {
+            try {
+                return finder.convert(in);
+            } catch (ConversionException ignored) { }
+        }
+        throw new IllegalArgumentException("Cannot convert "+in+" into "+desired);
+    }
+
+    @Setup public void setUp() {
+        String[] pair = conversion.split(":");
+        Class<?> from = CLASSES.get(pair[0]), to = CLASSES.get(pair[1]);
+        ConversionManager mgr = DefaultRDFItFactory.get().getConversionManager();
+        inputs = new Object[size];
+        for (int i = 0; i < size; i++) {
+            Triple triple = new Triple(NodeFactory.createURI("http://example.org/s"+(i % 100)),
+                                       NodeFactory.createURI("http://example.org/p"),
+                                       NodeFactory.createLiteral("o"+i));
+            inputs[i] = convert(mgr, triple, from);
+        }
+        ConversionFinder finder = mgr.findPath(inputs[0], to);
+        while (path == null && finder.hasNext()) {
+            try {
+                finder.convert(inputs[0]);
+                path = finder.getConversionPath();
+            } catch (ConversionException ignored) { }
+        }
+        if (path == null)
+            throw new IllegalStateException("No path for "+conversion);
+        if (path.size() < 2)
+            throw new IllegalStateException("Not a multi-hop path: "+path);
+        fused = path.compile();
+        cache = ConversionPathSingletonCache.createCache(mgr, to);
+    }
+
+    @Benchmark public void path(Blackhole bh) throws ConversionException {
+        for (Object in : inputs)
+            bh.consume(path.convert(in));
+    }
+
+    @Benchmark public void fused(Blackhole bh) throws ConversionException {
+        for (Object in : inputs)
+            bh.consume(fused.convert(in));
+    }
+
+    @Benchmark public void cache(Blackhole bh) throws InconvertibleException {
+        for (Object in : inputs)
+            bh.consume(cache.convert("source", in));
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ *    Copyright 2021 Alexis Armin Huf
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.github.lapesd.rdfit.benchmarks;
+
+import com.github.lapesd.rdfit.components.converters.impl.DefaultConversionManager;
+import com.github.lapesd.rdfit.impl.ClosedSourceQueue;
+import com.github.lapesd.rdfit.iterator.IterationElement;
+import com.github.lapesd.rdfit.iterator.ListenerRDFIt;
+import com.github.lapesd.rdfit.listener.RDFListener;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the producer-to-consumer hand-off of {@link ListenerRDFIt} with a parser thread
+ * that does nothing but deliver pre-built triples.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ListenerRDFItBenchmark {
+    @Param({"1", "16", "64", "256"})
+    public int batchSize;
+
+    @Param({"LOCKING", "SPSC"})
+    public ListenerRDFIt.Transport transport;
+
+    @Param({"100000"})
+    public int triples;
+
+    private Triple[] data;
+
+    @Setup public void setUp() {
+        data = new Triple[triples];
+        for (int i = 0; i < triples; i++) {
+            data[i] = new Triple(NodeFactory.createURI("http://example.org/s"+(i % 100)),
+                                 NodeFactory.createURI("http://example.org/p"),
+                                 NodeFactory.createURI("http://example.org/o"+i));
+        }
+    }
+
+    @Benchmark public void handOff(Blackhole bh) throws InterruptedException {
+        ListenerRDFIt<Triple> it = new ListenerRDFIt<>("source", Triple.class,
+                IterationElement.TRIPLE, null, new DefaultConversionManager(),
+                new ClosedSourceQueue(), batchSize, transport);
+        Thread producer = new Thread(() -> {
+            @SuppressWarnings("unchecked") RDFListener<Object, Object> listener
+                    = (RDFListener<Object, Object>) it.getListener();
+            listener.start("source");
+            for (Triple triple : data)
+                listener.triple(triple);
+            listener.finish("source");
+            listener.finish();
+        });
+        producer.start();
+        try {
+            while (it.hasNext())
+                bh.consume(it.next());
+        } finally {
+            it.close();
+        }
+        producer.join();
+    }
+}
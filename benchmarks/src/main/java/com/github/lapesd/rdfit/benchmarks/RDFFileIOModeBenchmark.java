@@ -0,0 +1,91 @@
+/*
+ *    Copyright 2021 Alexis Armin Huf
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.github.lapesd.rdfit.benchmarks;
+
+import com.github.lapesd.rdfit.RIt;
+import com.github.lapesd.rdfit.impl.DefaultRDFItFactory;
+import com.github.lapesd.rdfit.iterator.RDFIt;
+import com.github.lapesd.rdfit.source.RDFFile;
+import org.apache.jena.graph.Triple;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads a N-Triples file through each {@link RDFFile.IOMode}, either as raw bytes or
+ * parsing it into triples.
+ *
+ * To compare the number of system calls, run a single mode under <code>strace -c -f</code>
+ * (e.g., with <code>-p ioMode=CHANNEL</code>).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RDFFileIOModeBenchmark {
+    @Param({"STREAM", "CHANNEL", "MMAP"})
+    public RDFFile.IOMode ioMode;
+
+    @Param({"400000"})
+    public int triples;
+
+    private File file;
+    private DefaultRDFItFactory factory;
+
+    @Setup public void setUp() throws IOException {
+        file = File.createTempFile("rdfit-bench", ".nt");
+        file.deleteOnExit();
+        try (Writer w = new OutputStreamWriter(new FileOutputStream(file),
+                                               StandardCharsets.UTF_8)) {
+            for (int i = 0; i < triples; i++) {
+                w.write("<http://example.org/s"+(i % 100)+"> <http://example.org/p> \""
+                        +i+"\" .\n");
+            }
+        }
+        factory = (DefaultRDFItFactory) RIt.createFactory();
+    }
+
+    @TearDown public void tearDown() {
+        factory.close();
+        if (!file.delete())
+            file.deleteOnExit();
+    }
+
+    @Benchmark public long read() throws IOException {
+        long sum = 0;
+        byte[] buf = new byte[256];
+        try (RDFFile rdfFile = RDFFile.builder(file).ioMode(ioMode).build()) {
+            InputStream is = rdfFile.getBufferedInputStream();
+            for (int n = is.read(buf); n >= 0; n = is.read(buf))
+                sum += n;
+        }
+        return sum;
+    }
+
+    @Benchmark public void parse(Blackhole bh) {
+        RDFFile source = RDFFile.builder(file).ioMode(ioMode).build();
+        try (RDFIt<Triple> it = factory.iterateTriples(Triple.class, source)) {
+            while (it.hasNext())
+                bh.consume(it.next());
+        }
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ *    Copyright 2021 Alexis Armin Huf
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.github.lapesd.rdfit.benchmarks;
+
+import com.github.lapesd.rdfit.RIt;
+import com.github.lapesd.rdfit.components.hdt.HDTFileCache;
+import com.github.lapesd.rdfit.impl.DefaultRDFItFactory;
+import com.github.lapesd.rdfit.iterator.ParallelFlatMapRDFIt;
+import com.github.lapesd.rdfit.iterator.RDFIt;
+import com.github.lapesd.rdfit.source.RDFFile;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.rdfhdt.hdt.exceptions.ParserException;
+import org.rdfhdt.hdt.hdt.HDT;
+import org.rdfhdt.hdt.hdt.HDTManager;
+import org.rdfhdt.hdt.options.HDTSpecification;
+import org.rdfhdt.hdt.triples.TripleString;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Iterates a single large HDT file, which is split into ranges of triple positions
+ * iterated concurrently when splitBytes is positive.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SplitHDTBenchmark {
+    private static final String EX = "http://example.org/";
+
+    @Param({"1", "4"})
+    public int parallelism;
+
+    @Param({"0", "1"})
+    public long splitBytes;
+
+    @Param({"ORDERED", "UNORDERED"})
+    public ParallelFlatMapRDFIt.Merge merge;
+
+    @Param({"1000000"})
+    public int triples;
+
+    private File file;
+    private DefaultRDFItFactory factory;
+
+    @Setup public void setUp() throws IOException, ParserException {
+        file = File.createTempFile("rdfit-bench", ".hdt");
+        file.deleteOnExit();
+        Iterator<TripleString> it = new Iterator<TripleString>() {
+            private int i = 0;
+
+            @Override public boolean hasNext() {
+                return i < triples;
+            }
+
+            @Override public TripleString next() {
+                int n = i++;
+                return new TripleString(EX+"s"+n/10, EX+"p"+n%7, "\""+n+"\"");
+            }
+        };
+        try (HDT hdt = HDTManager.generateHDT(it, EX, new HDTSpecification(),
+                                             (level, message) -> {})) {
+            hdt.saveToHDT(file.getAbsolutePath(), null);
+        }
+        factory = (DefaultRDFItFactory) RIt.createFactory();
+        factory.setParallelSplitBytes(splitBytes);
+    }
+
+    @TearDown public void tearDown() {
+        factory.close();
+        HDTFileCache.INSTANCE.closeIdle();
+        if (!file.delete())
+            file.deleteOnExit();
+    }
+
+    @Benchmark public void iterate(Blackhole bh) {
+        try (RDFIt<TripleString> it = factory.iterateTriplesParallel(parallelism, merge,
+                TripleString.class, new RDFFile(file))) {
+            while (it.hasNext())
+                bh.consume(it.next());
+        }
+    }
+}
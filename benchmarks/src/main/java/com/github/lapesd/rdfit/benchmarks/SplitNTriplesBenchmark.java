@@ -0,0 +1,88 @@
+/*
+ *    Copyright 2021 Alexis Armin Huf
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.github.lapesd.rdfit.benchmarks;
+
+import com.github.lapesd.rdfit.RIt;
+import com.github.lapesd.rdfit.impl.DefaultRDFItFactory;
+import com.github.lapesd.rdfit.iterator.ParallelFlatMapRDFIt;
+import com.github.lapesd.rdfit.iterator.RDFIt;
+import com.github.lapesd.rdfit.source.RDFFile;
+import org.apache.jena.graph.Triple;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Iterates a single large N-Triples file, which is split into line-aligned chunks parsed
+ * concurrently when splitBytes is positive.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SplitNTriplesBenchmark {
+    @Param({"1", "4"})
+    public int parallelism;
+
+    @Param({"0", "1048576"})
+    public long splitBytes;
+
+    @Param({"ORDERED", "UNORDERED"})
+    public ParallelFlatMapRDFIt.Merge merge;
+
+    @Param({"400000"})
+    public int triples;
+
+    private File file;
+    private DefaultRDFItFactory factory;
+
+    @Setup public void setUp() throws IOException {
+        file = File.createTempFile("rdfit-bench", ".nt");
+        file.deleteOnExit();
+        try (Writer w = new OutputStreamWriter(new FileOutputStream(file),
+                                               StandardCharsets.UTF_8)) {
+            for (int i = 0; i < triples; i++) {
+                w.write("_:b"+(i % 1000)+" <http://example.org/p> \""+i+"\" .\n");
+            }
+        }
+        factory = (DefaultRDFItFactory) RIt.createFactory();
+        factory.setParallelSplitBytes(splitBytes);
+    }
+
+    @TearDown public void tearDown() {
+        factory.close();
+        if (!file.delete())
+            file.deleteOnExit();
+    }
+
+    @Benchmark public void iterate(Blackhole bh) {
+        try (RDFIt<Triple> it = factory.iterateTriplesParallel(parallelism, merge, Triple.class,
+                                                               new RDFFile(file))) {
+            while (it.hasNext())
+                bh.consume(it.next());
+        }
+    }
+}
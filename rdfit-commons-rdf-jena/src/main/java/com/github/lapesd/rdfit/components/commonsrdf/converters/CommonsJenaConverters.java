@@ -23,12 +23,18 @@ import com.github.lapesd.rdfit.components.annotations.Outputs;
 import com.github.lapesd.rdfit.components.converters.ConversionManager;
 import com.github.lapesd.rdfit.components.converters.DetachedBaseConverter;
 import com.github.lapesd.rdfit.errors.ConversionException;
-import org.apache.commons.rdf.api.Quad;
-import org.apache.commons.rdf.api.Triple;
+import com.github.lapesd.rdfit.util.TermCache;
+import org.apache.commons.rdf.api.*;
 import org.apache.commons.rdf.jena.JenaRDF;
+import org.apache.commons.rdf.jena.JenaRDFTerm;
+import org.apache.commons.rdf.jena.JenaTriple;
 import org.apache.jena.graph.Node;
 import org.apache.jena.graph.Node_Triple;
-import org.apache.jena.rdf.model.*;
+import org.apache.jena.rdf.model.Property;
+import org.apache.jena.rdf.model.RDFNode;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.rdf.model.ResourceFactory;
+import org.apache.jena.rdf.model.Statement;
 import org.apache.jena.rdf.model.impl.LiteralImpl;
 import org.apache.jena.rdf.model.impl.PropertyImpl;
 import org.apache.jena.rdf.model.impl.ReifiedStatementImpl;
@@ -44,6 +50,7 @@ import static java.util.Arrays.asList;
  */
 public class CommonsJenaConverters {
     private static final JenaRDF JR = new JenaRDF();
+    private static final TermCache<RDFTerm, Node> NODES = new TermCache<>();
     private static final List<Converter> CONVERTERS = asList(
             JenaTriple2Triple.INSTANCE,
             JenaTriple2Quad.INSTANCE,
@@ -91,6 +98,43 @@ public class CommonsJenaConverters {
         for (Converter converter : CONVERTERS) manager.unregister(converter);
     }
 
+    /**
+     * Remove all cached terms used when converting from commons-rdf into Jena.
+     */
+    public static void clearTermCache() {
+        NODES.clear();
+    }
+
+    /**
+     * Same as {@link JenaRDF#asJenaNode(RDFTerm)}, but IRIs and short literals without
+     * language tags are cached.
+     *
+     * @param term the commons-rdf term
+     * @return the equivalent Jena {@link Node}
+     */
+    public static @Nonnull Node asJenaNode(@Nonnull RDFTerm term) {
+        if (term instanceof JenaRDFTerm)
+            return ((JenaRDFTerm) term).asJenaNode();
+        if (term instanceof IRI) {
+            return NODES.get(term, JR::asJenaNode);
+        } else if (term instanceof Literal) {
+            Literal l = (Literal) term;
+            if (!l.getLanguageTag().isPresent()
+                    && TermCache.isCacheableLiteral(l.getLexicalForm().length())) {
+                return NODES.get(term, JR::asJenaNode);
+            }
+        }
+        return JR.asJenaNode(term);
+    }
+
+    private static @Nonnull org.apache.jena.graph.Triple asJenaTriple(@Nonnull Triple triple) {
+        if (triple instanceof JenaTriple)
+            return ((JenaTriple) triple).asJenaTriple();
+        return org.apache.jena.graph.Triple.create(asJenaNode(triple.getSubject()),
+                                                   asJenaNode(triple.getPredicate()),
+                                                   asJenaNode(triple.getObject()));
+    }
+
     /**
      * Converts Jena Triples into commons-rdf Triples
      */
@@ -204,7 +248,7 @@ public class CommonsJenaConverters {
     public static class Quad2JenaTriple extends DetachedBaseConverter {
         public static final Quad2JenaTriple INSTANCE = new Quad2JenaTriple();
         @Override public @Nonnull org.apache.jena.graph.Triple convert(@Nonnull Object input) {
-            return JR.asJenaTriple(((Quad) input).asTriple());
+            return asJenaTriple(((Quad) input).asTriple());
         }
     }
 
@@ -226,7 +270,7 @@ public class CommonsJenaConverters {
     public static class Triple2JenaTriple extends DetachedBaseConverter {
         public static final Triple2JenaTriple INSTANCE = new Triple2JenaTriple();
         @Override public @Nonnull org.apache.jena.graph.Triple convert(@Nonnull Object input) {
-            return JR.asJenaTriple((Triple) input);
+            return asJenaTriple((Triple) input);
         }
     }
 
@@ -237,7 +281,7 @@ public class CommonsJenaConverters {
     public static class Triple2JenaStatement extends DetachedBaseConverter {
         public static final Triple2JenaStatement INSTANCE = new Triple2JenaStatement();
         @Override public @Nonnull Statement convert(@Nonnull Object input) {
-            return wrap(JR.asJenaTriple((Triple) input));
+            return wrap(asJenaTriple((Triple) input));
         }
 
         private static @Nonnull Statement wrap(@Nonnull org.apache.jena.graph.Triple triple) {
@@ -22,13 +22,17 @@ import com.github.lapesd.rdfit.components.annotations.Accepts;
 import com.github.lapesd.rdfit.components.annotations.Outputs;
 import com.github.lapesd.rdfit.components.converters.ConversionManager;
 import com.github.lapesd.rdfit.components.converters.DetachedBaseConverter;
-import org.apache.commons.rdf.api.Quad;
-import org.apache.commons.rdf.api.Triple;
-import org.apache.commons.rdf.api.TripleLike;
+import com.github.lapesd.rdfit.util.TermCache;
+import org.apache.commons.rdf.api.*;
 import org.apache.commons.rdf.rdf4j.RDF4J;
+import org.apache.commons.rdf.rdf4j.RDF4JTerm;
+import org.apache.commons.rdf.rdf4j.RDF4JTripleLike;
+import org.eclipse.rdf4j.model.Resource;
 import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.Value;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import java.util.Arrays;
 import java.util.List;
 
@@ -42,6 +46,7 @@ public class CommonsRDF4JConverters {
             Statement2Quad.INSTANCE
     );
     private static final RDF4J R = new RDF4J();
+    private static final TermCache<RDFTerm, Value> VALUES = new TermCache<>();
 
     /**
      * Register all converters in the factory {@link ConversionManager}
@@ -75,6 +80,56 @@ public class CommonsRDF4JConverters {
         for (Converter converter : CONVERTERS) manager.unregister(converter);
     }
 
+    /**
+     * Remove all cached terms used when converting from commons-rdf into RDF4J.
+     */
+    public static void clearTermCache() {
+        VALUES.clear();
+    }
+
+    /**
+     * Same as {@link RDF4J#asValue(RDFTerm)}, but IRIs and short literals without
+     * language tags are cached.
+     *
+     * @param term the commons-rdf term
+     * @return the equivalent RDF4J {@link Value} or null if term is null
+     */
+    public static @Nullable Value asValue(@Nullable RDFTerm term) {
+        if (term == null)
+            return null;
+        if (term instanceof RDF4JTerm)
+            return ((RDF4JTerm) term).asValue();
+        if (term instanceof IRI) {
+            return VALUES.get(term, R::asValue);
+        } else if (term instanceof Literal) {
+            Literal l = (Literal) term;
+            if (!l.getLanguageTag().isPresent()
+                    && TermCache.isCacheableLiteral(l.getLexicalForm().length())) {
+                return VALUES.get(term, R::asValue);
+            }
+        }
+        return R.asValue(term);
+    }
+
+    /**
+     * Same as {@link RDF4J#asStatement(TripleLike)}, but uses {@link #asValue(RDFTerm)}.
+     *
+     * @param tripleLike the commons-rdf {@link Triple} or {@link Quad}
+     * @return the equivalent RDF4J {@link Statement}
+     */
+    public static @Nonnull Statement asStatement(@Nonnull TripleLike tripleLike) {
+        if (tripleLike instanceof RDF4JTripleLike)
+            return ((RDF4JTripleLike) tripleLike).asStatement();
+        Resource s = (Resource) asValue(tripleLike.getSubject());
+        org.eclipse.rdf4j.model.IRI p;
+        p = (org.eclipse.rdf4j.model.IRI) asValue(tripleLike.getPredicate());
+        Value o = asValue(tripleLike.getObject());
+        Resource c = null;
+        if (tripleLike instanceof Quad)
+            c = (Resource) asValue(((Quad) tripleLike).getGraphName().orElse(null));
+        return R.getValueFactory().createStatement(s, p, o, c);
+    }
+
     /**
      * Convert from RDF4J Statement to commons-rdf Triple
      */
@@ -94,7 +149,7 @@ public class CommonsRDF4JConverters {
     public static class TripleLike2Statement extends DetachedBaseConverter {
         public static final TripleLike2Statement INSTANCE = new TripleLike2Statement();
         @Override public @Nonnull Statement convert(@Nonnull Object input) {
-            return R.asStatement((TripleLike) input);
+            return asStatement((TripleLike) input);
         }
     }
 
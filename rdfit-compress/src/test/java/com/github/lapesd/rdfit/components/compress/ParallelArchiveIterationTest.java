@@ -0,0 +1,144 @@
+/*
+ *    Copyright 2021 Alexis Armin Huf
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.github.lapesd.rdfit.components.compress;
+
+import com.github.lapesd.rdfit.RIt;
+import com.github.lapesd.rdfit.iterator.ParallelFlatMapRDFIt;
+import com.github.lapesd.rdfit.iterator.RDFIt;
+import org.apache.commons.compress.archivers.ArchiveEntry;
+import org.apache.commons.compress.archivers.ArchiveOutputStream;
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.apache.commons.compress.compressors.gzip.GzipCompressorOutputStream;
+import org.apache.jena.graph.Triple;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import javax.annotation.Nonnull;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.testng.Assert.*;
+
+/**
+ * Parallel iteration must parse all entries of an archive, since entries share the
+ * archive stream.
+ */
+public class ParallelArchiveIterationTest {
+    private static final int FILES = 6;
+    private static final int TRIPLES_PER_FILE = 10000;
+    private final @Nonnull List<File> tempFiles = new ArrayList<>();
+    private File tarGz, zip;
+
+    @BeforeClass
+    public void beforeClass() throws IOException {
+        tarGz = createTemp(".tar.gz");
+        try (TarArchiveOutputStream out = new TarArchiveOutputStream(
+                new GzipCompressorOutputStream(new FileOutputStream(tarGz)))) {
+            writeEntries(out, true);
+        }
+        zip = createTemp(".zip");
+        try (ZipArchiveOutputStream out = new ZipArchiveOutputStream(zip)) {
+            writeEntries(out, false);
+        }
+    }
+
+    @AfterClass
+    public void afterClass() {
+        for (File f : tempFiles)
+            assertTrue(!f.exists() || f.delete());
+        tempFiles.clear();
+    }
+
+    private @Nonnull File createTemp(@Nonnull String suffix) throws IOException {
+        File file = Files.createTempFile("rdfit", suffix).toFile();
+        file.deleteOnExit();
+        tempFiles.add(file);
+        return file;
+    }
+
+    private static void writeEntries(@Nonnull ArchiveOutputStream out,
+                                     boolean tar) throws IOException {
+        for (int i = 0; i < FILES; i++) {
+            StringBuilder b = new StringBuilder();
+            for (int j = 0; j < TRIPLES_PER_FILE; j++) {
+                b.append("<http://example.org/file").append(i).append("/s").append(j)
+                 .append("> <http://example.org/p> \"").append(j).append("\" .\n");
+            }
+            byte[] bytes = b.toString().getBytes(UTF_8);
+            String name = "file_" + i + ".nt";
+            ArchiveEntry entry;
+            if (tar) {
+                TarArchiveEntry tarEntry = new TarArchiveEntry(name);
+                tarEntry.setSize(bytes.length);
+                entry = tarEntry;
+            } else {
+                entry = new ZipArchiveEntry(name);
+            }
+            out.putArchiveEntry(entry);
+            ((OutputStream) out).write(bytes);
+            out.closeArchiveEntry();
+        }
+        out.finish();
+    }
+
+    private static @Nonnull Set<String> toSet(@Nonnull RDFIt<Triple> it) {
+        Set<String> set = new HashSet<>();
+        try {
+            while (it.hasNext())
+                set.add(it.next().toString());
+        } finally {
+            it.close();
+        }
+        return set;
+    }
+
+    @DataProvider public @Nonnull Object[][] testData() {
+        List<Object[]> rows = new ArrayList<>();
+        for (String archive : new String[]{"tar.gz", "zip"}) {
+            for (ParallelFlatMapRDFIt.Merge merge : ParallelFlatMapRDFIt.Merge.values())
+                rows.add(new Object[]{archive, merge});
+        }
+        return rows.toArray(new Object[0][]);
+    }
+
+    @Test(dataProvider = "testData")
+    public void testParallelMatchesSequential(@Nonnull String archive,
+                                              @Nonnull ParallelFlatMapRDFIt.Merge merge) {
+        File file = archive.equals("zip") ? zip : tarGz;
+        Set<String> expected = toSet(RIt.iterateTriples(Triple.class, file));
+        assertEquals(expected.size(), FILES * TRIPLES_PER_FILE);
+        Set<String> actual = toSet(RIt.iterateTriplesParallel(4, merge, Triple.class, file));
+        assertEquals(actual.size(), expected.size());
+        assertEquals(actual, expected);
+        Set<String> twice = toSet(RIt.iterateTriplesParallel(4, merge, Triple.class,
+                                                             file, zip));
+        assertTrue(twice.containsAll(expected));
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ *    Copyright 2021 Alexis Armin Huf
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.github.lapesd.rdfit;
+
+import com.github.lapesd.rdfit.components.ListenerParser;
+import com.github.lapesd.rdfit.iterator.RDFIt;
+
+import javax.annotation.Nonnull;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Runs the background tasks an {@link RDFItFactory} needs, notably the parsing of sources
+ * with a {@link ListenerParser} whose output is consumed through an {@link RDFIt}.
+ *
+ * Each task occupies its thread for as long as the {@link RDFIt} fed by it is open and
+ * unexhausted (parsing blocks when the consumer falls behind). Implementations that bound
+ * the number of threads therefore also bound the number of such iterators being consumed
+ * concurrently.
+ */
+public interface ParserExecutor extends AutoCloseable {
+    /**
+     * Schedule the task for execution.
+     *
+     * @param task the task to run
+     * @throws RejectedExecutionException if the task cannot be accepted. Callers are
+     *         expected to report the failure to whoever is waiting on the task output.
+     */
+    void execute(@Nonnull Runnable task) throws RejectedExecutionException;
+
+    /**
+     * @return number of tasks currently running
+     */
+    int getActiveTasks();
+
+    /**
+     * @return number of tasks accepted by {@link #execute(Runnable)} that have not yet started
+     */
+    int getQueuedTasks();
+
+    /**
+     * @return number of tasks that completed (normally or not) since creation
+     */
+    long getCompletedTasks();
+
+    /**
+     * @return number of times {@link #execute(Runnable)} threw a
+     *         {@link RejectedExecutionException} since creation
+     */
+    long getRejectedTasks();
+
+    /**
+     * Stop accepting new tasks and release resources. Tasks already running are not
+     * interrupted. Shared executors are not shut down.
+     */
+    @Override void close();
+}
@@ -23,11 +23,19 @@ import com.github.lapesd.rdfit.components.converters.quad.QuadLifter;
 import com.github.lapesd.rdfit.components.normalizers.SourceNormalizerRegistry;
 import com.github.lapesd.rdfit.components.parsers.ParserRegistry;
 import com.github.lapesd.rdfit.errors.InconvertibleException;
+import com.github.lapesd.rdfit.errors.RDFItException;
+import com.github.lapesd.rdfit.impl.DefaultParserExecutor;
+import com.github.lapesd.rdfit.iterator.ParallelFlatMapRDFIt;
 import com.github.lapesd.rdfit.iterator.RDFIt;
 import com.github.lapesd.rdfit.listener.RDFListener;
 
 import javax.annotation.Nonnull;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 /**
  * A factory for {@link RDFIt} instances and a frontend for parsing with {@link RDFListener}s.
@@ -51,6 +59,34 @@ public interface RDFItFactory extends AutoCloseable {
      */
     @Nonnull SourceNormalizerRegistry getNormalizerRegistry();
 
+    /**
+     * Get the executor that runs background parsing tasks (e.g., when a callback-based
+     * parser must feed an {@link RDFIt}).
+     *
+     * The default implementation returns {@link DefaultParserExecutor#shared()}.
+     *
+     * @return the non-null {@link ParserExecutor} of this factory
+     */
+    default @Nonnull ParserExecutor getParserExecutor() {
+        return DefaultParserExecutor.shared();
+    }
+
+    /**
+     * Replace the {@link ParserExecutor} used for subsequent background tasks. The factory
+     * takes ownership of the given executor and will {@link ParserExecutor#close()} it on
+     * {@link #close()}. The previous executor is closed (running tasks are not interrupted).
+     *
+     * The default implementation does not support replacing the executor.
+     *
+     * @param parserExecutor the new {@link ParserExecutor}
+     * @throws UnsupportedOperationException if this factory does not allow replacing its
+     *                                       executor
+     */
+    default void setParserExecutor(@Nonnull ParserExecutor parserExecutor) {
+        throw new UnsupportedOperationException(getClass().getName() +
+                                                " does not support setParserExecutor()");
+    }
+
     /**
      * Sequentially iterate all triples in each of the sources. If any quad is met, the
      * graph information is discarded and the quad is delivered as a triple
@@ -98,6 +134,120 @@ public interface RDFItFactory extends AutoCloseable {
      */
     @Nonnull <T> RDFIt<T> iterateQuads(@Nonnull Class<T> quadClass, @Nonnull Object... sources);
 
+    /**
+     * Parallel version of {@link #iterateTriples(Class, Object...)}: up to parallelism sources
+     * are normalized, parsed and converted concurrently.
+     *
+     * The default implementation ignores parallelism and merge and is simply
+     * {@link #iterateTriples(Class, Object...)}, whose sequential order satisfies both
+     * {@link ParallelFlatMapRDFIt.Merge} modes.
+     *
+     * @param <T> triple type
+     * @param parallelism maximum number of sources being parsed at the same time.
+     *                    If 1, this is equivalent to {@link #iterateTriples(Class, Object...)}
+     * @param merge whether triples from each source should be delivered contiguously and
+     *              following the order of sources ({@link ParallelFlatMapRDFIt.Merge#ORDERED})
+     *              or as soon as available ({@link ParallelFlatMapRDFIt.Merge#UNORDERED}).
+     * @param tripleClass the desired class for triple instances.
+     * @param sources the sources to iterate
+     * @return A closeable iterator over triples. Closing it stops all background parsing.
+     */
+    default @Nonnull <T> RDFIt<T> iterateTriplesParallel(int parallelism,
+                                                         @Nonnull ParallelFlatMapRDFIt.Merge merge,
+                                                         @Nonnull Class<T> tripleClass,
+                                                         @Nonnull Object... sources) {
+        return iterateTriples(tripleClass, sources);
+    }
+
+    /**
+     * Parallel version of {@link #iterateQuads(Class, QuadLifter, Object...)}. The default
+     * implementation is simply {@link #iterateQuads(Class, QuadLifter, Object...)}.
+     *
+     * @param <Q> quad type
+     * @param parallelism maximum number of sources being parsed at the same time
+     * @param merge how to merge quads from distinct sources
+     * @param quadClass The desired class of quad instances.
+     * @param quadLifter converts triples into quads
+     * @param sources the sources to iterate
+     * @return A closeable iterator over quads. Closing it stops all background parsing.
+     * @see #iterateTriplesParallel(int, ParallelFlatMapRDFIt.Merge, Class, Object...)
+     */
+    default @Nonnull <Q> RDFIt<Q> iterateQuadsParallel(int parallelism,
+                                                       @Nonnull ParallelFlatMapRDFIt.Merge merge,
+                                                       @Nonnull Class<Q> quadClass,
+                                                       @Nonnull QuadLifter quadLifter,
+                                                       @Nonnull Object... sources) {
+        return iterateQuads(quadClass, quadLifter, sources);
+    }
+
+    /**
+     * Parallel version of {@link #iterateQuads(Class, Object...)}. The default implementation
+     * is simply {@link #iterateQuads(Class, Object...)}.
+     *
+     * @param <Q> quad type
+     * @param parallelism maximum number of sources being parsed at the same time
+     * @param merge how to merge quads from distinct sources
+     * @param quadClass The desired class of quad instances.
+     * @param sources the sources to iterate
+     * @return A closeable iterator over quads. Closing it stops all background parsing.
+     * @see #iterateTriplesParallel(int, ParallelFlatMapRDFIt.Merge, Class, Object...)
+     */
+    default @Nonnull <Q> RDFIt<Q> iterateQuadsParallel(int parallelism,
+                                                       @Nonnull ParallelFlatMapRDFIt.Merge merge,
+                                                       @Nonnull Class<Q> quadClass,
+                                                       @Nonnull Object... sources) {
+        return iterateQuads(quadClass, sources);
+    }
+
+    /**
+     * Get a {@link Stream} over the triples of all sources, as in
+     * {@link #iterateTriples(Class, Object...)}.
+     *
+     * If the stream is made {@link Stream#parallel()}, implementations should split the
+     * work by source, so that sources are parsed concurrently. The default implementation
+     * is simply {@link #iterateTriples(Class, Object...)}<code>.stream()</code>, whose
+     * parsing is always sequential.
+     *
+     * @param <T> triple type
+     * @param tripleClass the desired class for triple instances.
+     * @param sources the sources to iterate
+     * @return a {@link Stream} that should be closed to release parsing resources
+     */
+    default @Nonnull <T> Stream<T> streamTriples(@Nonnull Class<T> tripleClass,
+                                                 @Nonnull Object... sources) {
+        return iterateTriples(tripleClass, sources).stream();
+    }
+
+    /**
+     * {@link Stream} version of {@link #iterateQuads(Class, QuadLifter, Object...)}.
+     *
+     * @param <Q> quad type
+     * @param quadClass The desired class of quad instances.
+     * @param quadLifter converts triples into quads
+     * @param sources the sources to iterate
+     * @return a {@link Stream} that should be closed to release parsing resources
+     * @see #streamTriples(Class, Object...)
+     */
+    default @Nonnull <Q> Stream<Q> streamQuads(@Nonnull Class<Q> quadClass,
+                                               @Nonnull QuadLifter quadLifter,
+                                               @Nonnull Object... sources) {
+        return iterateQuads(quadClass, quadLifter, sources).stream();
+    }
+
+    /**
+     * {@link Stream} version of {@link #iterateQuads(Class, Object...)}.
+     *
+     * @param <Q> quad type
+     * @param quadClass The desired class of quad instances.
+     * @param sources the sources to iterate
+     * @return a {@link Stream} that should be closed to release parsing resources
+     * @see #streamTriples(Class, Object...)
+     */
+    default @Nonnull <Q> Stream<Q> streamQuads(@Nonnull Class<Q> quadClass,
+                                               @Nonnull Object... sources) {
+        return iterateQuads(quadClass, sources).stream();
+    }
+
     /**
      * Parse all given sources calling the listener for every triple/quad.
      *
@@ -115,5 +265,44 @@ public interface RDFItFactory extends AutoCloseable {
      */
     void parse(@Nonnull RDFListener<?,?> listener, @Nonnull Object... sources);
 
+    /**
+     * Parse all sources with up to parallelism workers, each delivering to its own listener.
+     *
+     * Each worker repeatedly takes a source from a shared queue, and delivers its
+     * triples/quads to the worker listener (converting as in
+     * {@link #parse(RDFListener, Object...)}). Sources added to the queue by a listener
+     * are also distributed among the workers. Since a listener is only called from
+     * a single thread, listener implementations need not be thread-safe. Once there are no
+     * more sources, each listener gets its {@link RDFListener#finish()} called and then
+     * the combiner is called from the calling thread with all listeners.
+     *
+     * If any listener throws {@link com.github.lapesd.rdfit.errors.InterruptParsingException}
+     * or returns false from {@link RDFListener#notifySourceError(RDFItException)}, all
+     * workers stop after their current source.
+     *
+     * The default implementation ignores parallelism: it creates a single listener, parses
+     * all sources into it with {@link #parse(RDFListener, Object...)} (thus exceptions from
+     * the listener are not wrapped) and gives the combiner a singleton list.
+     *
+     * @param <L> the listener type
+     * @param parallelism number of workers (and of listeners)
+     * @param listenerFactory creates a new listener for each worker
+     * @param combiner receives all listeners after all of them had {@link RDFListener#finish()}
+     *                 called. Not called if an exception is thrown.
+     * @param sources the sources to parse
+     * @throws RDFItException if a listener throws from {@link RDFListener#finish()} or
+     *                        from {@link RDFListener#notifySourceError(RDFItException)}
+     * @throws IllegalArgumentException if parallelism &lt; 1
+     */
+    default <L extends RDFListener<?, ?>> void
+    parseParallel(int parallelism, @Nonnull Supplier<? extends L> listenerFactory,
+                  @Nonnull Consumer<? super List<L>> combiner, @Nonnull Object... sources) {
+        if (parallelism < 1)
+            throw new IllegalArgumentException("parallelism="+parallelism+" < 1");
+        L listener = listenerFactory.get();
+        parse(listener, sources);
+        combiner.accept(Collections.singletonList(listener));
+    }
+
     @Override void close();
 }
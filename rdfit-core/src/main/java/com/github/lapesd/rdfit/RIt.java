@@ -23,9 +23,11 @@ import com.github.lapesd.rdfit.components.normalizers.CoreSourceNormalizers;
 import com.github.lapesd.rdfit.components.normalizers.DefaultSourceNormalizerRegistry;
 import com.github.lapesd.rdfit.components.parsers.DefaultParserRegistry;
 import com.github.lapesd.rdfit.impl.DefaultRDFItFactory;
+import com.github.lapesd.rdfit.iterator.ParallelFlatMapRDFIt;
 import com.github.lapesd.rdfit.iterator.RDFIt;
 import com.github.lapesd.rdfit.listener.RDFListener;
 import com.github.lapesd.rdfit.listener.TripleListenerBase;
+import com.github.lapesd.rdfit.source.PatternSource;
 import com.github.lapesd.rdfit.source.RDFInputStream;
 import com.github.lapesd.rdfit.source.RDFInputStreamSupplier;
 import com.github.lapesd.rdfit.source.fixer.TurtleFamilyFixerDecorator;
@@ -40,10 +42,12 @@ import java.io.InputStream;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.util.List;
 import java.util.ServiceLoader;
 import java.util.concurrent.Callable;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 import static com.github.lapesd.rdfit.source.fixer.TolerantDecorator.TOLERANT;
 
@@ -142,6 +146,101 @@ public class RIt {
         }
     }
 
+    /**
+     * Shortcut for {@link DefaultRDFItFactory#iterateTriplesParallel(int, ParallelFlatMapRDFIt.Merge, Class, Object...)}.
+     *
+     * @param <T>  the desired triple type
+     * @param parallelism maximum number of sources parsed concurrently
+     * @param merge whether to keep triples of each source together and in source order
+     * @param tripleClass The {@link Class} object for T
+     * @param sources the sources to iterate over
+     * @return An {@link RDFIt} over triples from all sources
+     */
+    public static @Nonnull <T> RDFIt<T>
+    iterateTriplesParallel(int parallelism, @Nonnull ParallelFlatMapRDFIt.Merge merge,
+                           @Nonnull Class<T> tripleClass, @Nonnull Object... sources) {
+        return DefaultRDFItFactory.get().iterateTriplesParallel(parallelism, merge,
+                                                                tripleClass, sources);
+    }
+
+    /**
+     * Shortcut for {@link DefaultRDFItFactory#iterateQuadsParallel(int, ParallelFlatMapRDFIt.Merge, Class, QuadLifter, Object...)}.
+     *
+     * @param <Q> quad type
+     * @param parallelism maximum number of sources parsed concurrently
+     * @param merge whether to keep quads of each source together and in source order
+     * @param quadClass Class object for Q
+     * @param quadLifter Function that converts triples into quads
+     * @param sources list of sources to iterate over
+     * @return An iterator over quads parsed from sources
+     */
+    public static @Nonnull <Q> RDFIt<Q>
+    iterateQuadsParallel(int parallelism, @Nonnull ParallelFlatMapRDFIt.Merge merge,
+                         @Nonnull Class<Q> quadClass, @Nonnull QuadLifter quadLifter,
+                         @Nonnull Object... sources) {
+        return DefaultRDFItFactory.get().iterateQuadsParallel(parallelism, merge, quadClass,
+                                                              quadLifter, sources);
+    }
+
+    /**
+     * Shortcut for {@link DefaultRDFItFactory#iterateQuadsParallel(int, ParallelFlatMapRDFIt.Merge, Class, Object...)}.
+     *
+     * @param <Q> quad type
+     * @param parallelism maximum number of sources parsed concurrently
+     * @param merge whether to keep quads of each source together and in source order
+     * @param quadClass Class object for Q
+     * @param sources list of sources to iterate over
+     * @return An iterator over quads parsed from sources
+     */
+    public static @Nonnull <Q> RDFIt<Q>
+    iterateQuadsParallel(int parallelism, @Nonnull ParallelFlatMapRDFIt.Merge merge,
+                         @Nonnull Class<Q> quadClass, @Nonnull Object... sources) {
+        return DefaultRDFItFactory.get().iterateQuadsParallel(parallelism, merge, quadClass,
+                                                              sources);
+    }
+
+    /**
+     * Shortcut for {@link DefaultRDFItFactory#streamTriples(Class, Object...)}.
+     *
+     * @param <T>  the desired triple type
+     * @param tripleClass The {@link Class} object for T
+     * @param sources the sources to iterate over
+     * @return A {@link Stream} over triples from all sources, which parses sources
+     *         concurrently if made parallel
+     */
+    public static @Nonnull <T> Stream<T> streamTriples(@Nonnull Class<T> tripleClass,
+                                                       @Nonnull Object... sources) {
+        return DefaultRDFItFactory.get().streamTriples(tripleClass, sources);
+    }
+
+    /**
+     * Shortcut for {@link DefaultRDFItFactory#streamQuads(Class, QuadLifter, Object...)}.
+     *
+     * @param <Q> quad type
+     * @param quadClass Class object for Q
+     * @param quadLifter Function that converts triples into quads
+     * @param sources list of sources to iterate over
+     * @return A {@link Stream} over quads from all sources
+     */
+    public static @Nonnull <Q> Stream<Q> streamQuads(@Nonnull Class<Q> quadClass,
+                                                     @Nonnull QuadLifter quadLifter,
+                                                     @Nonnull Object... sources) {
+        return DefaultRDFItFactory.get().streamQuads(quadClass, quadLifter, sources);
+    }
+
+    /**
+     * Shortcut for {@link DefaultRDFItFactory#streamQuads(Class, Object...)}.
+     *
+     * @param <Q> quad type
+     * @param quadClass Class object for Q
+     * @param sources list of sources to iterate over
+     * @return A {@link Stream} over quads from all sources
+     */
+    public static @Nonnull <Q> Stream<Q> streamQuads(@Nonnull Class<Q> quadClass,
+                                                     @Nonnull Object... sources) {
+        return DefaultRDFItFactory.get().streamQuads(quadClass, sources);
+    }
+
     /**
      * Shortcut for {@link DefaultRDFItFactory#parse(RDFListener, Object...)}
      *
@@ -152,6 +251,21 @@ public class RIt {
         DefaultRDFItFactory.get().parse(listener, sources);
     }
 
+    /**
+     * Shortcut for {@link DefaultRDFItFactory#parseParallel(int, Supplier, Consumer, Object...)}
+     *
+     * @param <L> the listener type
+     * @param parallelism number of workers, each with its own listener
+     * @param listenerFactory creates a listener for each worker
+     * @param combiner receives all listeners once parsing is complete
+     * @param sources sources to parse
+     */
+    public static <L extends RDFListener<?, ?>> void
+    parseParallel(int parallelism, @Nonnull Supplier<? extends L> listenerFactory,
+                  @Nonnull Consumer<? super List<L>> combiner, @Nonnull Object... sources) {
+        DefaultRDFItFactory.get().parseParallel(parallelism, listenerFactory, combiner, sources);
+    }
+
     /**
      * Shortcut for {@link #parse(RDFListener, Object...)} with a {@link TripleListenerBase}
      * subclass that calls consumer
@@ -208,6 +322,44 @@ public class RIt {
         return DefaultRDFItFactory.get().getNormalizerRegistry().normalize(source, TOLERANT);
     }
 
+    /**
+     * Restrict the triples/quads of a source to those matching the given pattern.
+     *
+     * Parsers of indexed sources (e.g., HDT, Jena <code>Graph</code>s or
+     * RDF4J repositories) evaluate the pattern with native lookups. Other sources are
+     * fully parsed and the results are filtered. See {@link PatternSource} for the
+     * accepted terms.
+     *
+     * @param source the source (anything accepted by {@link #iterateTriples(Class, Object...)})
+     * @param subject the subject or null to match any subject
+     * @param predicate the predicate or null to match any predicate
+     * @param object the object or null to match any object
+     * @param graph the graph name or null to match any graph. Only quads match a non-null
+     *              graph name.
+     * @return a {@link PatternSource} to be given as source to any iteration or parse method.
+     */
+    public static @Nonnull PatternSource pattern(@Nonnull Object source, @Nullable Object subject,
+                                                 @Nullable Object predicate,
+                                                 @Nullable Object object,
+                                                 @Nullable Object graph) {
+        return new PatternSource(source, subject, predicate, object, graph);
+    }
+
+    /**
+     * Same as {@link #pattern(Object, Object, Object, Object, Object)} with a null graph.
+     *
+     * @param source the source
+     * @param subject the subject or null to match any subject
+     * @param predicate the predicate or null to match any predicate
+     * @param object the object or null to match any object
+     * @return a {@link PatternSource} to be given as source to any iteration or parse method.
+     */
+    public static @Nonnull PatternSource pattern(@Nonnull Object source, @Nullable Object subject,
+                                                 @Nullable Object predicate,
+                                                 @Nullable Object object) {
+        return new PatternSource(source, subject, predicate, object);
+    }
+
     /**
      * Create a {@link RDFItFactory} with all components that are registered by default in
      * {@link DefaultRDFItFactory}.
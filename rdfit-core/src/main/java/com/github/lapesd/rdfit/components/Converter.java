@@ -57,6 +57,24 @@ public interface Converter extends Component {
      */
     @Nonnull Object convert(@Nonnull Object input) throws ConversionException;
 
+    /**
+     * Convert the first n elements of in, storing the results at the same positions of out.
+     *
+     * The default implementation calls {@link #convert(Object)} for each element.
+     * Implementations may override this to amortize per-call work over the whole batch.
+     *
+     * @param in input objects. Only the first n are converted
+     * @param n number of objects to convert
+     * @param out where converted objects are stored. May be the same array as in
+     * @throws ConversionException if any element cannot be converted. The contents of out
+     *                             (and of in, if in == out) are then unspecified
+     */
+    default void convertBatch(@Nonnull Object[] in, int n,
+                              @Nonnull Object[] out) throws ConversionException {
+        for (int i = 0; i < n; i++)
+            out[i] = convert(in[i]);
+    }
+
     /**
      * Returns whether the converter will likely be able to handle this instance
      * (i.e., {@link #convert(Object)} will return non-null).
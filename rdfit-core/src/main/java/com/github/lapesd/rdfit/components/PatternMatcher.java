@@ -0,0 +1,63 @@
+/*
+ *    Copyright 2021 Alexis Armin Huf
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.github.lapesd.rdfit.components;
+
+import com.github.lapesd.rdfit.listener.RDFListener;
+import com.github.lapesd.rdfit.source.PatternSource;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Collection;
+import java.util.function.Predicate;
+
+/**
+ * Tests triples or quads of some representation against the pattern of a
+ * {@link PatternSource}.
+ *
+ * Used to filter sources whose parsers cannot evaluate a {@link PatternSource} natively.
+ */
+public interface PatternMatcher {
+    /**
+     * Triple or quad classes whose instances can be tested by predicates created by
+     * {@link #createPredicate(PatternSource)}.
+     *
+     * @return collection of triple or quad classes
+     */
+    @Nonnull Collection<Class<?>> acceptedClasses();
+
+    /**
+     * Create a predicate that accepts only the triples or quads matching the pattern.
+     *
+     * @param pattern the pattern. Its source is ignored
+     * @return a predicate over instances of {@link #acceptedClasses()} or null if some term
+     *         of the pattern is not understood by this matcher (e.g., a term from another
+     *         RDF library).
+     */
+    @Nullable Predicate<Object> createPredicate(@Nonnull PatternSource pattern);
+
+    /**
+     * Create a predicate over the graph names given to
+     * {@link RDFListener#quad(String, Object)} that accepts only the graph of the pattern.
+     *
+     * @param pattern the pattern. Its source is ignored
+     * @return a predicate or null if the graph of the pattern is not understood by this
+     *         matcher. The default implementation always returns null.
+     */
+    default @Nullable Predicate<String> createGraphPredicate(@Nonnull PatternSource pattern) {
+        return null;
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ *    Copyright 2021 Alexis Armin Huf
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.github.lapesd.rdfit.components;
+
+import com.github.lapesd.rdfit.components.normalizers.SourceNormalizerRegistry;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Split a normalized RDF source into parts that can be parsed independently and
+ * concurrently, for parallel iteration, streams and parsing.
+ */
+public interface SourceSplitter {
+    /**
+     * A collection of classes that the {@link #split(Object, long)} method will act upon.
+     *
+     * @return collection of classes {@link #split(Object, long)} may split.
+     */
+    @Nonnull Collection<Class<?>> acceptedClasses();
+
+    /**
+     * Split the source into parts.
+     *
+     * Parsing all parts (in order) must yield the same triples/quads as parsing the source.
+     * If the source is split, it will not be parsed and the splitter is responsible for
+     * releasing any resources held by it (e.g., closing an
+     * {@link com.github.lapesd.rdfit.source.RDFInputStream}).
+     *
+     * @param source the normalized source, as in
+     *               {@link SourceNormalizerRegistry#normalize(Object)}
+     * @param chunkBytes a positive hint of the desired size (in bytes of the source) of
+     *                   each part. Splitters for sources without a meaningful byte size
+     *                   may ignore it.
+     * @return null if the source should be parsed as a whole, else a list with at
+     *         least 2 parts.
+     */
+    @Nullable List<?> split(@Nonnull Object source, long chunkBytes);
+}
@@ -22,6 +22,7 @@ import com.github.lapesd.rdfit.errors.ConversionPathException;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
@@ -32,6 +33,7 @@ import java.util.Objects;
 public class ConversionPath {
 
     private final @Nonnull List<Converter> path;
+    private volatile @Nullable FusedConverter compiled;
     public static final @Nonnull ConversionPath EMPTY
             = new ConversionPath(Collections.emptyList());
 
@@ -64,6 +66,69 @@ public class ConversionPath {
         return object;
     }
 
+    /**
+     * Apply the {@link Converter}s in this path to the first n elements of in, one
+     * {@link Converter#convertBatch(Object[], int, Object[])} call per converter.
+     *
+     * @param in objects to be converted
+     * @param n number of objects to convert
+     * @param out where converted objects are stored. May be the same array as in.
+     * @throws ConversionException if thrown by a Converter. The contents of out
+     *                             (and of in, if in == out) are then unspecified
+     */
+    public void convertBatch(@Nonnull Object[] in, int n,
+                             @Nonnull Object[] out) throws ConversionException {
+        if (path.isEmpty()) {
+            if (in != out)
+                System.arraycopy(in, 0, out, 0, n);
+            return;
+        }
+        Object[] src = in;
+        try {
+            for (Converter converter : path) {
+                try {
+                    converter.convertBatch(src, n, out);
+                } catch (ClassCastException e) {
+                    throw new ConversionException(e, Arrays.asList(src).subList(0, n), converter,
+                                                  converter.outputClass(), e.getMessage());
+                }
+                src = out; // further steps convert in-place
+            }
+        } catch (ConversionException e) {
+            throw new ConversionPathException(this, e);
+        }
+    }
+
+    /**
+     * Get a {@link Converter} that applies this whole path in a single
+     * {@link Converter#convert(Object)} call. Callers that convert many objects with the
+     * same path should keep the returned {@link Converter} instead of this path.
+     *
+     * The {@link FusedConverter} is created once and shared by all callers.
+     *
+     * @return a {@link FusedConverter} for this path.
+     */
+    public @Nonnull FusedConverter compile() {
+        FusedConverter fused = compiled;
+        if (fused == null)
+            compiled = fused = FusedConverter.create(this); // races create equivalent instances
+        return fused;
+    }
+
+    /**
+     * @return the (unmodifiable) list of {@link Converter}s applied by this path, in order.
+     */
+    public @Nonnull List<Converter> getConverters() {
+        return Collections.unmodifiableList(path);
+    }
+
+    /**
+     * @return number of {@link Converter}s in this path.
+     */
+    public int size() {
+        return path.size();
+    }
+
     public boolean canConvert(@Nullable Object object) {
         return object == null || path.isEmpty() || path.get(0).canConvert(object);
     }
@@ -0,0 +1,221 @@
+/*
+ *    Copyright 2021 Alexis Armin Huf
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.github.lapesd.rdfit.components.converters;
+
+import com.github.lapesd.rdfit.components.Converter;
+import com.github.lapesd.rdfit.errors.ConversionException;
+import com.github.lapesd.rdfit.errors.ConversionPathException;
+import com.github.lapesd.rdfit.util.Utils;
+
+import javax.annotation.Nonnull;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import static java.lang.String.format;
+
+/**
+ * A {@link Converter} that applies all steps of a {@link ConversionPath} in a single
+ * {@link #convert(Object)} call.
+ *
+ * Paths with up to three steps get a dedicated subclass that holds each step in a final
+ * field, so that callers that cache the fused converter have a single call site whose
+ * target does not change and the steps are invoked directly, without iterating over a list.
+ * Like {@link ConversionPath#convert(Object)}, only the first step is subject to
+ * {@link #canConvert(Object)} and failures are reported as {@link ConversionPathException}s.
+ *
+ * Instances are obtained through {@link ConversionPath#compile()}.
+ */
+public abstract class FusedConverter implements Converter {
+    protected final @Nonnull ConversionPath path;
+
+    protected FusedConverter(@Nonnull ConversionPath path) {
+        this.path = path;
+    }
+
+    static @Nonnull FusedConverter create(@Nonnull ConversionPath path) {
+        List<Converter> list = path.getConverters();
+        switch (list.size()) {
+            case 0: return new Identity(path);
+            case 1: return new Fused1(path, list.get(0));
+            case 2: return new Fused2(path, list.get(0), list.get(1));
+            case 3: return new Fused3(path, list.get(0), list.get(1), list.get(2));
+            default: return new FusedN(path, list.toArray(new Converter[0]));
+        }
+    }
+
+    /**
+     * @return the {@link ConversionPath} fused by this {@link Converter}
+     */
+    public @Nonnull ConversionPath getConversionPath() {
+        return path;
+    }
+
+    /**
+     * Does nothing: the fused {@link Converter}s are already attached.
+     *
+     * @param conversionManager ignored
+     */
+    @Override public void attachTo(@Nonnull ConversionManager conversionManager) { }
+
+    @Override
+    public void convertBatch(@Nonnull Object[] in, int n,
+                             @Nonnull Object[] out) throws ConversionException {
+        path.convertBatch(in, n, out);
+    }
+
+    @Override public boolean canConvert(@Nonnull Object input) {
+        return path.canConvert(input);
+    }
+
+    protected @Nonnull ConversionPathException
+    wrap(@Nonnull Converter step, @Nonnull Object input, @Nonnull Exception e) {
+        ConversionException ce = e instanceof ConversionException ? (ConversionException)e
+                : new ConversionException(e, input, step, step.outputClass(), e.getMessage());
+        return new ConversionPathException(path, ce);
+    }
+
+    @Override public @Nonnull String toString() {
+        return format("%s{%s}", Utils.toString(this), path);
+    }
+
+    private static final class Identity extends FusedConverter {
+        private Identity(@Nonnull ConversionPath path) {
+            super(path);
+        }
+
+        @Override public @Nonnull Collection<Class<?>> acceptedClasses() {
+            return Collections.singletonList(Object.class);
+        }
+
+        @Override public @Nonnull Class<?> outputClass() {
+            return Object.class;
+        }
+
+        @Override public @Nonnull Object convert(@Nonnull Object input) {
+            return input;
+        }
+    }
+
+    private static abstract class NonEmpty extends FusedConverter {
+        protected final @Nonnull Converter first, last;
+
+        private NonEmpty(@Nonnull ConversionPath path, @Nonnull Converter first,
+                         @Nonnull Converter last) {
+            super(path);
+            this.first = first;
+            this.last = last;
+        }
+
+        @Override public @Nonnull Collection<Class<?>> acceptedClasses() {
+            return first.acceptedClasses();
+        }
+
+        @Override public @Nonnull Class<?> outputClass() {
+            return last.outputClass();
+        }
+
+        @Override public boolean canConvert(@Nonnull Object input) {
+            return first.canConvert(input);
+        }
+    }
+
+    private static final class Fused1 extends NonEmpty {
+        private Fused1(@Nonnull ConversionPath path, @Nonnull Converter c0) {
+            super(path, c0, c0);
+        }
+
+        @Override public @Nonnull Object convert(@Nonnull Object input) throws ConversionException {
+            try {
+                return first.convert(input);
+            } catch (ConversionException|ClassCastException e) {
+                throw wrap(first, input, e);
+            }
+        }
+    }
+
+    private static final class Fused2 extends NonEmpty {
+        private Fused2(@Nonnull ConversionPath path, @Nonnull Converter c0,
+                       @Nonnull Converter c1) {
+            super(path, c0, c1);
+        }
+
+        @Override public @Nonnull Object convert(@Nonnull Object input) throws ConversionException {
+            Object mid;
+            try {
+                mid = first.convert(input);
+            } catch (ConversionException|ClassCastException e) {
+                throw wrap(first, input, e);
+            }
+            try {
+                return last.convert(mid);
+            } catch (ConversionException|ClassCastException e) {
+                throw wrap(last, mid, e);
+            }
+        }
+    }
+
+    private static final class Fused3 extends NonEmpty {
+        private final @Nonnull Converter middle;
+
+        private Fused3(@Nonnull ConversionPath path, @Nonnull Converter c0,
+                       @Nonnull Converter c1, @Nonnull Converter c2) {
+            super(path, c0, c2);
+            this.middle = c1;
+        }
+
+        @Override public @Nonnull Object convert(@Nonnull Object input) throws ConversionException {
+            Object o1, o2;
+            try {
+                o1 = first.convert(input);
+            } catch (ConversionException|ClassCastException e) {
+                throw wrap(first, input, e);
+            }
+            try {
+                o2 = middle.convert(o1);
+            } catch (ConversionException|ClassCastException e) {
+                throw wrap(middle, o1, e);
+            }
+            try {
+                return last.convert(o2);
+            } catch (ConversionException|ClassCastException e) {
+                throw wrap(last, o2, e);
+            }
+        }
+    }
+
+    private static final class FusedN extends NonEmpty {
+        private final @Nonnull Converter[] steps;
+
+        private FusedN(@Nonnull ConversionPath path, @Nonnull Converter[] steps) {
+            super(path, steps[0], steps[steps.length-1]);
+            this.steps = steps;
+        }
+
+        @Override public @Nonnull Object convert(@Nonnull Object input) throws ConversionException {
+            Object object = input;
+            for (Converter step : steps) {
+                try {
+                    object = step.convert(object);
+                } catch (ConversionException|ClassCastException e) {
+                    throw wrap(step, object, e);
+                }
+            }
+            return object;
+        }
+    }
+}
@@ -26,10 +26,17 @@ import com.github.lapesd.rdfit.util.TypeDispatcher;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Predicate;
 
 /**
- * Default implementation for {@link ConversionManager}
+ * Default implementation for {@link ConversionManager}.
+ *
+ * Candidate {@link ConversionPath}s are computed once for each (input class, desired class)
+ * pair and memoized until a {@link Converter} is registered or unregistered. Candidates are
+ * tried shortest-first and, among paths of the same length, those that failed less often
+ * (during {@link ConversionFinder#convert(Object)}) are tried first.
  */
 public class DefaultConversionManager implements ConversionManager {
     public static final DefaultConversionManager INSTANCE = new DefaultConversionManager();
@@ -40,21 +47,107 @@ public class DefaultConversionManager implements ConversionManager {
         }
     };
 
+    /**
+     * desired class -&gt; input class -&gt; candidate paths. The whole table is replaced on
+     * registration changes, thus a table being filled by a concurrent {@link #findPath(Object, Class)}
+     * will not leak stale paths into future lookups.
+     */
+    private volatile @Nonnull ConcurrentHashMap<Class<?>, ConcurrentHashMap<Class<?>, Candidates>>
+            pathTable = new ConcurrentHashMap<>();
+
     public static @Nonnull DefaultConversionManager get() {
         return INSTANCE;
     }
 
     @Override public synchronized void register(@Nonnull Converter converter) {
-        for (Class<?> cls : converter.acceptedClasses())
-            dispatcher.add(cls, converter);
+        dispatcher.addAll(converter.acceptedClasses(), converter);
+        invalidatePaths();
     }
 
     @Override public synchronized void unregister(@Nonnull Converter instance) {
         dispatcher.remove(instance);
+        invalidatePaths();
     }
 
     @Override public synchronized void unregisterIf(@Nonnull Predicate<? super Converter> pred) {
         dispatcher.removeIf(pred);
+        invalidatePaths();
+    }
+
+    private void invalidatePaths() {
+        pathTable = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * A memoized {@link ConversionPath} and how many times it failed to convert an input.
+     */
+    protected static class Candidate {
+        private final @Nonnull ConversionPath path;
+        private final @Nonnull AtomicInteger failures = new AtomicInteger();
+        /* snapshot of failures used while sorting, since failures may change concurrently */
+        private int rankFailures;
+
+        public Candidate(@Nonnull ConversionPath path) {
+            this.path = path;
+        }
+
+        public @Nonnull ConversionPath getPath() {
+            return path;
+        }
+
+        public int getFailures() {
+            return failures.get();
+        }
+
+        @Override public @Nonnull String toString() {
+            return String.format("%s{failures=%d}", path, failures.get());
+        }
+    }
+
+    /**
+     * All candidate {@link ConversionPath}s from an input class into a desired class.
+     */
+    protected static class Candidates {
+        private static final @Nonnull Comparator<Candidate> RANKING
+                = Comparator.comparingInt((Candidate c) -> c.path.size())
+                            .thenComparingInt(c -> c.rankFailures);
+        private final @Nonnull Candidate[] discovered;
+        private volatile @Nonnull Candidate[] ranked;
+        private volatile boolean dirty;
+
+        public Candidates(@Nonnull List<Candidate> discovered) {
+            this.discovered = discovered.toArray(new Candidate[0]);
+            this.ranked = this.discovered;
+        }
+
+        public void failed(@Nonnull Candidate candidate) {
+            candidate.failures.incrementAndGet();
+            dirty = true;
+        }
+
+        /**
+         * @return the candidates, shortest first and with fewer failures first among
+         *         paths of the same length. The returned array must not be modified
+         */
+        public @Nonnull Candidate[] ranked() {
+            if (dirty) {
+                synchronized (this) {
+                    if (dirty) {
+                        dirty = false;
+                        for (Candidate c : discovered)
+                            c.rankFailures = c.failures.get();
+                        Candidate[] copy = discovered.clone();
+                        Arrays.sort(copy, RANKING); // stable: ties keep discovery order
+                        ranked = copy;
+                    }
+                }
+            }
+            return ranked;
+        }
+
+        @Override public @Nonnull String toString() {
+            return Arrays.toString(ranked);
+        }
     }
 
     /**
@@ -91,40 +184,93 @@ public class DefaultConversionManager implements ConversionManager {
             dst.add(new Step(it.next(), current));
     }
 
+    /**
+     * Compute all candidate conversion paths from instances of inputClass to desired.
+     *
+     * A breadth-first search is done from each {@link Converter} registered for inputClass
+     * or any of its super types. Since whether such first converter accepts a given instance
+     * is only known at {@link #findPath(Object, Class)}, searches from distinct first
+     * converters do not share visited converters.
+     *
+     * @param inputClass class of the objects to convert
+     * @param desired the desired output class
+     * @return non-null (but possibly empty) {@link Candidates}
+     */
+    protected @Nonnull Candidates
+    computeCandidates(@Nonnull Class<?> inputClass, @Nonnull Class<?> desired) {
+        List<Candidate> list = new ArrayList<>();
+        HashSet<Converter> visited = new HashSet<>();
+        ArrayDeque<Step> queue = new ArrayDeque<>();
+        for (Converter root : dispatcher.resolve(inputClass)) {
+            visited.clear();
+            queue.add(new Step(root, null));
+            while (!queue.isEmpty()) {
+                Step step = queue.remove();
+                if (!visited.add(step.converter))
+                    continue; // cycle
+                if (desired.isAssignableFrom(step.converter.outputClass()))
+                    list.add(new Candidate(step.toPath()));
+                else
+                    addSteps(queue, step, null);
+            }
+        }
+        // stable sort: same-length paths keep the order a single BFS would yield
+        list.sort(Comparator.comparingInt(c -> c.path.size()));
+        return new Candidates(list);
+    }
+
+    protected @Nonnull Candidates getCandidates(@Nonnull Class<?> inputClass,
+                                                @Nonnull Class<?> desired) {
+        ConcurrentHashMap<Class<?>, Candidates> byInput
+                = pathTable.computeIfAbsent(desired, k -> new ConcurrentHashMap<>());
+        Candidates candidates = byInput.get(inputClass);
+        if (candidates == null) {
+            candidates = computeCandidates(inputClass, desired);
+            Candidates old = byInput.putIfAbsent(inputClass, candidates);
+            if (old != null)
+                candidates = old;
+        }
+        return candidates;
+    }
+
     @Override
     public @Nonnull ConversionFinder findPath(@Nonnull Object input, @Nonnull Class<?> desired) {
         if (desired.isInstance(input))
             return new TrivialConversionFinder();
 
-        HashSet<Converter> visited = new HashSet<>();
-        ArrayDeque<Step> queue = new ArrayDeque<>();
-        addSteps(queue, null, input);
+        Candidates candidates = getCandidates(input.getClass(), desired);
+        Candidate[] ranked = candidates.ranked();
 
         return new ConversionFinder() {
-            private ConversionPath conversionPath;
+            private int nextIdx = 0;
+            private Candidate current;
 
             @Override public @Nonnull ConversionPath getConversionPath() {
-                if (conversionPath == null)
+                if (current == null)
                     throw new IllegalStateException("hasNext() nto called or returned false");
-                return conversionPath;
+                return current.path;
             }
 
             @Override public @Nonnull Object
             convert(@Nonnull Object input) throws ConversionException {
-                return getConversionPath().convert(input);
+                ConversionPath path = getConversionPath();
+                try {
+                    return path.convert(input);
+                } catch (ConversionException e) {
+                    candidates.failed(current);
+                    throw e;
+                }
             }
 
             @Override public boolean hasNext() {
-                while (!queue.isEmpty()) {
-                    Step step = queue.remove();
-                    if (!visited.add(step.converter))
-                        continue; // cycle
-                    if (desired.isAssignableFrom(step.converter.outputClass())) {
-                        conversionPath = step.toPath();
+                while (nextIdx < ranked.length) {
+                    Candidate candidate = ranked[nextIdx++];
+                    if (candidate.path.canConvert(input)) {
+                        current = candidate;
                         return true;
                     }
-                    addSteps(queue, step, null);
                 }
+                current = null;
                 return false;
             }
         };
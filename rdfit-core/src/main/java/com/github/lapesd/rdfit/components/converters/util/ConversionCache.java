@@ -27,4 +27,22 @@ import javax.annotation.Nonnull;
 public interface ConversionCache {
     @Nonnull Object convert(@Nonnull Object source,
                             @Nonnull Object in) throws InconvertibleException;
+
+    /**
+     * Convert the first n elements of in, storing the results in out.
+     *
+     * The default implementation calls {@link #convert(Object, Object)} for each element.
+     *
+     * @param source the source of in elements (for error reporting)
+     * @param in objects to convert
+     * @param n number of objects to convert
+     * @param out where converted objects are stored. May be the same array as in
+     * @throws InconvertibleException if some element could not be converted. The contents
+     *                                of out are then unspecified
+     */
+    default void convertBatch(@Nonnull Object source, @Nonnull Object[] in, int n,
+                              @Nonnull Object[] out) throws InconvertibleException {
+        for (int i = 0; i < n; i++)
+            out[i] = convert(source, in[i]);
+    }
 }
@@ -0,0 +1,204 @@
+/*
+ *    Copyright 2021 Alexis Armin Huf
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.github.lapesd.rdfit.components.converters.util;
+
+import com.github.lapesd.rdfit.components.converters.ConversionFinder;
+import com.github.lapesd.rdfit.components.converters.ConversionManager;
+import com.github.lapesd.rdfit.components.converters.ConversionPath;
+import com.github.lapesd.rdfit.components.converters.FusedConverter;
+import com.github.lapesd.rdfit.errors.ConversionException;
+import com.github.lapesd.rdfit.errors.InconvertibleException;
+import com.github.lapesd.rdfit.util.Utils;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.HashMap;
+import java.util.Map;
+
+import static java.lang.String.format;
+
+/**
+ * A {@link ConversionCache} that remembers one {@link ConversionPath} per input class.
+ * Paths are kept compiled into {@link FusedConverter}s.
+ *
+ * Up to {@link #INLINE_ENTRIES} input classes are kept in small arrays scanned linearly
+ * (which is faster than hashing for the usual one or two input classes). Once more input
+ * classes are seen, all entries move to a {@link HashMap}.
+ *
+ * Like {@link ConversionPathSingletonCache}, instances are not thread-safe.
+ */
+public class ConversionPathPolymorphicCache implements ConversionCache {
+    public static final int INLINE_ENTRIES = 4;
+
+    private final @Nonnull ConversionManager conversionManager;
+    private final @Nonnull Class<?> outputClass;
+    private final @Nonnull Class<?>[] inlineClasses = new Class<?>[INLINE_ENTRIES];
+    private final @Nonnull FusedConverter[] inlinePaths = new FusedConverter[INLINE_ENTRIES];
+    private int inlineSize = 0;
+    private @Nullable Map<Class<?>, FusedConverter> megamorphic;
+    private long hits, misses;
+
+    public ConversionPathPolymorphicCache(@Nonnull ConversionManager conversionManager,
+                                          @Nonnull Class<?> outputClass) {
+        this.conversionManager = conversionManager;
+        this.outputClass = outputClass;
+    }
+
+    public static @Nonnull ConversionCache createCache(@Nullable ConversionManager conMgr,
+                                                       @Nullable Class<?> outputClass) {
+        return conMgr == null || outputClass == null
+                ? NoOpConversionCache.INSTANCE
+                : new ConversionPathPolymorphicCache(conMgr, outputClass);
+    }
+
+    /**
+     * @return number of conversions served by a cached {@link ConversionPath}
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * @return number of conversions that required a
+     *         {@link ConversionManager#findPath(Object, Class)} call
+     */
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * @return whether cached paths outgrew the inline entries and are now in a map
+     */
+    public boolean isMegamorphic() {
+        return megamorphic != null;
+    }
+
+    private @Nullable FusedConverter lookup(@Nonnull Class<?> inputClass) {
+        if (megamorphic != null)
+            return megamorphic.get(inputClass);
+        for (int i = 0; i < inlineSize; i++) {
+            if (inlineClasses[i] == inputClass)
+                return inlinePaths[i];
+        }
+        return null;
+    }
+
+    private void store(@Nonnull Class<?> inputClass, @Nonnull FusedConverter path) {
+        if (megamorphic != null) {
+            megamorphic.put(inputClass, path);
+            return;
+        }
+        for (int i = 0; i < inlineSize; i++) {
+            if (inlineClasses[i] == inputClass) {
+                inlinePaths[i] = path;
+                return;
+            }
+        }
+        if (inlineSize < INLINE_ENTRIES) {
+            inlineClasses[inlineSize] = inputClass;
+            inlinePaths[inlineSize++] = path;
+        } else {
+            megamorphic = new HashMap<>();
+            for (int i = 0; i < inlineSize; i++) {
+                megamorphic.put(inlineClasses[i], inlinePaths[i]);
+                inlineClasses[i] = null;
+                inlinePaths[i] = null;
+            }
+            inlineSize = 0;
+            megamorphic.put(inputClass, path);
+        }
+    }
+
+    @Override public @Nonnull Object convert(@Nonnull Object source,
+                                             @Nonnull Object in) throws InconvertibleException {
+        if (outputClass.isInstance(in))
+            return in; // no work
+
+        Class<?> inputClass = in.getClass();
+        FusedConverter cached = lookup(inputClass);
+        try {
+            if (cached != null && cached.canConvert(in)) {
+                Object out = cached.convert(in);
+                ++hits;
+                return out;
+            }
+        } catch (ConversionException ignored) { }
+
+        ++misses;
+        ConversionFinder finder = conversionManager.findPath(in, outputClass);
+        while (finder.hasNext()) {
+            try {
+                Object out = finder.convert(in);
+                store(inputClass, finder.getConversionPath().compile());
+                return out;
+            } catch (ConversionException ignored) { }
+        }
+
+        throw new InconvertibleException(source, in, outputClass);
+    }
+
+    /**
+     * If all n objects have the same class and there is a cached path for it, convert them
+     * with a single {@link ConversionPath#convertBatch(Object[], int, Object[])}. Otherwise
+     * (or if the batch conversion fails), convert one by one.
+     */
+    @Override
+    public void convertBatch(@Nonnull Object source, @Nonnull Object[] in, int n,
+                             @Nonnull Object[] out) throws InconvertibleException {
+        if (n > 1 && tryConvertBatch(in, n, out))
+            return;
+        for (int i = 0; i < n; i++)
+            out[i] = convert(source, in[i]);
+    }
+
+    private boolean tryConvertBatch(@Nonnull Object[] in, int n, @Nonnull Object[] out) {
+        Class<?> inputClass = in[0].getClass();
+        for (int i = 1; i < n; i++) {
+            if (in[i].getClass() != inputClass)
+                return false;
+        }
+        if (outputClass.isAssignableFrom(inputClass)) {
+            if (in != out)
+                System.arraycopy(in, 0, out, 0, n);
+            return true;
+        }
+        FusedConverter path = lookup(inputClass);
+        if (path == null)
+            return false;
+        for (int i = 0; i < n; i++) {
+            if (!path.canConvert(in[i]))
+                return false;
+        }
+        // in-place conversion would destroy the inputs needed by the one-by-one fallback
+        Object[] dst = in == out ? new Object[n] : out;
+        try {
+            path.convertBatch(in, n, dst);
+        } catch (ConversionException e) {
+            return false;
+        }
+        if (dst != out)
+            System.arraycopy(dst, 0, out, 0, n);
+        hits += n;
+        return true;
+    }
+
+    @Override public @Nonnull String toString() {
+        return format("%s{conversionManager=%s, outputClass=%s, hits=%d, misses=%d}",
+                      Utils.toString(this), conversionManager, Utils.compactClass(outputClass),
+                      hits, misses);
+    }
+}
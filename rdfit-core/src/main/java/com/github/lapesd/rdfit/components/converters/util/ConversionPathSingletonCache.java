@@ -19,6 +19,7 @@ package com.github.lapesd.rdfit.components.converters.util;
 import com.github.lapesd.rdfit.components.converters.ConversionFinder;
 import com.github.lapesd.rdfit.components.converters.ConversionManager;
 import com.github.lapesd.rdfit.components.converters.ConversionPath;
+import com.github.lapesd.rdfit.components.converters.FusedConverter;
 import com.github.lapesd.rdfit.errors.ConversionException;
 import com.github.lapesd.rdfit.errors.InconvertibleException;
 import com.github.lapesd.rdfit.util.Utils;
@@ -29,12 +30,13 @@ import javax.annotation.Nullable;
 import static java.lang.String.format;
 
 /**
- * A ConversionCache that keeps a single cached {@link ConversionPath}
+ * A ConversionCache that keeps a single cached {@link ConversionPath}, compiled into a
+ * {@link FusedConverter}.
  */
 public class ConversionPathSingletonCache implements ConversionCache {
     private final @Nonnull ConversionManager conversionManager;
     private final @Nonnull Class<?> outputClass;
-    private @Nullable ConversionPath conversionPath;
+    private @Nullable FusedConverter converter;
 
     public ConversionPathSingletonCache(@Nonnull ConversionManager conversionManager,
                                         @Nonnull Class<?> outputClass) {
@@ -56,8 +58,8 @@ public class ConversionPathSingletonCache implements ConversionCache {
 
         ConversionException first = null;
         try {
-            if (conversionPath != null && conversionPath.canConvert(in)) // try cached path
-                return conversionPath.convert(in);
+            if (converter != null && converter.canConvert(in)) // try cached path
+                return converter.convert(in);
         } catch (ConversionException e) {
             first = e;
         }
@@ -67,7 +69,7 @@ public class ConversionPathSingletonCache implements ConversionCache {
         while (finder.hasNext()) {
             try {
                 Object out = finder.convert(in);
-                conversionPath = finder.getConversionPath();
+                converter = finder.getConversionPath().compile();
                 return out;
             } catch (ConversionException e) {
                 if (first == null) first = e;
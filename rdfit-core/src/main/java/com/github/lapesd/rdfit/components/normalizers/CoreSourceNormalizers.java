@@ -32,12 +32,14 @@ public class CoreSourceNormalizers {
             = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
                     FileNormalizer.class, InputStreamNormalizer.class, ReaderNormalizer.class,
                     StringNormalizer.class, URINormalizer.class, URLNormalizer.class,
-                    SupplierNormalizer.class, CallableNormalizer.class, ByteArrayNormalizer.class
+                    SupplierNormalizer.class, CallableNormalizer.class, ByteArrayNormalizer.class,
+                    PatternSourceNormalizer.class
     )));
     public static final @Nonnull List<Supplier<SourceNormalizer>> SUPPLIERS = Arrays.asList(
             FileNormalizer::new, InputStreamNormalizer::new, ReaderNormalizer::new,
             StringNormalizer::new, URINormalizer::new, URLNormalizer::new,
-            SupplierNormalizer::new, CallableNormalizer::new, ByteArrayNormalizer::new
+            SupplierNormalizer::new, CallableNormalizer::new, ByteArrayNormalizer::new,
+            PatternSourceNormalizer::new
     );
 
     /**
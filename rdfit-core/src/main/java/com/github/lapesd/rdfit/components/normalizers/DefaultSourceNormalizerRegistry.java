@@ -17,6 +17,7 @@
 package com.github.lapesd.rdfit.components.normalizers;
 
 import com.github.lapesd.rdfit.components.SourceNormalizer;
+import com.github.lapesd.rdfit.components.SourceSplitter;
 import com.github.lapesd.rdfit.components.converters.ConversionManager;
 import com.github.lapesd.rdfit.components.converters.impl.DefaultConversionManager;
 import com.github.lapesd.rdfit.components.parsers.DefaultParserRegistry;
@@ -27,7 +28,7 @@ import com.github.lapesd.rdfit.util.TypeDispatcher;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
-import java.util.Iterator;
+import java.util.List;
 import java.util.Objects;
 import java.util.function.Predicate;
 
@@ -46,8 +47,15 @@ public class DefaultSourceNormalizerRegistry implements SourceNormalizerRegistry
             return true;
         }
     };
-    private @Nullable ParserRegistry parserRegistry;
-    private @Nullable ConversionManager conversionManager;
+    private final @Nonnull TypeDispatcher<SourceSplitter> splitters
+            = new TypeDispatcher<SourceSplitter>() {
+        @Override
+        protected boolean accepts(@Nonnull SourceSplitter handler, @Nonnull Object instance) {
+            return true;
+        }
+    };
+    private volatile @Nullable ParserRegistry parserRegistry;
+    private volatile @Nullable ConversionManager conversionManager;
 
     public static @Nonnull DefaultSourceNormalizerRegistry get() {
         return INSTANCE;
@@ -84,10 +92,11 @@ public class DefaultSourceNormalizerRegistry implements SourceNormalizerRegistry
         source = apply(source, decorator);
         for (boolean changed = true; changed; ) {
             changed = false;
-            Iterator<SourceNormalizer> it = dispatcher.get(source);
-            while (it.hasNext()) {
+            // all normalizers are accepted: use the resolved list directly, avoiding an iterator
+            List<SourceNormalizer> list = dispatcher.resolve(source.getClass());
+            for (int i = 0, size = list.size(); i < size; i++) {
                 Object old = source;
-                source = it.next().normalize(source);
+                source = list.get(i).normalize(source);
                 if ((changed = source != old)) {
                     source = apply(source, decorator);
                     break;
@@ -98,8 +107,7 @@ public class DefaultSourceNormalizerRegistry implements SourceNormalizerRegistry
     }
 
     @Override public void register(@Nonnull SourceNormalizer normalizer) {
-        for (Class<?> cls : normalizer.acceptedClasses())
-            dispatcher.add(cls, normalizer);
+        dispatcher.addAll(normalizer.acceptedClasses(), normalizer);
         normalizer.attachTo(this);
     }
 
@@ -110,4 +118,23 @@ public class DefaultSourceNormalizerRegistry implements SourceNormalizerRegistry
     @Override public void unregisterIf(@Nonnull Predicate<? super SourceNormalizer> predicate) {
         dispatcher.removeIf(predicate);
     }
+
+    @Override public void registerSplitter(@Nonnull SourceSplitter splitter) {
+        splitters.addAll(splitter.acceptedClasses(), splitter);
+    }
+
+    @Override
+    public void unregisterSplitterIf(@Nonnull Predicate<? super SourceSplitter> predicate) {
+        splitters.removeIf(predicate);
+    }
+
+    @Override public @Nullable List<?> split(@Nonnull Object source, long chunkBytes) {
+        List<SourceSplitter> list = splitters.resolve(source.getClass());
+        for (int i = 0, size = list.size(); i < size; i++) {
+            List<?> parts = list.get(i).split(source, chunkBytes);
+            if (parts != null)
+                return parts;
+        }
+        return null;
+    }
 }
@@ -17,6 +17,7 @@
 package com.github.lapesd.rdfit.components.normalizers;
 
 import com.github.lapesd.rdfit.components.SourceNormalizer;
+import com.github.lapesd.rdfit.components.SourceSplitter;
 import com.github.lapesd.rdfit.components.converters.ConversionManager;
 import com.github.lapesd.rdfit.components.parsers.ParserRegistry;
 import com.github.lapesd.rdfit.source.RDFInputStream;
@@ -24,6 +25,7 @@ import com.github.lapesd.rdfit.source.RDFInputStreamDecorator;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.util.List;
 import java.util.function.Predicate;
 
 /**
@@ -103,4 +105,26 @@ public interface SourceNormalizerRegistry {
      */
     @Nonnull Object normalize(@Nonnull Object source, @Nullable RDFInputStreamDecorator decorator);
 
+    /**
+     * Add a {@link SourceSplitter} for subsequent {@link #split(Object, long)} calls.
+     *
+     * @param splitter the new splitter
+     */
+    void registerSplitter(@Nonnull SourceSplitter splitter);
+
+    /**
+     * Remove all {@link SourceSplitter}s that match the given predicate.
+     *
+     * @param predicate {@link Predicate} to test if a instance should be removed
+     */
+    void unregisterSplitterIf(@Nonnull Predicate<? super SourceSplitter> predicate);
+
+    /**
+     * Split a normalized source with the first applicable {@link SourceSplitter}.
+     *
+     * @param source the normalized source
+     * @param chunkBytes the size hint for {@link SourceSplitter#split(Object, long)}
+     * @return null if no {@link SourceSplitter} split the source, else the list of parts.
+     */
+    @Nullable List<?> split(@Nonnull Object source, long chunkBytes);
 }
@@ -0,0 +1,62 @@
+/*
+ *    Copyright 2021 Alexis Armin Huf
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.github.lapesd.rdfit.components.normalizers.impl;
+
+import com.github.lapesd.rdfit.components.annotations.Accepts;
+import com.github.lapesd.rdfit.components.normalizers.BaseSourceNormalizer;
+import com.github.lapesd.rdfit.components.normalizers.SourceNormalizerRegistry;
+import com.github.lapesd.rdfit.errors.RDFItException;
+import com.github.lapesd.rdfit.source.PatternSource;
+import com.github.lapesd.rdfit.source.SourcesIterator;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Normalizes the source wrapped by a {@link PatternSource}, keeping the pattern.
+ *
+ * If the wrapped source normalizes into a {@link SourcesIterator}, each of its members is
+ * wrapped with the same pattern.
+ */
+@Accepts(PatternSource.class)
+public class PatternSourceNormalizer extends BaseSourceNormalizer {
+    @Override public @Nonnull Object normalize(@Nonnull Object source) {
+        SourceNormalizerRegistry registry = this.registry;
+        if (registry == null || !(source instanceof PatternSource))
+            return source;
+        PatternSource pattern = (PatternSource) source;
+        Object inner = registry.normalize(pattern.getSource());
+        if (inner instanceof RDFItException)
+            return inner;
+        if (inner instanceof SourcesIterator) {
+            SourcesIterator it = (SourcesIterator) inner;
+            return new SourcesIterator() {
+                @Override public void close() {
+                    it.close();
+                }
+
+                @Override public boolean hasNext() {
+                    return it.hasNext();
+                }
+
+                @Override public @Nonnull Object next() {
+                    return pattern.withSource(it.next());
+                }
+            };
+        }
+        return pattern.withSource(inner);
+    }
+}
@@ -19,15 +19,22 @@ package com.github.lapesd.rdfit.components.parsers;
 import com.github.lapesd.rdfit.components.ItParser;
 import com.github.lapesd.rdfit.components.ListenerParser;
 import com.github.lapesd.rdfit.components.Parser;
+import com.github.lapesd.rdfit.components.PatternMatcher;
+import com.github.lapesd.rdfit.components.converters.ConversionFinder;
 import com.github.lapesd.rdfit.components.converters.ConversionManager;
+import com.github.lapesd.rdfit.components.converters.FusedConverter;
 import com.github.lapesd.rdfit.components.converters.impl.DefaultConversionManager;
+import com.github.lapesd.rdfit.errors.ConversionException;
+import com.github.lapesd.rdfit.errors.InconvertibleException;
 import com.github.lapesd.rdfit.iterator.IterationElement;
+import com.github.lapesd.rdfit.source.PatternSource;
 import com.github.lapesd.rdfit.source.syntax.impl.RDFLang;
 import com.github.lapesd.rdfit.util.TypeDispatcher;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Predicate;
 
 /**
@@ -47,8 +54,15 @@ public class DefaultParserRegistry implements ParserRegistry {
             return handler.canParse(instance);
         }
     };
-    private @Nonnull ConversionManager conversionManager;
-    private @Nullable Set<RDFLang> supportedLangs;
+    private final @Nonnull TypeDispatcher<PatternMatcher> matchers
+            = new TypeDispatcher<PatternMatcher>() {
+        @Override
+        protected boolean accepts(@Nonnull PatternMatcher handler, @Nonnull Object instance) {
+            return true;
+        }
+    };
+    private volatile @Nonnull ConversionManager conversionManager;
+    private volatile @Nullable Set<RDFLang> supportedLangs;
 
     public static @Nonnull DefaultParserRegistry get() {
         return INSTANCE;
@@ -73,22 +87,25 @@ public class DefaultParserRegistry implements ParserRegistry {
     @Override public @Nonnull Set<RDFLang> getSupportedLangs() {
         Set<RDFLang> set = this.supportedLangs;
         if (set == null) {
-            set = new HashSet<>();
-            for (ItParser       p : itParsers.getAll()) set.addAll(p.parsedLangs());
-            for (ListenerParser p : cbParsers.getAll()) set.addAll(p.parsedLangs());
-            this.supportedLangs = set;
+            synchronized (this) { // do not race with register/unregister
+                if ((set = this.supportedLangs) == null) {
+                    set = new HashSet<>();
+                    for (ItParser       p : itParsers.getAll()) set.addAll(p.parsedLangs());
+                    for (ListenerParser p : cbParsers.getAll()) set.addAll(p.parsedLangs());
+                    this.supportedLangs = set;
+                }
+            }
         }
         return set;
     }
 
     protected <T extends Parser> void register(@Nonnull TypeDispatcher<T> dispatcher,
                                                @Nonnull T parser) {
-        for (Class<?> leaf : parser.acceptedClasses())
-            dispatcher.add(leaf, parser);
+        dispatcher.addAll(parser.acceptedClasses(), parser);
         parser.attachTo(this);
     }
 
-    @Override public void register(@Nonnull Parser parser) {
+    @Override public synchronized void register(@Nonnull Parser parser) {
         supportedLangs = null;
         if (parser instanceof ItParser)
             register(itParsers, (ItParser) parser);
@@ -96,7 +113,7 @@ public class DefaultParserRegistry implements ParserRegistry {
             register(cbParsers, (ListenerParser) parser);
     }
 
-    @Override public void unregister(@Nonnull Parser parser) {
+    @Override public synchronized void unregister(@Nonnull Parser parser) {
         supportedLangs = null;
         if (parser instanceof ItParser)
             itParsers.remove((ItParser) parser);
@@ -104,7 +121,8 @@ public class DefaultParserRegistry implements ParserRegistry {
             cbParsers.remove((ListenerParser) parser);
     }
 
-    @Override public void unregisterIf(@Nonnull Predicate<? super Parser> predicate) {
+    @Override
+    public synchronized void unregisterIf(@Nonnull Predicate<? super Parser> predicate) {
         supportedLangs = null;
         itParsers.removeIf(predicate);
         cbParsers.removeIf(predicate);
@@ -114,57 +132,158 @@ public class DefaultParserRegistry implements ParserRegistry {
     public @Nullable ItParser getItParser(@Nonnull Object source,
                                           @Nullable IterationElement itElem,
                                           @Nullable Class<?> valueClass) {
-        Iterator<ItParser> it = itParsers.get(source);
-        if (!it.hasNext()) return null;
-        List<ItParser> list = new ArrayList<>();
-        while (it.hasNext()) {
-            ItParser p = it.next();
-            list.add(p);
-            if (itElem != null && itElem != p.itElement())
+        // index loops over the resolved snapshot: no locks and no allocations
+        List<ItParser> list = itParsers.resolve(source.getClass());
+        ItParser fallback = null;
+        for (int i = 0, size = list.size(); i < size; i++) {
+            ItParser p = list.get(i);
+            if (!p.canParse(source) || (itElem != null && itElem != p.itElement()))
                 continue;
             if (valueClass == null || valueClass.isAssignableFrom(p.valueClass()))
                 return p;
+            if (fallback == null)
+                fallback = p;
         }
-        if (valueClass != null) {
-            for (ItParser p : list) {
-                if (itElem == null || itElem.equals(p.itElement()))
-                    return p;
-            }
-        }
-        assert !list.isEmpty();
-        return null;
+        return fallback;
     }
 
     @Override
     public @Nullable ListenerParser
     getListenerParser(@Nonnull Object source, @Nullable Class<?> tCls, @Nullable Class<?> qCls) {
-        Iterator<ListenerParser> it = cbParsers.get(source);
-        if (!it.hasNext())
-            return null;
-        List<ListenerParser> list = new ArrayList<>();
-        while (it.hasNext()) {
-            ListenerParser p = it.next();
-            list.add(p);
+        List<ListenerParser> list = cbParsers.resolve(source.getClass());
+        ListenerParser first = null, tripleMatch = null, quadMatch = null;
+        for (int i = 0, size = list.size(); i < size; i++) {
+            ListenerParser p = list.get(i);
+            if (!p.canParse(source))
+                continue;
             Class<?> pt = p.tripleType(), pq = p.quadType();
-            boolean ok = (tCls == null || (pt != null && tCls.isAssignableFrom(pt))) &&
-                         (qCls == null || (pq != null && qCls.isAssignableFrom(pq)));
-            if (ok)
+            boolean tOk = tCls == null || (pt != null && tCls.isAssignableFrom(pt));
+            boolean qOk = qCls == null || (pq != null && qCls.isAssignableFrom(pq));
+            if (tOk && qOk)
                 return p;
+            if (first == null)
+                first = p;
+            if (tripleMatch == null && tCls != null && tOk)
+                tripleMatch = p;
+            if (quadMatch == null && qCls != null && qOk)
+                quadMatch = p;
         }
-        if (tCls != null) {
-            for (ListenerParser p : list) {
-                Class<?> tt = p.tripleType();
-                if (tt != null &&  tCls.isAssignableFrom(tt))
-                    return p;
+        if (tripleMatch != null) return tripleMatch;
+        if (quadMatch   != null) return quadMatch;
+        return first;
+    }
+
+    @Override public void registerMatcher(@Nonnull PatternMatcher matcher) {
+        matchers.addAll(matcher.acceptedClasses(), matcher);
+    }
+
+    @Override
+    public void unregisterMatcherIf(@Nonnull Predicate<? super PatternMatcher> predicate) {
+        matchers.removeIf(predicate);
+    }
+
+    @Override public @Nullable Predicate<Object> getMatcher(@Nonnull Class<?> valueClass,
+                                                            @Nonnull PatternSource pattern) {
+        for (PatternMatcher matcher : matchers.resolve(valueClass)) {
+            Predicate<Object> predicate = matcher.createPredicate(pattern);
+            if (predicate != null)
+                return predicate;
+        }
+        List<Class<?>> classes = new ArrayList<>();
+        List<Predicate<Object>> predicates = new ArrayList<>();
+        for (PatternMatcher matcher : matchers.getAll()) {
+            Predicate<Object> predicate = matcher.createPredicate(pattern);
+            if (predicate == null)
+                continue;
+            for (Class<?> accepted : matcher.acceptedClasses()) {
+                classes.add(accepted);
+                predicates.add(predicate);
             }
         }
-        if (qCls != null) {
-            for (ListenerParser p : list) {
-                Class<?> qt = p.quadType();
-                if (qt != null && qCls.isAssignableFrom(qt))
-                    return p;
+        if (classes.isEmpty())
+            return null;
+        return new ConvertingMatcher(conversionManager, classes, predicates);
+    }
+
+    @Override public @Nullable Predicate<String> getGraphMatcher(@Nonnull PatternSource pattern) {
+        Predicate<String> predicate = ParserRegistry.super.getGraphMatcher(pattern);
+        if (predicate != null)
+            return predicate;
+        for (PatternMatcher matcher : matchers.getAll()) {
+            if ((predicate = matcher.createGraphPredicate(pattern)) != null)
+                return predicate;
+        }
+        return null;
+    }
+
+    /**
+     * Converts tested values into the first class (among those of {@link PatternMatcher}s
+     * that understand the pattern) to which values of the same class can be converted.
+     *
+     * The choice is made (and cached) independently for each class of tested values.
+     */
+    private static class ConvertingMatcher implements Predicate<Object> {
+        private final @Nonnull ConversionManager conversionManager;
+        private final @Nonnull List<Class<?>> classes;
+        private final @Nonnull List<Predicate<Object>> predicates;
+        private final @Nonnull ConcurrentHashMap<Class<?>, Resolved> resolved
+                = new ConcurrentHashMap<>();
+
+        private static class Resolved {
+            final @Nonnull Predicate<Object> predicate;
+            final @Nullable FusedConverter converter;
+
+            public Resolved(@Nonnull Predicate<Object> predicate,
+                            @Nullable FusedConverter converter) {
+                this.predicate = predicate;
+                this.converter = converter;
+            }
+        }
+
+        public ConvertingMatcher(@Nonnull ConversionManager conversionManager,
+                                 @Nonnull List<Class<?>> classes,
+                                 @Nonnull List<Predicate<Object>> predicates) {
+            this.conversionManager = conversionManager;
+            this.classes = classes;
+            this.predicates = predicates;
+        }
+
+        @Override public boolean test(@Nonnull Object value) {
+            Resolved r = resolved.get(value.getClass());
+            if (r != null) {
+                if (r.converter == null)
+                    return r.predicate.test(value);
+                try {
+                    return r.predicate.test(r.converter.convert(value));
+                } catch (ConversionException ignored) { } // fallback to a new path
+            }
+            return resolve(value);
+        }
+
+        private boolean resolve(@Nonnull Object value) {
+            for (int i = 0, size = classes.size(); i < size; i++) {
+                if (classes.get(i).isInstance(value)) {
+                    Predicate<Object> predicate = predicates.get(i);
+                    resolved.put(value.getClass(), new Resolved(predicate, null));
+                    return predicate.test(value);
+                }
+            }
+            for (int i = 0, size = classes.size(); i < size; i++) {
+                ConversionFinder finder = conversionManager.findPath(value, classes.get(i));
+                while (finder.hasNext()) {
+                    Object converted;
+                    try {
+                        converted = finder.convert(value);
+                    } catch (ConversionException e) {
+                        continue;
+                    }
+                    Predicate<Object> predicate = predicates.get(i);
+                    FusedConverter converter = finder.getConversionPath().compile();
+                    resolved.put(value.getClass(), new Resolved(predicate, converter));
+                    return predicate.test(converted);
+                }
             }
+            throw new InconvertibleException(value, value, classes.get(0));
         }
-        return list.get(0);
     }
 }
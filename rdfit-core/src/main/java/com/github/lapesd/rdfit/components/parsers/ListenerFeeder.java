@@ -36,14 +36,21 @@ import java.io.File;
 import java.net.URI;
 import java.net.URL;
 import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Iterator;
 
-import static com.github.lapesd.rdfit.components.converters.util.ConversionPathSingletonCache.createCache;
+import static com.github.lapesd.rdfit.components.converters.util.ConversionPathPolymorphicCache.createCache;
 
 /**
  * Helper class to deliver triples/quads to an {@link RDFListener} instance.
  */
 public class ListenerFeeder implements AutoCloseable {
     private static final Logger logger = LoggerFactory.getLogger(ListenerFeeder.class);
+    /**
+     * Number of triples/quads buffered by {@link #feedTriples(Iterator)} and
+     * {@link #feedQuads(Iterator)} before delivering them as a batch.
+     */
+    public static final int BATCH_SIZE = 256;
     private final @Nonnull RDFListener<Object, Object> target;
     private final @Nonnull ConversionCache downgrader;
     private final @Nonnull ConversionCache quadConverter;
@@ -54,6 +61,7 @@ public class ListenerFeeder implements AutoCloseable {
     private final @Nullable QuadLifter quadLifter;
     private @Nullable Object source;
     private boolean notifySource = false;
+    private @Nullable Object[] batchIn, batchOut;
 
     public ListenerFeeder(@Nonnull RDFListener<?,?> target) {
         this(target, null);
@@ -213,6 +221,145 @@ public class ListenerFeeder implements AutoCloseable {
         }
     }
 
+    /**
+     * Feed the first n elements of batch as triples.
+     *
+     * If all of them can be converted into the target's {@link RDFListener#tripleType()},
+     * this will convert the whole batch at once and deliver it with
+     * {@link RDFListener#triples(Object[], int)}. Otherwise, the behavior is the same as
+     * calling {@link #feedTriple(Object)} for each element.
+     *
+     * @param batch array of triples
+     * @param n number of triples in batch
+     * @return false if the target returned false for any
+     *         {@link RDFListener#notifyInconvertibleTriple(InconvertibleException)} call.
+     * @throws InterruptParsingException if thrown by the target
+     */
+    public boolean feedTriples(@Nonnull Object[] batch, int n) throws InterruptParsingException {
+        Class<?> tt = target.tripleType();
+        Object[] out = n > 1 && tt != null ? convertBatch(batch, n, tt, tripleConverter) : null;
+        if (out != null) {
+            try {
+                return target.triples(out, n);
+            } finally {
+                Arrays.fill(out, 0, n, null);
+            }
+        }
+        boolean ok = true;
+        for (int i = 0; i < n; i++)
+            ok &= feedTriple(batch[i]);
+        return ok;
+    }
+
+    /**
+     * Same as {@link #feedTriples(Object[], int)}, but for quads.
+     *
+     * @param batch array of quads
+     * @param n number of quads in batch
+     * @return false if the target returned false for any
+     *         {@link RDFListener#notifyInconvertibleQuad(InconvertibleException)} call.
+     * @throws InterruptParsingException if thrown by the target
+     */
+    public boolean feedQuads(@Nonnull Object[] batch, int n) throws InterruptParsingException {
+        Class<?> qt = target.quadType();
+        Object[] out = n > 1 && qt != null ? convertBatch(batch, n, qt, quadConverter) : null;
+        if (out != null) {
+            try {
+                return target.quads(out, n);
+            } finally {
+                Arrays.fill(out, 0, n, null);
+            }
+        }
+        boolean ok = true;
+        for (int i = 0; i < n; i++)
+            ok &= feedQuad(batch[i]);
+        return ok;
+    }
+
+    /**
+     * Convert all n elements of batch into type instances.
+     *
+     * @return array with the converted elements or null if some element could not be
+     *         converted (the caller should then fallback to one-by-one feeding).
+     */
+    private @Nullable Object[] convertBatch(@Nonnull Object[] batch, int n,
+                                            @Nonnull Class<?> type,
+                                            @Nonnull ConversionCache cache) {
+        if (source == null)
+            throw new IllegalStateException("No source set on "+this);
+        Object[] out = batchOut;
+        if (out == null || out.length < n)
+            batchOut = out = new Object[Math.max(n, BATCH_SIZE)];
+        try {
+            cache.convertBatch(source, batch, n, out);
+            for (int i = 0; i < n; i++) {
+                if (!type.isInstance(out[i])) { // no-op cache
+                    Arrays.fill(out, 0, n, null);
+                    return null;
+                }
+            }
+            return out;
+        } catch (InconvertibleException e) {
+            Arrays.fill(out, 0, n, null);
+            return null;
+        }
+    }
+
+    /**
+     * Consume all triples from it, delivering them in batches of up to {@link #BATCH_SIZE}
+     * with {@link #feedTriples(Object[], int)}.
+     *
+     * If it throws, triples already buffered are delivered before the exception propagates.
+     *
+     * @param it iterator of triples
+     */
+    public void feedTriples(@Nonnull Iterator<?> it) {
+        feedAll(it, true);
+    }
+
+    /**
+     * Consume all quads from it, delivering them in batches of up to {@link #BATCH_SIZE}
+     * with {@link #feedQuads(Object[], int)}.
+     *
+     * If it throws, quads already buffered are delivered before the exception propagates.
+     *
+     * @param it iterator of quads
+     */
+    public void feedQuads(@Nonnull Iterator<?> it) {
+        feedAll(it, false);
+    }
+
+    private void feedAll(@Nonnull Iterator<?> it, boolean triples) {
+        Object[] batch = batchIn == null ? (batchIn = new Object[BATCH_SIZE]) : batchIn;
+        for (boolean exhausted = false; !exhausted; ) {
+            int n = 0;
+            RuntimeException error = null;
+            try {
+                while (n < batch.length && it.hasNext()) {
+                    Object next = it.next();
+                    if (next == null) {
+                        logger.warn("{}.feedAll(): Ignoring null from {}.next() (source: {})",
+                                    this, it, source);
+                        assert false; // blow up in debug runs
+                        continue;
+                    }
+                    batch[n++] = next;
+                }
+            } catch (RuntimeException e) {
+                error = e;
+            }
+            exhausted = n < batch.length;
+            try {
+                if (triples) feedTriples(batch, n);
+                else         feedQuads(batch, n);
+            } finally {
+                Arrays.fill(batch, 0, n, null);
+            }
+            if (error != null)
+                throw error;
+        }
+    }
+
     /**
      * Deliver a object that could be either a triple or a quad.
      *
@@ -19,8 +19,10 @@ package com.github.lapesd.rdfit.components.parsers;
 import com.github.lapesd.rdfit.components.ItParser;
 import com.github.lapesd.rdfit.components.ListenerParser;
 import com.github.lapesd.rdfit.components.Parser;
+import com.github.lapesd.rdfit.components.PatternMatcher;
 import com.github.lapesd.rdfit.components.converters.ConversionManager;
 import com.github.lapesd.rdfit.iterator.IterationElement;
+import com.github.lapesd.rdfit.source.PatternSource;
 import com.github.lapesd.rdfit.source.syntax.impl.RDFLang;
 
 import javax.annotation.Nonnull;
@@ -121,5 +123,55 @@ public interface ParserRegistry {
                                                @Nullable Class<?> desiredTripleClass,
                                                @Nullable Class<?> desiredQuadClass);
 
+    /**
+     * Register a {@link PatternMatcher}, used to filter sources wrapped in a
+     * {@link PatternSource} when no {@link ItParser} can evaluate the pattern natively.
+     *
+     * @param matcher the {@link PatternMatcher}
+     */
+    void registerMatcher(@Nonnull PatternMatcher matcher);
 
+    /**
+     * Remove all {@link PatternMatcher} instances that satisfy the given predicate
+     *
+     * @param predicate A {@link Predicate} to be satisfied by removed matchers
+     */
+    void unregisterMatcherIf(@Nonnull Predicate<? super PatternMatcher> predicate);
+
+    /**
+     * Get a predicate that accepts only instances of valueClass that match the pattern.
+     *
+     * The most recently registered {@link PatternMatcher} for valueClass that understands
+     * the pattern terms is preferred. If there is no such matcher, the predicate converts
+     * values (using {@link #getConversionManager()}) into the class of another
+     * {@link PatternMatcher} that understands the terms.
+     *
+     * @param valueClass the class of tested triples or quads
+     * @param pattern the pattern (its source is ignored)
+     * @return a predicate, or null if no {@link PatternMatcher} understands the pattern. The
+     *         predicate may throw {@link com.github.lapesd.rdfit.errors.InconvertibleException}.
+     *         It is thread-safe if the predicates of the {@link PatternMatcher}s are.
+     */
+    @Nullable Predicate<Object> getMatcher(@Nonnull Class<?> valueClass,
+                                           @Nonnull PatternSource pattern);
+
+    /**
+     * Get a predicate over the graph names given to
+     * {@link com.github.lapesd.rdfit.listener.RDFListener#quad(String, Object)} that accepts
+     * only the graph of the pattern.
+     *
+     * The default implementation only understands null and {@link String} graphs.
+     *
+     * @param pattern the pattern (its source is ignored)
+     * @return a predicate, or null if no {@link PatternMatcher} understands the graph of
+     *         the pattern.
+     */
+    default @Nullable Predicate<String> getGraphMatcher(@Nonnull PatternSource pattern) {
+        Object graph = pattern.getGraph();
+        if (graph == null)
+            return name -> true;
+        if (graph instanceof String)
+            return graph::equals;
+        return null;
+    }
 }
@@ -41,8 +41,8 @@ public class RDFItListenerParser extends BaseListenerParser {
         RDFIt<?> sourceIt = (RDFIt<?>) sourceObj;
         boolean isTriple = sourceIt.itElement().isTriple();
         try (ListenerFeeder feeder = createListenerFeeder(listener, sourceIt)) {
-            if (isTriple) sourceIt.forEachRemaining(feeder::feedTriple);
-            else          sourceIt.forEachRemaining(feeder::feedQuad  );
+            if (isTriple) feeder.feedTriples(sourceIt);
+            else          feeder.feedQuads(sourceIt);
         } catch (InterruptParsingException e) {
             throw e;
         } catch (Throwable t) {
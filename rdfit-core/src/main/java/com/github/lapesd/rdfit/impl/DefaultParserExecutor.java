@@ -0,0 +1,288 @@
+/*
+ *    Copyright 2021 Alexis Armin Huf
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.github.lapesd.rdfit.impl;
+
+import com.github.lapesd.rdfit.ParserExecutor;
+import com.github.lapesd.rdfit.util.Utils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.lang.reflect.Method;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.lang.Thread.currentThread;
+
+/**
+ * A {@link ParserExecutor} that delegates to an {@link ExecutorService} and keeps track of
+ * queued, active, completed and rejected tasks.
+ *
+ * Use the static factory methods for the common setups.
+ */
+public class DefaultParserExecutor implements ParserExecutor {
+    private static final Logger logger = LoggerFactory.getLogger(DefaultParserExecutor.class);
+    private static final @Nullable Method NEW_VIRTUAL_EXECUTOR;
+
+    static {
+        Method method = null;
+        try {
+            method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException ignored) { }
+        NEW_VIRTUAL_EXECUTOR = method;
+    }
+
+    /**
+     * What to do when a bounded executor has all its threads busy and its queue is full.
+     */
+    public enum Rejection {
+        /**
+         * Reject the task. The {@link com.github.lapesd.rdfit.iterator.RDFIt} that would be fed
+         * by it will throw an {@link com.github.lapesd.rdfit.errors.RDFItException}.
+         */
+        ABORT,
+        /**
+         * Block the thread calling {@link #execute(Runnable)} until there is room in the queue.
+         */
+        WAIT
+    }
+
+    private final @Nonnull String name;
+    private final @Nonnull ExecutorService delegate;
+    private final boolean shutdownOnClose;
+    private final AtomicInteger queued = new AtomicInteger(), active = new AtomicInteger();
+    private final AtomicLong completed = new AtomicLong(), rejected = new AtomicLong();
+
+    /**
+     * Constructor.
+     *
+     * @param name name used in {@link #toString()} and thread names.
+     * @param delegate the {@link ExecutorService} that will run tasks
+     * @param shutdownOnClose whether {@link #close()} should shut down the delegate.
+     *                        Should be false for shared executors
+     */
+    public DefaultParserExecutor(@Nonnull String name, @Nonnull ExecutorService delegate,
+                                 boolean shutdownOnClose) {
+        this.name = name;
+        this.delegate = delegate;
+        this.shutdownOnClose = shutdownOnClose;
+    }
+
+    /**
+     * Creates an executor that starts a new thread whenever all threads are busy. Idle
+     * threads die after 5 seconds.
+     *
+     * This never rejects nor queues tasks, but the number of threads is limited only by the
+     * number of concurrently open iterators.
+     *
+     * @param name prefix for thread names
+     * @return a new {@link DefaultParserExecutor}
+     */
+    public static @Nonnull DefaultParserExecutor unbounded(@Nonnull String name) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(0, Integer.MAX_VALUE,
+                5, TimeUnit.SECONDS, new SynchronousQueue<>(), createThreadFactory(name));
+        return new DefaultParserExecutor(name, executor, true);
+    }
+
+    /**
+     * Creates an executor with at most threads threads, queueing at most queueCapacity tasks
+     * while all threads are busy.
+     *
+     * Note that a queued task will only start after some other task completes, i.e.,
+     * after some iterator is exhausted or closed. Consuming more than threads iterators in
+     * an interleaved fashion from a single thread will dead-lock.
+     *
+     * @param name prefix for thread names
+     * @param threads maximum number of threads. Idle threads die after 5 seconds
+     * @param queueCapacity maximum number of queued tasks. If zero, there is no queue
+     * @param rejection what to do when all threads are busy and the queue is full
+     * @return a new {@link DefaultParserExecutor}
+     */
+    public static @Nonnull DefaultParserExecutor bounded(@Nonnull String name, int threads,
+                                                         int queueCapacity,
+                                                         @Nonnull Rejection rejection) {
+        if (threads < 1)
+            throw new IllegalArgumentException("threads="+threads+" < 1");
+        if (queueCapacity < 0)
+            throw new IllegalArgumentException("queueCapacity="+queueCapacity+" < 0");
+        BlockingQueue<Runnable> queue = queueCapacity == 0 ? new SynchronousQueue<>()
+                                                           : new ArrayBlockingQueue<>(queueCapacity);
+        RejectedExecutionHandler handler;
+        if (rejection == Rejection.WAIT) {
+            handler = (r, executor) -> {
+                if (executor.isShutdown())
+                    throw new RejectedExecutionException(executor+" is shut down");
+                try {
+                    executor.getQueue().put(r);
+                } catch (InterruptedException e) {
+                    currentThread().interrupt();
+                    throw new RejectedExecutionException("Interrupted while waiting", e);
+                }
+            };
+        } else {
+            handler = new ThreadPoolExecutor.AbortPolicy();
+        }
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads,
+                5, TimeUnit.SECONDS, queue, createThreadFactory(name), handler);
+        executor.allowCoreThreadTimeOut(true);
+        return new DefaultParserExecutor(name, executor, true);
+    }
+
+    /**
+     * Creates an executor that submits tasks to the given {@link ForkJoinPool}.
+     *
+     * Since parser tasks block when their consumers fall behind, the pool parallelism
+     * limits how many iterators can make progress concurrently.
+     *
+     * @param pool the pool. If it is the common pool, it will not be shut down on close
+     * @return a new {@link DefaultParserExecutor}
+     */
+    public static @Nonnull DefaultParserExecutor forkJoin(@Nonnull ForkJoinPool pool) {
+        boolean common = pool == ForkJoinPool.commonPool();
+        return new DefaultParserExecutor(common ? "commonPool" : pool.toString(), pool, !common);
+    }
+
+    /**
+     * Equivalent to {@link #forkJoin(ForkJoinPool)} with {@link ForkJoinPool#commonPool()}.
+     *
+     * @return a new {@link DefaultParserExecutor} on the shared pool
+     */
+    public static @Nonnull DefaultParserExecutor commonPool() {
+        return forkJoin(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Whether {@link #virtualThreads()} can be used on the running JVM.
+     *
+     * @return true iff virtual threads are available (Java 21+)
+     */
+    public static boolean isVirtualThreadsSupported() {
+        return NEW_VIRTUAL_EXECUTOR != null;
+    }
+
+    /**
+     * Creates an executor that starts a new virtual thread for each task.
+     *
+     * @param name name of the executor
+     * @return a new {@link DefaultParserExecutor}
+     * @throws UnsupportedOperationException if the JVM does not support virtual threads
+     */
+    public static @Nonnull DefaultParserExecutor
+    virtualThreads(@Nonnull String name) throws UnsupportedOperationException {
+        if (NEW_VIRTUAL_EXECUTOR == null)
+            throw new UnsupportedOperationException("Virtual threads require Java 21+");
+        ExecutorService executor;
+        try {
+            executor = (ExecutorService) NEW_VIRTUAL_EXECUTOR.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            throw new UnsupportedOperationException("Failed to create virtual thread executor", e);
+        }
+        return new DefaultParserExecutor(name, executor, true);
+    }
+
+    private static class SharedHolder {
+        private static final @Nonnull DefaultParserExecutor INSTANCE;
+
+        static {
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(0, Integer.MAX_VALUE,
+                    5, TimeUnit.SECONDS, new SynchronousQueue<>(), createThreadFactory("shared"));
+            INSTANCE = new DefaultParserExecutor("shared", executor, false);
+        }
+    }
+
+    /**
+     * A process-wide executor configured as in {@link #unbounded(String)}, created on first
+     * use. {@link #close()} does not shut it down.
+     *
+     * @return the shared {@link DefaultParserExecutor}
+     */
+    public static @Nonnull DefaultParserExecutor shared() {
+        return SharedHolder.INSTANCE;
+    }
+
+    private static @Nonnull ThreadFactory createThreadFactory(@Nonnull String name) {
+        SecurityManager secMgr = System.getSecurityManager();
+        ThreadGroup group = secMgr != null ? secMgr.getThreadGroup()
+                                           : currentThread().getThreadGroup();
+        AtomicInteger threads = new AtomicInteger(0);
+        return r -> {
+            Thread thread = new Thread(group, r, name + "-" + threads.incrementAndGet(), 0);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    public @Nonnull ExecutorService getDelegate() {
+        return delegate;
+    }
+
+    @Override public void execute(@Nonnull Runnable task) throws RejectedExecutionException {
+        queued.incrementAndGet();
+        try {
+            delegate.execute(() -> {
+                queued.decrementAndGet();
+                active.incrementAndGet();
+                try {
+                    task.run();
+                } finally {
+                    active.decrementAndGet();
+                    completed.incrementAndGet();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            queued.decrementAndGet();
+            rejected.incrementAndGet();
+            throw e;
+        }
+    }
+
+    @Override public int getActiveTasks() {
+        return active.get();
+    }
+
+    @Override public int getQueuedTasks() {
+        return Math.max(0, queued.get());
+    }
+
+    @Override public long getCompletedTasks() {
+        return completed.get();
+    }
+
+    @Override public long getRejectedTasks() {
+        return rejected.get();
+    }
+
+    @Override public void close() {
+        if (!shutdownOnClose)
+            return;
+        delegate.shutdown();
+        try {
+            if (!delegate.awaitTermination(2, TimeUnit.SECONDS))
+                logger.warn("{}.close() will not wait non-terminating executor", this);
+        } catch (InterruptedException e) {
+            currentThread().interrupt(); //restore interrupt flag
+        }
+    }
+
+    @Override public @Nonnull String toString() {
+        return String.format("%s{%s, active=%d, queued=%d, completed=%d, rejected=%d}",
+                             Utils.toString(this), name, getActiveTasks(), getQueuedTasks(),
+                             getCompletedTasks(), getRejectedTasks());
+    }
+}
@@ -16,11 +16,13 @@
 
 package com.github.lapesd.rdfit.impl;
 
+import com.github.lapesd.rdfit.ParserExecutor;
 import com.github.lapesd.rdfit.RDFItFactory;
 import com.github.lapesd.rdfit.RIt;
 import com.github.lapesd.rdfit.SourceQueue;
 import com.github.lapesd.rdfit.components.ItParser;
 import com.github.lapesd.rdfit.components.ListenerParser;
+import com.github.lapesd.rdfit.components.SourceSplitter;
 import com.github.lapesd.rdfit.components.converters.ConversionManager;
 import com.github.lapesd.rdfit.components.converters.impl.DefaultConversionManager;
 import com.github.lapesd.rdfit.components.converters.quad.QuadLifter;
@@ -34,18 +36,31 @@ import com.github.lapesd.rdfit.errors.NoParserException;
 import com.github.lapesd.rdfit.errors.RDFItException;
 import com.github.lapesd.rdfit.iterator.*;
 import com.github.lapesd.rdfit.listener.ConvertingRDFListener;
+import com.github.lapesd.rdfit.listener.FilteringRDFListener;
 import com.github.lapesd.rdfit.listener.RDFListener;
+import com.github.lapesd.rdfit.source.PatternSource;
+import com.github.lapesd.rdfit.source.RDFFile;
+import com.github.lapesd.rdfit.source.RDFFileSlice;
+import com.github.lapesd.rdfit.source.RDFInputStream;
 import com.github.lapesd.rdfit.source.SourcesIterator;
+import com.github.lapesd.rdfit.util.NoSource;
 import com.github.lapesd.rdfit.util.Utils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
-import java.util.Arrays;
-import java.util.concurrent.*;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import static com.github.lapesd.rdfit.iterator.IterationElement.QUAD;
 import static com.github.lapesd.rdfit.iterator.IterationElement.TRIPLE;
@@ -53,6 +68,23 @@ import static java.lang.Thread.currentThread;
 
 public class DefaultRDFItFactory implements RDFItFactory {
     private static final Logger logger = LoggerFactory.getLogger(DefaultRDFItFactory.class);
+    /**
+     * Default value for {@link #getListenerBatchSize()}.
+     */
+    public static final int DEFAULT_LISTENER_BATCH_SIZE = 64;
+    /**
+     * Default value for {@link #getListenerTransport()}.
+     */
+    public static final @Nonnull ListenerRDFIt.Transport DEFAULT_LISTENER_TRANSPORT
+            = ListenerRDFIt.Transport.SPSC;
+    /**
+     * Default value for {@link #getParallelSplitBytes()}.
+     */
+    public static final long DEFAULT_PARALLEL_SPLIT_BYTES = 64 * 1024 * 1024;
+    /**
+     * Default value for {@link #getPrefetchDepth()}.
+     */
+    public static final int DEFAULT_PREFETCH_DEPTH = 2;
     private static final @Nonnull DefaultRDFItFactory INSTANCE
             = new DefaultRDFItFactory(DefaultParserRegistry.get(), DefaultConversionManager.get(),
                                       DefaultSourceNormalizerRegistry.get());
@@ -60,7 +92,12 @@ public class DefaultRDFItFactory implements RDFItFactory {
     protected @Nonnull ParserRegistry parserRegistry;
     protected @Nonnull ConversionManager conversionMgr;
     protected @Nonnull SourceNormalizerRegistry normalizerRegistry;
-    private final @Nonnull ThreadPoolExecutor executor;
+    private volatile @Nonnull ParserExecutor parserExecutor;
+    private final @Nonnull ParserExecutor workerExecutor;
+    private int listenerBatchSize = DEFAULT_LISTENER_BATCH_SIZE;
+    private @Nonnull ListenerRDFIt.Transport listenerTransport = DEFAULT_LISTENER_TRANSPORT;
+    private long parallelSplitBytes = DEFAULT_PARALLEL_SPLIT_BYTES;
+    private int prefetchDepth = DEFAULT_PREFETCH_DEPTH;
 
     /**
      * Create a new {@link DefaultRDFItFactory}.
@@ -80,21 +117,8 @@ public class DefaultRDFItFactory implements RDFItFactory {
         this.parserRegistry = parserRegistry;
         this.conversionMgr = conversionManager;
         this.normalizerRegistry = normalizerRegistry;
-        SecurityManager secMgr = System.getSecurityManager();
-        executor = new ThreadPoolExecutor(0, Integer.MAX_VALUE,
-                5, TimeUnit.SECONDS,
-                new SynchronousQueue<>(), new ThreadFactory() {
-            private final AtomicInteger threads = new AtomicInteger(0);
-            final ThreadGroup group = secMgr != null ? secMgr.getThreadGroup()
-                                                     : currentThread().getThreadGroup();
-
-            @Override public Thread newThread(@Nonnull Runnable r) {
-                String name = "DefaultRDFItFactory-" + threads.incrementAndGet();
-                Thread thread = new Thread(group, r, name, 0);
-                thread.setDaemon(true);
-                return thread;
-            }
-        });
+        this.parserExecutor = DefaultParserExecutor.unbounded("DefaultRDFItFactory");
+        this.workerExecutor = DefaultParserExecutor.unbounded("DefaultRDFItFactory-worker");
     }
 
     public static @Nonnull DefaultRDFItFactory get() {
@@ -114,10 +138,194 @@ public class DefaultRDFItFactory implements RDFItFactory {
         return normalizerRegistry;
     }
 
+    @Override public @Nonnull ParserExecutor getParserExecutor() {
+        return parserExecutor;
+    }
+
+    @Override public void setParserExecutor(@Nonnull ParserExecutor parserExecutor) {
+        ParserExecutor old = this.parserExecutor;
+        this.parserExecutor = parserExecutor;
+        if (old != parserExecutor)
+            old.close();
+    }
+
+    /**
+     * Number of triples/quads handed at once from a parser thread to the consumer
+     * thread when a {@link ListenerParser} is used to provide an {@link RDFIt}.
+     *
+     * @return the batch size. 1 means no batching.
+     */
+    public int getListenerBatchSize() {
+        return listenerBatchSize;
+    }
+
+    /**
+     * Change the value of {@link #getListenerBatchSize()} for subsequently created iterators.
+     *
+     * @param listenerBatchSize the new batch size. Values smaller than 1 are treated as 1.
+     */
+    public void setListenerBatchSize(int listenerBatchSize) {
+        this.listenerBatchSize = Math.max(1, listenerBatchSize);
+    }
+
+    /**
+     * How values are handed from a parser thread to the consumer thread when a
+     * {@link ListenerParser} is used to provide an {@link RDFIt}.
+     *
+     * @return the non-null {@link ListenerRDFIt.Transport}
+     */
+    public @Nonnull ListenerRDFIt.Transport getListenerTransport() {
+        return listenerTransport;
+    }
+
+    /**
+     * Change the value of {@link #getListenerTransport()} for subsequently created iterators.
+     *
+     * @param listenerTransport the new {@link ListenerRDFIt.Transport}
+     */
+    public void setListenerTransport(@Nonnull ListenerRDFIt.Transport listenerTransport) {
+        this.listenerTransport = listenerTransport;
+    }
+
+    /**
+     * Size of the chunks into which N-Triples, N-Quads, Turtle and TriG files are split for
+     * parallel parsing by
+     * {@link #iterateTriplesParallel(int, ParallelFlatMapRDFIt.Merge, Class, Object...)},
+     * {@link #iterateQuadsParallel(int, ParallelFlatMapRDFIt.Merge, Class, Object...)} and
+     * {@link #parseParallel(int, Supplier, Consumer, Object...)}.
+     *
+     * This value is also given as a hint to the {@link SourceSplitter}s registered in
+     * {@link #getNormalizerRegistry()}.
+     *
+     * @see RDFFileSlice#split(RDFFile, long)
+     * @return the chunk size in bytes. Zero or negative means files are never split
+     */
+    public long getParallelSplitBytes() {
+        return parallelSplitBytes;
+    }
+
+    /**
+     * Change the value of {@link #getParallelSplitBytes()}.
+     *
+     * @param parallelSplitBytes the new chunk size in bytes. Zero or negative disables splitting
+     */
+    public void setParallelSplitBytes(long parallelSplitBytes) {
+        this.parallelSplitBytes = parallelSplitBytes;
+    }
+
+    /**
+     * How many of the next sources are normalized (and, if {@link RDFInputStream}s, opened
+     * and sniffed) in background while the current source is parsed by sequential
+     * iteration and by {@link #parse(RDFListener, Object...)}.
+     *
+     * @see SourcePrefetcher
+     * @return the number of sources prefetched. Zero means no prefetching
+     */
+    public int getPrefetchDepth() {
+        return prefetchDepth;
+    }
+
+    /**
+     * Change the value of {@link #getPrefetchDepth()} for subsequent iterations and parses.
+     *
+     * @param prefetchDepth the new depth. Negative values are treated as zero
+     */
+    public void setPrefetchDepth(int prefetchDepth) {
+        this.prefetchDepth = Math.max(0, prefetchDepth);
+    }
+
+    /**
+     * Split a normalized source with the {@link SourceSplitter}s registered in the
+     * {@link SourceNormalizerRegistry} or, if none applies, into {@link RDFFileSlice}s if it
+     * is a large enough N-Triples, N-Quads, Turtle or TriG {@link RDFFile}.
+     *
+     * @return null if the source should be parsed as a whole, else the parts of the source
+     */
+    private @Nullable List<?> splitForParallel(@Nonnull Object source) {
+        long chunkBytes = parallelSplitBytes;
+        if (chunkBytes <= 0)
+            return null;
+        try {
+            List<?> parts = normalizerRegistry.split(source, chunkBytes);
+            if (parts != null)
+                return parts;
+        } catch (RuntimeException e) {
+            logger.warn("{}: failed to split {}, will parse it sequentially", this, source, e);
+            return null;
+        }
+        if (!(source instanceof RDFFile))
+            return null;
+        RDFFile file = (RDFFile) source;
+        try {
+            List<RDFFileSlice> slices = RDFFileSlice.split(file, chunkBytes);
+            if (slices != null)
+                file.close();
+            return slices;
+        } catch (IOException e) {
+            logger.warn("{}: failed to split {}, will parse it sequentially", this, file, e);
+            return null;
+        }
+    }
+
+    /**
+     * Normalize and split {@link File}, {@link Path} and {@link RDFFile} sources. Other
+     * source types are not normalized, since normalization may be expensive, but may
+     * still be split by a {@link SourceSplitter}.
+     *
+     * @return null if source is not a file and was not split, else a non-empty list with
+     *         the parts of the (normalized) source or with only the normalized source.
+     */
+    private @Nullable List<?> splitFileSource(@Nonnull Object source) {
+        if (source instanceof File || source instanceof Path || source instanceof RDFFile) {
+            Object normalized = normalizerRegistry.normalize(source);
+            List<?> parts = splitForParallel(normalized);
+            return parts == null ? Collections.singletonList(normalized) : parts;
+        }
+        return splitForParallel(source);
+    }
+
+    /**
+     * Iterator over a {@link DefaultSourceQueue} that splits {@link File}, {@link Path} and
+     * {@link RDFFile} sources into {@link RDFFileSlice}s and other sources with the
+     * registered {@link SourceSplitter}s.
+     *
+     * Splitting happens on the thread consuming this iterator, which allows slices to be
+     * queued in the same order they occur in the file.
+     */
+    private class SplittingSourcesIterator implements Iterator<Object> {
+        private final @Nonnull DefaultSourceQueue queue;
+
+        public SplittingSourcesIterator(@Nonnull DefaultSourceQueue queue) {
+            this.queue = queue;
+        }
+
+        @Override public boolean hasNext() {
+            return queue.hasNext();
+        }
+
+        @Override public @Nonnull Object next() {
+            Object source = queue.next();
+            List<?> split = splitFileSource(source);
+            if (split == null)
+                return source;
+            queue.addAll(SourceQueue.When.Soon, split.subList(1, split.size()));
+            return split.get(0);
+        }
+    }
+
     private @Nonnull RDFIt<Object>
     iterateSources(@Nonnull IterationElement itEl, @Nullable Class<?> tCls,
                    @Nullable Class<?> quadClass, @Nullable QuadLifter qLifter,
                    @Nonnull Object... sources) {
+        return iterateSources(1, ParallelFlatMapRDFIt.Merge.ORDERED, itEl, tCls, quadClass,
+                              qLifter, sources);
+    }
+
+    private @Nonnull RDFIt<Object>
+    iterateSources(int parallelism, @Nonnull ParallelFlatMapRDFIt.Merge merge,
+                   @Nonnull IterationElement itEl, @Nullable Class<?> tCls,
+                   @Nullable Class<?> quadClass, @Nullable QuadLifter qLifter,
+                   @Nonnull Object... sources) {
         if (tCls == null && quadClass == null)
             throw new NullPointerException("Both tripleClass and quadClass are null");
         assert qLifter == null || tCls != null;
@@ -125,17 +333,60 @@ public class DefaultRDFItFactory implements RDFItFactory {
         if (vCls == null)
             throw new IllegalArgumentException("null *Class parameter corresponding to itElement");
         DefaultSourceQueue queue = new DefaultSourceQueue(sources);
-        return new FlatMapRDFIt<>(vCls, itEl, queue,
-                                  s -> iterateSource(queue, itEl, tCls, qLifter, vCls, s), queue
+        if (parallelism > 1) {
+            return new ParallelFlatMapRDFIt<>(vCls, itEl, new SplittingSourcesIterator(queue),
+                    s -> drainingIterateSource(queue, itEl, tCls, qLifter, vCls, s), queue,
+                    parallelism, merge, workerExecutor
+            ).owningSourceQueue();
+        }
+        SourcePrefetcher prefetcher = new SourcePrefetcher(queue, normalizerRegistry,
+                                                           workerExecutor, prefetchDepth);
+        return new FlatMapRDFIt<>(vCls, itEl, prefetcher,
+                                  s -> iterateSource(queue, prefetcher::normalize, itEl, tCls,
+                                                     qLifter, vCls, s), queue
         ).owningSourceQueue();
     }
 
+    private @Nonnull Stream<Object>
+    streamSources(@Nonnull IterationElement itEl, @Nullable Class<?> tCls,
+                  @Nullable Class<?> quadClass, @Nullable QuadLifter qLifter,
+                  @Nonnull Object... sources) {
+        RDFItSpliterator<Object> spliterator = new RDFItSpliterator<>(Arrays.asList(sources),
+                list -> iterateSources(itEl, tCls, quadClass, qLifter, list.toArray()),
+                this::splitFileSource);
+        return StreamSupport.stream(spliterator, false).onClose(spliterator::close);
+    }
+
+    /**
+     * Same as {@link #iterateSource(SourceQueue, Function, IterationElement, Class,
+     * QuadLifter, Class, Object)}, but if the normalized source is a {@link SourcesIterator},
+     * its members are iterated in sequence by the returned {@link RDFIt} instead of
+     * re-queueing the {@link SourcesIterator}.
+     *
+     * Members of a {@link SourcesIterator} may share state (e.g., an archive stream), thus
+     * the iterator must not be advanced by another thread while a member is being parsed.
+     */
+    private @Nonnull RDFIt<Object>
+    drainingIterateSource(@Nonnull SourceQueue queue, @Nonnull IterationElement itElement,
+                          @Nullable Class<?> tripleClass, @Nullable QuadLifter quadLifter,
+                          @Nonnull Class<?> valueClass, @Nonnull Object in) {
+        Object normalized = normalizerRegistry.normalize(in);
+        if (normalized instanceof SourcesIterator) {
+            return new FlatMapRDFIt<>(valueClass, itElement, (SourcesIterator) normalized,
+                    s -> drainingIterateSource(queue, itElement, tripleClass, quadLifter,
+                                               valueClass, s));
+        }
+        return iterateSource(queue, Function.identity(), itElement, tripleClass, quadLifter,
+                             valueClass, normalized);
+    }
+
     private @Nonnull RDFIt<Object> iterateSource(@Nonnull SourceQueue queue,
+                                                 @Nonnull Function<Object, Object> normalizer,
                                                  @Nonnull IterationElement itElement,
                                                  @Nullable Class<?> tripleClass,
                                                  @Nullable QuadLifter quadLifter,
                                                  @Nonnull Class<?> valueClass, @Nonnull Object in) {
-        Object normalized = normalizerRegistry.normalize(in);
+        Object normalized = normalizer.apply(in);
         if (normalized instanceof SourcesIterator) {
             SourcesIterator sourceIt = (SourcesIterator) normalized;
             if (!sourceIt.hasNext())
@@ -153,7 +404,10 @@ public class DefaultRDFItFactory implements RDFItFactory {
             IterationElement other = itElement.toggle();
             Class<?> otherClass = itElement == QUAD ? tripleClass : valueClass;
             itParser = parserRegistry.getItParser(in, other, otherClass);
-            if (itParser == null) {
+            if (itParser == null && in instanceof PatternSource) {
+                it = iteratePattern(queue, itElement, tripleClass, quadLifter, valueClass,
+                                    (PatternSource) in);
+            } else if (itParser == null) {
                 it = parse2It(queue, itElement, quadLifter, valueClass, in);
             } else {
                 it = itParser.parse(in);
@@ -179,6 +433,28 @@ public class DefaultRDFItFactory implements RDFItFactory {
         return it;
     }
 
+    /**
+     * Iterate the source of a {@link PatternSource} that no {@link ItParser} accepts,
+     * filtering the converted triples/quads with {@link ParserRegistry#getMatcher(Class, PatternSource)}.
+     */
+    private @Nonnull RDFIt<Object> iteratePattern(@Nonnull SourceQueue queue,
+                                                  @Nonnull IterationElement itElement,
+                                                  @Nullable Class<?> tripleClass,
+                                                  @Nullable QuadLifter quadLifter,
+                                                  @Nonnull Class<?> valueClass,
+                                                  @Nonnull PatternSource pattern) {
+        Predicate<Object> matcher = parserRegistry.getMatcher(valueClass, pattern);
+        if (matcher == null) {
+            RDFItException e = new RDFItException(pattern, "No PatternMatcher for "
+                                                  + valueClass + " understands the pattern");
+            return new ErrorRDFIt<>(valueClass, itElement, pattern, e);
+        }
+        // the pattern source was already normalized
+        RDFIt<Object> it = iterateSource(queue, Function.identity(), itElement, tripleClass,
+                                         quadLifter, valueClass, pattern.getSource());
+        return new FilteringRDFIt<>(valueClass, itElement, it, matcher);
+    }
+
     private @Nonnull RDFIt<Object> parse2It(@Nonnull SourceQueue sourceQueue,
                                             @Nonnull IterationElement itElement,
                                             @Nullable QuadLifter quadLifter,
@@ -192,18 +468,23 @@ public class DefaultRDFItFactory implements RDFItFactory {
         }
 
         ListenerRDFIt<Object> cbIt = new ListenerRDFIt<>(source, valueClass, itElement,
-                                                         quadLifter, conversionMgr, sourceQueue);
-        executor.execute(() -> {
-            try {
-                parser.parse(source, cbIt.getListener());
-                cbIt.getListener().finish();
-            } catch (InterruptParsingException ignored) {
-            } catch (RDFItException e) {
-                cbIt.addException(e);
-            } catch (Throwable t) {
-                cbIt.addException(new RDFItException(source, t));
-            }
-        });
+                                                         quadLifter, conversionMgr, sourceQueue,
+                                                         listenerBatchSize, listenerTransport);
+        try {
+            parserExecutor.execute(() -> {
+                try {
+                    parser.parse(source, cbIt.getListener());
+                    cbIt.getListener().finish();
+                } catch (InterruptParsingException ignored) {
+                } catch (RDFItException e) {
+                    cbIt.addException(e);
+                } catch (Throwable t) {
+                    cbIt.addException(new RDFItException(source, t));
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            cbIt.addException(new RDFItException(source, parserExecutor+" rejected parsing", e));
+        }
         it = cbIt;
         return it;
     }
@@ -241,15 +522,82 @@ public class DefaultRDFItFactory implements RDFItFactory {
                                          quadClass, null, sources);
     }
 
+    @Override public @Nonnull <T> RDFIt<T>
+    iterateTriplesParallel(int parallelism, @Nonnull ParallelFlatMapRDFIt.Merge merge,
+                           @Nonnull Class<T> tripleClass, @Nonnull Object... sources) {
+        //noinspection unchecked
+        return (RDFIt<T>) iterateSources(parallelism, merge, TRIPLE, tripleClass, null,
+                                         null, sources);
+    }
+
+    @Override public @Nonnull <Q> RDFIt<Q>
+    iterateQuadsParallel(int parallelism, @Nonnull ParallelFlatMapRDFIt.Merge merge,
+                         @Nonnull Class<Q> quadClass, @Nonnull QuadLifter quadLifter,
+                         @Nonnull Object... sources) {
+        //noinspection unchecked
+        return (RDFIt<Q>) iterateSources(parallelism, merge, QUAD, quadLifter.tripleType(),
+                                         quadClass, quadLifter, sources);
+    }
+
+    @Override public @Nonnull <Q> RDFIt<Q>
+    iterateQuadsParallel(int parallelism, @Nonnull ParallelFlatMapRDFIt.Merge merge,
+                         @Nonnull Class<Q> quadClass, @Nonnull Object... sources) {
+        //noinspection unchecked
+        return (RDFIt<Q>) iterateSources(parallelism, merge, QUAD, null, quadClass,
+                                         null, sources);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * When the stream is parallel, sources are distributed among the stream threads.
+     * Large N-Triples, N-Quads, Turtle and TriG files are first split into chunks of
+     * {@link #getParallelSplitBytes()} bytes, as in
+     * {@link #iterateTriplesParallel(int, ParallelFlatMapRDFIt.Merge, Class, Object...)}.
+     * Stream order is preserved. Closing the stream closes all iterators (and stops all
+     * background parsing) created for it.
+     */
+    @Override public @Nonnull <T> Stream<T> streamTriples(@Nonnull Class<T> tripleClass,
+                                                          @Nonnull Object... sources) {
+        //noinspection unchecked
+        return (Stream<T>) streamSources(TRIPLE, tripleClass, null, null, sources);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * Parallel streams behave as in {@link #streamTriples(Class, Object...)}
+     */
+    @Override public @Nonnull <Q> Stream<Q> streamQuads(@Nonnull Class<Q> quadClass,
+                                                        @Nonnull QuadLifter quadLifter,
+                                                        @Nonnull Object... sources) {
+        //noinspection unchecked
+        return (Stream<Q>) streamSources(QUAD, quadLifter.tripleType(), quadClass,
+                                         quadLifter, sources);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * Parallel streams behave as in {@link #streamTriples(Class, Object...)}
+     */
+    @Override public @Nonnull <Q> Stream<Q> streamQuads(@Nonnull Class<Q> quadClass,
+                                                        @Nonnull Object... sources) {
+        //noinspection unchecked
+        return (Stream<Q>) streamSources(QUAD, null, quadClass, null, sources);
+    }
+
     @Override
     public void parse(@Nonnull RDFListener<?,?> listener, @Nonnull Object... sources) {
         boolean onFinishCall = false;
-        try (DefaultSourceQueue queue = new DefaultSourceQueue(sources)) {
+        try (DefaultSourceQueue queue = new DefaultSourceQueue(sources);
+             SourcePrefetcher prefetcher = new SourcePrefetcher(queue, normalizerRegistry,
+                                                                workerExecutor, prefetchDepth)) {
             listener.attachSourceQueue(queue);
-            while (queue.hasNext()) {
-                Object s = queue.next();
+            while (prefetcher.hasNext()) {
+                Object s = prefetcher.next();
                 try {
-                    s = normalizerRegistry.normalize(s);
+                    s = prefetcher.normalize(s);
                     if (s instanceof SourcesIterator) {
                         for (SourcesIterator it = (SourcesIterator) s; it.hasNext(); )
                             parse(listener, it.next());
@@ -282,6 +630,175 @@ public class DefaultRDFItFactory implements RDFItFactory {
         }
     }
 
+    @Override public <L extends RDFListener<?, ?>> void
+    parseParallel(int parallelism, @Nonnull Supplier<? extends L> listenerFactory,
+                  @Nonnull Consumer<? super List<L>> combiner, @Nonnull Object... sources) {
+        if (parallelism < 1)
+            throw new IllegalArgumentException("parallelism="+parallelism+" < 1");
+        List<L> listeners = new ArrayList<>(parallelism);
+        for (int i = 0; i < parallelism; i++)
+            listeners.add(listenerFactory.get());
+        try (DefaultSourceQueue queue = new DefaultSourceQueue(sources)) {
+            ParallelParse parallelParse = new ParallelParse(queue, parallelism > 1);
+            for (L listener : listeners) {
+                listener.attachSourceQueue(queue);
+                //noinspection unchecked
+                parallelParse.start((RDFListener<Object, Object>) listener);
+            }
+            Throwable error = parallelParse.await();
+            if (error instanceof RuntimeException) throw (RuntimeException) error;
+            if (error instanceof Error)            throw (Error) error;
+            if (error != null)                     throw new RDFItException(NoSource.INSTANCE, error);
+        }
+        combiner.accept(listeners);
+    }
+
+    /**
+     * State shared by the workers of a {@link #parseParallel(int, Supplier, Consumer, Object...)}.
+     */
+    private class ParallelParse {
+        private final @Nonnull DefaultSourceQueue queue;
+        private final boolean split;
+        private int busy = 0, running = 0;
+        private boolean stop = false;
+        private @Nullable Throwable error;
+
+        public ParallelParse(@Nonnull DefaultSourceQueue queue, boolean split) {
+            this.queue = queue;
+            this.split = split;
+        }
+
+        public void start(@Nonnull RDFListener<Object, Object> listener) {
+            synchronized (this) {
+                ++running;
+            }
+            try {
+                workerExecutor.execute(() -> work(listener));
+            } catch (RejectedExecutionException e) {
+                workerDone(listener, e);
+            }
+        }
+
+        private synchronized @Nullable Object take() {
+            while (true) {
+                if (stop)
+                    return null;
+                if (queue.hasNext()) {
+                    ++busy;
+                    return queue.next();
+                }
+                if (busy == 0)
+                    return null; // no source left and no worker will add more sources
+                try {
+                    wait(10); // other workers may add sources without notify()ing
+                } catch (InterruptedException e) {
+                    currentThread().interrupt();
+                    stop = true;
+                    return null;
+                }
+            }
+        }
+
+        private synchronized void sourceDone(boolean keepGoing) {
+            --busy;
+            if (!keepGoing)
+                stop = true;
+            notifyAll();
+        }
+
+        private void work(@Nonnull RDFListener<Object, Object> listener) {
+            Throwable error = null;
+            try {
+                for (Object s = take(); s != null; s = take()) {
+                    boolean keepGoing = false;
+                    try {
+                        keepGoing = parseOne(queue, listener, s, split);
+                    } finally {
+                        sourceDone(keepGoing);
+                    }
+                }
+            } catch (Throwable t) {
+                error = t;
+            }
+            try {
+                listener.finish();
+            } catch (Throwable t) {
+                if (error == null) error = t;
+                else               error.addSuppressed(t);
+            }
+            workerDone(listener, error);
+        }
+
+        private synchronized void workerDone(@Nonnull RDFListener<?, ?> listener,
+                                             @Nullable Throwable error) {
+            if (error != null) {
+                logger.debug("{}: worker with {} failed", DefaultRDFItFactory.this, listener, error);
+                if (this.error == null) this.error = error;
+                else                    this.error.addSuppressed(error);
+                stop = true;
+            }
+            --running;
+            notifyAll();
+        }
+
+        public synchronized @Nullable Throwable await() {
+            boolean interrupted = false;
+            while (running > 0) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                    stop = true;
+                }
+            }
+            if (interrupted)
+                currentThread().interrupt();
+            return error;
+        }
+    }
+
+    /**
+     * Normalize and parse a single source, delivering to the given listener.
+     *
+     * If split is true and the source is split (e.g., into {@link RDFFileSlice}s), the parts are
+     * queued for parsing by any worker and nothing is delivered to the listener.
+     *
+     * @return false iff parsing of all sources should stop
+     */
+    private boolean parseOne(@Nonnull SourceQueue queue, @Nonnull RDFListener<Object, Object> listener,
+                             @Nonnull Object s, boolean split) {
+        try {
+            s = normalizerRegistry.normalize(s);
+            List<?> parts = split ? splitForParallel(s) : null;
+            if (parts != null) {
+                queue.addAll(SourceQueue.When.Soon, parts);
+                return true;
+            }
+            if (s instanceof SourcesIterator) {
+                // members of a SourcesIterator may share state (e.g., an archive stream),
+                // thus they are parsed sequentially by the same worker
+                try (SourcesIterator it = (SourcesIterator) s) {
+                    while (it.hasNext()) {
+                        if (!parseOne(queue, listener, it.next(), split))
+                            return false;
+                    }
+                }
+                return true;
+            } else if (s instanceof RDFItException) {
+                throw (RDFItException) s;
+            }
+            parseSource(queue, listener, s);
+            return true;
+        } catch (InterruptParsingException e) {
+            return false;
+        } catch (Throwable t) {
+            RDFItException e = t instanceof RDFItException ? (RDFItException) t
+                    : new RDFItException("Unexpected exception parsing " + s, t);
+            // triple and quad conversion exceptions are notified inside parseSource
+            return listener.notifySourceError(e);
+        }
+    }
+
     protected void parseSource(@Nonnull SourceQueue sourceQueue,
                                @Nonnull RDFListener<Object, Object> cb,
                                @Nonnull Object source) throws InterruptParsingException,
@@ -295,7 +812,10 @@ public class DefaultRDFItFactory implements RDFItFactory {
             ItParser itP = parserRegistry.getItParser(source, QUAD, cQT);
             if (itP == null) {
                 itP = parserRegistry.getItParser(source, TRIPLE, cTT);
-                if (itP == null) {
+                if (itP == null && source instanceof PatternSource) {
+                    parsePattern(sourceQueue, cb, (PatternSource) source);
+                    return;
+                } else if (itP == null) {
                     handleNoParser(sourceQueue, source);
                     return; // if queued, simply return to fetch new sources
                 }
@@ -308,17 +828,8 @@ public class DefaultRDFItFactory implements RDFItFactory {
 
             try (RDFIt<Object> it = itP.parse(source);
                  ListenerFeeder feeder = new ListenerFeeder(cb, conversionMgr).setSource(source)) {
-                while (it.hasNext()) {
-                    Object next = it.next();
-                    if (next == null) {
-                        logger.warn("{}.parseSource(): Ignoring null from {}.next() (source: {})",
-                                    this, it, source);
-                        assert false; // blow up in debug runs
-                        continue;
-                    }
-                    if (isTriple) feeder.feedTriple(next);
-                    else          feeder.feedQuad(next);
-                }
+                if (isTriple) feeder.feedTriples(it);
+                else          feeder.feedQuads(it);
             } catch (Throwable t) {
                 if (!cb.notifySourceError(RDFItException.wrap(source, t)))
                     throw new InterruptParsingException();
@@ -326,19 +837,54 @@ public class DefaultRDFItFactory implements RDFItFactory {
         }
     }
 
+    /**
+     * Parse the source of a {@link PatternSource} that no parser accepts, delivering only
+     * the triples/quads accepted by {@link ParserRegistry#getMatcher(Class, PatternSource)}.
+     */
+    private void parsePattern(@Nonnull SourceQueue sourceQueue,
+                              @Nonnull RDFListener<Object, Object> cb,
+                              @Nonnull PatternSource pattern) throws InterruptParsingException,
+                                                                     RDFItException {
+        Class<?> cTT = cb.tripleType(), cQT = cb.quadType();
+        if (cQT == null && pattern.getGraph() != null) {
+            // only quads have a graph: receive and filter quads, then downgrade into triples
+            @SuppressWarnings("unchecked") Class<Object> tt = (Class<Object>) cTT;
+            cb = new ConvertingRDFListener<>(cb, tt, Object.class, conversionMgr);
+            cQT = Object.class;
+        }
+        Predicate<Object> tripleMatcher = null, quadMatcher = null;
+        Predicate<String> graphMatcher = null;
+        if (cTT != null) {
+            // triples are matched without graph, which is checked by graphMatcher
+            PatternSource spo = pattern;
+            if (pattern.getGraph() != null) {
+                spo = new PatternSource(pattern.getSource(), pattern.getSubject(),
+                                        pattern.getPredicate(), pattern.getObject());
+                graphMatcher = parserRegistry.getGraphMatcher(pattern);
+                if (graphMatcher == null)
+                    graphMatcher = name -> false;
+            }
+            tripleMatcher = parserRegistry.getMatcher(cTT, spo);
+        }
+        if (cQT != null)
+            quadMatcher = parserRegistry.getMatcher(cQT, pattern);
+        if ((cTT != null && tripleMatcher == null) || (cQT != null && quadMatcher == null)) {
+            if (!cb.notifySourceError(new RDFItException(pattern,
+                    "No PatternMatcher for the listener types understands the pattern")))
+                throw new InterruptParsingException();
+            return;
+        }
+        cb = new FilteringRDFListener<>(cb, tripleMatcher, graphMatcher, quadMatcher);
+        parseSource(sourceQueue, cb, pattern.getSource());
+    }
+
     @Override public void close() {
         if (this == INSTANCE) {
             logger.error("Calling close on shared singleton!");
             assert false; // blow up in development only
         }
-        executor.shutdown();
-        try {
-            if (!executor.awaitTermination(2, TimeUnit.SECONDS)) {
-                logger.warn("{}.close() will not wait non-terminating executor", this);
-            }
-        } catch (InterruptedException e) {
-            currentThread().interrupt(); //restore interrupt flag
-        }
+        workerExecutor.close();
+        parserExecutor.close();
     }
 
     @Override public String toString() {
@@ -48,7 +48,7 @@ public class DefaultSourceQueue implements ConsumableSourceQueue {
         else                         throw new IllegalArgumentException("Unexpected when="+when);
     }
 
-    @Override public void addAll(@Nonnull When when, @Nonnull Iterable<?> sources) {
+    @Override public synchronized void addAll(@Nonnull When when, @Nonnull Iterable<?> sources) {
         logger.debug("{}.addAll({}, {})", this, when, sources);
         if (when == When.Soon) {
             List<?> list;
@@ -72,6 +72,27 @@ public class DefaultSourceQueue implements ConsumableSourceQueue {
         return deque.size();
     }
 
+    /**
+     * Get the sources that will be next returned by {@link #next()}, without removing them.
+     *
+     * {@link SourcesIterator}s in the queue are not included, nor are their members.
+     * Sources added with {@link When#Soon} after this call will precede the returned sources.
+     *
+     * @param max maximum number of sources to return
+     * @return a new list with up to max sources, in the order they will be returned
+     */
+    public synchronized @Nonnull List<Object> peek(int max) {
+        List<Object> list = new ArrayList<>(Math.min(max, deque.size() + 1));
+        if (next != null && max > 0)
+            list.add(next);
+        for (Iterator<Object> it = deque.iterator(); it.hasNext() && list.size() < max; ) {
+            Object source = it.next();
+            if (!(source instanceof SourcesIterator))
+                list.add(source);
+        }
+        return list;
+    }
+
     protected @Nullable Object advance() {
         while (true) {
             if (sourceIt != null) {
@@ -114,7 +135,7 @@ public class DefaultSourceQueue implements ConsumableSourceQueue {
         closed = true;
     }
 
-    @Override public @Nonnull String toString() {
+    @Override public synchronized @Nonnull String toString() {
         return format("%s{length=%d, deque=%s}", Utils.toString(this), length(), deque);
     }
 }
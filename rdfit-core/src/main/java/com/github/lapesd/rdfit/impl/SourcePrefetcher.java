@@ -0,0 +1,273 @@
+/*
+ *    Copyright 2021 Alexis Armin Huf
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.github.lapesd.rdfit.impl;
+
+import com.github.lapesd.rdfit.ParserExecutor;
+import com.github.lapesd.rdfit.components.normalizers.SourceNormalizerRegistry;
+import com.github.lapesd.rdfit.errors.RDFItException;
+import com.github.lapesd.rdfit.source.RDFInputStream;
+import com.github.lapesd.rdfit.util.Utils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.File;
+import java.net.URI;
+import java.net.URL;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+
+import static java.lang.String.format;
+
+/**
+ * An {@link Iterator} over the sources of a {@link DefaultSourceQueue} that normalizes
+ * upcoming sources in background.
+ *
+ * Whenever a source is taken with {@link #next()}, up to depth of the following sources
+ * in the queue are normalized in background by a {@link ParserExecutor} and, if
+ * normalized into a {@link RDFInputStream}, have its language detected (which opens the
+ * underlying stream and fills its first buffer). Sources returned by {@link #next()}
+ * should be given to {@link #normalize(Object)}, which will return the prefetched result
+ * or normalize the source in the calling thread.
+ *
+ * Only sources whose normalization involves I/O (files, paths, URLs, URIs, strings
+ * and {@link RDFInputStream}s) are prefetched. Sources added to the queue while a source
+ * is being consumed are still returned in the order defined by the {@link DefaultSourceQueue}.
+ */
+public class SourcePrefetcher implements Iterator<Object>, AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(SourcePrefetcher.class);
+
+    private final @Nonnull DefaultSourceQueue queue;
+    private final @Nonnull SourceNormalizerRegistry normalizerRegistry;
+    private final @Nonnull ParserExecutor executor;
+    private final int depth;
+    private final @Nonnull IdentityHashMap<Object, Prefetch> prefetched = new IdentityHashMap<>();
+    private boolean closed = false;
+
+    private class Prefetch implements Runnable {
+        private final @Nonnull Object source;
+        private boolean started = false, done = false, abandoned = false;
+        private @Nullable Object result;
+        private @Nullable Throwable error;
+
+        public Prefetch(@Nonnull Object source) {
+            this.source = source;
+        }
+
+        private synchronized boolean start() {
+            if (started)
+                return false;
+            started = true;
+            return true;
+        }
+
+        @Override public void run() {
+            if (start())
+                compute();
+        }
+
+        private void compute() {
+            Object result = null;
+            Throwable error = null;
+            try {
+                result = normalizerRegistry.normalize(source);
+                if (result instanceof RDFInputStream) {
+                    try {
+                        ((RDFInputStream) result).getOrDetectLang();
+                    } catch (Throwable t) { // parsers will face the same issue
+                        logger.debug("{}: ignoring failure to detect language of {}",
+                                     SourcePrefetcher.this, result, t);
+                    }
+                }
+            } catch (Throwable t) {
+                error = t;
+            }
+            boolean discard;
+            synchronized (this) {
+                this.result = result;
+                this.error = error;
+                done = true;
+                discard = abandoned;
+                notifyAll();
+            }
+            if (discard)
+                discard(result);
+        }
+
+        public @Nonnull Object get() {
+            if (start())
+                compute();
+            boolean interrupted = false;
+            synchronized (this) {
+                while (!done) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        interrupted = true;
+                    }
+                }
+            }
+            if (interrupted)
+                Thread.currentThread().interrupt();
+            if (error instanceof RuntimeException) throw (RuntimeException) error;
+            if (error instanceof Error)            throw (Error) error;
+            if (error != null)                     throw new RDFItException(source, error);
+            assert result != null;
+            return result;
+        }
+
+        public void abandon() {
+            Object discarded;
+            synchronized (this) {
+                abandoned = true;
+                if (!started) {
+                    started = done = true;
+                    return;
+                }
+                discarded = done ? result : null;
+            }
+            discard(discarded);
+        }
+
+        private void discard(@Nullable Object normalized) {
+            if (normalized instanceof AutoCloseable) {
+                try {
+                    ((AutoCloseable) normalized).close();
+                } catch (Throwable t) {
+                    logger.error("{}: ignoring failure to close unused prefetched {}",
+                                 SourcePrefetcher.this, normalized, t);
+                }
+            }
+        }
+    }
+
+    /**
+     * Create a {@link SourcePrefetcher}.
+     *
+     * @param queue the queue from where sources are taken.
+     * @param normalizerRegistry the normalizers to apply
+     * @param executor where background normalization tasks run
+     * @param depth maximum number of sources being prefetched. If zero, no prefetching
+     *              will occur and {@link #normalize(Object)} will simply delegate to the
+     *              {@link SourceNormalizerRegistry}.
+     */
+    public SourcePrefetcher(@Nonnull DefaultSourceQueue queue,
+                            @Nonnull SourceNormalizerRegistry normalizerRegistry,
+                            @Nonnull ParserExecutor executor, int depth) {
+        this.queue = queue;
+        this.normalizerRegistry = normalizerRegistry;
+        this.executor = executor;
+        this.depth = Math.max(0, depth);
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * Whether a source is worth normalizing in background.
+     *
+     * @param source the source
+     * @return true iff the source should be prefetched
+     */
+    protected boolean shouldPrefetch(@Nonnull Object source) {
+        return source instanceof RDFInputStream || source instanceof File
+                || source instanceof Path || source instanceof URL || source instanceof URI
+                || source instanceof String;
+    }
+
+    private void schedule() {
+        List<Prefetch> started = null;
+        synchronized (this) {
+            if (closed || depth == 0)
+                return;
+            for (Object source : queue.peek(depth)) {
+                if (prefetched.size() >= depth)
+                    break;
+                if (prefetched.containsKey(source) || !shouldPrefetch(source))
+                    continue;
+                Prefetch prefetch = new Prefetch(source);
+                prefetched.put(source, prefetch);
+                (started == null ? started = new ArrayList<>() : started).add(prefetch);
+            }
+        }
+        if (started != null) {
+            for (Prefetch prefetch : started) {
+                try {
+                    executor.execute(prefetch);
+                } catch (RejectedExecutionException e) {
+                    logger.debug("{}: {} rejected prefetch of {}, will normalize on demand",
+                                 this, executor, prefetch.source);
+                }
+            }
+        }
+    }
+
+    @Override public boolean hasNext() {
+        return queue.hasNext();
+    }
+
+    @Override public @Nonnull Object next() {
+        Object source = queue.next();
+        schedule();
+        return source;
+    }
+
+    /**
+     * Get the normalized version of a source previously returned by {@link #next()}.
+     *
+     * @param source the source
+     * @return the prefetched normalization result or the result of
+     *         {@link SourceNormalizerRegistry#normalize(Object)}
+     */
+    public @Nonnull Object normalize(@Nonnull Object source) {
+        Prefetch prefetch;
+        synchronized (this) {
+            prefetch = prefetched.remove(source);
+        }
+        if (prefetch == null)
+            return normalizerRegistry.normalize(source);
+        schedule(); // a prefetch slot has been freed
+        return prefetch.get();
+    }
+
+    /**
+     * Close the queue and release any prefetched sources that will not be used.
+     */
+    @Override public void close() {
+        List<Prefetch> abandoned;
+        synchronized (this) {
+            if (closed)
+                return;
+            closed = true;
+            abandoned = new ArrayList<>(prefetched.values());
+            prefetched.clear();
+        }
+        queue.close();
+        for (Prefetch prefetch : abandoned)
+            prefetch.abandon();
+    }
+
+    @Override public @Nonnull String toString() {
+        return format("%s{depth=%d}", Utils.toString(this), depth);
+    }
+}
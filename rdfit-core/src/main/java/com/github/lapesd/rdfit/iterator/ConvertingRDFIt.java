@@ -20,25 +20,45 @@ import com.github.lapesd.rdfit.SourceQueue;
 import com.github.lapesd.rdfit.components.converters.ConversionManager;
 import com.github.lapesd.rdfit.components.converters.impl.DefaultConversionManager;
 import com.github.lapesd.rdfit.components.converters.util.ConversionCache;
-import com.github.lapesd.rdfit.components.converters.util.ConversionPathSingletonCache;
+import com.github.lapesd.rdfit.components.converters.util.ConversionPathPolymorphicCache;
+import com.github.lapesd.rdfit.errors.InconvertibleException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
+/**
+ * An {@link RDFIt} that converts values of another {@link RDFIt}.
+ *
+ * Values are read from the source in chunks of up to {@link #BATCH_SIZE} and each chunk is
+ * converted with a single {@link ConversionCache#convertBatch(Object, Object[], int, Object[])}
+ * call. If that fails, values of the chunk are converted one at a time when they are
+ * delivered, so that conversion errors surface at the same position they would without
+ * chunking.
+ *
+ * @param <T> the value class
+ */
 public class ConvertingRDFIt<T> extends EagerRDFIt<T> {
     private static final Logger logger = LoggerFactory.getLogger(ConvertingRDFIt.class);
+    public static final int BATCH_SIZE = 128;
 
     private final @Nonnull RDFIt<?> source;
     private final @Nonnull ConversionCache conversionCache;
+    private final @Nonnull Object[] inBatch = new Object[BATCH_SIZE];
+    private final @Nonnull Object[] outBatch = new Object[BATCH_SIZE];
+    private final @Nonnull Object[] batchSources = new Object[BATCH_SIZE];
+    private int batchSize, batchPos;
+    private boolean batchConverted;
+    private @Nullable RuntimeException pendingException;
+    private @Nullable Object currentSource;
 
     public ConvertingRDFIt(@Nonnull Class<? extends T> valueClass,
                            @Nonnull IterationElement itElement, @Nonnull RDFIt<?> source,
                            @Nonnull ConversionManager conversionManager) {
         super(valueClass, itElement, source.getSourceQueue());
         this.source = source;
-        this.conversionCache = new ConversionPathSingletonCache(conversionManager, valueClass);
+        this.conversionCache = new ConversionPathPolymorphicCache(conversionManager, valueClass);
     }
 
     public static @Nonnull <T> RDFIt<T> createIf(@Nonnull Class<T> valueClass,
@@ -66,21 +86,59 @@ public class ConvertingRDFIt<T> extends EagerRDFIt<T> {
     }
 
     @Override public @Nonnull Object getSource() {
-        return source.getSource();
+        // source may have moved on to other sources while the batch was filled
+        Object current = this.currentSource;
+        return current != null ? current : source.getSource();
     }
 
-    @Override protected @Nullable T advance() {
-        while (source.hasNext()) {
-            Object in = source.next();
-            if (in == null) {
-                logger.warn("{}.advance() ignoring null from {}.next()", this, source);
-                assert false;
-                continue;
+    /**
+     * Read up to {@link #BATCH_SIZE} values from source and try to convert them all at once.
+     *
+     * @return false iff source is exhausted
+     */
+    private boolean fill() {
+        RuntimeException pending = this.pendingException;
+        if (pending != null) {
+            this.pendingException = null;
+            throw pending;
+        }
+        batchSize = batchPos = 0;
+        try {
+            while (batchSize < BATCH_SIZE && source.hasNext()) {
+                Object in = source.next();
+                if (in == null) {
+                    logger.warn("{}.advance() ignoring null from {}.next()", this, source);
+                    assert false;
+                    continue;
+                }
+                batchSources[batchSize] = source.getSource();
+                inBatch[batchSize++] = in;
             }
-            //noinspection unchecked
-            return (T)conversionCache.convert(source, in);
+        } catch (RuntimeException e) {
+            if (batchSize == 0)
+                throw e;
+            pendingException = e; // deliver what was read before e
+        }
+        if (batchSize == 0)
+            return false;
+        try {
+            conversionCache.convertBatch(source, inBatch, batchSize, outBatch);
+            batchConverted = true;
+        } catch (InconvertibleException e) {
+            batchConverted = false; // convert one by one in advance()
         }
-        return null; //exhausted
+        return true;
+    }
+
+    @Override protected @Nullable T advance() {
+        if (batchPos == batchSize && !fill())
+            return null; //exhausted
+        int i = batchPos++;
+        Object in = inBatch[i], out = outBatch[i];
+        currentSource = batchSources[i];
+        inBatch[i] = outBatch[i] = batchSources[i] = null;
+        //noinspection unchecked
+        return (T)(batchConverted ? out : conversionCache.convert(source, in));
     }
 
     @Override public void close() {
@@ -0,0 +1,76 @@
+/*
+ *    Copyright 2021 Alexis Armin Huf
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.github.lapesd.rdfit.iterator;
+
+import com.github.lapesd.rdfit.SourceQueue;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.function.Predicate;
+
+/**
+ * An {@link RDFIt} that only yields values of another {@link RDFIt} that satisfy a predicate.
+ *
+ * @param <T> the value type
+ */
+public class FilteringRDFIt<T> extends EagerRDFIt<T> {
+    private final @Nonnull RDFIt<?> in;
+    private final @Nonnull Predicate<Object> predicate;
+
+    /**
+     * Constructor
+     *
+     * @param valueClass the value class
+     * @param itElement whether iterating triples or quads
+     * @param in the input iterator. Will be closed when this is closed
+     * @param predicate the predicate that values must satisfy
+     */
+    public FilteringRDFIt(@Nonnull Class<? extends T> valueClass,
+                          @Nonnull IterationElement itElement, @Nonnull RDFIt<?> in,
+                          @Nonnull Predicate<Object> predicate) {
+        super(valueClass, itElement, in.getSourceQueue());
+        this.in = in;
+        this.predicate = predicate;
+    }
+
+    @Override public @Nonnull Object getSource() {
+        return in.getSource();
+    }
+
+    @Override public @Nonnull SourceQueue getSourceQueue() {
+        return in.getSourceQueue();
+    }
+
+    @Override protected @Nullable T advance() {
+        while (in.hasNext()) {
+            Object next = in.next();
+            if (predicate.test(next)) {
+                //noinspection unchecked
+                return (T) next;
+            }
+        }
+        return null;
+    }
+
+    @Override public void close() {
+        try {
+            in.close();
+        } finally {
+            super.close();
+        }
+    }
+}
@@ -26,6 +26,7 @@ import com.github.lapesd.rdfit.errors.RDFItException;
 import com.github.lapesd.rdfit.impl.ClosedSourceQueue;
 import com.github.lapesd.rdfit.listener.RDFListener;
 import com.github.lapesd.rdfit.listener.RDFListenerBase;
+import com.github.lapesd.rdfit.util.SPSCBlockingQueue;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -33,23 +34,93 @@ import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
 
-import static com.github.lapesd.rdfit.components.converters.util.ConversionPathSingletonCache.createCache;
+import static com.github.lapesd.rdfit.components.converters.util.ConversionPathPolymorphicCache.createCache;
 import static com.github.lapesd.rdfit.util.Utils.compactClass;
 
 /**
  * An {@link RDFIt} backed by an {@link RDFListener} instance
  *
+ * The {@link RDFListener} returned by {@link #getListener()} is expected to be called from a
+ * single producer thread, while this iterator is consumed from a single (other) thread. If a
+ * batchSize larger than 1 is given, the producer will accumulate values into fixed-size chunks
+ * and only hand over complete chunks to the consumer (partial chunks are handed over on
+ * {@link Listener#finish()} and {@link #addException(RDFItException)}). This reduces the
+ * number of lock acquisitions and thread park/unpark events on both sides.
+ *
+ * The queue between producer and consumer is chosen with a {@link Transport}. Regardless
+ * of the transport, the end of the values (and any exception) is signaled only after all
+ * previously delivered values.
+ *
  * @param <T> the value type
  */
 public class ListenerRDFIt<T> extends EagerRDFIt<T> {
     private static final Logger logger = LoggerFactory.getLogger(ListenerRDFIt.class);
+    /**
+     * Maximum number of values buffered between producer and consumer (approximately,
+     * if batching is enabled).
+     */
+    public static final int CAPACITY = 1024;
     private final @Nonnull Listener listener;
-    private boolean abort = false, finished = false;
+    private volatile boolean abort = false;
+    private boolean finished = false;
     private final @Nonnull Object source;
     private RDFItException exception = null;
     private static final Object END = new Object();
-    private final @Nonnull BlockingQueue<Object> queue = new ArrayBlockingQueue<>(1024);
+    private final @Nonnull BlockingQueue<Object> queue;
+    private final int batchSize;
+    private final @Nonnull Transport transport;
+    /* producer-side state */
+    private @Nullable Object[] batch;
+    private int batchFill = 0;
+    /* consumer-side state */
+    private @Nullable Chunk chunk;
+    private int chunkPos = 0;
+    private boolean ended = false;
+
+    /**
+     * How values are handed from the producer (the {@link RDFListener}) to the consumer
+     * (the iterator) thread.
+     */
+    public enum Transport {
+        /**
+         * Use an {@link ArrayBlockingQueue}, with a single lock shared by both threads.
+         */
+        LOCKING,
+        /**
+         * Use a lock-free {@link SPSCBlockingQueue}. Threads spin briefly before parking when
+         * the queue is full or empty.
+         */
+        SPSC;
+
+        /**
+         * Create a new queue for this transport.
+         *
+         * @param capacity the minimum capacity
+         * @return a new and empty {@link BlockingQueue}
+         */
+        public @Nonnull BlockingQueue<Object> createQueue(int capacity) {
+            switch (this) {
+                case LOCKING: return new ArrayBlockingQueue<>(capacity);
+                case    SPSC: return new SPSCBlockingQueue<>(capacity);
+                default: throw new AssertionError("Unexpected transport "+this);
+            }
+        }
+    }
+
+    /**
+     * A batch of values handed from the producer to the consumer in a single queue operation.
+     */
+    private static final class Chunk {
+        final @Nonnull Object[] values;
+        final int size;
+
+        Chunk(@Nonnull Object[] values, int size) {
+            this.values = values;
+            this.size = size;
+        }
+    }
 
     public ListenerRDFIt(@Nonnull Object source, @Nonnull Class<?> valueClass,
                      @Nonnull IterationElement itElement, @Nullable QuadLifter quadLifter,
@@ -61,11 +132,66 @@ public class ListenerRDFIt<T> extends EagerRDFIt<T> {
                          @Nonnull IterationElement itElement, @Nullable QuadLifter quadLifter,
                          @Nonnull ConversionManager convMgr,
                          @Nonnull SourceQueue sourceQueue) {
+        this(source, valueClass, itElement, quadLifter, convMgr, sourceQueue, 1);
+    }
+
+    public ListenerRDFIt(@Nonnull Object source, @Nonnull Class<?> valueClass,
+                         @Nonnull IterationElement itElement, @Nullable QuadLifter quadLifter,
+                         @Nonnull ConversionManager convMgr,
+                         @Nonnull SourceQueue sourceQueue, int batchSize) {
+        this(source, valueClass, itElement, quadLifter, convMgr, sourceQueue, batchSize,
+             Transport.LOCKING);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param source the source being parsed
+     * @param valueClass the value class
+     * @param itElement whether iterating triples or quads
+     * @param quadLifter the {@link QuadLifter} to use if iterating quads
+     * @param convMgr {@link ConversionManager} used to convert values into valueClass
+     * @param sourceQueue the {@link SourceQueue} for additional sources
+     * @param batchSize number of values handed over at once from the listener to the
+     *                  iterator. If 1 (or less), values are handed over one at a time.
+     * @param transport the kind of queue used between listener and iterator
+     */
+    public ListenerRDFIt(@Nonnull Object source, @Nonnull Class<?> valueClass,
+                         @Nonnull IterationElement itElement, @Nullable QuadLifter quadLifter,
+                         @Nonnull ConversionManager convMgr,
+                         @Nonnull SourceQueue sourceQueue, int batchSize,
+                         @Nonnull Transport transport) {
         super(valueClass, itElement, sourceQueue);
         this.source = source;
+        this.batchSize = Math.max(1, batchSize);
+        if (this.batchSize > 1) {
+            this.batch = new Object[this.batchSize];
+            this.queue = transport.createQueue(Math.max(2, CAPACITY / this.batchSize));
+        } else {
+            this.queue = transport.createQueue(CAPACITY);
+        }
+        this.transport = transport;
         listener = new Listener(quadLifter, convMgr);
     }
 
+    /**
+     * Number of values handed at once from the {@link #getListener()} to this iterator.
+     *
+     * @return the batch size, 1 if batching is disabled.
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * The {@link Transport} used to hand values from the listener to this iterator.
+     *
+     * @return the non-null {@link Transport}
+     */
+    public @Nonnull Transport getTransport() {
+        return transport;
+    }
+
     @Override public @Nonnull Object getSource() {
         return source;
     }
@@ -85,26 +211,88 @@ public class ListenerRDFIt<T> extends EagerRDFIt<T> {
             finished = true;
             notifyAll();
         }
+        flush();
+        put(END);
+    }
+
+    /**
+     * Hand over a value (or the END marker) to the consumer. Must be called from the
+     * producer thread.
+     *
+     * If {@link #close()} is called while the queue is full, the value is discarded, since
+     * nobody will consume it. This avoids a dead-lock between the blocked producer and
+     * the {@link #close()}ing consumer, which waits for the producer to finish.
+     *
+     * @param value the value
+     */
+    private void put(@Nonnull Object value) {
         try {
-            queue.put(END);
-        } catch (InterruptedException interruptedException) {
+            while (!queue.offer(value, 10, TimeUnit.MILLISECONDS)) {
+                if (abort)
+                    return;
+            }
+        } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
         }
     }
 
+    /**
+     * Append a value to the current batch or hand it over directly if batching is disabled.
+     * Must be called from the producer thread.
+     *
+     * @param value the value to hand over to the consumer
+     */
+    private void enqueue(@Nonnull Object value) {
+        Object[] batch = this.batch;
+        if (batch == null) {
+            put(value);
+        } else {
+            batch[batchFill++] = value;
+            if (batchFill == batch.length)
+                flush();
+        }
+    }
+
+    /**
+     * Hand over any values in the current (possibly partial) batch to the consumer.
+     * Must be called from the producer thread.
+     */
+    private void flush() {
+        if (batch == null || batchFill == 0)
+            return;
+        Chunk chunk = new Chunk(batch, batchFill);
+        batch = new Object[batchSize];
+        batchFill = 0;
+        put(chunk);
+    }
+
     public @Nonnull RDFListener<?, ?> getListener() {
         return listener;
     }
 
     @Override protected @Nullable T advance() {
+        if (ended)
+            return endOrThrow();
         try {
-            Object object = queue.take();
-            if (object == END) {
-                queue.put(object); // stops a second advance() call from hanging
-                synchronized (this) {
-                    if (exception != null) throw exception;
+            Object object;
+            if (chunk != null) {
+                object = chunk.values[chunkPos++];
+                if (chunkPos == chunk.size)
+                    chunk = null;
+            } else {
+                object = queue.take();
+                if (object instanceof Chunk) {
+                    Chunk taken = (Chunk) object;
+                    object = taken.values[0];
+                    if (taken.size > 1) {
+                        chunk = taken;
+                        chunkPos = 1;
+                    }
                 }
-                return null; //exhausted
+            }
+            if (object == END) {
+                ended = true; // stops a second advance() call from hanging
+                return endOrThrow();
             }
             assert valueClass().isInstance(object);
             //noinspection unchecked
@@ -116,6 +304,13 @@ public class ListenerRDFIt<T> extends EagerRDFIt<T> {
         }
     }
 
+    private @Nullable T endOrThrow() {
+        synchronized (this) {
+            if (exception != null) throw exception;
+        }
+        return null; //exhausted
+    }
+
     @Override public void close() {
         synchronized (this) {
             abort = true;
@@ -159,8 +354,12 @@ public class ListenerRDFIt<T> extends EagerRDFIt<T> {
 
         private void deliver(@Nonnull Object value) {
             if (abort) {
-                abort = false;
-                finish();
+                boolean callFinish;
+                synchronized (ListenerRDFIt.this) {
+                    callFinish = !finished;
+                }
+                if (callFinish)
+                    finish();
                 throw new InterruptParsingException();
             }
             if (value != END && !valueClass.isInstance(value)) {
@@ -168,11 +367,7 @@ public class ListenerRDFIt<T> extends EagerRDFIt<T> {
                 addException(new RDFItException(source, msg));
                 return;
             }
-            try {
-                queue.put(value);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-            }
+            enqueue(value);
         }
 
         @Override public void attachSourceQueue(@Nonnull SourceQueue queue) {
@@ -237,11 +432,8 @@ public class ListenerRDFIt<T> extends EagerRDFIt<T> {
                 finished = true;
                 ListenerRDFIt.this.notifyAll();
             }
-            try {
-                queue.put(END);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-            }
+            flush();
+            put(END);
         }
     }
 }
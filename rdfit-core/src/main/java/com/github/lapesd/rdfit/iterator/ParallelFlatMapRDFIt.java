@@ -0,0 +1,333 @@
+/*
+ *    Copyright 2021 Alexis Armin Huf
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.github.lapesd.rdfit.iterator;
+
+import com.github.lapesd.rdfit.ParserExecutor;
+import com.github.lapesd.rdfit.SourceQueue;
+import com.github.lapesd.rdfit.errors.RDFItException;
+import com.github.lapesd.rdfit.util.NoSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * A parallel version of {@link FlatMapRDFIt}: up to parallelism inputs are mapped into
+ * {@link RDFIt}s and iterated concurrently on worker threads.
+ *
+ * The values of each input are delivered as a contiguous sequence if {@link Merge#ORDERED}
+ * is used, with inputs in the order they were taken from the input iterator. With
+ * {@link Merge#UNORDERED}, values of distinct inputs are interleaved as they become available.
+ *
+ * The input iterator (usually a {@link SourceQueue}) is only accessed from the consumer
+ * thread, but the mapping function and the mapped {@link RDFIt}s are called from
+ * worker threads. Inputs added to a {@link SourceQueue} while parsing another input are
+ * observed, since iteration only ends once the input iterator is exhausted and all
+ * workers have finished.
+ *
+ * An {@link RDFItException} raised by the mapping function or by a mapped {@link RDFIt}
+ * is thrown from {@link #hasNext()} (at the position of its input, if {@link Merge#ORDERED}).
+ * Iteration may continue after such exception, skipping the remainder of the failed input.
+ *
+ * @param <T> the value type
+ */
+public class ParallelFlatMapRDFIt<T> extends EagerRDFIt<T> {
+    private static final Logger logger = LoggerFactory.getLogger(ParallelFlatMapRDFIt.class);
+    /**
+     * Number of values handed at once from a worker to the consumer.
+     */
+    public static final int CHUNK_SIZE = 64;
+    /**
+     * Maximum number of chunks buffered per worker.
+     */
+    public static final int CHUNKS_PER_WORKER = 16;
+    private static final long POLL_MS = 10;
+
+    /**
+     * How values from concurrently iterated inputs are merged.
+     */
+    public enum Merge {
+        /**
+         * Deliver all values of an input before any value of the next input.
+         */
+        ORDERED,
+        /**
+         * Deliver values as soon as any worker produces them.
+         */
+        UNORDERED
+    }
+
+    private final @Nonnull Iterator<?> inputIt;
+    private final @Nonnull Function<Object, RDFIt<T>> function;
+    private final int parallelism;
+    private final @Nonnull Merge merge;
+    private final @Nonnull ParserExecutor executor;
+    private boolean ownsSourceQueue = false;
+    private volatile boolean cancelled = false;
+    private int runningWorkers = 0;
+    private final @Nonnull Object workersLock = new Object();
+    /* consumer-side state */
+    private final @Nonnull ArrayDeque<Slot> slots = new ArrayDeque<>();
+    private final @Nullable BlockingQueue<Object> sharedQueue;
+    private @Nullable Chunk chunk;
+    private int chunkPos = 0;
+    private @Nonnull Object currentSource = NoSource.INSTANCE;
+
+    private static final class Slot {
+        final @Nonnull Object input;
+        final @Nonnull BlockingQueue<Object> queue;
+        /** Set by the consumer if the executor rejected the worker. */
+        @Nullable Done rejected;
+
+        Slot(@Nonnull Object input, @Nonnull BlockingQueue<Object> queue) {
+            this.input = input;
+            this.queue = queue;
+        }
+    }
+
+    private static final class Chunk {
+        final @Nonnull Object source;
+        final @Nonnull Object[] values;
+        final int size;
+
+        Chunk(@Nonnull Object source, @Nonnull Object[] values, int size) {
+            this.source = source;
+            this.values = values;
+            this.size = size;
+        }
+    }
+
+    private static final class Done {
+        final @Nonnull Slot slot;
+        final @Nullable RDFItException exception;
+
+        Done(@Nonnull Slot slot, @Nullable RDFItException exception) {
+            this.slot = slot;
+            this.exception = exception;
+        }
+    }
+
+    /**
+     * Constructor
+     *
+     * @param valueClass the value class
+     * @param itElement whether iterating triples or quads
+     * @param inputIt iterator of inputs. Only accessed from the consumer thread.
+     * @param function maps an input into an {@link RDFIt}. Called from worker threads.
+     * @param sourceQueue the {@link SourceQueue} for additional sources
+     * @param parallelism maximum number of inputs being iterated concurrently
+     * @param merge how values from distinct inputs are merged
+     * @param executor runs the workers. Each worker blocks while its output is not consumed,
+     *                 thus this should not be an executor that runs the parsers used
+     *                 within the function, if it is bounded.
+     */
+    public ParallelFlatMapRDFIt(@Nonnull Class<? extends T> valueClass,
+                                @Nonnull IterationElement itElement,
+                                @Nonnull Iterator<?> inputIt,
+                                @Nonnull Function<?, RDFIt<T>> function,
+                                @Nonnull SourceQueue sourceQueue, int parallelism,
+                                @Nonnull Merge merge, @Nonnull ParserExecutor executor) {
+        super(valueClass, itElement, sourceQueue);
+        if (parallelism < 1)
+            throw new IllegalArgumentException("parallelism="+parallelism+" < 1");
+        this.inputIt = inputIt;
+        //noinspection unchecked
+        this.function = (Function<Object, RDFIt<T>>) function;
+        this.parallelism = parallelism;
+        this.merge = merge;
+        this.executor = executor;
+        if (merge == Merge.UNORDERED)
+            sharedQueue = new ArrayBlockingQueue<>(parallelism * CHUNKS_PER_WORKER);
+        else
+            sharedQueue = null;
+    }
+
+    public @Nonnull ParallelFlatMapRDFIt<T> owningSourceQueue() {
+        this.ownsSourceQueue = true;
+        return this;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public @Nonnull Merge getMerge() {
+        return merge;
+    }
+
+    @Override public @Nonnull Object getSource() {
+        return currentSource;
+    }
+
+    private void launch() {
+        while (slots.size() < parallelism && !closed && inputIt.hasNext()) {
+            Object input = inputIt.next();
+            BlockingQueue<Object> queue = sharedQueue != null ? sharedQueue
+                                        : new ArrayBlockingQueue<>(CHUNKS_PER_WORKER);
+            Slot slot = new Slot(input, queue);
+            slots.add(slot);
+            synchronized (workersLock) {
+                ++runningWorkers;
+            }
+            try {
+                executor.execute(() -> work(slot));
+            } catch (RejectedExecutionException e) {
+                workerFinished();
+                // the (shared) queue may be full, and only this thread drains it
+                String msg = executor + " rejected worker";
+                slot.rejected = new Done(slot, new RDFItException(input, msg, e));
+            }
+        }
+    }
+
+    private boolean send(@Nonnull Slot slot, @Nonnull Object message) {
+        try {
+            while (!slot.queue.offer(message, POLL_MS, TimeUnit.MILLISECONDS)) {
+                if (cancelled)
+                    return false;
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void work(@Nonnull Slot slot) {
+        RDFIt<T> it = null;
+        RDFItException exception = null;
+        Object[] values = new Object[CHUNK_SIZE];
+        int size = 0;
+        try {
+            if (cancelled)
+                return;
+            it = function.apply(slot.input);
+            while (!cancelled && it.hasNext()) {
+                values[size++] = it.next();
+                if (size == CHUNK_SIZE) {
+                    Chunk full = new Chunk(it.getSource(), values, size);
+                    values = new Object[CHUNK_SIZE];
+                    size = 0;
+                    if (!send(slot, full))
+                        return;
+                }
+            }
+        } catch (RDFItException e) {
+            exception = e;
+        } catch (Throwable t) {
+            String msg = "Unexpected " + t.getClass().getSimpleName();
+            exception = new RDFItException(slot.input, msg, t);
+        } finally {
+            Object source = it == null ? slot.input : it.getSource();
+            try {
+                if (it != null)
+                    it.close();
+            } catch (Throwable t) {
+                logger.error("{}: ignoring {}.close() exception", this, it, t);
+            }
+            // values produced before a failure are delivered before the exception
+            if (!cancelled && (size == 0 || send(slot, new Chunk(source, values, size))))
+                send(slot, new Done(slot, exception));
+            workerFinished();
+        }
+    }
+
+    private void workerFinished() {
+        synchronized (workersLock) {
+            --runningWorkers;
+            workersLock.notifyAll();
+        }
+    }
+
+    @Override protected @Nullable T advance() {
+        try {
+            while (true) {
+                Chunk chunk = this.chunk;
+                if (chunk != null) {
+                    Object value = chunk.values[chunkPos++];
+                    if (chunkPos == chunk.size)
+                        this.chunk = null;
+                    //noinspection unchecked
+                    return (T) value;
+                }
+                launch();
+                Slot head = slots.peekFirst();
+                if (head == null) {
+                    close();
+                    return null; // exhausted
+                }
+                Object message = head.rejected != null ? head.rejected : head.queue.take();
+                if (message instanceof Chunk) {
+                    this.chunk = (Chunk) message;
+                    this.chunkPos = 0;
+                    currentSource = this.chunk.source;
+                } else {
+                    Done done = (Done) message;
+                    slots.remove(done.slot);
+                    if (done.exception != null) {
+                        currentSource = done.slot.input;
+                        throw done.exception;
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            close();
+            Thread.currentThread().interrupt();
+            return null; //aborted
+        }
+    }
+
+    @Override public void close() {
+        if (closed)
+            return;
+        closed = true;
+        cancelled = true;
+        boolean interrupted = false;
+        synchronized (workersLock) {
+            while (runningWorkers > 0) {
+                try {
+                    workersLock.wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        slots.clear();
+        chunk = null;
+        if (sharedQueue != null)
+            sharedQueue.clear();
+        if (ownsSourceQueue)
+            sourceQueue.close();
+        if (inputIt instanceof AutoCloseable) {
+            try {
+                ((AutoCloseable) inputIt).close();
+            } catch (Exception e) {
+                logger.error("{}.close(): ignoring {}.close() exception", this, inputIt, e);
+            }
+        }
+        if (interrupted)
+            Thread.currentThread().interrupt();
+    }
+}
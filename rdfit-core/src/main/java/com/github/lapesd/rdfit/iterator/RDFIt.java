@@ -22,6 +22,10 @@ import com.github.lapesd.rdfit.util.NoSource;
 
 import javax.annotation.Nonnull;
 import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * A closeable iterator over triple-representing objects
@@ -59,6 +63,23 @@ public interface RDFIt<T> extends Iterator<T>, AutoCloseable {
      */
     @Nonnull Object getSource();
 
+    /**
+     * Create a sequential {@link Stream} over the remaining values of this iterator.
+     *
+     * Closing the stream closes this iterator. A parallel stream obtained from the result
+     * only parallelizes the stream pipeline, as parsing remains sequential. To parse
+     * distinct sources in parallel, use
+     * {@link com.github.lapesd.rdfit.RDFItFactory#streamTriples(Class, Object...)} and
+     * similar methods.
+     *
+     * @return a new {@link Stream} that consumes this iterator.
+     */
+    default @Nonnull Stream<T> stream() {
+        Spliterator<T> spliterator = Spliterators.spliteratorUnknownSize(
+                this, Spliterator.ORDERED | Spliterator.NONNULL);
+        return StreamSupport.stream(spliterator, false).onClose(this::close);
+    }
+
     /**
      * Close the iterator, releasing any resources held by the instance.
      *
@@ -0,0 +1,179 @@
+/*
+ *    Copyright 2021 Alexis Armin Huf
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.github.lapesd.rdfit.iterator;
+
+import com.github.lapesd.rdfit.util.Utils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * A {@link Spliterator} over the values of {@link RDFIt}s created for a list of sources.
+ *
+ * Until traversal starts, {@link #trySplit()} hands off the first half of the pending
+ * sources to a new {@link RDFItSpliterator}. If a single source is pending, the
+ * expander function may replace it with a list of sources that together yield the same
+ * values (e.g., slices of a large file). Once traversal starts, the pending sources are
+ * given to the iterator factory and no further splits are made.
+ *
+ * All {@link RDFIt}s created by a spliterator and by the spliterators split from it are
+ * closed by {@link #close()}, which should be called when the stream is closed.
+ *
+ * @param <T> the value type
+ */
+public class RDFItSpliterator<T> implements Spliterator<T>, AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(RDFItSpliterator.class);
+
+    private final @Nonnull Function<? super List<Object>, ? extends RDFIt<T>> itFactory;
+    private final @Nullable Function<Object, ? extends List<?>> expander;
+    private final @Nonnull OpenIterators open;
+    private @Nonnull List<Object> pending;
+    private @Nullable RDFIt<T> it;
+
+    /**
+     * Holds all {@link RDFIt} instances created by a tree of spliterators.
+     */
+    private static class OpenIterators {
+        private final @Nonnull List<RDFIt<?>> list = new ArrayList<>();
+        private boolean closed = false;
+
+        public synchronized @Nonnull <U> RDFIt<U> add(@Nonnull RDFIt<U> it) {
+            if (closed) {
+                it.close();
+                throw new IllegalStateException("RDFItSpliterator already closed");
+            }
+            list.add(it);
+            return it;
+        }
+
+        public synchronized void close() {
+            if (closed)
+                return;
+            closed = true;
+            for (RDFIt<?> it : list) {
+                try {
+                    it.close();
+                } catch (RuntimeException e) {
+                    logger.error("Ignoring {} from {}.close()", e.getClass().getSimpleName(), it, e);
+                }
+            }
+            list.clear();
+        }
+    }
+
+    /**
+     * Create a spliterator over the given sources.
+     *
+     * @param sources the sources, in order. null members are ignored
+     * @param itFactory creates an {@link RDFIt} over all values of the given sources (in order)
+     * @param expander if non-null, maps a source into a list of sources with the same values
+     *                 in the same order. Returning null or the source itself in a singleton
+     *                 list means the source cannot be split
+     */
+    public RDFItSpliterator(@Nonnull List<?> sources,
+                            @Nonnull Function<? super List<Object>, ? extends RDFIt<T>> itFactory,
+                            @Nullable Function<Object, ? extends List<?>> expander) {
+        this(new ArrayList<>(sources.size()), itFactory, expander, new OpenIterators());
+        for (Object source : sources) {
+            if (source != null)
+                pending.add(source);
+        }
+    }
+
+    private RDFItSpliterator(@Nonnull List<Object> pending,
+                             @Nonnull Function<? super List<Object>, ? extends RDFIt<T>> itFactory,
+                             @Nullable Function<Object, ? extends List<?>> expander,
+                             @Nonnull OpenIterators open) {
+        this.pending = pending;
+        this.itFactory = itFactory;
+        this.expander = expander;
+        this.open = open;
+    }
+
+    private @Nonnull RDFIt<T> start() {
+        if (it == null) {
+            it = open.add(itFactory.apply(pending));
+            pending = Collections.emptyList();
+        }
+        return it;
+    }
+
+    @Override public boolean tryAdvance(@Nonnull Consumer<? super T> action) {
+        RDFIt<T> it = start();
+        if (!it.hasNext())
+            return false;
+        action.accept(it.next());
+        return true;
+    }
+
+    @Override public void forEachRemaining(@Nonnull Consumer<? super T> action) {
+        RDFIt<T> it = start();
+        while (it.hasNext())
+            action.accept(it.next());
+    }
+
+    @Override public @Nullable Spliterator<T> trySplit() {
+        if (it != null)
+            return null;
+        if (pending.size() == 1 && expander != null) {
+            List<?> expanded = expander.apply(pending.get(0));
+            if (expanded != null)
+                pending = new ArrayList<>(expanded);
+        }
+        int size = pending.size();
+        if (size < 2)
+            return null;
+        List<Object> prefix = new ArrayList<>(pending.subList(0, size / 2));
+        pending = new ArrayList<>(pending.subList(size / 2, size));
+        logger.trace("{}.trySplit(): handing off {} sources", this, prefix.size());
+        return new RDFItSpliterator<>(prefix, itFactory, expander, open);
+    }
+
+    /**
+     * The number of values is unknown before parsing.
+     *
+     * @return 0 if there never were sources, else {@link Long#MAX_VALUE}
+     */
+    @Override public long estimateSize() {
+        return it == null && pending.isEmpty() ? 0 : Long.MAX_VALUE;
+    }
+
+    @Override public int characteristics() {
+        return ORDERED | NONNULL;
+    }
+
+    /**
+     * Close all {@link RDFIt}s created by this spliterator, by spliterators split from it
+     * and by the spliterator it was split from.
+     */
+    @Override public void close() {
+        open.close();
+    }
+
+    @Override public @Nonnull String toString() {
+        return String.format("%s{pending=%d, started=%b}", Utils.toString(this),
+                             pending.size(), it != null);
+    }
+}
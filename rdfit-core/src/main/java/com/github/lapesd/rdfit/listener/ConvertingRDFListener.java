@@ -19,11 +19,12 @@ package com.github.lapesd.rdfit.listener;
 import com.github.lapesd.rdfit.components.ListenerParser;
 import com.github.lapesd.rdfit.components.converters.ConversionManager;
 import com.github.lapesd.rdfit.components.converters.util.ConversionCache;
-import com.github.lapesd.rdfit.components.converters.util.ConversionPathSingletonCache;
+import com.github.lapesd.rdfit.components.converters.util.ConversionPathPolymorphicCache;
 import com.github.lapesd.rdfit.errors.InconvertibleException;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.util.Arrays;
 
 /**
  * An {@link RDFListener} that converts triple/quads and forwards to a another instance.
@@ -38,6 +39,7 @@ public class ConvertingRDFListener<T, Q> extends DelegatingRDFListener<T, Q> {
     protected @Nonnull ConversionCache tripleConversion;
     protected @Nonnull ConversionCache quadConversion;
     protected @Nonnull ConversionCache upgrader, downgrader;
+    private @Nullable Object[] scratch;
 
     public ConvertingRDFListener(@Nonnull RDFListener<?, ?> target,
                                  @Nullable Class<T> rcvTripleType,
@@ -52,10 +54,10 @@ public class ConvertingRDFListener<T, Q> extends DelegatingRDFListener<T, Q> {
         this.quadType   = rcvQuadType  ;
         Class<?> outTripleType = target.tripleType();
         Class<?> outQuadType = target.quadType();
-        this.tripleConversion = ConversionPathSingletonCache.createCache(convMgr, outTripleType);
-        this.quadConversion = ConversionPathSingletonCache.createCache(convMgr, outQuadType);
-        this.upgrader = ConversionPathSingletonCache.createCache(convMgr, outQuadType);
-        this.downgrader = ConversionPathSingletonCache.createCache(convMgr, outTripleType);
+        this.tripleConversion = ConversionPathPolymorphicCache.createCache(convMgr, outTripleType);
+        this.quadConversion = ConversionPathPolymorphicCache.createCache(convMgr, outQuadType);
+        this.upgrader = ConversionPathPolymorphicCache.createCache(convMgr, outQuadType);
+        this.downgrader = ConversionPathPolymorphicCache.createCache(convMgr, outTripleType);
     }
 
     public static @Nonnull <T, Q> RDFListener<T, Q>
@@ -112,4 +114,68 @@ public class ConvertingRDFListener<T, Q> extends DelegatingRDFListener<T, Q> {
         else
             target.quad(quadConversion.convert(source, quad));
     }
+
+    private @Nonnull Object[] scratch(int n) {
+        Object[] scratch = this.scratch;
+        if (scratch == null || scratch.length < n)
+            this.scratch = scratch = new Object[n];
+        return scratch;
+    }
+
+    /**
+     * Converts the whole batch with a single {@link ConversionCache} call and forwards the
+     * converted batch to the target. If that fails, falls back to one-by-one delivery.
+     */
+    @Override public boolean triples(@Nonnull Object[] batch, int n) {
+        assert tripleType != null;
+        boolean asQuads = target.tripleType() == null;
+        Object[] out = scratch(n);
+        try {
+            try {
+                (asQuads ? upgrader : tripleConversion).convertBatch(source, batch, n, out);
+            } catch (InconvertibleException e) {
+                boolean ok = true;
+                for (int i = 0; i < n; i++) {
+                    try {
+                        //noinspection unchecked
+                        triple((T) batch[i]);
+                    } catch (InconvertibleException e2) {
+                        ok &= notifyInconvertibleTriple(e2);
+                    }
+                }
+                return ok;
+            }
+            return asQuads ? target.quads(out, n) : target.triples(out, n);
+        } finally {
+            Arrays.fill(out, 0, n, null);
+        }
+    }
+
+    /**
+     * Same as {@link #triples(Object[], int)}, but for quads.
+     */
+    @Override public boolean quads(@Nonnull Object[] batch, int n) {
+        assert quadType != null;
+        boolean asTriples = target.quadType() == null;
+        Object[] out = scratch(n);
+        try {
+            try {
+                (asTriples ? downgrader : quadConversion).convertBatch(source, batch, n, out);
+            } catch (InconvertibleException e) {
+                boolean ok = true;
+                for (int i = 0; i < n; i++) {
+                    try {
+                        //noinspection unchecked
+                        quad((Q) batch[i]);
+                    } catch (InconvertibleException e2) {
+                        ok &= notifyInconvertibleQuad(e2);
+                    }
+                }
+                return ok;
+            }
+            return asTriples ? target.triples(out, n) : target.quads(out, n);
+        } finally {
+            Arrays.fill(out, 0, n, null);
+        }
+    }
 }
@@ -91,6 +91,14 @@ public class DelegatingRDFListener<T, Q> implements RDFListener<T, Q> {
         ((RDFListener<T, Q>)target).quad(graph, triple);
     }
 
+    @Override public boolean triples(@Nonnull Object[] batch, int n) {
+        return target.triples(batch, n);
+    }
+
+    @Override public boolean quads(@Nonnull Object[] batch, int n) {
+        return target.quads(batch, n);
+    }
+
     @Override public void prefix(@Nonnull String prefixLabel, @Nonnull String iriPrefix) {
         target.prefix(prefixLabel, iriPrefix);
     }
@@ -0,0 +1,134 @@
+/*
+ *    Copyright 2021 Alexis Armin Huf
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.github.lapesd.rdfit.listener;
+
+import com.github.lapesd.rdfit.errors.InterruptParsingException;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.function.Predicate;
+
+/**
+ * An {@link RDFListener} that only delivers to its target the triples and quads that
+ * satisfy a predicate.
+ *
+ * @param <T> the triple representation class
+ * @param <Q> the quad representation class
+ */
+public class FilteringRDFListener<T, Q> extends DelegatingRDFListener<T, Q> {
+    private final @Nullable Predicate<Object> triplePredicate;
+    private final @Nullable Predicate<? super String> graphPredicate;
+    private final @Nullable Predicate<Object> quadPredicate;
+    private @Nullable Object[] scratch;
+
+    /**
+     * Constructor.
+     *
+     * @param target the listener to receive accepted triples and quads
+     * @param triplePredicate predicate for triples (including the triples of
+     *                        {@link #quad(String, Object)}) or null to accept all
+     * @param graphPredicate predicate for the graph of {@link #quad(String, Object)} calls
+     *                       or null to accept all. If non-null, only triples in a graph
+     *                       (i.e., given to {@link #quad(String, Object)}) are accepted.
+     * @param quadPredicate predicate for quads or null to accept all
+     */
+    public FilteringRDFListener(@Nonnull RDFListener<?, ?> target,
+                                @Nullable Predicate<Object> triplePredicate,
+                                @Nullable Predicate<? super String> graphPredicate,
+                                @Nullable Predicate<Object> quadPredicate) {
+        super(target);
+        this.triplePredicate = triplePredicate;
+        this.graphPredicate = graphPredicate;
+        this.quadPredicate = quadPredicate;
+    }
+
+    /**
+     * Same as {@link #FilteringRDFListener(RDFListener, Predicate, Predicate, Predicate)}
+     * with a null graphPredicate.
+     *
+     * @param target the listener to receive accepted triples and quads
+     * @param triplePredicate predicate for triples or null to accept all
+     * @param quadPredicate predicate for quads or null to accept all
+     */
+    public FilteringRDFListener(@Nonnull RDFListener<?, ?> target,
+                                @Nullable Predicate<Object> triplePredicate,
+                                @Nullable Predicate<Object> quadPredicate) {
+        this(target, triplePredicate, null, quadPredicate);
+    }
+
+    @Override public void triple(@Nonnull T triple) {
+        if (graphPredicate == null && (triplePredicate == null || triplePredicate.test(triple)))
+            super.triple(triple);
+    }
+
+    @Override public void quad(@Nonnull Q quad) {
+        if (quadPredicate == null || quadPredicate.test(quad))
+            super.quad(quad);
+    }
+
+    @Override public void quad(@Nonnull String graph, @Nonnull T triple) {
+        if ((graphPredicate == null || graphPredicate.test(graph))
+                && (triplePredicate == null || triplePredicate.test(triple))) {
+            super.quad(graph, triple);
+        }
+    }
+
+    /**
+     * Copy the elements of batch that satisfy predicate into {@link #scratch}, leaving
+     * batch (which belongs to the caller) untouched.
+     *
+     * @return number of elements copied into {@link #scratch}
+     */
+    private int compact(@Nonnull Predicate<Object> predicate, @Nonnull Object[] batch, int n) {
+        Object[] out = scratch;
+        if (out == null || out.length < n)
+            scratch = out = new Object[n];
+        int kept = 0;
+        for (int i = 0; i < n; i++) {
+            if (predicate.test(batch[i]))
+                out[kept++] = batch[i];
+        }
+        return kept;
+    }
+
+    @Override public boolean triples(@Nonnull Object[] batch,
+                                     int n) throws InterruptParsingException {
+        if (graphPredicate != null)
+            return true; // triples have no graph
+        if (triplePredicate == null)
+            return super.triples(batch, n);
+        int kept = compact(triplePredicate, batch, n);
+        try {
+            return kept == 0 || super.triples(scratch, kept);
+        } finally {
+            Arrays.fill(scratch, 0, kept, null);
+        }
+    }
+
+    @Override public boolean quads(@Nonnull Object[] batch,
+                                   int n) throws InterruptParsingException {
+        if (quadPredicate == null)
+            return super.quads(batch, n);
+        int kept = compact(quadPredicate, batch, n);
+        try {
+            return kept == 0 || super.quads(scratch, kept);
+        } finally {
+            Arrays.fill(scratch, 0, kept, null);
+        }
+    }
+}
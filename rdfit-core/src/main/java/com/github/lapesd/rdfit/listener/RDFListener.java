@@ -145,6 +145,59 @@ public interface RDFListener<T, Q> {
      */
     void quad(@Nonnull String graph, @Nonnull T triple);
 
+    /**
+     * Deliver the first n elements of batch as triples, in order.
+     *
+     * The default implementation calls {@link #triple(Object)} for each element and
+     * {@link #notifyInconvertibleTriple(InconvertibleException)} for each of those calls that
+     * throw an {@link InconvertibleException}. Implementations must not retain the array.
+     *
+     * @param batch array of triples
+     * @param n number of triples in batch
+     * @return false iff some {@link #notifyInconvertibleTriple(InconvertibleException)}
+     *         call returned false.
+     * @throws InterruptParsingException if thrown by
+     *         {@link #notifyInconvertibleTriple(InconvertibleException)}
+     */
+    @SuppressWarnings("unchecked")
+    default boolean triples(@Nonnull Object[] batch, int n) throws InterruptParsingException {
+        boolean ok = true;
+        for (int i = 0; i < n; i++) {
+            try {
+                triple((T) batch[i]);
+            } catch (InconvertibleException e) {
+                ok &= notifyInconvertibleTriple(e);
+            }
+        }
+        return ok;
+    }
+
+    /**
+     * Deliver the first n elements of batch as quads, in order.
+     *
+     * Same as {@link #triples(Object[], int)}, but calling {@link #quad(Object)} and
+     * {@link #notifyInconvertibleQuad(InconvertibleException)}.
+     *
+     * @param batch array of quads
+     * @param n number of quads in batch
+     * @return false iff some {@link #notifyInconvertibleQuad(InconvertibleException)}
+     *         call returned false.
+     * @throws InterruptParsingException if thrown by
+     *         {@link #notifyInconvertibleQuad(InconvertibleException)}
+     */
+    @SuppressWarnings("unchecked")
+    default boolean quads(@Nonnull Object[] batch, int n) throws InterruptParsingException {
+        boolean ok = true;
+        for (int i = 0; i < n; i++) {
+            try {
+                quad((Q) batch[i]);
+            } catch (InconvertibleException e) {
+                ok &= notifyInconvertibleQuad(e);
+            }
+        }
+        return ok;
+    }
+
     /**
      * Notify a prefix definition (e.g., <code>@prefix label: &lt;IRI&gt;</code>) from the input document.
      *
@@ -0,0 +1,110 @@
+/*
+ *    Copyright 2021 Alexis Armin Huf
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.github.lapesd.rdfit.source;
+
+import com.github.lapesd.rdfit.util.Utils;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Objects;
+
+import static java.lang.String.format;
+
+/**
+ * A source restricted to the triples/quads that match a triple (or quad) pattern.
+ *
+ * Terms are objects in the representation of any RDF library (e.g., a Jena Node or an
+ * RDF4J Value). A {@link String} term is an absolute IRI. A null term is a variable that
+ * matches anything.
+ *
+ * Parsers for indexed sources (e.g., HDT files, Jena graphs and RDF4J repositories) that
+ * understand the pattern terms evaluate the pattern natively. Other sources are parsed as
+ * usual, and the results are filtered with a
+ * {@link com.github.lapesd.rdfit.components.PatternMatcher}.
+ */
+public class PatternSource {
+    private final @Nonnull Object source;
+    private final @Nullable Object subject, predicate, object, graph;
+
+    public PatternSource(@Nonnull Object source, @Nullable Object subject,
+                         @Nullable Object predicate, @Nullable Object object,
+                         @Nullable Object graph) {
+        this.source = source;
+        this.subject = subject;
+        this.predicate = predicate;
+        this.object = object;
+        this.graph = graph;
+    }
+
+    public PatternSource(@Nonnull Object source, @Nullable Object subject,
+                         @Nullable Object predicate, @Nullable Object object) {
+        this(source, subject, predicate, object, null);
+    }
+
+    /**
+     * Create a {@link PatternSource} with the same pattern over another source.
+     *
+     * @param source the new source
+     * @return a new {@link PatternSource} or this if source is the same as {@link #getSource()}
+     */
+    public @Nonnull PatternSource withSource(@Nonnull Object source) {
+        if (source == this.source)
+            return this;
+        return new PatternSource(source, subject, predicate, object, graph);
+    }
+
+    public @Nonnull Object getSource() {
+        return source;
+    }
+    public @Nullable Object getSubject() {
+        return subject;
+    }
+    public @Nullable Object getPredicate() {
+        return predicate;
+    }
+    public @Nullable Object getObject() {
+        return object;
+    }
+
+    /**
+     * The graph name, if not null, only matches quads in that graph.
+     *
+     * @return the graph name or null if any graph (or no graph, for triples) matches.
+     */
+    public @Nullable Object getGraph() {
+        return graph;
+    }
+
+    @Override public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof PatternSource)) return false;
+        PatternSource that = (PatternSource) o;
+        return source.equals(that.source) && Objects.equals(subject, that.subject)
+                && Objects.equals(predicate, that.predicate)
+                && Objects.equals(object, that.object) && Objects.equals(graph, that.graph);
+    }
+
+    @Override public int hashCode() {
+        return Objects.hash(source, subject, predicate, object, graph);
+    }
+
+    @Override public @Nonnull String toString() {
+        return format("%s{%s, %s %s %s%s}", Utils.toString(this), source,
+                      subject == null ? "?s" : subject, predicate == null ? "?p" : predicate,
+                      object == null ? "?o" : object, graph == null ? "" : " @"+graph);
+    }
+}
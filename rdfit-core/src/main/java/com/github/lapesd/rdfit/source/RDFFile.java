@@ -17,6 +17,8 @@
 package com.github.lapesd.rdfit.source;
 
 import com.github.lapesd.rdfit.errors.RDFItException;
+import com.github.lapesd.rdfit.source.impl.ChannelFileInputStream;
+import com.github.lapesd.rdfit.source.impl.MappedFileInputStream;
 import com.github.lapesd.rdfit.source.syntax.impl.RDFLang;
 import com.github.lapesd.rdfit.util.Utils;
 import org.slf4j.Logger;
@@ -25,8 +27,11 @@ import org.slf4j.LoggerFactory;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.function.Supplier;
 
 public class RDFFile extends RDFInputStream {
@@ -34,6 +39,29 @@ public class RDFFile extends RDFInputStream {
 
     private final @Nonnull File file;
     private boolean deleteOnClose;
+    private @Nonnull IOMode ioMode = IOMode.STREAM;
+
+    /**
+     * How {@link RDFFile#getRawInputStream()} reads the file.
+     */
+    public enum IOMode {
+        /**
+         * Use a {@link FileInputStream}, which will usually be wrapped in a default-sized
+         * {@link BufferedInputStream}.
+         */
+        STREAM,
+        /**
+         * Use large positional {@link FileChannel} reads into a direct buffer
+         * (see {@link ChannelFileInputStream}).
+         */
+        CHANNEL,
+        /**
+         * Read from memory-mapped windows of the file (see {@link MappedFileInputStream}).
+         * On some platforms (e.g., Windows) a mapped file cannot be deleted until the
+         * mapping is garbage-collected.
+         */
+        MMAP
+    }
 
     private static @Nonnull String computeBaseIRI(@Nullable String offeredBaseIRI,
                                                   @Nonnull File file) {
@@ -48,6 +76,7 @@ public class RDFFile extends RDFInputStream {
         private @Nullable String baseIRI;
         private boolean deleteOnClose;
         private @Nullable RDFInputStreamDecorator decorator;
+        private @Nonnull IOMode ioMode = IOMode.STREAM;
 
         public Builder(@Nonnull File file) {
             this.file = file;
@@ -75,8 +104,13 @@ public class RDFFile extends RDFInputStream {
             return this;
         }
 
+        public @Nonnull Builder ioMode(@Nonnull IOMode ioMode) {
+            this.ioMode = ioMode;
+            return this;
+        }
+
         public @Nonnull RDFFile build() {
-            return new RDFFile(file, lang, baseIRI, decorator, deleteOnClose);
+            return new RDFFile(file, lang, baseIRI, decorator, deleteOnClose).setIOMode(ioMode);
         }
     }
 
@@ -167,15 +201,75 @@ public class RDFFile extends RDFInputStream {
         return deleteOnClose;
     }
 
+    /**
+     * Set how the file will be read. Has no effect if {@link #getInputStream()} or
+     * {@link #getBufferedInputStream()} were already called.
+     *
+     * @param ioMode the new {@link IOMode}
+     * @return this {@link RDFFile}
+     */
+    public @Nonnull RDFFile setIOMode(@Nonnull IOMode ioMode) {
+        if (inputStream != null && this.ioMode != ioMode)
+            logger.warn("{}.setIOMode({}): stream already open, ignoring", this, ioMode);
+        this.ioMode = ioMode;
+        return this;
+    }
+
+    public @Nonnull IOMode getIOMode() {
+        return ioMode;
+    }
+
     public @Nonnull File getFile() {
         return file;
     }
 
+    /**
+     * Get a read-only memory-mapped view of the whole file.
+     *
+     * This does not change the state of this {@link RDFFile} and does not apply any
+     * {@link RDFInputStreamDecorator}.
+     *
+     * @return a read-only {@link ByteBuffer}
+     * @throws IOException if the file could not be mapped or is larger than 2 GiB
+     */
+    public @Nonnull ByteBuffer getByteBuffer() throws IOException {
+        return getByteBuffer(0, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Get a read-only memory-mapped view of a byte range of the file.
+     *
+     * This does not change the state of this {@link RDFFile} and does not apply any
+     * {@link RDFInputStreamDecorator}.
+     *
+     * @param position offset of the first byte in the view
+     * @param maxBytes maximum size of the view. The view will be smaller if the file
+     *                 ends before position+maxBytes.
+     * @return a read-only {@link ByteBuffer}
+     * @throws IOException if the file could not be mapped or if maxBytes is
+     *                     {@link Integer#MAX_VALUE} and the file has more bytes
+     */
+    public @Nonnull ByteBuffer getByteBuffer(long position, int maxBytes) throws IOException {
+        if (position < 0 || maxBytes < 0)
+            throw new IllegalArgumentException("Negative position or maxBytes");
+        try (FileChannel ch = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long available = Math.max(0, ch.size() - position);
+            if (maxBytes == Integer.MAX_VALUE && available > maxBytes)
+                throw new IOException(file+" has more than "+maxBytes+" bytes after "+position);
+            long size = Math.min(maxBytes, available);
+            return ch.map(FileChannel.MapMode.READ_ONLY, Math.min(position, ch.size()), size);
+        }
+    }
+
     @Override public @Nonnull InputStream getRawInputStream() {
         if (inputStream == null) {
             try {
-                inputStream = new FileInputStream(file);
-            } catch (FileNotFoundException e) {
+                switch (ioMode) {
+                    case CHANNEL: inputStream = new ChannelFileInputStream(file); break;
+                    case MMAP:    inputStream = new MappedFileInputStream(file);  break;
+                    default:      inputStream = new FileInputStream(file);        break;
+                }
+            } catch (IOException e) {
                 throw new RDFItException(file, e);
             }
         }
@@ -183,7 +277,10 @@ public class RDFFile extends RDFInputStream {
     }
 
     @Override public @Nonnull String toString() {
-        return String.format("%s{syntax=%s,file=%s}", Utils.toString(this), lang, file);
+        if (ioMode == IOMode.STREAM)
+            return String.format("%s{syntax=%s,file=%s}", Utils.toString(this), lang, file);
+        return String.format("%s{syntax=%s,file=%s,io=%s}", Utils.toString(this), lang, file,
+                             ioMode);
     }
 
     @Override public void close() {
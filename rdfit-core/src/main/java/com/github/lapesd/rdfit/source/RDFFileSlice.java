@@ -0,0 +1,332 @@
+/*
+ *    Copyright 2021 Alexis Armin Huf
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.github.lapesd.rdfit.source;
+
+import com.github.lapesd.rdfit.errors.RDFItException;
+import com.github.lapesd.rdfit.source.syntax.RDFLangs;
+import com.github.lapesd.rdfit.source.syntax.impl.RDFLang;
+import com.github.lapesd.rdfit.source.syntax.impl.TurtleSplitter;
+import com.github.lapesd.rdfit.util.Utils;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * A byte range <code>[begin, end)</code> of an RDF file, optionally preceded by a preamble.
+ *
+ * Slices of the same file are created by {@link #split(RDFFile, long)} and can be parsed
+ * independently and concurrently. Since a blank node label is scoped to the whole file,
+ * all slices of a file share a {@link #getBlankNodeScope()}: parsers should map the same
+ * label under the same scope to the same blank node, while unlabeled blank nodes
+ * (e.g., <code>[]</code> in Turtle) must remain distinct across slices.
+ */
+public class RDFFileSlice extends RDFInputStream {
+    private final @Nonnull File file;
+    private final long begin, end;
+    private final @Nonnull UUID blankNodeScope;
+    private final @Nonnull byte[] preamble;
+
+    public RDFFileSlice(@Nonnull File file, long begin, long end, @Nonnull RDFLang lang,
+                        @Nullable String baseIRI, @Nonnull UUID blankNodeScope) {
+        this(file, begin, end, lang, baseIRI, blankNodeScope, null);
+    }
+
+    public RDFFileSlice(@Nonnull File file, long begin, long end, @Nonnull RDFLang lang,
+                        @Nullable String baseIRI, @Nonnull UUID blankNodeScope,
+                        @Nullable byte[] preamble) {
+        super(null, lang, baseIRI, file.getPath()+"["+begin+","+end+")", null, true);
+        if (begin < 0 || end < begin)
+            throw new IllegalArgumentException("Bad range ["+begin+", "+end+")");
+        this.file = file;
+        this.begin = begin;
+        this.end = end;
+        this.blankNodeScope = blankNodeScope;
+        this.preamble = preamble == null ? new byte[0] : preamble;
+    }
+
+    /**
+     * Split a N-Triples, N-Quads, Turtle or TriG file into slices of approximately
+     * chunkBytes bytes each.
+     *
+     * @see #splitLines(RDFFile, long)
+     * @see #splitStatements(RDFFile, long)
+     *
+     * @param file the file to split. If it has no explicit language, it will be detected by
+     *             reading the beginning of the file (without changing the state of file).
+     * @param chunkBytes target size of each slice
+     * @return null if the file cannot be split, else a list with at least 2 slices.
+     * @throws IOException if the file could not be read
+     */
+    public static @Nullable List<RDFFileSlice>
+    split(@Nonnull RDFFile file, long chunkBytes) throws IOException {
+        RDFLang lang = splittableLang(file, chunkBytes);
+        if (RDFLangs.NT.equals(lang) || RDFLangs.NQ.equals(lang))
+            return splitLines(file, lang, chunkBytes);
+        if (RDFLangs.TTL.equals(lang) || RDFLangs.TRIG.equals(lang))
+            return splitStatements(file, lang, chunkBytes);
+        return null;
+    }
+
+    private static @Nullable RDFLang
+    splittableLang(@Nonnull RDFFile file, long chunkBytes) throws IOException {
+        if (chunkBytes < 1)
+            throw new IllegalArgumentException("chunkBytes="+chunkBytes+" < 1");
+        if (file.getDecorator() != null || file.getDeleteOnClose())
+            return null;
+        File f = file.getFile();
+        if (f.length() <= chunkBytes)
+            return null;
+        RDFLang lang = file.getLang();
+        if (lang == null) {
+            try (InputStream is = new BufferedInputStream(new FileInputStream(f))) {
+                lang = RDFLangs.guess(is, 8192);
+            }
+        }
+        return lang;
+    }
+
+    /**
+     * Split a Turtle or TriG file into slices of approximately chunkBytes bytes each.
+     *
+     * The whole file is scanned with a {@link TurtleSplitter}, which only cuts before
+     * top-level statements. Each slice (except the first) gets as preamble all
+     * <code>@prefix</code>/<code>@base</code> directives that precede it in the file.
+     *
+     * @param file the file to split. If it has no explicit language, it will be detected by
+     *             reading the beginning of the file (without changing the state of file).
+     * @param chunkBytes target size of each slice
+     * @return null if the file cannot be split (not Turtle or TriG, has a
+     *         {@link RDFInputStreamDecorator}, will be deleted on close, is not larger than
+     *         chunkBytes or has no safe cut point). Else a list with at least 2 slices.
+     * @throws IOException if the file could not be read
+     */
+    public static @Nullable List<RDFFileSlice>
+    splitStatements(@Nonnull RDFFile file, long chunkBytes) throws IOException {
+        RDFLang lang = splittableLang(file, chunkBytes);
+        if (!RDFLangs.TTL.equals(lang) && !RDFLangs.TRIG.equals(lang))
+            return null;
+        return splitStatements(file, lang, chunkBytes);
+    }
+
+    private static @Nullable List<RDFFileSlice>
+    splitStatements(@Nonnull RDFFile file, @Nonnull RDFLang lang,
+                    long chunkBytes) throws IOException {
+        File f = file.getFile();
+        TurtleSplitter splitter = new TurtleSplitter(chunkBytes);
+        try (InputStream is = new FileInputStream(f)) {
+            byte[] buf = new byte[65536];
+            for (int n = is.read(buf); n >= 0; n = is.read(buf))
+                splitter.feed(buf, 0, n);
+            splitter.end();
+        }
+        List<TurtleSplitter.Cut> cuts = splitter.getCuts();
+        if (cuts.isEmpty())
+            return null;
+        UUID scope = UUID.randomUUID();
+        String baseIRI = file.hasBaseIRI() ? file.getBaseIRI() : null;
+        List<RDFFileSlice> slices = new ArrayList<>(cuts.size()+1);
+        long sliceBegin = 0;
+        byte[] preamble = null;
+        for (TurtleSplitter.Cut cut : cuts) {
+            slices.add(new RDFFileSlice(f, sliceBegin, cut.getOffset(), lang, baseIRI, scope,
+                                        preamble));
+            sliceBegin = cut.getOffset();
+            preamble = cut.getPreamble();
+        }
+        slices.add(new RDFFileSlice(f, sliceBegin, splitter.getPosition(), lang, baseIRI, scope,
+                                    preamble));
+        return slices;
+    }
+
+    /**
+     * Split an N-Triples or N-Quads file into slices of approximately chunkBytes bytes each.
+     *
+     * Every slice ends right after a line feed (except the last slice, which ends at the end
+     * of the file). The returned slices are sorted, contiguous and cover the whole file.
+     *
+     * @param file the file to split. If it has no explicit language, it will be detected by
+     *             reading the beginning of the file (without changing the state of file).
+     * @param chunkBytes target size of each slice
+     * @return null if the file cannot be split (not N-Triples or N-Quads, has a
+     *         {@link RDFInputStreamDecorator}, will be deleted on close, or is not larger than
+     *         chunkBytes). Else a list with at least 2 slices.
+     * @throws IOException if the file could not be read
+     */
+    public static @Nullable List<RDFFileSlice>
+    splitLines(@Nonnull RDFFile file, long chunkBytes) throws IOException {
+        RDFLang lang = splittableLang(file, chunkBytes);
+        if (!RDFLangs.NT.equals(lang) && !RDFLangs.NQ.equals(lang))
+            return null;
+        return splitLines(file, lang, chunkBytes);
+    }
+
+    private static @Nullable List<RDFFileSlice>
+    splitLines(@Nonnull RDFFile file, @Nonnull RDFLang lang,
+               long chunkBytes) throws IOException {
+        File f = file.getFile();
+        long length = f.length();
+        UUID scope = UUID.randomUUID();
+        String baseIRI = file.hasBaseIRI() ? file.getBaseIRI() : null;
+        List<RDFFileSlice> slices = new ArrayList<>();
+        ByteBuffer bb = ByteBuffer.allocate(8192);
+        try (FileChannel ch = FileChannel.open(f.toPath(), StandardOpenOption.READ)) {
+            long sliceBegin = 0;
+            while (length - sliceBegin > chunkBytes) {
+                long cut = nextLineBegin(ch, bb, sliceBegin + chunkBytes - 1, length);
+                if (cut >= length)
+                    break;
+                slices.add(new RDFFileSlice(f, sliceBegin, cut, lang, baseIRI, scope));
+                sliceBegin = cut;
+            }
+            if (slices.isEmpty())
+                return null; // a single line spans the whole file
+            slices.add(new RDFFileSlice(f, sliceBegin, length, lang, baseIRI, scope));
+        }
+        return slices;
+    }
+
+    /**
+     * Find the first position after the first '\n' at or after position.
+     *
+     * @return the position of the byte following the first line feed at or after position,
+     *         or length if there is no such line feed.
+     */
+    private static long nextLineBegin(@Nonnull FileChannel ch, @Nonnull ByteBuffer bb,
+                                      long position, long length) throws IOException {
+        while (position < length) {
+            bb.clear();
+            int n = ch.read(bb, position);
+            if (n < 0)
+                break;
+            byte[] array = bb.array();
+            for (int i = 0; i < n; i++) {
+                if (array[i] == '\n')
+                    return position + i + 1;
+            }
+            position += n;
+        }
+        return length;
+    }
+
+    public @Nonnull File getFile() {
+        return file;
+    }
+
+    /**
+     * @return offset of the first byte of this slice in {@link #getFile()}
+     */
+    public long getBegin() {
+        return begin;
+    }
+
+    /**
+     * @return offset of the first byte after this slice in {@link #getFile()}
+     */
+    public long getEnd() {
+        return end;
+    }
+
+    /**
+     * Identifies the file-wide scope of blank node labels.
+     *
+     * @return a {@link UUID} shared by all slices obtained from the same
+     *         {@link #split(RDFFile, long)} call.
+     */
+    public @Nonnull UUID getBlankNodeScope() {
+        return blankNodeScope;
+    }
+
+    /**
+     * Bytes that are read before the range of this slice (e.g., Turtle prefix declarations).
+     *
+     * @return a possibly empty array. Callers must not change its contents
+     */
+    public @Nonnull byte[] getPreamble() {
+        return preamble;
+    }
+
+    @Override protected @Nonnull InputStream getRawInputStream() {
+        if (inputStream == null) {
+            try {
+                FileChannel ch = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+                ch.position(begin);
+                inputStream = new RangeInputStream(Channels.newInputStream(ch), end - begin);
+                if (preamble.length > 0) {
+                    inputStream = new SequenceInputStream(new ByteArrayInputStream(preamble),
+                                                          inputStream);
+                }
+            } catch (IOException e) {
+                throw new RDFItException(this, e);
+            }
+        }
+        return inputStream;
+    }
+
+    private static class RangeInputStream extends FilterInputStream {
+        private long remaining;
+
+        public RangeInputStream(@Nonnull InputStream in, long remaining) {
+            super(in);
+            this.remaining = remaining;
+        }
+
+        @Override public int read() throws IOException {
+            if (remaining <= 0)
+                return -1;
+            int b = super.read();
+            if (b >= 0)
+                --remaining;
+            return b;
+        }
+
+        @Override public int read(@Nonnull byte[] b, int off, int len) throws IOException {
+            if (remaining <= 0)
+                return -1;
+            int n = super.read(b, off, (int) Math.min(len, remaining));
+            if (n > 0)
+                remaining -= n;
+            return n;
+        }
+
+        @Override public long skip(long n) throws IOException {
+            long skipped = super.skip(Math.min(n, remaining));
+            remaining -= skipped;
+            return skipped;
+        }
+
+        @Override public int available() throws IOException {
+            return (int) Math.min(super.available(), remaining);
+        }
+
+        @Override public boolean markSupported() {
+            return false;
+        }
+    }
+
+    @Override public @Nonnull String toString() {
+        return String.format("%s{syntax=%s,file=%s,range=[%d,%d)}", Utils.toString(this), lang,
+                             file, begin, end);
+    }
+}
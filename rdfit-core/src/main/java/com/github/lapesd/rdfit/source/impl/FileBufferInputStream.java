@@ -0,0 +1,171 @@
+/*
+ *    Copyright 2021 Alexis Armin Huf
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.github.lapesd.rdfit.source.impl;
+
+import com.github.lapesd.rdfit.util.Utils;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+
+import static java.lang.String.format;
+
+/**
+ * A {@link BufferedInputStream} that reads a {@link FileChannel} through {@link ByteBuffer}
+ * windows provided by subclasses, instead of copying through a small heap buffer.
+ *
+ * This class extends {@link BufferedInputStream} only so that
+ * {@link com.github.lapesd.rdfit.source.RDFInputStream#getBufferedInputStream()} does not wrap
+ * it once more. {@link #mark(int)} and {@link #reset()} are implemented by seeking in the
+ * file, thus there is no read limit.
+ *
+ * Instances are not thread-safe.
+ */
+public abstract class FileBufferInputStream extends BufferedInputStream {
+    private static final @Nonnull ByteBuffer EMPTY = ByteBuffer.allocate(0);
+
+    protected final @Nonnull FileChannel channel;
+    private @Nonnull ByteBuffer window = EMPTY;
+    private long windowStart, markPosition = -1;
+    private boolean closed;
+
+    protected FileBufferInputStream(@Nonnull FileChannel channel) {
+        super(Channels.newInputStream(channel), 1);
+        this.channel = channel;
+    }
+
+    /**
+     * Get a buffer whose first remaining byte is the byte at the given file position.
+     *
+     * @param position offset in the file
+     * @return A buffer with remaining bytes, or null or an empty buffer if position is at or
+     *         after the end of the file
+     * @throws IOException if the file could not be read
+     */
+    protected abstract @Nullable ByteBuffer load(long position) throws IOException;
+
+    private boolean ensure() throws IOException {
+        if (closed)
+            throw new IOException("Stream closed");
+        if (window.hasRemaining())
+            return true;
+        long position = getPosition();
+        ByteBuffer next = load(position); // may recycle the current window
+        windowStart = position;
+        if (next == null || !next.hasRemaining()) {
+            window = EMPTY;
+            return false;
+        }
+        window = next;
+        return true;
+    }
+
+    /**
+     * @return offset in the file of the next byte to be read
+     */
+    public long getPosition() {
+        return windowStart + window.position();
+    }
+
+    /**
+     * Set the offset in the file of the next byte to be read.
+     *
+     * @param position the new position. Positions past the end of the file are allowed
+     *                 and cause subsequent reads to return -1
+     */
+    public void seek(long position) {
+        if (position < 0)
+            throw new IllegalArgumentException("position="+position+" < 0");
+        if (position >= windowStart && position <= windowStart + window.limit()) {
+            window.position((int)(position - windowStart));
+        } else {
+            window = EMPTY;
+            windowStart = position;
+        }
+    }
+
+    @Override public int read() throws IOException {
+        if (!ensure())
+            return -1;
+        return window.get() & 0xFF;
+    }
+
+    @Override public int read(@Nonnull byte[] b, int off, int len) throws IOException {
+        if (off < 0 || len < 0 || len > b.length - off)
+            throw new IndexOutOfBoundsException();
+        if (len == 0)
+            return 0;
+        int total = 0;
+        while (total < len && ensure()) {
+            int n = Math.min(len - total, window.remaining());
+            window.get(b, off + total, n);
+            total += n;
+        }
+        return total == 0 ? -1 : total;
+    }
+
+    @Override public long skip(long n) throws IOException {
+        if (closed)
+            throw new IOException("Stream closed");
+        if (n <= 0)
+            return 0;
+        long position = getPosition();
+        long skipped = Math.max(0, Math.min(n, channel.size() - position));
+        seek(position + skipped);
+        return skipped;
+    }
+
+    @Override public int available() throws IOException {
+        if (closed)
+            throw new IOException("Stream closed");
+        if (window.hasRemaining())
+            return window.remaining();
+        return (int) Math.max(0, Math.min(Integer.MAX_VALUE, channel.size() - getPosition()));
+    }
+
+    @Override public boolean markSupported() {
+        return true;
+    }
+
+    @Override public void mark(int readLimit) {
+        markPosition = getPosition();
+    }
+
+    @Override public void reset() throws IOException {
+        if (closed)
+            throw new IOException("Stream closed");
+        if (markPosition < 0)
+            throw new IOException("Resetting to invalid mark");
+        seek(markPosition);
+    }
+
+    @Override public void close() throws IOException {
+        if (closed)
+            return;
+        closed = true;
+        window = EMPTY;
+        super.close();
+    }
+
+    @Override public @Nonnull String toString() {
+        return format("%s{position=%d}", Utils.toString(this), getPosition());
+    }
+}
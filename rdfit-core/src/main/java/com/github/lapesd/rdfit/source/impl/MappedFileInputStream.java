@@ -0,0 +1,73 @@
+/*
+ *    Copyright 2021 Alexis Armin Huf
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.github.lapesd.rdfit.source.impl;
+
+import com.github.lapesd.rdfit.util.Utils;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+import static java.lang.String.format;
+
+/**
+ * Reads a file sequentially through read-only memory-mapped windows.
+ *
+ * Each window maps at most {@link #getWindowBytes()} bytes, so that files larger than 2 GiB
+ * can be read and address space used by past windows can be reclaimed by the GC. Reads do
+ * not issue read(2) system calls, data is paged-in by the OS on access.
+ */
+public class MappedFileInputStream extends FileBufferInputStream {
+    public static final int DEFAULT_WINDOW_BYTES = 64*1024*1024;
+    private final int windowBytes;
+
+    public MappedFileInputStream(@Nonnull File file) throws IOException {
+        this(file, DEFAULT_WINDOW_BYTES);
+    }
+
+    public MappedFileInputStream(@Nonnull File file, int windowBytes) throws IOException {
+        this(FileChannel.open(file.toPath(), StandardOpenOption.READ), windowBytes);
+    }
+
+    public MappedFileInputStream(@Nonnull FileChannel channel, int windowBytes) {
+        super(channel);
+        if (windowBytes < 1)
+            throw new IllegalArgumentException("windowBytes="+windowBytes+" < 1");
+        this.windowBytes = windowBytes;
+    }
+
+    public int getWindowBytes() {
+        return windowBytes;
+    }
+
+    @Override protected @Nullable ByteBuffer load(long position) throws IOException {
+        long size = channel.size();
+        if (position >= size)
+            return null;
+        long length = Math.min(windowBytes, size - position);
+        return channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+    }
+
+    @Override public @Nonnull String toString() {
+        return format("%s{position=%d,windowBytes=%d}", Utils.toString(this), getPosition(),
+                      windowBytes);
+    }
+}
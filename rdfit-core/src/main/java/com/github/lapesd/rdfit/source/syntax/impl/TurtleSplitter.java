@@ -0,0 +1,319 @@
+/*
+ *    Copyright 2021 Alexis Armin Huf
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.github.lapesd.rdfit.source.syntax.impl;
+
+import com.github.lapesd.rdfit.util.GrowableByteBuffer;
+import com.github.lapesd.rdfit.util.Utils;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static com.github.lapesd.rdfit.util.Utils.asciiLower;
+
+/**
+ * Finds offsets where a Turtle or TriG document can be cut into chunks that parse
+ * independently.
+ *
+ * Cuts are placed only before the first byte of a top-level statement: never inside IRIs,
+ * strings, comments, <code>[ ]</code>, <code>( )</code> or <code>{ }</code>. Like the
+ * {@link TurtleFamilyDetector} and the Turtle fixer parsers, this works on bytes, since all
+ * delimiters in the Turtle family are ASCII. Every cut carries a preamble with all
+ * <code>@prefix</code>, <code>@base</code>, <code>PREFIX</code> and <code>BASE</code>
+ * directives that precede it, in document order, so that the chunk starting at the cut can
+ * be parsed in isolation.
+ *
+ * When in doubt whether a '.' ends a statement, no cut is made. Thus invalid input yields
+ * larger chunks instead of chunks that would not parse.
+ */
+public class TurtleSplitter {
+    private static final byte[] PREFIX = "prefix".getBytes();
+    private static final byte[] BASE = "base".getBytes();
+
+    private static final int DEFAULT = 0;
+    private static final int IRI = 1;
+    private static final int COMMENT = 2;
+    private static final int STRING_OPEN = 3;
+    private static final int STRING = 4;
+    private static final int LONG_STRING = 5;
+    private static final int ESCAPE = 6;
+
+    private static final int NONE = 0;
+    private static final int STATEMENT = 1;
+    private static final int AT_DIRECTIVE = 2;
+    private static final int SPARQL_DIRECTIVE = 3;
+    private static final int MAYBE_SPARQL_DIRECTIVE = 4;
+
+    /**
+     * A position where a new chunk starts.
+     */
+    public static class Cut {
+        private final long offset;
+        private final @Nonnull byte[] preamble;
+
+        public Cut(long offset, @Nonnull byte[] preamble) {
+            this.offset = offset;
+            this.preamble = preamble;
+        }
+
+        /**
+         * @return offset of the first byte of the chunk within the document
+         */
+        public long getOffset() {
+            return offset;
+        }
+
+        /**
+         * @return the directives that must be parsed before the chunk. Empty if there is none.
+         */
+        public @Nonnull byte[] getPreamble() {
+            return preamble;
+        }
+
+        @Override public @Nonnull String toString() {
+            return String.format("Cut{offset=%d, preamble=%d bytes}", offset, preamble.length);
+        }
+    }
+
+    private final long chunkBytes;
+    private final @Nonnull List<Cut> cuts = new ArrayList<>();
+    private final @Nonnull GrowableByteBuffer directives = new GrowableByteBuffer();
+    private final @Nonnull GrowableByteBuffer directive = new GrowableByteBuffer();
+    private long position = 0, lastCut = 0;
+    private int state = DEFAULT, returnState = DEFAULT;
+    private int quote, quotes, depth = 0;
+    private int statement = NONE, keywordMatched = 0;
+    private byte[] keyword;
+    private boolean pendingDot = false, hadStatement = false, ended = false;
+
+    /**
+     * Create a splitter.
+     *
+     * @param chunkBytes minimum distance between two cuts
+     */
+    public TurtleSplitter(long chunkBytes) {
+        if (chunkBytes < 1)
+            throw new IllegalArgumentException("chunkBytes="+chunkBytes+" < 1");
+        this.chunkBytes = chunkBytes;
+    }
+
+    /**
+     * Cuts found so far, in increasing offset order.
+     *
+     * @return unmodifiable list of {@link Cut}s
+     */
+    public @Nonnull List<Cut> getCuts() {
+        return Collections.unmodifiableList(cuts);
+    }
+
+    /**
+     * @return number of bytes fed so far
+     */
+    public long getPosition() {
+        return position;
+    }
+
+    /**
+     * Feed the next bytes of the document.
+     *
+     * @param data array with bytes
+     * @param offset index of the first byte in data
+     * @param length number of bytes to feed
+     */
+    public void feed(@Nonnull byte[] data, int offset, int length) {
+        if (ended)
+            throw new IllegalStateException("end() already called");
+        for (int i = offset, end = offset+length; i < end; i++, position++)
+            feedByte(data[i] & 0xFF);
+    }
+
+    /**
+     * Notify that the document has ended.
+     */
+    public void end() {
+        ended = true;
+    }
+
+    private void feedByte(int value) {
+        if (statement == AT_DIRECTIVE || statement == SPARQL_DIRECTIVE
+                                      || statement == MAYBE_SPARQL_DIRECTIVE) {
+            directive.add(value);
+        }
+        switch (state) {
+            case DEFAULT:     feedDefault(value); break;
+            case IRI:
+                if (value == '>') {
+                    state = DEFAULT;
+                    if (statement == SPARQL_DIRECTIVE && depth == 0)
+                        endStatement();
+                }
+                break;
+            case COMMENT:
+                if (value == '\n' || value == '\r')
+                    state = DEFAULT;
+                break;
+            case STRING_OPEN: feedStringOpen(value); break;
+            case STRING:
+                if      (value == '\\')  escape(STRING);
+                else if (value == quote) state = DEFAULT;
+                break;
+            case LONG_STRING:
+                if (value == '\\') {
+                    quotes = 0;
+                    escape(LONG_STRING);
+                } else if (value == quote) {
+                    if (++quotes == 3)
+                        state = DEFAULT;
+                } else {
+                    quotes = 0;
+                }
+                break;
+            case ESCAPE:
+                state = returnState;
+                break;
+            default:
+                throw new IllegalStateException("Unexpected state "+state);
+        }
+    }
+
+    private void escape(int returnState) {
+        this.returnState = returnState;
+        state = ESCAPE;
+    }
+
+    private void feedStringOpen(int value) {
+        if (value == quote) {
+            if (++quotes == 3) {
+                quotes = 0;
+                state = LONG_STRING;
+            }
+        } else if (quotes == 2) { // empty string: "" or ''
+            state = DEFAULT;
+            feedDefault(value);
+        } else {
+            state = STRING;
+            if (value == '\\')
+                escape(STRING);
+        }
+    }
+
+    private static boolean continuesToken(int value) {
+        return Utils.isAsciiAlphaNum(value) || value >= 0x80 || value == '_' || value == '-'
+                || value == ':' || value == '%' || value == '\\' || value == '.';
+    }
+
+    private void feedDefault(int value) {
+        if (pendingDot) {
+            pendingDot = false;
+            if (!continuesToken(value)) {
+                if (statement == AT_DIRECTIVE)
+                    directive.removeLast(); // value is not part of the directive
+                else if (statement == MAYBE_SPARQL_DIRECTIVE)
+                    statement = STATEMENT;
+                endStatement();
+            }
+        }
+        if (statement == MAYBE_SPARQL_DIRECTIVE)
+            matchKeyword(value);
+        if (Utils.isAsciiSpace(value) || (position < 3 && isBOM(value)))
+            return;
+        if (value == '#') {
+            state = COMMENT;
+            return;
+        }
+        if (statement == NONE) {
+            if (value == '.')
+                return; // no statement starts with '.', tolerate "{ ... } ." and "PREFIX ... ."
+            startStatement(value);
+        }
+        switch (value) {
+            case '<':  state = IRI; break;
+            case '"':
+            case '\'':
+                quote = value;
+                quotes = 1;
+                state = STRING_OPEN;
+                break;
+            case '\\': escape(DEFAULT); break;
+            case '[':
+            case '(':
+            case '{':
+                ++depth;
+                break;
+            case ']':
+            case ')':
+                depth = Math.max(0, depth-1);
+                break;
+            case '}':
+                depth = Math.max(0, depth-1);
+                if (depth == 0)
+                    endStatement();
+                break;
+            case '.':
+                if (depth == 0)
+                    pendingDot = true;
+                break;
+        }
+    }
+
+    private boolean isBOM(int value) {
+        return value == 0xEF || value == 0xBB || value == 0xBF;
+    }
+
+    private void matchKeyword(int value) {
+        if (keywordMatched == keyword.length) {
+            statement = Utils.isAsciiSpace(value) ? SPARQL_DIRECTIVE : STATEMENT;
+        } else if (asciiLower(value) == keyword[keywordMatched]) {
+            ++keywordMatched;
+        } else {
+            statement = STATEMENT;
+        }
+        if (statement == STATEMENT)
+            directive.clear();
+    }
+
+    private void startStatement(int value) {
+        long begin = position;
+        if (hadStatement && begin - lastCut >= chunkBytes) {
+            cuts.add(new Cut(begin, directives.toArray()));
+            lastCut = begin;
+        }
+        hadStatement = true;
+        directive.clear();
+        int lower = asciiLower(value);
+        if (value == '@') {
+            statement = AT_DIRECTIVE;
+            directive.add(value);
+        } else if (lower == 'p' || lower == 'b') {
+            statement = MAYBE_SPARQL_DIRECTIVE;
+            keyword = lower == 'p' ? PREFIX : BASE;
+            keywordMatched = 1;
+            directive.add(value);
+        } else {
+            statement = STATEMENT;
+        }
+    }
+
+    private void endStatement() {
+        if (statement == AT_DIRECTIVE || statement == SPARQL_DIRECTIVE) {
+            directives.add(directive).add('\n');
+            directive.clear();
+        }
+        statement = NONE;
+    }
+}
@@ -0,0 +1,300 @@
+/*
+ *    Copyright 2021 Alexis Armin Huf
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.github.lapesd.rdfit.util;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.*;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A bounded lock-free {@link BlockingQueue} for exactly one producer thread and one
+ * consumer thread.
+ *
+ * Elements live in a power-of-two ring buffer. The head (consumer) and tail (producer)
+ * indices live in separate cache lines and each side keeps a cached copy of the other side
+ * index, so that in steady state neither side touches the other side cache line. A side
+ * that cannot make progress spins for a while, then yields, and finally parks until the
+ * other side unparks it.
+ *
+ * Calling any of the insertion methods ({@link #offer(Object)}, {@link #put(Object)}, etc.)
+ * from more than one thread concurrently or any of the removal methods
+ * ({@link #poll()}, {@link #take()}, {@link #drainTo(Collection)}, etc.) from more than one
+ * thread concurrently has undefined results. {@link #size()}, {@link #peek()} and
+ * {@link #iterator()} may be called from the consumer thread; from other threads they
+ * only return estimates.
+ *
+ * @param <E> the element type
+ */
+public class SPSCBlockingQueue<E> extends SPSCQueuePad2<E> implements BlockingQueue<E> {
+    private static final int SPINS = 1024;
+    private static final int YIELDS = 16;
+    private static final long MAX_PARK_NS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    /**
+     * Create a queue that can hold at least the given number of elements.
+     *
+     * @param capacity minimum capacity. Actual capacity is rounded up to a power of 2.
+     */
+    public SPSCBlockingQueue(int capacity) {
+        super(capacity);
+    }
+
+    public int capacity() {
+        return buffer.length;
+    }
+
+    /* --- producer side --- */
+
+    @Override public boolean offer(@Nonnull E e) {
+        if (e == null)
+            throw new NullPointerException();
+        long t = tail;
+        if (t - headCache >= buffer.length) {
+            headCache = head;
+            if (t - headCache >= buffer.length)
+                return false;
+        }
+        buffer[(int) t & mask] = e;
+        tail = t + 1; // volatile write publishes the element
+        Thread waiter = consumerWaiter;
+        if (waiter != null)
+            LockSupport.unpark(waiter);
+        return true;
+    }
+
+    @Override public void put(@Nonnull E e) throws InterruptedException {
+        if (!offer(e, Long.MAX_VALUE, TimeUnit.NANOSECONDS))
+            throw new AssertionError("offer with infinite timeout failed");
+    }
+
+    @Override public boolean offer(@Nonnull E e, long timeout,
+                                   @Nonnull TimeUnit unit) throws InterruptedException {
+        if (offer(e))
+            return true;
+        long deadline = timeout == Long.MAX_VALUE ? Long.MAX_VALUE
+                                                  : System.nanoTime() + unit.toNanos(timeout);
+        for (int i = 0; true; ++i) {
+            if (Thread.interrupted())
+                throw new InterruptedException();
+            if (i < SPINS) {
+                if (offer(e)) return true;
+            } else if (i < SPINS + YIELDS) {
+                Thread.yield();
+                if (offer(e)) return true;
+            } else {
+                producerWaiter = Thread.currentThread();
+                try {
+                    if (offer(e)) return true;
+                    long remaining = remaining(deadline);
+                    if (remaining <= 0)
+                        return false;
+                    LockSupport.parkNanos(this, Math.min(remaining, MAX_PARK_NS));
+                    if (offer(e)) return true;
+                } finally {
+                    producerWaiter = null;
+                }
+            }
+            if (deadline != Long.MAX_VALUE && remaining(deadline) <= 0)
+                return false;
+        }
+    }
+
+    @Override public int remainingCapacity() {
+        return buffer.length - size();
+    }
+
+    /* --- consumer side --- */
+
+    @Override public @Nullable E poll() {
+        long h = head;
+        if (h >= tailCache) {
+            tailCache = tail;
+            if (h >= tailCache)
+                return null;
+        }
+        int idx = (int) h & mask;
+        @SuppressWarnings("unchecked") E e = (E) buffer[idx];
+        buffer[idx] = null;
+        head = h + 1; // volatile write releases the slot
+        Thread waiter = producerWaiter;
+        if (waiter != null)
+            LockSupport.unpark(waiter);
+        return e;
+    }
+
+    @Override public @Nonnull E take() throws InterruptedException {
+        E e = poll(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        assert e != null;
+        return e;
+    }
+
+    @Override public @Nullable E poll(long timeout,
+                                      @Nonnull TimeUnit unit) throws InterruptedException {
+        E e = poll();
+        if (e != null)
+            return e;
+        long deadline = timeout == Long.MAX_VALUE ? Long.MAX_VALUE
+                                                  : System.nanoTime() + unit.toNanos(timeout);
+        for (int i = 0; true; ++i) {
+            if (Thread.interrupted())
+                throw new InterruptedException();
+            if (i < SPINS) {
+                if ((e = poll()) != null) return e;
+            } else if (i < SPINS + YIELDS) {
+                Thread.yield();
+                if ((e = poll()) != null) return e;
+            } else {
+                consumerWaiter = Thread.currentThread();
+                try {
+                    if ((e = poll()) != null) return e;
+                    long remaining = remaining(deadline);
+                    if (remaining <= 0)
+                        return null;
+                    LockSupport.parkNanos(this, Math.min(remaining, MAX_PARK_NS));
+                    if ((e = poll()) != null) return e;
+                } finally {
+                    consumerWaiter = null;
+                }
+            }
+            if (deadline != Long.MAX_VALUE && remaining(deadline) <= 0)
+                return null;
+        }
+    }
+
+    @Override public @Nullable E peek() {
+        long h = head;
+        if (h >= tail)
+            return null;
+        //noinspection unchecked
+        return (E) buffer[(int) h & mask];
+    }
+
+    @Override public int drainTo(@Nonnull Collection<? super E> c) {
+        return drainTo(c, Integer.MAX_VALUE);
+    }
+
+    @Override public int drainTo(@Nonnull Collection<? super E> c, int maxElements) {
+        if (c == this)
+            throw new IllegalArgumentException("Cannot drainTo(this)");
+        int count = 0;
+        for (E e; count < maxElements && (e = poll()) != null; ++count)
+            c.add(e);
+        return count;
+    }
+
+    /* --- either side --- */
+
+    @Override public int size() {
+        long h = head, t = tail;
+        return (int) Math.max(0, Math.min(buffer.length, t - h));
+    }
+
+    @Override public boolean isEmpty() {
+        return head >= tail;
+    }
+
+    /**
+     * A weakly-consistent snapshot iterator. It does not support removal.
+     *
+     * @return iterator over a copy of the elements in this queue
+     */
+    @Override public @Nonnull Iterator<E> iterator() {
+        List<E> copy = new ArrayList<>();
+        for (long i = head, end = tail; i < end; i++) {
+            @SuppressWarnings("unchecked") E e = (E) buffer[(int) i & mask];
+            if (e != null)
+                copy.add(e);
+        }
+        return Collections.unmodifiableList(copy).iterator();
+    }
+
+    private static long remaining(long deadline) {
+        return deadline == Long.MAX_VALUE ? Long.MAX_VALUE : deadline - System.nanoTime();
+    }
+
+    @Override public @Nonnull String toString() {
+        return String.format("%s{size=%d, capacity=%d}", Utils.toString(this), size(), capacity());
+    }
+}
+
+/* Padding classes for SPSCBlockingQueue. Field layout follows the class hierarchy, which
+ * keeps the head and tail indices (and their caches) in distinct cache lines, away from the
+ * read-only buffer and mask fields. */
+
+abstract class SPSCQueueBuffer<E> extends AbstractQueue<E> {
+    final @Nonnull Object[] buffer;
+    final int mask;
+
+    SPSCQueueBuffer(int capacity) {
+        if (capacity < 1)
+            throw new IllegalArgumentException("capacity must be positive, got "+capacity);
+        if (capacity > 1 << 30)
+            throw new IllegalArgumentException("capacity too large: "+capacity);
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity)
+            size <<= 1;
+        buffer = new Object[size];
+        mask = size - 1;
+    }
+}
+
+@SuppressWarnings("unused")
+abstract class SPSCQueuePad0<E> extends SPSCQueueBuffer<E> {
+    long p00, p01, p02, p03, p04, p05, p06, p07;
+    long p10, p11, p12, p13, p14, p15, p16, p17;
+
+    SPSCQueuePad0(int capacity) { super(capacity); }
+}
+
+abstract class SPSCQueueHead<E> extends SPSCQueuePad0<E> {
+    /** Index of the next element to be removed. Written only by the consumer. */
+    volatile long head;
+    /** Consumer-private copy of {@link SPSCQueueTail#tail}. */
+    long tailCache;
+    volatile @Nullable Thread consumerWaiter;
+
+    SPSCQueueHead(int capacity) { super(capacity); }
+}
+
+@SuppressWarnings("unused")
+abstract class SPSCQueuePad1<E> extends SPSCQueueHead<E> {
+    long p00, p01, p02, p03, p04, p05, p06, p07;
+    long p10, p11, p12, p13, p14, p15, p16, p17;
+
+    SPSCQueuePad1(int capacity) { super(capacity); }
+}
+
+abstract class SPSCQueueTail<E> extends SPSCQueuePad1<E> {
+    /** Index of the next slot to be filled. Written only by the producer. */
+    volatile long tail;
+    /** Producer-private copy of {@link SPSCQueueHead#head}. */
+    long headCache;
+    volatile @Nullable Thread producerWaiter;
+
+    SPSCQueueTail(int capacity) { super(capacity); }
+}
+
+@SuppressWarnings("unused")
+abstract class SPSCQueuePad2<E> extends SPSCQueueTail<E> {
+    long p00, p01, p02, p03, p04, p05, p06, p07;
+    long p10, p11, p12, p13, p14, p15, p16, p17;
+
+    SPSCQueuePad2(int capacity) { super(capacity); }
+}
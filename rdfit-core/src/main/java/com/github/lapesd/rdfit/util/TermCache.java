@@ -0,0 +1,189 @@
+/*
+ *    Copyright 2021 Alexis Armin Huf
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.github.lapesd.rdfit.util;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.function.Function;
+
+import static java.lang.String.format;
+
+/**
+ * A bounded, thread-safe and lock-free cache intended for RDF terms (IRIs, datatypes and
+ * short literals) that are converted between representations over and over again.
+ *
+ * The cache is 4-way set-associative and evicts with the CLOCK (second chance) policy
+ * within each set: an entry that was hit since the last time the clock hand passed over
+ * it is kept. Entries are immutable and published through final fields, thus concurrent
+ * readers never see partially built entries. Races between writers may lose some entries
+ * or reference bits, which only affects the hit ratio, never correctness.
+ *
+ * Hits do not allocate.
+ *
+ * @param <K> key type. Must implement equals and hashCode
+ * @param <V> value type
+ */
+public class TermCache<K, V> {
+    public static final int DEFAULT_CAPACITY = 4096;
+    /**
+     * Literals with lexical forms longer than this should not be cached, as they rarely repeat.
+     */
+    public static final int MAX_LEXICAL_FORM = 64;
+    private static final int WAYS = 4;
+
+    private static final class Entry<K, V> {
+        final int hash;
+        final @Nonnull K key;
+        final @Nonnull V value;
+
+        Entry(int hash, @Nonnull K key, @Nonnull V value) {
+            this.hash = hash;
+            this.key = key;
+            this.value = value;
+        }
+    }
+
+    private final @Nonnull Entry<K, V>[] entries;
+    private final @Nonnull byte[] referenced;
+    private final @Nonnull byte[] hands;
+    private final int setMask;
+
+    /**
+     * Whether a literal with the given lexical form length is worth caching.
+     *
+     * @param lexicalFormLength length of the lexical form of the literal
+     * @return true iff lexicalFormLength is at most {@link #MAX_LEXICAL_FORM}
+     */
+    public static boolean isCacheableLiteral(int lexicalFormLength) {
+        return lexicalFormLength <= MAX_LEXICAL_FORM;
+    }
+
+    public TermCache() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Create a cache for approximately capacity entries.
+     *
+     * @param capacity maximum number of entries. Will be rounded up to a power of two
+     */
+    public TermCache(int capacity) {
+        if (capacity < 1)
+            throw new IllegalArgumentException("capacity="+capacity+" < 1");
+        int sets = Integer.highestOneBit(Math.max(1, (capacity + WAYS - 1) / WAYS));
+        if (sets * WAYS < capacity)
+            sets <<= 1;
+        //noinspection unchecked
+        this.entries = (Entry<K, V>[]) new Entry[sets * WAYS];
+        this.referenced = new byte[sets * WAYS];
+        this.hands = new byte[sets];
+        this.setMask = sets - 1;
+    }
+
+    /**
+     * @return the maximum number of entries in this cache.
+     */
+    public int capacity() {
+        return entries.length;
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * Get the cached value for key.
+     *
+     * @param key the key
+     * @return the cached value or null if not cached.
+     */
+    public @Nullable V getIfPresent(@Nonnull K key) {
+        int hash = spread(key.hashCode());
+        int base = (hash & setMask) * WAYS;
+        for (int i = base, end = base + WAYS; i < end; i++) {
+            Entry<K, V> e = entries[i];
+            if (e != null && e.hash == hash && (e.key == key || e.key.equals(key))) {
+                if (referenced[i] == 0)
+                    referenced[i] = 1; // avoid dirtying the cache line on every hit
+                return e.value;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Get the cached value for key or compute it with loader and cache it.
+     *
+     * Concurrent misses for the same key may call loader more than once.
+     *
+     * @param key the key
+     * @param loader function that computes the value for key. Must not return null.
+     * @return the cached or computed value
+     */
+    public @Nonnull V get(@Nonnull K key, @Nonnull Function<? super K, ? extends V> loader) {
+        V value = getIfPresent(key);
+        if (value == null) {
+            value = loader.apply(key);
+            put(key, value);
+        }
+        return value;
+    }
+
+    /**
+     * Add a key to the cache, possibly evicting another entry.
+     *
+     * @param key the key
+     * @param value the value
+     */
+    public void put(@Nonnull K key, @Nonnull V value) {
+        int hash = spread(key.hashCode());
+        int set = hash & setMask, base = set * WAYS;
+        int hand = hands[set], victim = -1;
+        for (int i = base, end = base + WAYS; i < end && victim < 0; i++) {
+            Entry<K, V> e = entries[i];
+            if (e != null && e.hash == hash && e.key.equals(key))
+                victim = i;
+        }
+        for (int n = 0; n < 2 * WAYS && victim < 0; n++) {
+            int i = base + ((hand + n) & (WAYS - 1));
+            Entry<K, V> e = entries[i];
+            if (e == null || referenced[i] == 0) {
+                victim = i;
+                hands[set] = (byte) ((hand + n + 1) & (WAYS - 1));
+            } else {
+                referenced[i] = 0; // second chance
+            }
+        }
+        if (victim < 0) // only possible under races
+            victim = base + (hand & (WAYS - 1));
+        referenced[victim] = 0;
+        entries[victim] = new Entry<>(hash, key, value);
+    }
+
+    /**
+     * Remove all entries.
+     */
+    public void clear() {
+        Arrays.fill(entries, null);
+        Arrays.fill(referenced, (byte) 0);
+    }
+
+    @Override public @Nonnull String toString() {
+        return format("%s{capacity=%d}", Utils.toString(this), capacity());
+    }
+}
@@ -22,64 +22,158 @@ import java.util.*;
 import java.util.function.Predicate;
 
 import static java.util.Collections.emptyList;
+import static java.util.Collections.unmodifiableList;
 
+/**
+ * Dispatches objects to handlers registered for their classes or any of their super types.
+ *
+ * Registrations are copy-on-write: readers never lock and never observe a partially
+ * updated registry. The list of handlers applicable to each concrete class (i.e., registered
+ * for the class or any of its super types) is resolved once and cached until the next
+ * {@link #add(Class, Object)}, {@link #remove(Object)} or {@link #removeIf(Predicate)}.
+ * The cache is a {@link ClassValue}, thus it does not prevent classes (and their class
+ * loaders) from being unloaded.
+ *
+ * @param <T> the handler type
+ */
 public abstract class TypeDispatcher<T> {
-    private final @Nonnull Map<Class<?>, Collection<T>> map = new HashMap<>();
-    private final @Nonnull Set<T> set = new HashSet<>();
-
-    public synchronized void add(@Nonnull Class<?> leafClass, @Nonnull T value) {
-        ArrayDeque<T> q = (ArrayDeque<T>) map.computeIfAbsent(leafClass, k -> new ArrayDeque<>());
-        if (!q.contains(value))
-            q.addFirst(value);
-        set.add(value);
+    /* replaced, never modified, by the synchronized writers */
+    private volatile @Nonnull Map<Class<?>, List<T>> map = Collections.emptyMap();
+    /* snapshot of all registered handlers, replaced by writers */
+    private volatile @Nonnull Set<T> all = Collections.emptySet();
+    /* resolves from a single map snapshot, replaced on every write */
+    private volatile @Nonnull ClassValue<List<T>> resolved = createResolved(map);
+
+    private static @Nonnull <T> ClassValue<List<T>>
+    createResolved(@Nonnull Map<Class<?>, List<T>> map) {
+        return new ClassValue<List<T>>() {
+            @Override protected List<T> computeValue(Class<?> leafClass) {
+                LinkedHashSet<T> handlers = new LinkedHashSet<>();
+                for (SuperTypesIterator it = new SuperTypesIterator(leafClass); it.hasNext(); )
+                    handlers.addAll(map.getOrDefault(it.next(), emptyList()));
+                return handlers.isEmpty() ? emptyList()
+                                          : unmodifiableList(new ArrayList<>(handlers));
+            }
+        };
+    }
+
+    private void publish(@Nonnull Map<Class<?>, List<T>> map) {
+        this.map = map;
+        this.resolved = createResolved(map);
+    }
+
+    public void add(@Nonnull Class<?> leafClass, @Nonnull T value) {
+        addAll(Collections.singletonList(leafClass), value);
     }
 
-    public synchronized void remove(@Nonnull T handler) {
-        for (Collection<T> collection : map.values())
-            collection.remove(handler);
-        set.remove(handler);
+    /**
+     * Register value for all given classes, publishing a single new snapshot, so that
+     * readers observe value registered either for all or for none of the classes.
+     *
+     * @param leafClasses classes for which value will be returned by {@link #get(Class)}
+     * @param value the handler
+     */
+    public synchronized void addAll(@Nonnull Collection<? extends Class<?>> leafClasses,
+                                    @Nonnull T value) {
+        Map<Class<?>, List<T>> copy = null;
+        for (Class<?> leafClass : leafClasses) {
+            List<T> old = (copy == null ? map : copy).getOrDefault(leafClass, emptyList());
+            if (!old.contains(value)) {
+                ArrayList<T> list = new ArrayList<>(old.size() + 1);
+                list.add(value);
+                list.addAll(old);
+                if (copy == null)
+                    copy = new HashMap<>(map);
+                copy.put(leafClass, unmodifiableList(list));
+            }
+        }
+        if (!all.contains(value)) {
+            Set<T> allCopy = new HashSet<>(all);
+            allCopy.add(value);
+            all = Collections.unmodifiableSet(allCopy);
+        }
+        if (copy != null)
+            publish(copy);
+    }
+
+    public void remove(@Nonnull T handler) {
+        removeIf(handler::equals);
     }
 
     public synchronized void removeIf(@Nonnull Predicate<? super T> predicate) {
-        for (Collection<T> collection : map.values()) {
-            for (Iterator<T> it = collection.iterator(); it.hasNext(); ){
-                T handler = it.next();
-                if (predicate.test(handler)) {
-                    it.remove();
-                    set.remove(handler);
-                }
+        Map<Class<?>, List<T>> copy = new HashMap<>();
+        boolean changed = false;
+        for (Map.Entry<Class<?>, List<T>> e : map.entrySet()) {
+            ArrayList<T> list = new ArrayList<>(e.getValue().size());
+            for (T handler : e.getValue()) {
+                if (predicate.test(handler))
+                    changed = true;
+                else
+                    list.add(handler);
             }
+            if (!list.isEmpty())
+                copy.put(e.getKey(), unmodifiableList(list));
         }
+        Set<T> allCopy = new HashSet<>(all);
+        if (allCopy.removeIf(predicate))
+            all = Collections.unmodifiableSet(allCopy);
+        if (changed)
+            publish(copy);
     }
 
-    public synchronized @Nonnull Set<T> getAll() {
-        return new HashSet<>(set);
+    public @Nonnull Set<T> getAll() {
+        return new HashSet<>(all);
     }
 
     protected abstract boolean accepts(@Nonnull T handler, @Nonnull Object instance);
 
+    /**
+     * Get the handlers registered exactly for the given type (not for its super types).
+     *
+     * @param type the class used in {@link #add(Class, Object)}
+     * @return iterator over handlers, most recently added first.
+     */
     public @Nonnull Iterator<T> get(@Nonnull Class<?> type) {
         return map.getOrDefault(type, emptyList()).iterator();
     }
 
+    /**
+     * Get all handlers registered for leafClass or for any of its super types, without
+     * evaluating {@link #accepts(Object, Object)}.
+     *
+     * Handlers are ordered by the {@link SuperTypesIterator} visit order of the class they
+     * were registered for and appear only once. The result is cached until the next change
+     * to this dispatcher.
+     *
+     * @param leafClass the concrete class of objects to be dispatched
+     * @return unmodifiable list of handlers
+     */
+    public @Nonnull List<T> resolve(@Nonnull Class<?> leafClass) {
+        return resolved.get(leafClass);
+    }
+
+    /**
+     * Get handlers registered for the class of instance (or its super types) that
+     * {@link #accepts(Object, Object)} the instance.
+     *
+     * @param instance the object to be dispatched
+     * @return iterator over accepting handlers, in {@link #resolve(Class)} order.
+     */
     public @Nonnull Iterator<T> get(@Nonnull Object instance) {
+        List<T> candidates = resolve(instance.getClass());
+        if (candidates.isEmpty())
+            return Collections.emptyIterator();
         return new Iterator<T>() {
-            private final @Nonnull SuperTypesIterator stIt
-                    = new SuperTypesIterator(instance.getClass());
-            private @Nonnull Iterator<T> it = Collections.emptyIterator();
+            private int nextIdx = 0;
             private @Nullable T next;
 
             @Override public boolean hasNext() {
-                while (this.next == null && (it.hasNext() || stIt.hasNext()) ) {
-                    while (!it.hasNext() && stIt.hasNext())
-                        it = get(stIt.next());
-                    if (it.hasNext()) {
-                        T next = it.next();
-                        if (accepts(next, instance))
-                            this.next = next;
-                    }
+                while (next == null && nextIdx < candidates.size()) {
+                    T candidate = candidates.get(nextIdx++);
+                    if (accepts(candidate, instance))
+                        next = candidate;
                 }
-                return this.next != null;
+                return next != null;
             }
 
             @Override public T next() {
@@ -0,0 +1,34 @@
+/*
+ *    Copyright 2021 Alexis Armin Huf
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.github.lapesd.rdfit;
+
+import com.github.lapesd.rdfit.components.Parser;
+import com.github.lapesd.rdfit.impl.DefaultParserExecutor;
+
+import javax.annotation.Nonnull;
+import java.util.Collection;
+
+import static com.github.lapesd.rdfit.impl.DefaultParserExecutor.Rejection.WAIT;
+
+public class BoundedExecutorRDFItFactoryTest extends DefaultRDFItFactoryTest {
+    @Override
+    protected @Nonnull RDFItFactory createFactory(@Nonnull Collection<? extends Parser> parsers) {
+        RDFItFactory factory = super.createFactory(parsers);
+        factory.setParserExecutor(DefaultParserExecutor.bounded("test", 2, 4, WAIT));
+        return factory;
+    }
+}
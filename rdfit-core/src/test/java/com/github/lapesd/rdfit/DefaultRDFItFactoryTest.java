@@ -30,7 +30,7 @@ import java.util.Collection;
 
 public class DefaultRDFItFactoryTest extends RDFItFactoryTestBase {
 
-    private @Nonnull RDFItFactory createFactory(@Nonnull Collection<? extends Parser> parsers) {
+    protected @Nonnull RDFItFactory createFactory(@Nonnull Collection<? extends Parser> parsers) {
         DefaultParserRegistry parserRegistry = new DefaultParserRegistry();
         parsers.forEach(parserRegistry::register);
         DefaultConversionManager convMgr = new DefaultConversionManager();
@@ -0,0 +1,40 @@
+/*
+ *    Copyright 2021 Alexis Armin Huf
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.github.lapesd.rdfit;
+
+import com.github.lapesd.rdfit.components.Parser;
+import com.github.lapesd.rdfit.impl.DefaultParserExecutor;
+import org.testng.annotations.AfterClass;
+
+import javax.annotation.Nonnull;
+import java.util.Collection;
+import java.util.concurrent.ForkJoinPool;
+
+public class ForkJoinExecutorRDFItFactoryTest extends DefaultRDFItFactoryTest {
+    private final @Nonnull ForkJoinPool pool = new ForkJoinPool(4);
+
+    @AfterClass public void afterClass() {
+        pool.shutdown();
+    }
+
+    @Override
+    protected @Nonnull RDFItFactory createFactory(@Nonnull Collection<? extends Parser> parsers) {
+        RDFItFactory factory = super.createFactory(parsers);
+        factory.setParserExecutor(new DefaultParserExecutor("test", pool, false));
+        return factory;
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ *    Copyright 2021 Alexis Armin Huf
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.github.lapesd.rdfit;
+
+import com.github.lapesd.rdfit.components.converters.impl.DefaultConversionManager;
+import com.github.lapesd.rdfit.components.normalizers.CoreSourceNormalizers;
+import com.github.lapesd.rdfit.components.normalizers.DefaultSourceNormalizerRegistry;
+import com.github.lapesd.rdfit.components.parsers.DefaultParserRegistry;
+import com.github.lapesd.rdfit.data.ConverterLib;
+import com.github.lapesd.rdfit.data.ModelLib;
+import com.github.lapesd.rdfit.data.TripleMock1;
+import com.github.lapesd.rdfit.data.TripleMock2;
+import com.github.lapesd.rdfit.errors.InterruptParsingException;
+import com.github.lapesd.rdfit.errors.RDFItException;
+import com.github.lapesd.rdfit.impl.DefaultRDFItFactory;
+import com.github.lapesd.rdfit.iterator.Ex;
+import com.github.lapesd.rdfit.listener.TripleListenerBase;
+import com.github.lapesd.rdfit.util.NoSource;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import javax.annotation.Nonnull;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.testng.Assert.*;
+
+public class ParallelParseRDFItFactoryTest {
+    private static @Nonnull DefaultRDFItFactory createFactory() {
+        DefaultParserRegistry parserRegistry = new DefaultParserRegistry();
+        ModelLib.ALL_PARSERS.forEach(parserRegistry::register);
+        DefaultConversionManager convMgr = new DefaultConversionManager();
+        ConverterLib.ALL_CONVERTERS.forEach(convMgr::register);
+        DefaultSourceNormalizerRegistry normalizerRegistry = new DefaultSourceNormalizerRegistry();
+        CoreSourceNormalizers.registerAll(normalizerRegistry);
+        return new DefaultRDFItFactory(parserRegistry, convMgr, normalizerRegistry);
+    }
+
+    private static @Nonnull List<TripleMock1> sourceTriples(int source, int size) {
+        List<TripleMock1> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++)
+            list.add(new TripleMock1(Ex.NS+"s"+source, Ex.P1, Ex.NS+"o"+i));
+        return list;
+    }
+
+    private static class Collector extends TripleListenerBase<TripleMock2> {
+        final @Nonnull List<TripleMock2> triples = new ArrayList<>();
+        final @Nonnull Set<Thread> threads = new HashSet<>();
+        int finishCalls = 0;
+        final @Nonnull Consumer<TripleMock2> hook;
+
+        public Collector(@Nonnull Consumer<TripleMock2> hook) {
+            super(TripleMock2.class);
+            this.hook = hook;
+        }
+
+        @Override public void triple(@Nonnull TripleMock2 triple) {
+            threads.add(Thread.currentThread());
+            hook.accept(triple);
+            triples.add(triple);
+        }
+
+        @Override public void finish() {
+            super.finish();
+            ++finishCalls;
+        }
+    }
+
+    @DataProvider public static @Nonnull Object[][] parallelismData() {
+        return new Object[][] {{1}, {2}, {4}, {16}};
+    }
+
+    @Test(dataProvider = "parallelismData", timeOut = 20000)
+    public void testCollect(int parallelism) {
+        List<Object> sources = new ArrayList<>();
+        List<TripleMock2> expected = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            List<TripleMock1> triples = sourceTriples(i, 50 * i);
+            sources.add(ModelLib.getModel(triples));
+            for (TripleMock1 t : triples)
+                expected.add(new TripleMock2(t.getSubject(), t.getPredicate(), t.getObject()));
+        }
+        List<Collector> combined = new ArrayList<>();
+        try (DefaultRDFItFactory factory = createFactory()) {
+            factory.parseParallel(parallelism, () -> new Collector(t -> {}),
+                                  combined::addAll, sources.toArray());
+        }
+        assertEquals(combined.size(), parallelism);
+        List<TripleMock2> actual = new ArrayList<>();
+        for (Collector collector : combined) {
+            assertEquals(collector.finishCalls, 1);
+            assertTrue(collector.threads.size() <= 1);
+            actual.addAll(collector.triples);
+        }
+        assertEquals(new HashSet<>(actual), new HashSet<>(expected));
+        assertEquals(actual.size(), expected.size());
+    }
+
+    @Test(timeOut = 20000)
+    public void testQueueSourcesWhileParsing() {
+        List<TripleMock1> first = sourceTriples(1, 100), second = sourceTriples(2, 2000);
+        ModelLib.Model secondModel = ModelLib.getModel(second);
+        TripleMock2 trigger = new TripleMock2(Ex.NS+"s1", Ex.P1, Ex.NS+"o50");
+        List<Collector> listeners = new ArrayList<>();
+        try (DefaultRDFItFactory factory = createFactory()) {
+            factory.parseParallel(4, () -> {
+                Collector[] self = {null};
+                self[0] = new Collector(t -> {
+                    if (t.equals(trigger))
+                        self[0].getSourceQueue().add(SourceQueue.When.Later, secondModel);
+                });
+                return self[0];
+            }, listeners::addAll, ModelLib.getModel(first));
+        }
+        int count = 0;
+        for (Collector collector : listeners)
+            count += collector.triples.size();
+        assertEquals(count, first.size() + second.size());
+    }
+
+    @Test(timeOut = 20000)
+    public void testInterruptStopsAllWorkers() {
+        List<Object> sources = new ArrayList<>();
+        for (int i = 0; i < 200; i++)
+            sources.add(ModelLib.getModel(sourceTriples(i, 100)));
+        AtomicInteger delivered = new AtomicInteger();
+        List<Collector> listeners = new ArrayList<>();
+        try (DefaultRDFItFactory factory = createFactory()) {
+            factory.parseParallel(4, () -> new Collector(t -> {
+                if (delivered.incrementAndGet() == 150)
+                    throw new InterruptParsingException();
+            }), listeners::addAll, sources.toArray());
+        }
+        assertEquals(listeners.size(), 4);
+        for (Collector collector : listeners)
+            assertEquals(collector.finishCalls, 1);
+        assertTrue(delivered.get() < 200*100);
+    }
+
+    private static class FailingCollector extends Collector {
+        public FailingCollector() {
+            super(t -> {});
+        }
+
+        @Override public void finish() {
+            super.finish();
+            throw new RDFItException(NoSource.INSTANCE, "failed");
+        }
+    }
+
+    @Test(timeOut = 20000)
+    public void testFinishExceptionPropagates() {
+        List<List<FailingCollector>> combined = new ArrayList<>();
+        try (DefaultRDFItFactory factory = createFactory()) {
+            expectThrows(RDFItException.class, () -> factory.parseParallel(
+                    2, FailingCollector::new, combined::add,
+                    ModelLib.getModel(sourceTriples(1, 10))));
+        }
+        assertEquals(combined, Collections.emptyList());
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ *    Copyright 2021 Alexis Armin Huf
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.github.lapesd.rdfit;
+
+import com.github.lapesd.rdfit.components.converters.ConversionManager;
+import com.github.lapesd.rdfit.components.converters.impl.DefaultConversionManager;
+import com.github.lapesd.rdfit.components.converters.quad.QuadLifter;
+import com.github.lapesd.rdfit.components.normalizers.CoreSourceNormalizers;
+import com.github.lapesd.rdfit.components.normalizers.DefaultSourceNormalizerRegistry;
+import com.github.lapesd.rdfit.components.normalizers.SourceNormalizerRegistry;
+import com.github.lapesd.rdfit.components.parsers.DefaultParserRegistry;
+import com.github.lapesd.rdfit.components.parsers.ParserRegistry;
+import com.github.lapesd.rdfit.data.ConverterLib;
+import com.github.lapesd.rdfit.data.ModelLib;
+import com.github.lapesd.rdfit.data.QuadMock1;
+import com.github.lapesd.rdfit.data.TripleMock1;
+import com.github.lapesd.rdfit.impl.DefaultParserExecutor;
+import com.github.lapesd.rdfit.impl.DefaultRDFItFactory;
+import com.github.lapesd.rdfit.iterator.Ex;
+import com.github.lapesd.rdfit.iterator.ParallelFlatMapRDFIt;
+import com.github.lapesd.rdfit.iterator.RDFIt;
+import com.github.lapesd.rdfit.listener.RDFListener;
+import com.github.lapesd.rdfit.listener.TripleListenerBase;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.github.lapesd.rdfit.data.ModelLib.getModel;
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.testng.Assert.*;
+
+public class RDFItFactoryDefaultsTest {
+    private DefaultRDFItFactory delegate;
+    private RDFItFactory factory;
+
+    /**
+     * Implements only the abstract methods of {@link RDFItFactory}
+     */
+    private static class MinimalFactory implements RDFItFactory {
+        private final @Nonnull RDFItFactory delegate;
+
+        public MinimalFactory(@Nonnull RDFItFactory delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override public @Nonnull ConversionManager getConversionManager() {
+            return delegate.getConversionManager();
+        }
+
+        @Override public @Nonnull ParserRegistry getParserRegistry() {
+            return delegate.getParserRegistry();
+        }
+
+        @Override public @Nonnull SourceNormalizerRegistry getNormalizerRegistry() {
+            return delegate.getNormalizerRegistry();
+        }
+
+        @Override public @Nonnull <T> RDFIt<T> iterateTriples(@Nonnull Class<T> tripleClass,
+                                                              @Nonnull Object... sources) {
+            return delegate.iterateTriples(tripleClass, sources);
+        }
+
+        @Override public @Nonnull <Q> RDFIt<Q> iterateQuads(@Nonnull Class<Q> quadClass,
+                                                            @Nonnull QuadLifter quadLifter,
+                                                            @Nonnull Object... sources) {
+            return delegate.iterateQuads(quadClass, quadLifter, sources);
+        }
+
+        @Override public @Nonnull <Q> RDFIt<Q> iterateQuads(@Nonnull Class<Q> quadClass,
+                                                            @Nonnull Object... sources) {
+            return delegate.iterateQuads(quadClass, sources);
+        }
+
+        @Override public void parse(@Nonnull RDFListener<?, ?> listener,
+                                    @Nonnull Object... sources) {
+            delegate.parse(listener, sources);
+        }
+
+        @Override public void close() {
+            delegate.close();
+        }
+    }
+
+    @BeforeMethod
+    public void setUp() {
+        DefaultParserRegistry parserRegistry = new DefaultParserRegistry();
+        ModelLib.ALL_IT_PARSERS.forEach(parserRegistry::register);
+        DefaultConversionManager convMgr = new DefaultConversionManager();
+        ConverterLib.ALL_CONVERTERS.forEach(convMgr::register);
+        DefaultSourceNormalizerRegistry normalizerRegistry = new DefaultSourceNormalizerRegistry();
+        CoreSourceNormalizers.registerAll(normalizerRegistry);
+        delegate = new DefaultRDFItFactory(parserRegistry, convMgr, normalizerRegistry);
+        factory = new MinimalFactory(delegate);
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        factory.close();
+    }
+
+    @Test
+    public void testSharedParserExecutor() {
+        ParserExecutor executor = factory.getParserExecutor();
+        assertSame(executor, DefaultParserExecutor.shared());
+        executor.close(); // no effect on the shared executor
+        assertSame(factory.getParserExecutor(), executor);
+        long completed = executor.getCompletedTasks();
+        executor.execute(() -> {});
+        long end = System.nanoTime() + 5_000_000_000L;
+        while (executor.getCompletedTasks() == completed && System.nanoTime() < end)
+            Thread.yield();
+        assertTrue(executor.getCompletedTasks() > completed);
+    }
+
+    @Test
+    public void testSetParserExecutorUnsupported() {
+        DefaultParserExecutor executor = DefaultParserExecutor.unbounded("test");
+        try {
+            expectThrows(UnsupportedOperationException.class,
+                         () -> factory.setParserExecutor(executor));
+            assertSame(factory.getParserExecutor(), DefaultParserExecutor.shared());
+        } finally {
+            executor.close();
+        }
+    }
+
+    @Test
+    public void testSequentialParallelIteration() {
+        Object[] triples = {getModel(asList(Ex.T1, Ex.T2)), getModel(singletonList(Ex.T3))};
+        Object[] quads = {getModel(asList(Ex.Q1, Ex.Q2)), getModel(singletonList(Ex.Q3))};
+        for (ParallelFlatMapRDFIt.Merge merge : ParallelFlatMapRDFIt.Merge.values()) {
+            List<TripleMock1> actual = new ArrayList<>();
+            try (RDFIt<TripleMock1> it = factory.iterateTriplesParallel(4, merge,
+                                                                        TripleMock1.class,
+                                                                        triples)) {
+                it.forEachRemaining(actual::add);
+            }
+            assertEquals(actual, asList(Ex.T1, Ex.T2, Ex.T3));
+
+            List<QuadMock1> actualQuads = new ArrayList<>();
+            try (RDFIt<QuadMock1> it = factory.iterateQuadsParallel(4, merge, QuadMock1.class,
+                                                                    quads)) {
+                it.forEachRemaining(actualQuads::add);
+            }
+            assertEquals(actualQuads, asList(Ex.Q1, Ex.Q2, Ex.Q3));
+        }
+    }
+
+    @Test
+    public void testSequentialParseParallel() {
+        Object[] sources = {getModel(asList(Ex.T1, Ex.T2)), getModel(singletonList(Ex.T3))};
+        List<List<?>> combined = new ArrayList<>();
+        List<TripleMock1> actual = new ArrayList<>();
+        factory.parseParallel(4, () -> new TripleListenerBase<TripleMock1>(TripleMock1.class) {
+            @Override public void triple(@Nonnull TripleMock1 triple) {
+                actual.add(triple);
+            }
+        }, combined::add, sources);
+        assertEquals(combined.size(), 1);
+        assertEquals(combined.get(0).size(), 1);
+        assertEquals(actual, asList(Ex.T1, Ex.T2, Ex.T3));
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ *    Copyright 2021 Alexis Armin Huf
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.github.lapesd.rdfit;
+
+import com.github.lapesd.rdfit.components.Parser;
+import com.github.lapesd.rdfit.components.converters.impl.DefaultConversionManager;
+import com.github.lapesd.rdfit.components.normalizers.CoreSourceNormalizers;
+import com.github.lapesd.rdfit.components.normalizers.DefaultSourceNormalizerRegistry;
+import com.github.lapesd.rdfit.components.parsers.DefaultParserRegistry;
+import com.github.lapesd.rdfit.data.ConverterLib;
+import com.github.lapesd.rdfit.data.ModelLib;
+import com.github.lapesd.rdfit.data.TripleMock1;
+import com.github.lapesd.rdfit.data.TripleMock2;
+import com.github.lapesd.rdfit.impl.DefaultRDFItFactory;
+import com.github.lapesd.rdfit.iterator.Ex;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static java.util.Arrays.asList;
+import static org.testng.Assert.*;
+
+public class StreamRDFItFactoryTest {
+    private static @Nonnull DefaultRDFItFactory
+    createFactory(@Nonnull Collection<? extends Parser> parsers) {
+        DefaultParserRegistry parserRegistry = new DefaultParserRegistry();
+        parsers.forEach(parserRegistry::register);
+        DefaultConversionManager convMgr = new DefaultConversionManager();
+        ConverterLib.ALL_CONVERTERS.forEach(convMgr::register);
+        DefaultSourceNormalizerRegistry normalizerRegistry = new DefaultSourceNormalizerRegistry();
+        CoreSourceNormalizers.registerAll(normalizerRegistry);
+        return new DefaultRDFItFactory(parserRegistry, convMgr, normalizerRegistry);
+    }
+
+    private static @Nonnull List<TripleMock1> sourceTriples(int source, int size) {
+        List<TripleMock1> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++)
+            list.add(new TripleMock1(Ex.NS+"s"+source, Ex.P1, Ex.NS+"o"+i));
+        return list;
+    }
+
+    @DataProvider public static @Nonnull Object[][] streamData() {
+        List<List<Object>> rows = new ArrayList<>();
+        for (Boolean parallel : asList(false, true)) {
+            for (List<? extends Parser> parsers : asList(ModelLib.ALL_CB_PARSERS,
+                                                         ModelLib.ALL_IT_PARSERS)) {
+                rows.add(asList(parallel, parsers, TripleMock1.class));
+                rows.add(asList(parallel, parsers, TripleMock2.class));
+            }
+        }
+        return rows.stream().map(List::toArray).toArray(Object[][]::new);
+    }
+
+    @Test(dataProvider = "streamData", timeOut = 20000)
+    public void testStreamTriples(boolean parallel, @Nonnull List<? extends Parser> parsers,
+                                  @Nonnull Class<?> tripleClass) {
+        List<Object> sources = new ArrayList<>();
+        List<TripleMock1> expected = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            List<TripleMock1> triples = sourceTriples(i, 10 * i);
+            sources.add(ModelLib.getModel(triples));
+            expected.addAll(triples);
+        }
+        // the last source is a collection of 2 models, which will be queued
+        List<TripleMock1> last1 = sourceTriples(100, 30), last2 = sourceTriples(101, 30);
+        sources.add(asList(ModelLib.getModel(last1), ModelLib.getModel(last2)));
+        expected.addAll(last1);
+        expected.addAll(last2);
+
+        List<Object> converted = new ArrayList<>();
+        for (TripleMock1 t : expected) {
+            if (tripleClass.equals(TripleMock1.class))
+                converted.add(t);
+            else
+                converted.add(new TripleMock2(t.getSubject(), t.getPredicate(), t.getObject()));
+        }
+
+        Set<Thread> threads = ConcurrentHashMap.newKeySet();
+        List<Object> actual;
+        try (DefaultRDFItFactory factory = createFactory(parsers);
+             Stream<?> stream = factory.streamTriples(tripleClass, sources.toArray())) {
+            Stream<?> s = parallel ? stream.parallel() : stream;
+            actual = s.peek(t -> threads.add(Thread.currentThread()))
+                      .collect(Collectors.toList());
+        }
+        assertEquals(actual, converted); // order is preserved even if parallel
+        if (!parallel)
+            assertEquals(threads.size(), 1);
+    }
+
+    @Test(timeOut = 20000)
+    public void testEarlyCloseWithCallbackParsers() {
+        List<Object> sources = new ArrayList<>();
+        for (int i = 0; i < 8; i++)
+            sources.add(ModelLib.getModel(sourceTriples(i, 20000)));
+        try (DefaultRDFItFactory factory = createFactory(ModelLib.ALL_CB_PARSERS)) {
+            try (Stream<TripleMock1> stream = factory.streamTriples(TripleMock1.class,
+                                                                    sources.toArray())) {
+                assertEquals(stream.parallel().unordered().limit(100).count(), 100);
+            }
+            long end = System.nanoTime() + 5000000000L;
+            while (factory.getParserExecutor().getActiveTasks() > 0
+                    && System.nanoTime() < end) {
+                Thread.yield();
+            }
+            assertEquals(factory.getParserExecutor().getActiveTasks(), 0);
+        }
+    }
+}
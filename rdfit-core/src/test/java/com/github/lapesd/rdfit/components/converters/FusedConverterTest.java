@@ -0,0 +1,107 @@
+/*
+ *    Copyright 2021 Alexis Armin Huf
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.github.lapesd.rdfit.components.converters;
+
+import com.github.lapesd.rdfit.components.Converter;
+import com.github.lapesd.rdfit.data.ConverterLib.*;
+import com.github.lapesd.rdfit.data.TripleMock3;
+import com.github.lapesd.rdfit.errors.ConversionException;
+import com.github.lapesd.rdfit.errors.ConversionPathException;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import javax.annotation.Nonnull;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static com.github.lapesd.rdfit.iterator.Ex.*;
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static org.testng.Assert.*;
+
+public class FusedConverterTest {
+    private static final @Nonnull Converter TO_TM1 = new TripleMock1Converter();
+    private static final @Nonnull Converter TO_TM2 = new TripleMock2Converter();
+    private static final @Nonnull Converter TO_TM3 = new TripleMock3Converter();
+    private static final @Nonnull Converter TM3_TO_TM1 = new TripleMock3TripleMock1Converter();
+
+    @DataProvider public @Nonnull Object[][] convertData() {
+        return Stream.of(
+                asList(emptyList(), T1, T1),
+                asList(asList(TO_TM2), T1, U1),
+                asList(asList(TO_TM1, TO_TM2), U1, U1),
+                asList(asList(TO_TM2, TO_TM3), T1, V1),
+                asList(asList(TO_TM3, TM3_TO_TM1, TO_TM2), T1, U1),
+                asList(asList(TO_TM2, TO_TM3, TM3_TO_TM1, TO_TM2), T1, U1),
+                asList(asList(TO_TM2, TO_TM1, TO_TM3, TM3_TO_TM1, TO_TM2), T1, U1)
+        ).map(List::toArray).toArray(Object[][]::new);
+    }
+
+    @Test(dataProvider = "convertData")
+    public void testConvert(@Nonnull List<Converter> list, @Nonnull Object in,
+                            @Nonnull Object expected) throws ConversionException {
+        ConversionPath path = new ConversionPath(list);
+        FusedConverter fused = path.compile();
+        assertSame(path.compile(), fused);
+        assertSame(fused.getConversionPath(), path);
+        assertTrue(fused.canConvert(in));
+        assertEquals(fused.convert(in), expected);
+        assertEquals(fused.convert(in), path.convert(in));
+        if (!list.isEmpty()) {
+            assertEquals(fused.outputClass(), list.get(list.size()-1).outputClass());
+            assertEquals(fused.acceptedClasses(), list.get(0).acceptedClasses());
+        } else {
+            assertEquals(fused.outputClass(), Object.class);
+            assertEquals(fused.acceptedClasses(), singletonList(Object.class));
+        }
+
+        Object[] batch = {in, in, in};
+        fused.convertBatch(batch, 2, batch);
+        assertEquals(asList(batch), asList(expected, expected, in));
+    }
+
+    @Test public void testCanConvertChecksFirstStep() {
+        FusedConverter fused = new ConversionPath(asList(TO_TM2, TO_TM3)).compile();
+        assertTrue(fused.canConvert(T1));
+        assertFalse(fused.canConvert(U1));
+        assertFalse(fused.canConvert(new TripleMock3(S1, P1, O1)));
+    }
+
+    @Test public void testFailureReportsPath() {
+        ConversionPath path = new ConversionPath(asList(TO_TM2, TO_TM3, TM3_TO_TM1));
+        ConversionPathException e = expectThrows(ConversionPathException.class,
+                                                 () -> path.compile().convert(U1));
+        assertSame(e.getConverter(), TO_TM2);
+        assertTrue(e.getMessage().contains(path.toString()));
+    }
+
+    @Test public void testFailureOnLaterStep() {
+        Converter failing = new BaseConverter(singletonList(TripleMock3.class),
+                                              TripleMock3.class) {
+            @Override public @Nonnull Object convert(@Nonnull Object input)
+                    throws ConversionException {
+                throw new ConversionException(input, this, "fail");
+            }
+        };
+        ConversionPath path = new ConversionPath(asList(TO_TM3, failing));
+        ConversionPathException e = expectThrows(ConversionPathException.class,
+                                                 () -> path.compile().convert(T1));
+        assertSame(e.getConverter(), failing);
+        assertEquals(e.getInput(), V1);
+    }
+}
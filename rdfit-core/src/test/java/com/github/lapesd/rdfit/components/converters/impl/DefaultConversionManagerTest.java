@@ -16,13 +16,113 @@
 
 package com.github.lapesd.rdfit.components.converters.impl;
 
+import com.github.lapesd.rdfit.components.Converter;
+import com.github.lapesd.rdfit.components.converters.ConversionFinder;
 import com.github.lapesd.rdfit.components.converters.ConversionManager;
 import com.github.lapesd.rdfit.components.converters.ConversionManagerTestBase;
+import com.github.lapesd.rdfit.components.converters.DetachedBaseConverter;
+import com.github.lapesd.rdfit.data.ConverterLib;
+import com.github.lapesd.rdfit.data.TripleMock1;
+import com.github.lapesd.rdfit.data.TripleMock2;
+import com.github.lapesd.rdfit.data.TripleMock3;
+import com.github.lapesd.rdfit.errors.ConversionException;
+import com.github.lapesd.rdfit.iterator.Ex;
+import org.testng.annotations.Test;
 
 import javax.annotation.Nonnull;
 
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.testng.Assert.*;
+
 public class DefaultConversionManagerTest extends ConversionManagerTestBase {
     @Override protected @Nonnull ConversionManager createManager() {
         return new DefaultConversionManager();
     }
-}
\ No newline at end of file
+
+    private static class FailingConverter extends DetachedBaseConverter {
+        public FailingConverter() {
+            super(singletonList(TripleMock1.class), TripleMock2.class);
+        }
+
+        @Override public @Nonnull Object convert(@Nonnull Object input) throws ConversionException {
+            throw new ConversionException(input, this, "always fails");
+        }
+    }
+
+    @Test public void testMemoizedUntilRegister() {
+        DefaultConversionManager mgr = new DefaultConversionManager();
+        mgr.register(new ConverterLib.TripleMock3Converter());
+        mgr.register(new ConverterLib.TripleMock3TripleMock2Converter());
+
+        DefaultConversionManager.Candidates first = mgr.getCandidates(TripleMock1.class,
+                                                                      TripleMock2.class);
+        assertSame(mgr.getCandidates(TripleMock1.class, TripleMock2.class), first);
+        assertEquals(first.ranked().length, 1);
+        assertEquals(first.ranked()[0].getPath().size(), 2);
+
+        Converter direct = new ConverterLib.TripleMock2Converter();
+        mgr.register(direct);
+        DefaultConversionManager.Candidates second = mgr.getCandidates(TripleMock1.class,
+                                                                       TripleMock2.class);
+        assertNotSame(second, first);
+        assertEquals(second.ranked().length, 2);
+        assertEquals(second.ranked()[0].getPath().getConverters(), singletonList(direct));
+
+        mgr.unregister(direct);
+        DefaultConversionManager.Candidates third = mgr.getCandidates(TripleMock1.class,
+                                                                      TripleMock2.class);
+        assertNotSame(third, second);
+        assertEquals(third.ranked().length, 1);
+    }
+
+    @Test public void testFailuresDemoteSameLengthPaths() throws ConversionException {
+        DefaultConversionManager mgr = new DefaultConversionManager();
+        Converter good = new ConverterLib.TripleMock2Converter();
+        Converter bad = new FailingConverter();
+        mgr.register(good);
+        mgr.register(bad); // registered last, tried first
+
+        ConversionFinder finder = mgr.findPath(Ex.T1, TripleMock2.class);
+        assertTrue(finder.hasNext());
+        assertEquals(finder.getConversionPath().getConverters(), singletonList(bad));
+        expectThrows(ConversionException.class, () -> finder.convert(Ex.T1));
+        assertTrue(finder.hasNext());
+        assertEquals(finder.convert(Ex.T1), Ex.U1);
+        assertFalse(finder.hasNext());
+
+        ConversionFinder second = mgr.findPath(Ex.T1, TripleMock2.class);
+        assertTrue(second.hasNext());
+        assertEquals(second.getConversionPath().getConverters(), singletonList(good));
+        assertEquals(second.convert(Ex.T1), Ex.U1);
+    }
+
+    @Test public void testFailuresDoNotPromoteLongerPaths() {
+        DefaultConversionManager mgr = new DefaultConversionManager();
+        Converter bad = new FailingConverter();
+        mgr.register(new ConverterLib.TripleMock3Converter());
+        mgr.register(new ConverterLib.TripleMock3TripleMock2Converter());
+        mgr.register(bad);
+
+        for (int i = 0; i < 3; i++) {
+            ConversionFinder finder = mgr.findPath(Ex.T1, TripleMock2.class);
+            assertTrue(finder.hasNext());
+            assertEquals(finder.getConversionPath().getConverters(), singletonList(bad));
+            expectThrows(ConversionException.class, () -> finder.convert(Ex.T1));
+            assertTrue(finder.hasNext());
+            assertEquals(finder.getConversionPath().size(), 2);
+        }
+    }
+
+    @Test public void testCandidatesFilteredByInstance() {
+        DefaultConversionManager mgr = new DefaultConversionManager();
+        mgr.register(new ConverterLib.TripleMock3Converter());
+        ConversionFinder finder = mgr.findPath(Ex.U1, TripleMock3.class);
+        assertTrue(finder.hasNext());
+        assertFalse(finder.hasNext());
+        assertFalse(mgr.findPath(Ex.U1, TripleMock1.class).hasNext());
+        assertEquals(mgr.getCandidates(TripleMock2.class, TripleMock3.class).ranked().length, 1);
+        assertEquals(asList(mgr.getCandidates(TripleMock2.class, TripleMock1.class).ranked()),
+                     asList());
+    }
+}
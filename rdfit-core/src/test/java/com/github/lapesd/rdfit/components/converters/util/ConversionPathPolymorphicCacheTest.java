@@ -0,0 +1,104 @@
+/*
+ *    Copyright 2021 Alexis Armin Huf
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.github.lapesd.rdfit.components.converters.util;
+
+import com.github.lapesd.rdfit.components.Converter;
+import com.github.lapesd.rdfit.components.converters.impl.DefaultConversionManager;
+import com.github.lapesd.rdfit.data.ConverterLib;
+import com.github.lapesd.rdfit.data.TripleMock1;
+import com.github.lapesd.rdfit.data.TripleMock2;
+import com.github.lapesd.rdfit.errors.InconvertibleException;
+import org.testng.annotations.Test;
+
+import javax.annotation.Nonnull;
+import java.util.Arrays;
+
+import static com.github.lapesd.rdfit.iterator.Ex.*;
+import static java.util.Arrays.asList;
+import static org.testng.Assert.*;
+
+public class ConversionPathPolymorphicCacheTest {
+    private static @Nonnull DefaultConversionManager createManager() {
+        DefaultConversionManager mgr = new DefaultConversionManager();
+        for (Converter converter : ConverterLib.ALL_CONVERTERS)
+            mgr.register(converter);
+        return mgr;
+    }
+
+    @Test public void testNoOpWithoutManager() {
+        assertSame(ConversionPathPolymorphicCache.createCache(null, TripleMock1.class),
+                   NoOpConversionCache.INSTANCE);
+        assertSame(ConversionPathPolymorphicCache.createCache(createManager(), null),
+                   NoOpConversionCache.INSTANCE);
+    }
+
+    @Test public void testAlternatingInputClasses() throws InconvertibleException {
+        ConversionPathPolymorphicCache cache;
+        cache = new ConversionPathPolymorphicCache(createManager(), TripleMock1.class);
+        for (int i = 0; i < 3; i++) {
+            for (Object in : asList(U1, V1, Q1, R1))
+                assertEquals(cache.convert("source", in), T1);
+            assertSame(cache.convert("source", T1), T1);
+        }
+        assertEquals(cache.getMisses(), 4);
+        assertEquals(cache.getHits(), 8);
+        assertFalse(cache.isMegamorphic());
+    }
+
+    @Test public void testMegamorphic() throws InconvertibleException {
+        ConversionPathPolymorphicCache cache;
+        cache = new ConversionPathPolymorphicCache(createManager(), TripleMock1.class);
+        TripleMock2 sub = new TripleMock2(S1, P1, O1) { };
+        for (int i = 0; i < 2; i++) {
+            for (Object in : asList(U1, V1, Q1, R1, sub))
+                assertEquals(cache.convert("source", in), T1);
+        }
+        assertTrue(cache.isMegamorphic());
+        assertEquals(cache.getMisses(), 5);
+        assertEquals(cache.getHits(), 5);
+    }
+
+    @Test public void testInconvertible() {
+        ConversionPathPolymorphicCache cache;
+        cache = new ConversionPathPolymorphicCache(createManager(), TripleMock1.class);
+        expectThrows(InconvertibleException.class, () -> cache.convert("source", "string"));
+        assertEquals(cache.getMisses(), 1);
+        assertEquals(cache.getHits(), 0);
+        assertTrue(cache.toString().contains("misses=1"));
+    }
+
+    @Test public void testConvertBatch() throws InconvertibleException {
+        ConversionPathPolymorphicCache cache;
+        cache = new ConversionPathPolymorphicCache(createManager(), TripleMock1.class);
+        Object[] in = {U1, U1, U1}, out = new Object[3];
+        cache.convertBatch("source", in, 3, out);
+        assertEquals(asList(out), asList(T1, T1, T1));
+        assertEquals(cache.getMisses(), 1); // first batch falls back to one-by-one
+        assertEquals(cache.getHits(), 2);
+
+        Arrays.fill(out, null);
+        cache.convertBatch("source", in, 3, out);
+        assertEquals(asList(out), asList(T1, T1, T1));
+        assertEquals(cache.getMisses(), 1);
+        assertEquals(cache.getHits(), 5);
+
+        Object[] mixed = {U1, Q1, T1};
+        cache.convertBatch("source", mixed, 3, mixed); // in-place
+        assertEquals(asList(mixed), asList(T1, T1, T1));
+        assertEquals(cache.getMisses(), 2);
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ *    Copyright 2021 Alexis Armin Huf
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.github.lapesd.rdfit.components.parsers;
+
+import com.github.lapesd.rdfit.components.Converter;
+import com.github.lapesd.rdfit.components.converters.impl.DefaultConversionManager;
+import com.github.lapesd.rdfit.data.ConverterLib;
+import com.github.lapesd.rdfit.data.TripleMock1;
+import com.github.lapesd.rdfit.data.TripleMock2;
+import com.github.lapesd.rdfit.errors.InconvertibleException;
+import com.github.lapesd.rdfit.iterator.Ex;
+import com.github.lapesd.rdfit.listener.ConvertingRDFListener;
+import com.github.lapesd.rdfit.listener.RDFListener;
+import com.github.lapesd.rdfit.listener.RDFListenerBase;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static java.util.stream.Collectors.toList;
+import static org.testng.Assert.assertEquals;
+
+public class ListenerFeederTest {
+    private static class Collector extends RDFListenerBase<TripleMock2, Void> {
+        final List<Object> triples = new ArrayList<>();
+        final List<Object> inconvertible = new ArrayList<>();
+        int batches = 0;
+
+        public Collector() {
+            super(TripleMock2.class);
+        }
+
+        @Override public void triple(@Nonnull TripleMock2 triple) {
+            triples.add(triple);
+        }
+
+        @Override public boolean triples(@Nonnull Object[] batch, int n) {
+            ++batches;
+            return super.triples(batch, n);
+        }
+
+        @Override
+        public boolean notifyInconvertibleTriple(@Nonnull InconvertibleException e) {
+            inconvertible.add(e.getInput());
+            return true;
+        }
+    }
+
+    private static @Nonnull DefaultConversionManager createManager() {
+        DefaultConversionManager mgr = new DefaultConversionManager();
+        for (Converter converter : ConverterLib.ALL_CONVERTERS)
+            mgr.register(converter);
+        return mgr;
+    }
+
+    private static @Nonnull List<Object> triples(int size) {
+        return IntStream.range(0, size).mapToObj(i -> new TripleMock1(Ex.S1, Ex.P1, Ex.O1+i))
+                        .collect(toList());
+    }
+
+    private static @Nonnull List<Object> converted(@Nonnull List<Object> triples) {
+        List<Object> list = new ArrayList<>();
+        for (Object o : triples) {
+            TripleMock1 t = (TripleMock1) o;
+            list.add(new TripleMock2(t.getSubject(), t.getPredicate(), t.getObject()));
+        }
+        return list;
+    }
+
+    @DataProvider public @Nonnull Object[][] sizesData() {
+        int b = ListenerFeeder.BATCH_SIZE;
+        return IntStream.of(0, 1, 2, b-1, b, b+1, 3*b+7)
+                        .mapToObj(i -> new Object[]{i}).toArray(Object[][]::new);
+    }
+
+    @Test(dataProvider = "sizesData")
+    public void testFeedTriplesDirect(int size) {
+        List<Object> in = triples(size);
+        Collector collector = new Collector();
+        try (ListenerFeeder feeder = new ListenerFeeder(collector, createManager())) {
+            feeder.setSource(in).feedTriples(in.iterator());
+        }
+        assertEquals(collector.triples, converted(in));
+        int full = size / ListenerFeeder.BATCH_SIZE, rem = size % ListenerFeeder.BATCH_SIZE;
+        assertEquals(collector.batches, full + (rem > 1 ? 1 : 0));
+    }
+
+    @Test(dataProvider = "sizesData")
+    public void testFeedTriplesThroughConvertingListener(int size) {
+        List<Object> in = triples(size);
+        Collector collector = new Collector();
+        DefaultConversionManager mgr = createManager();
+        RDFListener<?, ?> converting = ConvertingRDFListener.createIf(collector,
+                TripleMock1.class, null, mgr);
+        try (ListenerFeeder feeder = new ListenerFeeder(converting, mgr)) {
+            feeder.setSource(in).feedTriples(in.iterator());
+        }
+        assertEquals(collector.triples, converted(in));
+    }
+
+    @Test
+    public void testInconvertibleInBatch() {
+        List<Object> in = triples(10);
+        in.set(3, Ex.Q1);
+        Collector collector = new Collector();
+        DefaultConversionManager mgr = new DefaultConversionManager();
+        mgr.register(new ConverterLib.TripleMock2Converter());
+        try (ListenerFeeder feeder = new ListenerFeeder(collector, mgr)) {
+            feeder.setSource(in).feedTriples(in.toArray(), in.size());
+        }
+        List<Object> expected = new ArrayList<>(in);
+        expected.remove(3);
+        assertEquals(collector.triples, converted(expected));
+        assertEquals(collector.inconvertible.size(), 1);
+        assertEquals(collector.batches, 0);
+    }
+}
@@ -19,6 +19,8 @@ package com.github.lapesd.rdfit.components.parsers;
 import com.github.lapesd.rdfit.components.ItParser;
 import com.github.lapesd.rdfit.components.ListenerParser;
 import com.github.lapesd.rdfit.components.Parser;
+import com.github.lapesd.rdfit.components.PatternMatcher;
+import com.github.lapesd.rdfit.components.converters.impl.DefaultConversionManager;
 import com.github.lapesd.rdfit.data.*;
 import com.github.lapesd.rdfit.iterator.EmptyRDFIt;
 import com.github.lapesd.rdfit.iterator.Ex;
@@ -26,6 +28,7 @@ import com.github.lapesd.rdfit.iterator.IterationElement;
 import com.github.lapesd.rdfit.iterator.RDFIt;
 import com.github.lapesd.rdfit.listener.RDFListener;
 import com.github.lapesd.rdfit.listener.RDFListenerBase;
+import com.github.lapesd.rdfit.source.PatternSource;
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
@@ -35,6 +38,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.function.Predicate;
 import java.util.stream.Stream;
 
 import static com.github.lapesd.rdfit.iterator.IterationElement.QUAD;
@@ -273,4 +277,34 @@ public abstract class ParserRegistryTestBase {
         assertSame(reg.getItParser("asd", QUAD, QuadMock3.class), pq3);
         assertSame(reg.getItParser("asd", QUAD, null), pq3);
     }
+
+    @Test
+    public void testMatcherConvertsEachValueClass() {
+        ParserRegistry reg = createRegistry();
+        DefaultConversionManager convMgr = new DefaultConversionManager();
+        ConverterLib.ALL_CONVERTERS.forEach(convMgr::register);
+        reg.setConversionManager(convMgr);
+        // QuadMock3 cannot be converted into QuadMock1, but QuadMock2 can
+        reg.registerMatcher(new PatternMatcher() {
+            @Override public @Nonnull Collection<Class<?>> acceptedClasses() {
+                return asList(QuadMock1.class, QuadMock3.class);
+            }
+
+            @Override public @Nonnull Predicate<Object> createPredicate(@Nonnull PatternSource p) {
+                return v -> {
+                    String g = v instanceof QuadMock1 ? ((QuadMock1) v).getGraph()
+                                                      : ((QuadMock3) v).getGraph();
+                    return g.equals(p.getGraph());
+                };
+            }
+        });
+        Predicate<Object> matcher = reg.getMatcher(QuadMock2.class,
+                                                   new PatternSource("src", null, null, null, "g"));
+        assertNotNull(matcher);
+        assertTrue(matcher.test(new QuadMock1("g", new TripleMock1(Ex.S1, Ex.P1, Ex.O1))));
+        assertTrue(matcher.test(new QuadMock3("g", Ex.S1, Ex.P1, Ex.O1)));
+        assertFalse(matcher.test(new QuadMock3("h", Ex.S1, Ex.P1, Ex.O1)));
+        assertTrue(matcher.test(new QuadMock2("g", Ex.S1, Ex.P1, Ex.O1)));
+        assertFalse(matcher.test(new QuadMock1("h", new TripleMock1(Ex.S1, Ex.P1, Ex.O1))));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,165 @@
+/*
+ *    Copyright 2021 Alexis Armin Huf
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.github.lapesd.rdfit.impl;
+
+import com.github.lapesd.rdfit.components.normalizers.CoreSourceNormalizers;
+import com.github.lapesd.rdfit.components.normalizers.DefaultSourceNormalizerRegistry;
+import com.github.lapesd.rdfit.components.parsers.DefaultParserRegistry;
+import com.github.lapesd.rdfit.components.converters.impl.DefaultConversionManager;
+import com.github.lapesd.rdfit.data.ModelLib;
+import com.github.lapesd.rdfit.data.TripleMock1;
+import com.github.lapesd.rdfit.errors.RDFItException;
+import com.github.lapesd.rdfit.iterator.Ex;
+import com.github.lapesd.rdfit.iterator.RDFIt;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static com.github.lapesd.rdfit.impl.DefaultParserExecutor.Rejection.ABORT;
+import static com.github.lapesd.rdfit.impl.DefaultParserExecutor.Rejection.WAIT;
+import static java.util.Arrays.asList;
+import static org.testng.Assert.*;
+
+public class DefaultParserExecutorTest {
+    private static void awaitCompleted(DefaultParserExecutor executor,
+                                       long count) throws InterruptedException {
+        long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (executor.getCompletedTasks() < count && System.nanoTime() < end)
+            Thread.sleep(1);
+        assertEquals(executor.getCompletedTasks(), count);
+    }
+
+    @Test(timeOut = 10000)
+    public void testMetrics() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1), started = new CountDownLatch(1);
+        try (DefaultParserExecutor executor = DefaultParserExecutor.bounded("test", 1, 2, ABORT)) {
+            Runnable blocking = () -> {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            };
+            executor.execute(blocking);
+            started.await();
+            executor.execute(() -> {});
+            executor.execute(() -> {});
+            assertEquals(executor.getActiveTasks(), 1);
+            assertEquals(executor.getQueuedTasks(), 2);
+            expectThrows(RejectedExecutionException.class, () -> executor.execute(() -> {}));
+            assertEquals(executor.getRejectedTasks(), 1);
+            assertEquals(executor.getQueuedTasks(), 2);
+
+            release.countDown();
+            awaitCompleted(executor, 3);
+            assertEquals(executor.getActiveTasks(), 0);
+            assertEquals(executor.getQueuedTasks(), 0);
+        }
+    }
+
+    @Test(timeOut = 10000)
+    public void testWait() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        try (DefaultParserExecutor executor = DefaultParserExecutor.bounded("test", 1, 1, WAIT)) {
+            Runnable blocking = () -> {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            };
+            executor.execute(blocking);
+            executor.execute(() -> {});
+            Thread releaser = new Thread(() -> {
+                try {
+                    Thread.sleep(50);
+                } catch (InterruptedException ignored) { }
+                release.countDown();
+            });
+            releaser.start();
+            executor.execute(() -> {}); // blocks until releaser runs
+            assertEquals(release.getCount(), 0);
+            awaitCompleted(executor, 3);
+            assertEquals(executor.getRejectedTasks(), 0);
+            releaser.join();
+        }
+    }
+
+    @Test
+    public void testVirtualThreads() throws InterruptedException {
+        if (!DefaultParserExecutor.isVirtualThreadsSupported()) {
+            expectThrows(UnsupportedOperationException.class,
+                         () -> DefaultParserExecutor.virtualThreads("test"));
+            return;
+        }
+        try (DefaultParserExecutor executor = DefaultParserExecutor.virtualThreads("test")) {
+            for (int i = 0; i < 100; i++)
+                executor.execute(() -> {});
+            awaitCompleted(executor, 100);
+        }
+    }
+
+    @Test
+    public void testCommonPoolNotShutDown() {
+        DefaultParserExecutor executor = DefaultParserExecutor.commonPool();
+        executor.close();
+        assertFalse(executor.getDelegate().isShutdown());
+    }
+
+    @Test(timeOut = 10000)
+    public void testFactoryReportsRejection() throws InterruptedException {
+        DefaultParserRegistry parserRegistry = new DefaultParserRegistry();
+        ModelLib.ALL_CB_PARSERS.forEach(parserRegistry::register);
+        DefaultSourceNormalizerRegistry normalizers = new DefaultSourceNormalizerRegistry();
+        CoreSourceNormalizers.registerAll(normalizers);
+        CountDownLatch release = new CountDownLatch(1);
+        DefaultParserExecutor executor = DefaultParserExecutor.bounded("test", 1, 0, ABORT);
+        try (DefaultRDFItFactory factory = new DefaultRDFItFactory(parserRegistry,
+                new DefaultConversionManager(), normalizers)) {
+            factory.setParserExecutor(executor);
+            assertSame(factory.getParserExecutor(), executor);
+            executor.execute(() -> {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            List<TripleMock1> triples = asList(new TripleMock1(Ex.S1, Ex.P1, Ex.O1),
+                                               new TripleMock1(Ex.S2, Ex.P2, Ex.O2));
+            try (RDFIt<TripleMock1> it = factory.iterateTriples(TripleMock1.class,
+                                                                ModelLib.getModel(triples))) {
+                expectThrows(RDFItException.class, it::hasNext);
+            }
+            assertEquals(executor.getRejectedTasks(), 1);
+
+            release.countDown();
+            awaitCompleted(executor, 1);
+            List<TripleMock1> actual = new ArrayList<>();
+            try (RDFIt<TripleMock1> it = factory.iterateTriples(TripleMock1.class,
+                                                                ModelLib.getModel(triples))) {
+                it.forEachRemaining(actual::add);
+            }
+            assertEquals(actual, triples);
+        }
+    }
+}
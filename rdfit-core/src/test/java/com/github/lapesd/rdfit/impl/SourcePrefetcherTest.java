@@ -0,0 +1,178 @@
+/*
+ *    Copyright 2021 Alexis Armin Huf
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.github.lapesd.rdfit.impl;
+
+import com.github.lapesd.rdfit.SourceQueue;
+import com.github.lapesd.rdfit.components.normalizers.BaseSourceNormalizer;
+import com.github.lapesd.rdfit.components.normalizers.DefaultSourceNormalizerRegistry;
+import com.github.lapesd.rdfit.source.RDFInputStream;
+import com.github.lapesd.rdfit.source.syntax.RDFLangs;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import javax.annotation.Nonnull;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.testng.Assert.*;
+
+public class SourcePrefetcherTest {
+    private static final String NT = "<http://example.org/s> <http://example.org/p> " +
+                                     "<http://example.org/o> .\n";
+    private DefaultParserExecutor executor;
+    private RecordingNormalizer normalizer;
+    private DefaultSourceNormalizerRegistry registry;
+
+    private static class RecordingNormalizer extends BaseSourceNormalizer {
+        final @Nonnull Map<File, Thread> threads = Collections.synchronizedMap(new HashMap<>());
+        final @Nonnull Set<File> closed = Collections.synchronizedSet(new HashSet<>());
+
+        public RecordingNormalizer() {
+            super(singletonList(File.class));
+        }
+
+        @Override public @Nonnull Object normalize(@Nonnull Object source) {
+            File file = (File) source;
+            threads.put(file, Thread.currentThread());
+            if (file.getName().equals("fail"))
+                throw new IllegalArgumentException("fail");
+            return new RDFInputStream(new ByteArrayInputStream(NT.getBytes(UTF_8))) {
+                @Override public void close() {
+                    closed.add(file);
+                    super.close();
+                }
+            };
+        }
+    }
+
+    @BeforeMethod
+    public void setUp() {
+        executor = DefaultParserExecutor.unbounded("SourcePrefetcherTest");
+        normalizer = new RecordingNormalizer();
+        registry = new DefaultSourceNormalizerRegistry();
+        registry.register(normalizer);
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        executor.close();
+    }
+
+    private void awaitNormalized(int count) throws InterruptedException {
+        long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (normalizer.threads.size() < count && System.nanoTime() < end)
+            Thread.sleep(1);
+        assertEquals(normalizer.threads.size(), count);
+        while (executor.getActiveTasks() > 0 && System.nanoTime() < end)
+            Thread.sleep(1);
+    }
+
+    @Test(timeOut = 10000)
+    public void testPrefetch() throws InterruptedException {
+        List<File> files = asList(new File("1"), new File("2"), new File("3"), new File("4"));
+        List<Object> actual = new ArrayList<>();
+        Thread me = Thread.currentThread();
+        try (SourcePrefetcher p = new SourcePrefetcher(new DefaultSourceQueue(files.toArray()),
+                                                       registry, executor, 2)) {
+            while (p.hasNext()) {
+                Object source = p.next();
+                actual.add(source);
+                if (source.equals(files.get(1))) {
+                    awaitNormalized(3); // 4th is only prefetched after 2nd is consumed
+                    assertEquals(normalizer.threads.keySet(), new HashSet<>(files.subList(0, 3)));
+                }
+                Object normalized = p.normalize(source);
+                assertTrue(normalized instanceof RDFInputStream);
+                if (!source.equals(files.get(0)))
+                    assertEquals(((RDFInputStream) normalized).getLang(), RDFLangs.NT);
+            }
+        }
+        assertEquals(actual, files);
+        assertSame(normalizer.threads.get(files.get(0)), me);
+        for (File file : files.subList(1, 3))
+            assertNotSame(normalizer.threads.get(file), me);
+        assertEquals(normalizer.closed, Collections.emptySet());
+    }
+
+    @Test(timeOut = 10000)
+    public void testNoPrefetch() {
+        List<File> files = asList(new File("1"), new File("2"), new File("3"));
+        Thread me = Thread.currentThread();
+        try (SourcePrefetcher p = new SourcePrefetcher(new DefaultSourceQueue(files.toArray()),
+                                                       registry, executor, 0)) {
+            while (p.hasNext())
+                assertTrue(p.normalize(p.next()) instanceof RDFInputStream);
+        }
+        for (File file : files)
+            assertSame(normalizer.threads.get(file), me);
+        assertEquals(executor.getCompletedTasks(), 0);
+    }
+
+    @Test(timeOut = 10000)
+    public void testSoonSourcesPrecedePrefetched() {
+        File f1 = new File("1"), f2 = new File("2"), f3 = new File("3"), x = new File("x");
+        DefaultSourceQueue queue = new DefaultSourceQueue(f1, f2, f3);
+        List<Object> actual = new ArrayList<>();
+        try (SourcePrefetcher p = new SourcePrefetcher(queue, registry, executor, 2)) {
+            Object first = p.next();
+            actual.add(first);
+            p.normalize(first);
+            queue.add(SourceQueue.When.Soon, x);
+            while (p.hasNext()) {
+                Object source = p.next();
+                actual.add(source);
+                assertTrue(p.normalize(source) instanceof RDFInputStream);
+            }
+        }
+        assertEquals(actual, asList(f1, x, f2, f3));
+    }
+
+    @Test(timeOut = 10000)
+    public void testCloseReleasesUnused() throws InterruptedException {
+        List<File> files = asList(new File("1"), new File("2"), new File("3"), new File("4"));
+        DefaultSourceQueue queue = new DefaultSourceQueue(files.toArray());
+        try (SourcePrefetcher p = new SourcePrefetcher(queue, registry, executor, 2)) {
+            p.normalize(p.next());
+            awaitNormalized(3);
+        }
+        assertTrue(queue.isClosed());
+        assertEquals(normalizer.closed, new HashSet<>(files.subList(1, 3)));
+    }
+
+    @Test(timeOut = 10000)
+    public void testErrorIsThrownOnNormalize() {
+        File f1 = new File("1"), fail = new File("fail"), f3 = new File("3");
+        List<Object> actual = new ArrayList<>();
+        try (SourcePrefetcher p = new SourcePrefetcher(new DefaultSourceQueue(f1, fail, f3),
+                                                       registry, executor, 2)) {
+            while (p.hasNext()) {
+                Object source = p.next();
+                if (source == fail)
+                    expectThrows(IllegalArgumentException.class, () -> p.normalize(source));
+                else
+                    actual.add(p.normalize(source));
+            }
+        }
+        assertEquals(actual.size(), 2);
+    }
+}
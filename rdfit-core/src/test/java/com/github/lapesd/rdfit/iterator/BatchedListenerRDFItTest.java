@@ -0,0 +1,112 @@
+/*
+ *    Copyright 2021 Alexis Armin Huf
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.github.lapesd.rdfit.iterator;
+
+import com.github.lapesd.rdfit.components.converters.impl.DefaultConversionManager;
+import com.github.lapesd.rdfit.data.TripleMock1;
+import com.github.lapesd.rdfit.errors.RDFItException;
+import com.github.lapesd.rdfit.impl.ClosedSourceQueue;
+import com.github.lapesd.rdfit.listener.RDFListener;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.github.lapesd.rdfit.iterator.IterationElement.TRIPLE;
+import static java.util.Arrays.asList;
+import static org.testng.Assert.*;
+
+public class BatchedListenerRDFItTest extends ListenerRDFItTest {
+    @Override protected int batchSize() {
+        return 3;
+    }
+
+    private static @Nonnull List<TripleMock1> createTriples(int size) {
+        List<TripleMock1> list = new ArrayList<>();
+        for (int i = 0; i < size; i++)
+            list.add(new TripleMock1(Ex.S1, Ex.P1, Ex.NS+"o/"+i));
+        return list;
+    }
+
+    @DataProvider public static Object[][] sizeData() {
+        List<List<Integer>> rows = new ArrayList<>();
+        for (Integer batchSize : asList(1, 2, 7, 64, 1024, 4096)) {
+            for (Integer size : asList(0, 1, 2, 63, 64, 65, 10000))
+                rows.add(asList(batchSize, size));
+        }
+        return rows.stream().map(List::toArray).toArray(Object[][]::new);
+    }
+
+    @Test(dataProvider = "sizeData")
+    public void testProducerThread(int batchSize, int size) throws Exception {
+        List<TripleMock1> expected = createTriples(size);
+        ListenerRDFIt<TripleMock1> it = new ListenerRDFIt<>("source", TripleMock1.class, TRIPLE,
+                null, new DefaultConversionManager(), new ClosedSourceQueue(), batchSize, transport());
+        assertEquals(it.getBatchSize(), batchSize);
+        assertEquals(it.getTransport(), transport());
+        Thread producer = new Thread(() -> {
+            @SuppressWarnings("unchecked") RDFListener<Object, Object> listener
+                    = (RDFListener<Object, Object>) it.getListener();
+            listener.start("source");
+            for (TripleMock1 triple : expected)
+                listener.triple(triple);
+            listener.finish("source");
+            listener.finish();
+        });
+        producer.start();
+        List<TripleMock1> actual = new ArrayList<>();
+        try {
+            it.forEachRemaining(actual::add);
+        } finally {
+            it.close();
+        }
+        producer.join();
+        assertEquals(actual, expected);
+    }
+
+    @Test(dataProvider = "sizeData")
+    public void testExceptionAfterPartialBatch(int batchSize, int size) throws Exception {
+        List<TripleMock1> expected = createTriples(size);
+        ListenerRDFIt<TripleMock1> it = new ListenerRDFIt<>("source", TripleMock1.class, TRIPLE,
+                null, new DefaultConversionManager(), new ClosedSourceQueue(), batchSize, transport());
+        RDFItException exception = new RDFItException("source", "test");
+        Thread producer = new Thread(() -> {
+            @SuppressWarnings("unchecked") RDFListener<Object, Object> listener
+                    = (RDFListener<Object, Object>) it.getListener();
+            listener.start("source");
+            for (TripleMock1 triple : expected)
+                listener.triple(triple);
+            it.addException(exception);
+        });
+        producer.start();
+        List<TripleMock1> actual = new ArrayList<>();
+        RDFItException caught = null;
+        try {
+            while (it.hasNext())
+                actual.add(it.next());
+        } catch (RDFItException e) {
+            caught = e;
+        } finally {
+            it.close();
+        }
+        producer.join();
+        assertEquals(actual, expected);
+        assertSame(caught, exception);
+    }
+}
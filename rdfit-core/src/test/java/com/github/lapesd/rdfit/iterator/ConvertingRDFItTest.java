@@ -0,0 +1,135 @@
+/*
+ *    Copyright 2021 Alexis Armin Huf
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.github.lapesd.rdfit.iterator;
+
+import com.github.lapesd.rdfit.components.Converter;
+import com.github.lapesd.rdfit.components.converters.impl.DefaultConversionManager;
+import com.github.lapesd.rdfit.data.ConverterLib;
+import com.github.lapesd.rdfit.data.TripleMock1;
+import com.github.lapesd.rdfit.data.TripleMock2;
+import com.github.lapesd.rdfit.errors.InconvertibleException;
+import com.github.lapesd.rdfit.errors.RDFItException;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.stream.IntStream;
+
+import static java.util.stream.Collectors.toList;
+import static org.testng.Assert.*;
+
+public class ConvertingRDFItTest {
+    private static @Nonnull DefaultConversionManager createManager() {
+        DefaultConversionManager mgr = new DefaultConversionManager();
+        for (Converter converter : ConverterLib.ALL_CONVERTERS)
+            mgr.register(converter);
+        return mgr;
+    }
+
+    private static @Nonnull List<Object> triples(int size) {
+        return IntStream.range(0, size).mapToObj(i -> new TripleMock1(Ex.S1, Ex.P1, Ex.O1+i))
+                        .collect(toList());
+    }
+
+    private static @Nonnull List<Object> converted(@Nonnull List<Object> triples) {
+        List<Object> list = new ArrayList<>();
+        for (Object o : triples) {
+            TripleMock1 t = (TripleMock1) o;
+            list.add(new TripleMock2(t.getSubject(), t.getPredicate(), t.getObject()));
+        }
+        return list;
+    }
+
+    @DataProvider public @Nonnull Object[][] sizesData() {
+        int b = ConvertingRDFIt.BATCH_SIZE;
+        return IntStream.of(0, 1, 2, b-1, b, b+1, 2*b, 3*b+7)
+                        .mapToObj(i -> new Object[]{i}).toArray(Object[][]::new);
+    }
+
+    @Test(dataProvider = "sizesData")
+    public void testConvert(int size) {
+        List<Object> in = triples(size);
+        List<Object> actual = new ArrayList<>();
+        PlainRDFIt<Object> source = new PlainRDFIt<>(Object.class, IterationElement.TRIPLE,
+                                                     in.iterator(), in);
+        try (RDFIt<TripleMock2> it = new ConvertingRDFIt<>(TripleMock2.class,
+                IterationElement.TRIPLE, source, createManager())) {
+            while (it.hasNext()) {
+                actual.add(it.next());
+                assertSame(it.getSource(), in);
+            }
+        }
+        assertEquals(actual, converted(in));
+    }
+
+    @Test
+    public void testInconvertibleInBatch() {
+        List<Object> in = triples(10);
+        in.set(4, "not a triple");
+        PlainRDFIt<Object> source = new PlainRDFIt<>(Object.class, IterationElement.TRIPLE,
+                                                     in.iterator(), in);
+        List<Object> actual = new ArrayList<>();
+        int failures = 0;
+        try (RDFIt<TripleMock2> it = new ConvertingRDFIt<>(TripleMock2.class,
+                IterationElement.TRIPLE, source, createManager())) {
+            while (true) {
+                try {
+                    if (!it.hasNext()) break;
+                    actual.add(it.next());
+                } catch (InconvertibleException e) {
+                    assertEquals(actual.size(), 4);
+                    ++failures;
+                }
+            }
+        }
+        assertEquals(failures, 1);
+        List<Object> expected = new ArrayList<>(in);
+        expected.remove(4);
+        assertEquals(actual, converted(expected));
+    }
+
+    @Test
+    public void testSourceFailsMidBatch() {
+        List<Object> in = triples(5);
+        Iterator<Object> failing = new Iterator<Object>() {
+            private int i = 0;
+            @Override public boolean hasNext() {
+                return true;
+            }
+            @Override public Object next() {
+                if (i == in.size()) throw new RDFItException(in, "boom");
+                if (i > in.size()) throw new NoSuchElementException();
+                return in.get(i++);
+            }
+        };
+        PlainRDFIt<Object> source = new PlainRDFIt<>(Object.class, IterationElement.TRIPLE,
+                                                     failing, in);
+        List<Object> actual = new ArrayList<>();
+        try (RDFIt<TripleMock2> it = new ConvertingRDFIt<>(TripleMock2.class,
+                IterationElement.TRIPLE, source, createManager())) {
+            expectThrows(RDFItException.class, () -> {
+                while (it.hasNext())
+                    actual.add(it.next());
+            });
+        }
+        assertEquals(actual, converted(in));
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ *    Copyright 2021 Alexis Armin Huf
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.github.lapesd.rdfit.iterator;
+
+import org.testng.annotations.Test;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+public class FilteringRDFItTest extends RDFItTestBase {
+    @Override
+    protected @Nonnull <T> RDFIt<T> createIt(@Nonnull Class<T> valueClass,
+                                             @Nonnull IterationElement itEl, @Nonnull List<?> data) {
+        PlainRDFIt<T> in = new PlainRDFIt<>(valueClass, itEl, data.iterator(), data);
+        return new FilteringRDFIt<>(valueClass, itEl, in, v -> true);
+    }
+
+    @Test
+    public void testFilter() {
+        List<String> data = asList("a1", "b1", "a2", "b2");
+        boolean[] inClosed = {false};
+        PlainRDFIt<String> in = new PlainRDFIt<String>(String.class, IterationElement.TRIPLE,
+                                                       data.iterator(), data) {
+            @Override public void close() {
+                inClosed[0] = true;
+                super.close();
+            }
+        };
+        List<String> actual = new ArrayList<>();
+        try (RDFIt<String> it = new FilteringRDFIt<>(String.class, IterationElement.TRIPLE, in,
+                                                     s -> s.toString().startsWith("b"))) {
+            it.forEachRemaining(actual::add);
+        }
+        assertEquals(actual, asList("b1", "b2"));
+        assertTrue(inClosed[0]);
+    }
+
+    @Test
+    public void testRejectAll() {
+        List<String> data = asList("a1", "a2");
+        PlainRDFIt<String> in = new PlainRDFIt<>(String.class, IterationElement.TRIPLE,
+                                                 data.iterator(), data);
+        List<String> actual = new ArrayList<>();
+        try (RDFIt<String> it = new FilteringRDFIt<>(String.class, IterationElement.TRIPLE, in,
+                                                     s -> false)) {
+            it.forEachRemaining(actual::add);
+        }
+        assertEquals(actual, emptyList());
+    }
+}
@@ -21,6 +21,7 @@ import com.github.lapesd.rdfit.data.MockFactory;
 import com.github.lapesd.rdfit.data.QuadMock;
 import com.github.lapesd.rdfit.data.SplitMockQuad;
 import com.github.lapesd.rdfit.data.TripleMock;
+import com.github.lapesd.rdfit.impl.ClosedSourceQueue;
 
 import javax.annotation.Nonnull;
 import java.util.ArrayList;
@@ -35,13 +36,22 @@ public class ListenerRDFItTest extends RDFItTestBase {
         }
     };
 
+    protected int batchSize() {
+        return 1;
+    }
+
+    protected @Nonnull ListenerRDFIt.Transport transport() {
+        return ListenerRDFIt.Transport.LOCKING;
+    }
+
     @Override protected @Nonnull <T> RDFIt<T>
     createIt(@Nonnull Class<T> valueClass, @Nonnull IterationElement itElement,
              @Nonnull List<?> data) {
         DefaultConversionManager conMgr = new DefaultConversionManager();
         Class<?> quadType = isAnyMock(valueClass) || isQuadType(valueClass) ? valueClass : null;
         ListenerRDFIt<T> it;
-        it = new ListenerRDFIt<>(TEST_SOURCE, valueClass, itElement, quadLifter(quadType), conMgr);
+        it = new ListenerRDFIt<>(TEST_SOURCE, valueClass, itElement, quadLifter(quadType), conMgr,
+                                 new ClosedSourceQueue(), batchSize(), transport());
         feedMocksToCallback(it.getListener(), TEST_SOURCE, data).finish();
         return it;
     }
@@ -0,0 +1,322 @@
+/*
+ *    Copyright 2021 Alexis Armin Huf
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.github.lapesd.rdfit.iterator;
+
+import com.github.lapesd.rdfit.data.TripleMock1;
+import com.github.lapesd.rdfit.errors.RDFItException;
+import com.github.lapesd.rdfit.impl.ClosedSourceQueue;
+import com.github.lapesd.rdfit.impl.DefaultParserExecutor;
+import com.github.lapesd.rdfit.impl.DefaultSourceQueue;
+import com.github.lapesd.rdfit.ParserExecutor;
+import com.github.lapesd.rdfit.SourceQueue;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import javax.annotation.Nonnull;
+import java.util.*;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static com.github.lapesd.rdfit.iterator.IterationElement.TRIPLE;
+import static com.github.lapesd.rdfit.iterator.ParallelFlatMapRDFIt.Merge.ORDERED;
+import static com.github.lapesd.rdfit.iterator.ParallelFlatMapRDFIt.Merge.UNORDERED;
+import static java.util.Arrays.asList;
+import static org.testng.Assert.*;
+
+public class ParallelFlatMapRDFItTest extends RDFItTestBase {
+    private final @Nonnull DefaultParserExecutor executor
+            = DefaultParserExecutor.unbounded("ParallelFlatMapRDFItTest");
+
+    @AfterClass public void afterClass() {
+        executor.close();
+    }
+
+    @Override
+    protected @Nonnull <T> RDFIt<T> createIt(@Nonnull Class<T> valueClass,
+                                             @Nonnull IterationElement itEl, @Nonnull List<?> data) {
+        return new ParallelFlatMapRDFIt<T>(valueClass, itEl, data.iterator(),
+                v -> {
+                    @SuppressWarnings("unchecked")
+                    Set<T> singleton = Collections.singleton((T) v);
+                    return new PlainRDFIt<>(valueClass, itEl, singleton.iterator(), singleton);
+                }, new ClosedSourceQueue(), 3, ORDERED, executor);
+    }
+
+    private static @Nonnull List<TripleMock1> sourceTriples(int source, int size) {
+        List<TripleMock1> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++)
+            list.add(new TripleMock1(Ex.NS+"s"+source, Ex.P1, Ex.NS+"o"+i));
+        return list;
+    }
+
+    private static @Nonnull RDFIt<TripleMock1> plainIt(@Nonnull Object source,
+                                                       @Nonnull List<TripleMock1> triples) {
+        return new PlainRDFIt<TripleMock1>(TripleMock1.class, TRIPLE, triples.iterator(), source);
+    }
+
+    @DataProvider public static @Nonnull Object[][] mergeData() {
+        List<List<Object>> rows = new ArrayList<>();
+        for (ParallelFlatMapRDFIt.Merge merge : ParallelFlatMapRDFIt.Merge.values()) {
+            for (Integer parallelism : asList(1, 2, 4, 16)) {
+                for (Integer sources : asList(0, 1, 3, 40)) {
+                    for (Integer size : asList(0, 1, 63, 64, 65, 2000))
+                        rows.add(asList(merge, parallelism, sources, size));
+                }
+            }
+        }
+        return rows.stream().map(List::toArray).toArray(Object[][]::new);
+    }
+
+    @Test(dataProvider = "mergeData", timeOut = 20000)
+    public void testMerge(@Nonnull ParallelFlatMapRDFIt.Merge merge, int parallelism,
+                          int sources, int size) {
+        List<Integer> inputs = new ArrayList<>();
+        List<TripleMock1> expected = new ArrayList<>();
+        for (int i = 0; i < sources; i++) {
+            inputs.add(i);
+            expected.addAll(sourceTriples(i, size));
+        }
+        List<TripleMock1> actual = new ArrayList<>();
+        Function<Integer, RDFIt<TripleMock1>> function = i -> plainIt(i, sourceTriples(i, size));
+        try (ParallelFlatMapRDFIt<TripleMock1> it = new ParallelFlatMapRDFIt<>(
+                TripleMock1.class, TRIPLE, inputs.iterator(), function,
+                new ClosedSourceQueue(), parallelism, merge, executor)) {
+            while (it.hasNext()) {
+                actual.add(it.next());
+                assertTrue(it.getSource() instanceof Integer);
+            }
+        }
+        if (merge == UNORDERED) {
+            assertEquals(new HashSet<>(actual), new HashSet<>(expected));
+            assertEquals(actual.size(), expected.size());
+        } else {
+            assertEquals(actual, expected);
+        }
+    }
+
+    @Test(timeOut = 20000)
+    public void testSourcesAddedDuringParsing() {
+        Set<TripleMock1> expected = new HashSet<>();
+        for (Integer i : asList(0, 10, 11, 12))
+            expected.addAll(sourceTriples(i, 100));
+        for (ParallelFlatMapRDFIt.Merge merge : ParallelFlatMapRDFIt.Merge.values()) {
+            DefaultSourceQueue queue = new DefaultSourceQueue(0);
+            Function<Integer, RDFIt<TripleMock1>> function = i -> {
+                if (i == 0) {
+                    queue.add(SourceQueue.When.Later, 10);
+                    queue.add(SourceQueue.When.Later, 11);
+                } else if (i == 11) {
+                    queue.add(SourceQueue.When.Soon, 12);
+                }
+                return plainIt(i, sourceTriples(i, 100));
+            };
+            List<TripleMock1> actual = new ArrayList<>();
+            try (ParallelFlatMapRDFIt<TripleMock1> it = new ParallelFlatMapRDFIt<>(
+                    TripleMock1.class, TRIPLE, queue, function, queue, 4, merge, executor)) {
+                it.forEachRemaining(actual::add);
+            }
+            assertEquals(new HashSet<>(actual), expected);
+            assertEquals(actual.size(), expected.size());
+        }
+    }
+
+    @Test(timeOut = 20000)
+    public void testErrorAtSourcePosition() {
+        Function<Integer, RDFIt<TripleMock1>> function = i -> {
+            if (i == 1)
+                throw new RDFItException(i, "bad source");
+            return plainIt(i, sourceTriples(i, 200));
+        };
+        List<TripleMock1> actual = new ArrayList<>();
+        RDFItException caught = null;
+        try (ParallelFlatMapRDFIt<TripleMock1> it = new ParallelFlatMapRDFIt<>(
+                TripleMock1.class, TRIPLE, asList(0, 1, 2).iterator(), function,
+                new ClosedSourceQueue(), 3, ORDERED, executor)) {
+            while (true) {
+                try {
+                    if (!it.hasNext())
+                        break;
+                    actual.add(it.next());
+                } catch (RDFItException e) {
+                    assertNull(caught);
+                    caught = e;
+                    assertEquals(actual, sourceTriples(0, 200));
+                    assertEquals(it.getSource(), 1);
+                }
+            }
+        }
+        assertNotNull(caught);
+        List<TripleMock1> expected = new ArrayList<>(sourceTriples(0, 200));
+        expected.addAll(sourceTriples(2, 200));
+        assertEquals(actual, expected);
+    }
+
+    @DataProvider public static @Nonnull Object[][] failingIteratorData() {
+        List<List<Object>> rows = new ArrayList<>();
+        for (ParallelFlatMapRDFIt.Merge merge : ParallelFlatMapRDFIt.Merge.values()) {
+            for (Integer failAt : asList(0, 1, 63, 64, 100))
+                rows.add(asList(merge, failAt));
+        }
+        return rows.stream().map(List::toArray).toArray(Object[][]::new);
+    }
+
+    @Test(dataProvider = "failingIteratorData", timeOut = 20000)
+    public void testIteratorFailsMidway(@Nonnull ParallelFlatMapRDFIt.Merge merge, int failAt) {
+        Function<Integer, RDFIt<TripleMock1>> function = i -> {
+            if (i != 1)
+                return plainIt(i, sourceTriples(i, 200));
+            Iterator<TripleMock1> failing = new Iterator<TripleMock1>() {
+                private final Iterator<TripleMock1> delegate = sourceTriples(1, 200).iterator();
+                private int next = 0;
+                @Override public boolean hasNext() {
+                    if (next == failAt)
+                        throw new RDFItException(i, "bad triple");
+                    return delegate.hasNext();
+                }
+                @Override public TripleMock1 next() {
+                    ++next;
+                    return delegate.next();
+                }
+            };
+            return new PlainRDFIt<TripleMock1>(TripleMock1.class, TRIPLE, failing, i);
+        };
+        List<TripleMock1> actual = new ArrayList<>();
+        RDFItException caught = null;
+        try (ParallelFlatMapRDFIt<TripleMock1> it = new ParallelFlatMapRDFIt<>(
+                TripleMock1.class, TRIPLE, asList(0, 1, 2).iterator(), function,
+                new ClosedSourceQueue(), 3, merge, executor)) {
+            while (true) {
+                try {
+                    if (!it.hasNext())
+                        break;
+                    actual.add(it.next());
+                } catch (RDFItException e) {
+                    assertNull(caught);
+                    caught = e;
+                    if (merge == ORDERED) {
+                        List<TripleMock1> expected = new ArrayList<>(sourceTriples(0, 200));
+                        expected.addAll(sourceTriples(1, failAt));
+                        assertEquals(actual, expected);
+                    }
+                }
+            }
+        }
+        assertNotNull(caught);
+        List<TripleMock1> expected = new ArrayList<>(sourceTriples(0, 200));
+        expected.addAll(sourceTriples(1, failAt));
+        expected.addAll(sourceTriples(2, 200));
+        if (merge == ORDERED) {
+            assertEquals(actual, expected);
+        } else {
+            assertEquals(new HashSet<>(actual), new HashSet<>(expected));
+            assertEquals(actual.size(), expected.size());
+        }
+    }
+
+    @Test(timeOut = 20000)
+    public void testRejectedWorkerWithFullSharedQueue() {
+        AtomicInteger produced = new AtomicInteger();
+        Function<Integer, RDFIt<TripleMock1>> function = i -> {
+            List<TripleMock1> list = sourceTriples(i, i == 0 ? 0 : 10000);
+            Iterator<TripleMock1> delegate = list.iterator();
+            Iterator<TripleMock1> counting = new Iterator<TripleMock1>() {
+                @Override public boolean hasNext() { return delegate.hasNext(); }
+                @Override public TripleMock1 next() {
+                    produced.incrementAndGet();
+                    return delegate.next();
+                }
+            };
+            return new PlainRDFIt<TripleMock1>(TripleMock1.class, TRIPLE, counting, i);
+        };
+        // runs the first two workers, rejects the third once the shared queue is full
+        ParserExecutor rejecting = new ParserExecutor() {
+            private int calls = 0;
+            @Override public void execute(@Nonnull Runnable task) {
+                if (++calls <= 2) {
+                    executor.execute(task);
+                    return;
+                }
+                try {
+                    for (int last = -1; last != produced.get(); Thread.sleep(200))
+                        last = produced.get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                throw new RejectedExecutionException("rejected");
+            }
+            @Override public int getActiveTasks() { return executor.getActiveTasks(); }
+            @Override public int getQueuedTasks() { return executor.getQueuedTasks(); }
+            @Override public long getCompletedTasks() { return executor.getCompletedTasks(); }
+            @Override public long getRejectedTasks() { return calls > 2 ? calls - 2 : 0; }
+            @Override public void close() { }
+        };
+        List<TripleMock1> actual = new ArrayList<>();
+        RDFItException caught = null;
+        try (ParallelFlatMapRDFIt<TripleMock1> it = new ParallelFlatMapRDFIt<>(
+                TripleMock1.class, TRIPLE, asList(0, 1, 2).iterator(), function,
+                new ClosedSourceQueue(), 3, UNORDERED, rejecting)) {
+            while (true) {
+                try {
+                    if (!it.hasNext())
+                        break;
+                    actual.add(it.next());
+                } catch (RDFItException e) {
+                    assertNull(caught);
+                    caught = e;
+                    assertEquals(it.getSource(), 2);
+                }
+            }
+        }
+        assertNotNull(caught);
+        assertEquals(actual, sourceTriples(1, 10000));
+    }
+
+    @Test(timeOut = 20000)
+    public void testEarlyCloseStopsWorkers() {
+        AtomicInteger opened = new AtomicInteger(), closes = new AtomicInteger();
+        Function<Integer, RDFIt<TripleMock1>> function = i -> {
+            opened.incrementAndGet();
+            Iterator<TripleMock1> infinite = new Iterator<TripleMock1>() {
+                private int next = 0;
+                @Override public boolean hasNext() { return true; }
+                @Override public TripleMock1 next() {
+                    return new TripleMock1(Ex.NS+"s"+i, Ex.P1, Ex.NS+"o"+next++);
+                }
+            };
+            return new PlainRDFIt<TripleMock1>(TripleMock1.class, TRIPLE, infinite, i) {
+                @Override public void close() {
+                    super.close();
+                    closes.incrementAndGet();
+                }
+            };
+        };
+        for (ParallelFlatMapRDFIt.Merge merge : ParallelFlatMapRDFIt.Merge.values()) {
+            opened.set(0);
+            closes.set(0);
+            try (ParallelFlatMapRDFIt<TripleMock1> it = new ParallelFlatMapRDFIt<>(
+                    TripleMock1.class, TRIPLE, asList(0, 1, 2, 3, 4, 5).iterator(), function,
+                    new ClosedSourceQueue(), 4, merge, executor)) {
+                for (int i = 0; i < 1000; i++)
+                    assertNotNull(it.next());
+            }
+            assertTrue(opened.get() <= 4);
+            assertEquals(closes.get(), opened.get());
+        }
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ *    Copyright 2021 Alexis Armin Huf
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.github.lapesd.rdfit.iterator;
+
+import org.testng.annotations.Test;
+
+import javax.annotation.Nonnull;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.testng.Assert.*;
+
+public class RDFItSpliteratorTest {
+    private static class Tracker {
+        final @Nonnull List<List<Object>> created = new ArrayList<>();
+        final @Nonnull List<RDFIt<String>> its = new ArrayList<>();
+        final @Nonnull Set<RDFIt<String>> closedIts = Collections.synchronizedSet(new HashSet<>());
+
+        synchronized @Nonnull RDFIt<String> create(@Nonnull List<Object> sources) {
+            created.add(new ArrayList<>(sources));
+            List<String> values = new ArrayList<>();
+            for (Object source : sources) {
+                for (int i = 0; i < 3; i++) values.add(source + "-" + i);
+            }
+            PlainRDFIt<String> it = new PlainRDFIt<String>(String.class, IterationElement.TRIPLE,
+                                                           values.iterator(), sources) {
+                @Override public void close() {
+                    closedIts.add(this);
+                    super.close();
+                }
+            };
+            its.add(it);
+            return it;
+        }
+    }
+
+    private static @Nonnull List<String> expected(@Nonnull List<?> sources) {
+        List<String> list = new ArrayList<>();
+        for (Object source : sources) {
+            for (int i = 0; i < 3; i++) list.add(source + "-" + i);
+        }
+        return list;
+    }
+
+    @Test
+    public void testSequential() {
+        Tracker tracker = new Tracker();
+        List<String> sources = asList("a", "b", "c");
+        RDFItSpliterator<String> sp = new RDFItSpliterator<>(sources, tracker::create, null);
+        List<String> actual;
+        try (Stream<String> stream = StreamSupport.stream(sp, false).onClose(sp::close)) {
+            actual = stream.collect(Collectors.toList());
+        }
+        assertEquals(actual, expected(sources));
+        assertEquals(tracker.created, singletonList(asList("a", "b", "c")));
+    }
+
+    @Test
+    public void testSplitHandsOffPrefix() {
+        Tracker tracker = new Tracker();
+        RDFItSpliterator<String> sp = new RDFItSpliterator<>(asList("a", "b", null, "c", "d"),
+                                                             tracker::create, null);
+        Spliterator<String> prefix = sp.trySplit();
+        assertNotNull(prefix);
+        assertTrue(prefix.hasCharacteristics(Spliterator.ORDERED));
+        List<String> actual = new ArrayList<>();
+        prefix.forEachRemaining(actual::add);
+        assertEquals(actual, expected(asList("a", "b")));
+
+        assertTrue(sp.tryAdvance(actual::add));
+        assertNull(sp.trySplit()); // already started
+        sp.forEachRemaining(actual::add);
+        assertEquals(actual, expected(asList("a", "b", "c", "d")));
+        assertEquals(tracker.created, asList(asList("a", "b"), asList("c", "d")));
+    }
+
+    @Test
+    public void testExpandSingleSource() {
+        Tracker tracker = new Tracker();
+        RDFItSpliterator<String> sp = new RDFItSpliterator<>(singletonList("x"), tracker::create,
+                s -> s.equals("x") ? asList("x1", "x2", "x3") : null);
+        Spliterator<String> prefix = sp.trySplit();
+        assertNotNull(prefix);
+        assertNull(prefix.trySplit()); // x1 cannot be expanded
+        Spliterator<String> prefix2 = sp.trySplit();
+        assertNotNull(prefix2);
+        assertNull(sp.trySplit());
+
+        List<String> actual = new ArrayList<>();
+        prefix.forEachRemaining(actual::add);
+        prefix2.forEachRemaining(actual::add);
+        sp.forEachRemaining(actual::add);
+        assertEquals(actual, expected(asList("x1", "x2", "x3")));
+    }
+
+    @Test
+    public void testParallel() {
+        Tracker tracker = new Tracker();
+        List<String> sources = new ArrayList<>();
+        for (int i = 0; i < 64; i++)
+            sources.add("s" + i);
+        RDFItSpliterator<String> sp = new RDFItSpliterator<>(sources, tracker::create, null);
+        List<String> actual;
+        try (Stream<String> stream = StreamSupport.stream(sp, true).onClose(sp::close)) {
+            actual = stream.map(String::toUpperCase).collect(Collectors.toList());
+        }
+        List<String> ex = expected(sources).stream().map(String::toUpperCase)
+                                           .collect(Collectors.toList());
+        assertEquals(actual, ex);
+        assertTrue(tracker.created.size() > 1);
+    }
+
+    @Test
+    public void testCloseClosesAllIterators() {
+        Tracker tracker = new Tracker();
+        RDFItSpliterator<String> sp = new RDFItSpliterator<>(asList("a", "b", "c", "d"),
+                                                             tracker::create, null);
+        Spliterator<String> prefix = sp.trySplit();
+        assertNotNull(prefix);
+        assertTrue(prefix.tryAdvance(s -> {}));
+        assertTrue(sp.tryAdvance(s -> {}));
+        assertEquals(tracker.its.size(), 2);
+        sp.close();
+        assertEquals(tracker.closedIts, new HashSet<>(tracker.its));
+
+        Spliterator<String> late = new RDFItSpliterator<>(singletonList("e"),
+                                                          tracker::create, null);
+        ((RDFItSpliterator<String>) late).close();
+        expectThrows(IllegalStateException.class, () -> late.tryAdvance(s -> {}));
+    }
+}
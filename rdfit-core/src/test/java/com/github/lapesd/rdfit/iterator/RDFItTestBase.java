@@ -24,6 +24,7 @@ import javax.annotation.Nonnull;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import static java.util.Arrays.asList;
@@ -101,4 +102,15 @@ public abstract class RDFItTestBase {
         }
         assertEquals(actual, expected);
     }
-}
\ No newline at end of file
+
+    @Test(dataProvider = "iterateData")
+    public void testStream(@Nonnull String ignored, @Nonnull Class<?> valueClass,
+                           @Nonnull IterationElement itElement, @Nonnull List<?> data) {
+        List<?> expected = adjustExpected(data, valueClass, itElement);
+        List<Object> actual;
+        try (Stream<?> stream = createIt(valueClass, itElement, data).stream()) {
+            actual = stream.collect(Collectors.toList());
+        }
+        assertEquals(actual, expected);
+    }
+}
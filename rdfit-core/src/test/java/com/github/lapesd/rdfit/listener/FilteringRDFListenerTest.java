@@ -0,0 +1,82 @@
+/*
+ *    Copyright 2021 Alexis Armin Huf
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+
+package com.github.lapesd.rdfit.listener;
+
+import com.github.lapesd.rdfit.data.TripleMock1;
+import org.testng.annotations.Test;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.github.lapesd.rdfit.iterator.Ex.*;
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.testng.Assert.assertEquals;
+
+public class FilteringRDFListenerTest {
+    private static class Collector extends TripleListenerBase<TripleMock1> {
+        final @Nonnull List<Object> received = new ArrayList<>();
+
+        public Collector() {
+            super(TripleMock1.class);
+        }
+
+        @Override public void triple(@Nonnull TripleMock1 triple) {
+            received.add(triple);
+        }
+
+        @Override public void quad(@Nonnull String graph, @Nonnull TripleMock1 triple) {
+            received.add(graph+" "+triple);
+        }
+    }
+
+    @Test
+    public void testGraphOfSplitQuads() {
+        Collector target = new Collector();
+        FilteringRDFListener<TripleMock1, Void> listener = new FilteringRDFListener<>(
+                target, t -> ((TripleMock1) t).getSubject().equals(S1), G1::equals, null);
+        listener.triple(T1);
+        listener.quad(G1, T1);
+        listener.quad(G2, T1);
+        listener.quad(G1, T2);
+        assertEquals(target.received, singletonList(G1+" "+T1));
+    }
+
+    @Test
+    public void testNoGraphPredicate() {
+        Collector target = new Collector();
+        FilteringRDFListener<TripleMock1, Void> listener = new FilteringRDFListener<>(
+                target, t -> ((TripleMock1) t).getSubject().equals(S1), null);
+        listener.triple(T1);
+        listener.triple(T2);
+        listener.quad(G2, T1);
+        assertEquals(target.received, asList(T1, G2+" "+T1));
+    }
+
+    @Test
+    public void testBatchIsNotModified() {
+        Collector target = new Collector();
+        FilteringRDFListener<TripleMock1, Void> listener = new FilteringRDFListener<>(
+                target, t -> !((TripleMock1) t).getSubject().equals(S1), null);
+        Object[] batch = {T1, T2, T3, null};
+        listener.triples(batch, 3);
+        assertEquals(target.received, asList(T2, T3));
+        assertEquals(batch, new Object[] {T1, T2, T3, null});
+    }
+}
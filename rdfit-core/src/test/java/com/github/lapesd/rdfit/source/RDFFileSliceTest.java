@@ -0,0 +1,169 @@
+/*
+ *    Copyright 2021 Alexis Armin Huf
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.github.lapesd.rdfit.source;
+
+import com.github.lapesd.rdfit.source.fixer.TolerantDecorator;
+import com.github.lapesd.rdfit.source.syntax.RDFLangs;
+import com.github.lapesd.rdfit.util.Utils;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import javax.annotation.Nonnull;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Arrays.asList;
+import static org.testng.Assert.*;
+
+public class RDFFileSliceTest {
+    private final @Nonnull List<File> tempFiles = new ArrayList<>();
+
+    @AfterMethod
+    public void afterMethod() {
+        for (File file : tempFiles)
+            assertTrue(!file.exists() || file.delete());
+        tempFiles.clear();
+    }
+
+    private @Nonnull File createFile(@Nonnull String contents) throws IOException {
+        File file = Files.createTempFile("rdfit", ".nt").toFile();
+        file.deleteOnExit();
+        tempFiles.add(file);
+        Files.write(file.toPath(), contents.getBytes(UTF_8));
+        return file;
+    }
+
+    private static @Nonnull String createNT(int lines) {
+        StringBuilder b = new StringBuilder();
+        for (int i = 0; i < lines; i++) {
+            b.append("<http://example.org/S").append(i).append("> ")
+             .append("<http://example.org/p> ");
+            if (i % 3 == 0) b.append("_:b").append(i % 7);
+            else            b.append("\"line ").append(i).append("\"");
+            b.append(" .\n");
+        }
+        return b.toString();
+    }
+
+    @DataProvider public @Nonnull Object[][] splitData() {
+        List<List<Object>> rows = new ArrayList<>();
+        for (Integer lines : asList(2, 3, 10, 100)) {
+            for (Long chunkBytes : asList(1L, 16L, 50L, 200L, 1024L))
+                rows.add(asList(lines, chunkBytes));
+        }
+        return rows.stream().map(List::toArray).toArray(Object[][]::new);
+    }
+
+    @Test(dataProvider = "splitData")
+    public void testSplit(int lines, long chunkBytes) throws IOException {
+        String nt = createNT(lines);
+        File file = createFile(nt);
+        List<RDFFileSlice> slices = RDFFileSlice.splitLines(new RDFFile(file), chunkBytes);
+        if (file.length() <= chunkBytes) {
+            assertNull(slices);
+            return;
+        }
+        assertNotNull(slices);
+        assertTrue(slices.size() >= 2);
+        ByteArrayOutputStream concat = new ByteArrayOutputStream();
+        long expectedBegin = 0;
+        for (RDFFileSlice slice : slices) {
+            assertEquals(slice.getFile(), file);
+            assertEquals(slice.getBegin(), expectedBegin);
+            assertTrue(slice.getEnd() > slice.getBegin());
+            assertEquals(slice.getLang(), RDFLangs.NT);
+            assertEquals(slice.getBlankNodeScope(), slices.get(0).getBlankNodeScope());
+            expectedBegin = slice.getEnd();
+            try {
+                byte[] bytes = Utils.toBytes(slice.getInputStream());
+                assertEquals(bytes.length, slice.getEnd() - slice.getBegin());
+                assertEquals(bytes[bytes.length-1], '\n');
+                concat.write(bytes);
+            } finally {
+                slice.close();
+            }
+        }
+        assertEquals(expectedBegin, file.length());
+        assertEquals(new String(concat.toByteArray(), UTF_8), nt);
+    }
+
+    @Test
+    public void testSplitQuads() throws IOException {
+        File file = createFile("<http://example.org/S> <http://example.org/p> _:b1 <http://example.org/G> .\n" +
+                               "_:b1 <http://example.org/p> \"o\" <http://example.org/G> .\n");
+        List<RDFFileSlice> slices = RDFFileSlice.splitLines(new RDFFile(file, RDFLangs.NQ), 4);
+        assertNotNull(slices);
+        assertEquals(slices.size(), 2);
+        assertEquals(slices.get(0).getLang(), RDFLangs.NQ);
+        assertEquals(slices.get(1).getBegin(), slices.get(0).getEnd());
+    }
+
+    @Test
+    public void testDoNotSplit() throws IOException {
+        File file = createFile(createNT(10));
+        assertNull(RDFFileSlice.splitLines(new RDFFile(file, RDFLangs.TTL), 16));
+        assertNull(RDFFileSlice.splitLines(new RDFFile(file, RDFLangs.NT, null,
+                                                       TolerantDecorator.TOLERANT), 16));
+        assertNull(RDFFileSlice.splitLines(new RDFFile(file, RDFLangs.NT, true), 16));
+        assertNull(RDFFileSlice.splitLines(new RDFFile(file, RDFLangs.NT), file.length()));
+
+        File single = createFile("<http://example.org/S> <http://example.org/p> \"o\" .");
+        assertNull(RDFFileSlice.splitLines(new RDFFile(single, RDFLangs.NT), 8));
+    }
+
+    @Test
+    public void testSplitStatements() throws IOException {
+        String prefix = "@prefix : <http://example.org/> .\n";
+        StringBuilder b = new StringBuilder(prefix);
+        for (int i = 0; i < 20; i++)
+            b.append(":s").append(i).append(" :p [ :q \"\"\"a .\n b\"\"\" ] .\n");
+        String ttl = b.toString();
+        File file = createFile(ttl);
+        assertNull(RDFFileSlice.splitLines(new RDFFile(file, RDFLangs.TTL), 64));
+        List<RDFFileSlice> slices = RDFFileSlice.split(new RDFFile(file, RDFLangs.TTL), 64);
+        assertNotNull(slices);
+        assertTrue(slices.size() > 2);
+        assertEquals(slices.get(0).getPreamble().length, 0);
+        ByteArrayOutputStream concat = new ByteArrayOutputStream();
+        long expectedBegin = 0;
+        for (RDFFileSlice slice : slices) {
+            assertEquals(slice.getBegin(), expectedBegin);
+            assertEquals(slice.getLang(), RDFLangs.TTL);
+            expectedBegin = slice.getEnd();
+            String preamble = new String(slice.getPreamble(), UTF_8);
+            if (slice.getBegin() > 0)
+                assertEquals(preamble, prefix);
+            try {
+                String data = new String(Utils.toBytes(slice.getInputStream()), UTF_8);
+                assertTrue(data.startsWith(preamble));
+                String own = data.substring(preamble.length());
+                assertTrue(slice.getBegin() == 0 || own.startsWith(":s"));
+                concat.write(own.getBytes(UTF_8));
+            } finally {
+                slice.close();
+            }
+        }
+        assertEquals(expectedBegin, file.length());
+        assertEquals(new String(concat.toByteArray(), UTF_8), ttl);
+    }
+}
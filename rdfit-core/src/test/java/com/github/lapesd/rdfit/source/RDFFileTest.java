@@ -21,11 +21,16 @@ import com.github.lapesd.rdfit.util.Utils;
 import com.github.lapesd.rdfit.util.impl.EternalCache;
 import com.github.lapesd.rdfit.util.impl.RDFBlob;
 import org.testng.annotations.BeforeClass;
+import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
+import javax.annotation.Nonnull;
+import java.io.BufferedInputStream;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.net.URL;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 import java.util.function.Supplier;
 
 import static org.testng.Assert.*;
@@ -62,4 +67,52 @@ public class RDFFileTest {
         assertNull(file.getLang());
     }
 
+    @DataProvider public @Nonnull Object[][] ioModeData() {
+        return Arrays.stream(RDFFile.IOMode.values()).map(m -> new Object[]{m})
+                     .toArray(Object[][]::new);
+    }
+
+    @Test(dataProvider = "ioModeData")
+    public void testReadWithIOMode(@Nonnull RDFFile.IOMode ioMode) throws IOException {
+        try (RDFFile file = RDFFile.createTemp(new ByteArrayInputStream(SKOS_DATA))) {
+            assertSame(file.setIOMode(ioMode), file);
+            assertEquals(file.getIOMode(), ioMode);
+            assertEquals(file.getOrDetectLang(), RDFLangs.RDFXML);
+            BufferedInputStream is = file.getBufferedInputStream();
+            if (ioMode != RDFFile.IOMode.STREAM)
+                assertSame(is, file.getRawInputStream()); // not wrapped again
+            assertEquals(Utils.toBytes(is), SKOS_DATA);
+        }
+    }
+
+    @Test(dataProvider = "ioModeData")
+    public void testBuilderIOMode(@Nonnull RDFFile.IOMode ioMode) throws IOException {
+        try (RDFFile tmp = RDFFile.createTemp(new ByteArrayInputStream(SKOS_DATA))) {
+            RDFFile file = RDFFile.builder(tmp.getFile()).ioMode(ioMode).build();
+            assertEquals(file.getIOMode(), ioMode);
+            assertEquals(Utils.toBytes(file.getInputStream()), SKOS_DATA);
+            file.close();
+        }
+    }
+
+    @Test
+    public void testByteBuffer() throws IOException {
+        try (RDFFile file = RDFFile.createTemp(new ByteArrayInputStream(SKOS_DATA))) {
+            ByteBuffer bb = file.getByteBuffer();
+            assertTrue(bb.isReadOnly());
+            byte[] actual = new byte[bb.remaining()];
+            bb.get(actual);
+            assertEquals(actual, SKOS_DATA);
+
+            bb = file.getByteBuffer(10, 20);
+            assertEquals(bb.remaining(), 20);
+            actual = new byte[20];
+            bb.get(actual);
+            assertEquals(actual, Arrays.copyOfRange(SKOS_DATA, 10, 30));
+
+            bb = file.getByteBuffer(SKOS_DATA.length - 5, 20);
+            assertEquals(bb.remaining(), 5);
+            assertEquals(file.getByteBuffer(SKOS_DATA.length + 5, 20).remaining(), 0);
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,141 @@
+/*
+ *    Copyright 2021 Alexis Armin Huf
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.github.lapesd.rdfit.source.impl;
+
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import javax.annotation.Nonnull;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.testng.Assert.*;
+
+public class FileBufferInputStreamTest {
+    private static final int SIZE = 1000;
+    private File file, empty;
+    private byte[] data;
+
+    private interface Factory {
+        @Nonnull FileBufferInputStream open(@Nonnull File file) throws IOException;
+    }
+
+    @BeforeClass
+    public void beforeClass() throws IOException {
+        data = new byte[SIZE];
+        for (int i = 0; i < SIZE; i++)
+            data[i] = (byte) (i * 31);
+        file = Files.createTempFile("rdfit", ".bin").toFile();
+        file.deleteOnExit();
+        Files.write(file.toPath(), data);
+        empty = Files.createTempFile("rdfit", ".bin").toFile();
+        empty.deleteOnExit();
+    }
+
+    @AfterClass
+    public void afterClass() {
+        assertTrue(file.delete());
+        assertTrue(empty.delete());
+    }
+
+    @DataProvider public @Nonnull Object[][] factoryData() {
+        List<Object[]> rows = new ArrayList<>();
+        for (int size : Arrays.asList(1, 7, 64, SIZE, 4096)) {
+            rows.add(new Object[]{"mmap-"+size,
+                                  (Factory) f -> new MappedFileInputStream(f, size)});
+            rows.add(new Object[]{"channel-"+size,
+                                  (Factory) f -> new ChannelFileInputStream(f, size)});
+        }
+        rows.add(new Object[]{"mmap", (Factory) MappedFileInputStream::new});
+        rows.add(new Object[]{"channel", (Factory) ChannelFileInputStream::new});
+        return rows.toArray(new Object[0][]);
+    }
+
+    @Test(dataProvider = "factoryData")
+    public void testReadBytes(String name, @Nonnull Factory factory) throws IOException {
+        try (FileBufferInputStream is = factory.open(file)) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            for (int b = is.read(); b >= 0; b = is.read())
+                out.write(b);
+            assertEquals(out.toByteArray(), data);
+            assertEquals(is.read(), -1);
+            assertEquals(is.getPosition(), SIZE);
+        }
+    }
+
+    @Test(dataProvider = "factoryData")
+    public void testReadArrays(String name, @Nonnull Factory factory) throws IOException {
+        try (FileBufferInputStream is = factory.open(file)) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buf = new byte[13];
+            for (int n = is.read(buf, 0, buf.length); n >= 0; n = is.read(buf, 0, buf.length)) {
+                assertTrue(n > 0);
+                out.write(buf, 0, n);
+            }
+            assertEquals(out.toByteArray(), data);
+            assertEquals(is.read(buf, 0, 0), 0);
+        }
+    }
+
+    @Test(dataProvider = "factoryData")
+    public void testMarkResetAndSkip(String name, @Nonnull Factory factory) throws IOException {
+        try (FileBufferInputStream is = factory.open(file)) {
+            assertTrue(is.markSupported());
+            assertEquals(is.skip(100), 100);
+            is.mark(1);
+            byte[] first = new byte[300];
+            assertEquals(is.read(first, 0, first.length), 300);
+            assertEquals(first, Arrays.copyOfRange(data, 100, 400));
+            is.reset();
+            assertEquals(is.getPosition(), 100);
+            assertEquals(is.read(), data[100] & 0xFF);
+            assertEquals(is.skip(SIZE), SIZE - 101);
+            assertEquals(is.skip(10), 0);
+            assertEquals(is.available(), 0);
+            assertEquals(is.read(), -1);
+            is.reset();
+            assertEquals(is.available() > 0, true);
+            assertEquals(is.read(), data[100] & 0xFF);
+        }
+    }
+
+    @Test(dataProvider = "factoryData")
+    public void testEmpty(String name, @Nonnull Factory factory) throws IOException {
+        try (FileBufferInputStream is = factory.open(empty)) {
+            assertEquals(is.available(), 0);
+            assertEquals(is.read(), -1);
+            assertEquals(is.read(new byte[4], 0, 4), -1);
+        }
+    }
+
+    @Test(dataProvider = "factoryData")
+    public void testClosed(String name, @Nonnull Factory factory) throws IOException {
+        FileBufferInputStream is = factory.open(file);
+        assertEquals(is.read(), data[0] & 0xFF);
+        is.close();
+        is.close(); // no-op
+        expectThrows(IOException.class, is::read);
+        expectThrows(IOException.class, is::reset);
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ *    Copyright 2021 Alexis Armin Huf
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.github.lapesd.rdfit.source.syntax;
+
+import com.github.lapesd.rdfit.source.syntax.impl.TurtleSplitter;
+import org.apache.jena.query.Dataset;
+import org.apache.jena.query.DatasetFactory;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFParser;
+import org.apache.jena.sparql.core.DatasetGraph;
+import org.apache.jena.sparql.core.Quad;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.testng.Assert.*;
+
+public class TurtleSplitterTest {
+    private static final String PREFIX = "@prefix : <http://example.org/> .\n";
+
+    private static @Nonnull List<TurtleSplitter.Cut> cuts(@Nonnull String ttl, long chunkBytes,
+                                                         int feedSize) {
+        byte[] bytes = ttl.getBytes(UTF_8);
+        TurtleSplitter splitter = new TurtleSplitter(chunkBytes);
+        for (int i = 0; i < bytes.length; i += feedSize)
+            splitter.feed(bytes, i, Math.min(feedSize, bytes.length - i));
+        splitter.end();
+        assertEquals(splitter.getPosition(), bytes.length);
+        return splitter.getCuts();
+    }
+
+    private static @Nonnull List<String> chunks(@Nonnull String ttl,
+                                                @Nonnull List<TurtleSplitter.Cut> cuts) {
+        byte[] bytes = ttl.getBytes(UTF_8);
+        List<String> chunks = new ArrayList<>();
+        int begin = 0;
+        for (TurtleSplitter.Cut cut : cuts) {
+            chunks.add(new String(bytes, begin, (int)cut.getOffset()-begin, UTF_8));
+            begin = (int) cut.getOffset();
+        }
+        chunks.add(new String(bytes, begin, bytes.length-begin, UTF_8));
+        return chunks;
+    }
+
+    @DataProvider public @Nonnull Object[][] cutData() {
+        return new Object[][] {
+                // no cut, single statement
+                {":s :p :o .", singletonList(":s :p :o .")},
+                // cut between statements, whitespace stays on the previous chunk
+                {":s :p :o .\n:s :p :o2 .", asList(":s :p :o .\n", ":s :p :o2 .")},
+                // '.' inside names, numbers, IRIs and strings does not end statements
+                {":s.x :p 1.5, <http://a.b/. c>, \"a . b\" .\n:s :p :o .",
+                 asList(":s.x :p 1.5, <http://a.b/. c>, \"a . b\" .\n", ":s :p :o .")},
+                // long strings with quotes and line breaks
+                {":s :p \"\"\"a \" . \"\" .\n.\"\"\" .\n:s :p '''x . ''' .\n:s :p \"\" .\n:s :p :o .",
+                 asList(":s :p \"\"\"a \" . \"\" .\n.\"\"\" .\n", ":s :p '''x . ''' .\n",
+                        ":s :p \"\" .\n", ":s :p :o .")},
+                // escapes in strings and names
+                {":s :p \"a\\\" . \" .\n:s :p :o\\.x .\n:s :p :o .",
+                 asList(":s :p \"a\\\" . \" .\n", ":s :p :o\\.x .\n", ":s :p :o .")},
+                // comments
+                {"# a . b\n:s :p :o . # c . \"\n:s :p :o .",
+                 asList("# a . b\n:s :p :o . # c . \"\n", ":s :p :o .")},
+                // [ ] and ( )
+                {":s :p [ :q :o . :r :o ] .\n:s :p ( :a . :b ) .\n[] :p :o .",
+                 asList(":s :p [ :q :o . :r :o ] .\n", ":s :p ( :a . :b ) .\n", "[] :p :o .")},
+                // TriG blocks
+                {":g { :s :p :o . :s :p :o2 . }\nGRAPH :g2 { :s :p :o }\n{ :s :p :o } .\n:s :p :o .",
+                 asList(":g { :s :p :o . :s :p :o2 . }\n", "GRAPH :g2 { :s :p :o }\n",
+                        "{ :s :p :o } .\n", ":s :p :o .")},
+                // '.' directly followed by a name continues the name
+                {":s :p :o.:s :p :o2 .", singletonList(":s :p :o.:s :p :o2 .")},
+                // '.' followed by an IRI ends the statement
+                {"<a> <b> <c>.<d> <e> <f> .", asList("<a> <b> <c>.", "<d> <e> <f> .")},
+        };
+    }
+
+    @Test(dataProvider = "cutData")
+    public void testCuts(@Nonnull String ttl, @Nonnull List<String> expected) {
+        for (int feedSize : asList(1, 2, 3, 7, 8192)) {
+            List<TurtleSplitter.Cut> cuts = cuts(ttl, 1, feedSize);
+            assertEquals(chunks(ttl, cuts), expected, "feedSize="+feedSize);
+            for (TurtleSplitter.Cut cut : cuts)
+                assertEquals(cut.getPreamble().length, 0);
+        }
+    }
+
+    @Test
+    public void testChunkBytes() {
+        String ttl = ":s :p :o1 .\n:s :p :o2 .\n:s :p :o3 .\n:s :p :o4 .\n";
+        assertEquals(chunks(ttl, cuts(ttl, 20, 8192)),
+                     asList(":s :p :o1 .\n:s :p :o2 .\n", ":s :p :o3 .\n:s :p :o4 .\n"));
+        assertTrue(cuts(ttl, ttl.length(), 8192).isEmpty());
+    }
+
+    @Test
+    public void testPreamble() {
+        String ttl = "\uFEFF@prefix : <http://example.org/> .\n" +
+                     ":s :p :o1 .\n" +
+                     "@base <http://example.org/base/> .\n" +
+                     "PREFIX ex: <rel/>\n" +
+                     "ex:s :p :o2 .\n" +
+                     "prefix:x :p \"PREFIX\" .\n" +
+                     "BASE <http://example.org/base2/>\n" +
+                     "<s> ex:p :o3 .\n";
+        List<TurtleSplitter.Cut> cuts = cuts(ttl, 1, 8192);
+        assertEquals(chunks(ttl, cuts), asList(
+                "\uFEFF@prefix : <http://example.org/> .\n",
+                ":s :p :o1 .\n",
+                "@base <http://example.org/base/> .\n",
+                "PREFIX ex: <rel/>\n",
+                "ex:s :p :o2 .\n",
+                "prefix:x :p \"PREFIX\" .\n",
+                "BASE <http://example.org/base2/>\n",
+                "<s> ex:p :o3 .\n"));
+        String p1 = "@prefix : <http://example.org/> .\n";
+        String p2 = p1 + "@base <http://example.org/base/> .\n";
+        String p3 = p2 + "PREFIX ex: <rel/>\n";
+        String p4 = p3 + "BASE <http://example.org/base2/>\n";
+        List<String> preambles = new ArrayList<>();
+        for (TurtleSplitter.Cut cut : cuts)
+            preambles.add(new String(cut.getPreamble(), UTF_8));
+        assertEquals(preambles, asList(p1, p1, p2, p3, p3, p3, p4));
+    }
+
+    @Test
+    public void testChunksParseLikeWhole() {
+        StringBuilder b = new StringBuilder(PREFIX);
+        for (int i = 0; i < 50; i++) {
+            b.append(":s").append(i).append(" :p [ :q \"\"\"x\n. ").append(i).append("\"\"\" ], ")
+             .append("( :a").append(i).append(" 1.5 ) ;\n  :r _:b").append(i % 3).append(" .\n");
+            if (i % 10 == 0)
+                b.append("@prefix ex").append(i).append(": <http://example.org/").append(i)
+                 .append("/> .\n");
+            if (i > 10)
+                b.append(":g").append(i).append(" { ex10:s :p :o").append(i).append(" . }\n");
+        }
+        String trig = b.toString();
+        DatasetGraph expected = DatasetFactory.create().asDatasetGraph();
+        RDFParser.fromString(trig).lang(Lang.TRIG).parse(expected);
+
+        List<TurtleSplitter.Cut> cuts = cuts(trig, 64, 8192);
+        assertTrue(cuts.size() > 10);
+        List<String> chunks = chunks(trig, cuts);
+        Dataset actual = DatasetFactory.create();
+        for (int i = 0; i < chunks.size(); i++) {
+            String preamble = i == 0 ? "" : new String(cuts.get(i-1).getPreamble(), UTF_8);
+            RDFParser.fromString(preamble + chunks.get(i)).lang(Lang.TRIG)
+                     .parse(actual.asDatasetGraph());
+        }
+        List<Quad> expectedQuads = new ArrayList<>(), actualQuads = new ArrayList<>();
+        expected.find().forEachRemaining(expectedQuads::add);
+        actual.asDatasetGraph().find().forEachRemaining(actualQuads::add);
+        assertEquals(actualQuads.size(), expectedQuads.size());
+    }
+}
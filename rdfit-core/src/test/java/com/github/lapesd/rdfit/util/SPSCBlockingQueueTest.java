@@ -0,0 +1,105 @@
+/*
+ *    Copyright 2021 Alexis Armin Huf
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.github.lapesd.rdfit.util;
+
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static java.util.Arrays.asList;
+import static org.testng.Assert.*;
+
+public class SPSCBlockingQueueTest {
+    @Test
+    public void testCapacityRoundsUp() {
+        assertEquals(new SPSCBlockingQueue<>(1).capacity(), 1);
+        assertEquals(new SPSCBlockingQueue<>(2).capacity(), 2);
+        assertEquals(new SPSCBlockingQueue<>(3).capacity(), 4);
+        assertEquals(new SPSCBlockingQueue<>(1024).capacity(), 1024);
+        assertEquals(new SPSCBlockingQueue<>(1025).capacity(), 2048);
+    }
+
+    @Test
+    public void testOfferPollSingleThread() {
+        SPSCBlockingQueue<Integer> q = new SPSCBlockingQueue<>(4);
+        assertTrue(q.isEmpty());
+        assertNull(q.poll());
+        assertNull(q.peek());
+        for (int i = 0; i < 4; i++)
+            assertTrue(q.offer(i));
+        assertFalse(q.offer(4));
+        assertEquals(q.size(), 4);
+        assertEquals(q.remainingCapacity(), 0);
+        assertEquals(new ArrayList<>(q), asList(0, 1, 2, 3));
+        assertEquals(q.peek(), Integer.valueOf(0));
+        assertEquals(q.poll(), Integer.valueOf(0));
+        assertTrue(q.offer(4)); // wraps around
+        List<Integer> drained = new ArrayList<>();
+        assertEquals(q.drainTo(drained), 4);
+        assertEquals(drained, asList(1, 2, 3, 4));
+        assertTrue(q.isEmpty());
+    }
+
+    @Test
+    public void testTimeouts() throws InterruptedException {
+        SPSCBlockingQueue<Integer> q = new SPSCBlockingQueue<>(1);
+        assertNull(q.poll(10, TimeUnit.MILLISECONDS));
+        assertTrue(q.offer(1, 10, TimeUnit.MILLISECONDS));
+        assertFalse(q.offer(2, 10, TimeUnit.MILLISECONDS));
+        assertEquals(q.poll(10, TimeUnit.MILLISECONDS), Integer.valueOf(1));
+    }
+
+    @Test(expectedExceptions = InterruptedException.class, timeOut = 5000)
+    public void testInterruptTake() throws InterruptedException {
+        SPSCBlockingQueue<Integer> q = new SPSCBlockingQueue<>(1);
+        Thread.currentThread().interrupt();
+        q.take();
+    }
+
+    @DataProvider public static Object[][] transferData() {
+        return new Object[][] {
+                new Object[] {1, 100000},
+                new Object[] {2, 100000},
+                new Object[] {16, 100000},
+                new Object[] {1024, 1000000},
+        };
+    }
+
+    @Test(dataProvider = "transferData", timeOut = 60000)
+    public void testTransfer(int capacity, int count) throws Exception {
+        SPSCBlockingQueue<Integer> q = new SPSCBlockingQueue<>(capacity);
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        Thread producer = new Thread(() -> {
+            try {
+                for (int i = 0; i < count; i++)
+                    q.put(i);
+            } catch (Throwable t) {
+                error.set(t);
+            }
+        });
+        producer.start();
+        for (int i = 0; i < count; i++)
+            assertEquals(q.take().intValue(), i);
+        producer.join();
+        assertNull(error.get());
+        assertTrue(q.isEmpty());
+    }
+}
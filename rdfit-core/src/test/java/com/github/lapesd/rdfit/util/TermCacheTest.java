@@ -0,0 +1,114 @@
+/*
+ *    Copyright 2021 Alexis Armin Huf
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.github.lapesd.rdfit.util;
+
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.testng.Assert.*;
+
+public class TermCacheTest {
+
+    @Test public void testCapacityRounding() {
+        assertEquals(new TermCache<String, String>(1).capacity(), 4);
+        assertEquals(new TermCache<String, String>(4).capacity(), 4);
+        assertEquals(new TermCache<String, String>(5).capacity(), 8);
+        assertEquals(new TermCache<String, String>(4096).capacity(), 4096);
+        assertEquals(new TermCache<String, String>().capacity(), TermCache.DEFAULT_CAPACITY);
+    }
+
+    @Test public void testIsCacheableLiteral() {
+        assertTrue(TermCache.isCacheableLiteral(0));
+        assertTrue(TermCache.isCacheableLiteral(TermCache.MAX_LEXICAL_FORM));
+        assertFalse(TermCache.isCacheableLiteral(TermCache.MAX_LEXICAL_FORM + 1));
+    }
+
+    @Test public void testLoadOnce() {
+        TermCache<String, String> cache = new TermCache<>(16);
+        AtomicInteger calls = new AtomicInteger();
+        assertNull(cache.getIfPresent("a"));
+        assertEquals(cache.get("a", k -> { calls.incrementAndGet(); return k+"!"; }), "a!");
+        assertEquals(cache.get("a", k -> { calls.incrementAndGet(); return k+"?"; }), "a!");
+        assertEquals(cache.getIfPresent("a"), "a!");
+        assertEquals(calls.get(), 1);
+
+        cache.clear();
+        assertNull(cache.getIfPresent("a"));
+    }
+
+    @Test public void testPutReplaces() {
+        TermCache<String, Integer> cache = new TermCache<>(4);
+        cache.put("a", 1);
+        cache.put("a", 2);
+        assertEquals(cache.getIfPresent("a"), Integer.valueOf(2));
+    }
+
+    @Test public void testBounded() {
+        TermCache<Integer, Integer> cache = new TermCache<>(64);
+        for (int i = 0; i < 10000; i++)
+            assertEquals(cache.get(i, k -> k * 2), Integer.valueOf(i * 2));
+        int present = 0;
+        for (int i = 0; i < 10000; i++) {
+            Integer value = cache.getIfPresent(i);
+            if (value != null) {
+                assertEquals(value, Integer.valueOf(i * 2));
+                ++present;
+            }
+        }
+        assertTrue(present > 0);
+        assertTrue(present <= cache.capacity());
+    }
+
+    @Test public void testSecondChance() {
+        TermCache<Integer, Integer> cache = new TermCache<>(4); // single set
+        for (int i = 0; i < 4; i++)
+            cache.put(i, i);
+        assertEquals(cache.getIfPresent(0), Integer.valueOf(0)); // mark as referenced
+        cache.put(4, 4);
+        assertEquals(cache.getIfPresent(0), Integer.valueOf(0));
+        assertEquals(cache.getIfPresent(4), Integer.valueOf(4));
+        assertNull(cache.getIfPresent(1));
+    }
+
+    @Test public void testConcurrent() throws Exception {
+        TermCache<Integer, String> cache = new TermCache<>(128);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 100000; i++) {
+                        int key = i % 512;
+                        assertEquals(cache.get(key, String::valueOf), String.valueOf(key));
+                    }
+                }));
+            }
+            for (Future<?> future : futures)
+                future.get();
+        } finally {
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        }
+    }
+}
@@ -19,12 +19,21 @@ package com.github.lapesd.rdfit.util;
 import org.testng.annotations.Test;
 
 import javax.annotation.Nonnull;
-import java.util.Collection;
-import java.util.Collections;
-import java.util.Iterator;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Serializable;
+import java.lang.ref.WeakReference;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
 import static java.util.Collections.singleton;
+import static java.util.Collections.singletonList;
 import static org.testng.Assert.*;
 
 public class TypeDispatcherTest {
@@ -94,4 +103,137 @@ public class TypeDispatcherTest {
         it = dispatcher.get(3.14);
         assertFalse(it.hasNext());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testResolveCachedAndDeduplicated() {
+        TestDispatcher dispatcher = new TestDispatcher();
+        Handler dHandler = new Handler(), nHandler = new Handler();
+        dispatcher.add(Number.class, nHandler);
+        dispatcher.add(Comparable.class, nHandler);
+        dispatcher.add(Double.class, dHandler);
+
+        List<Handler> list = dispatcher.resolve(Double.class);
+        assertEquals(list, asList(dHandler, nHandler));
+        assertSame(dispatcher.resolve(Double.class), list);
+        assertEquals(dispatcher.resolve(Integer.class), singletonList(nHandler));
+        assertEquals(dispatcher.resolve(String.class), singletonList(nHandler));
+        assertEquals(dispatcher.resolve(Object.class), emptyList());
+    }
+
+    @Test
+    public void testResolveInvalidatedOnChanges() {
+        TestDispatcher dispatcher = new TestDispatcher();
+        Handler h1 = new Handler(), h2 = new Handler(), h3 = new Handler();
+        dispatcher.add(Number.class, h1);
+        assertEquals(dispatcher.resolve(Double.class), singletonList(h1));
+
+        dispatcher.add(Double.class, h2);
+        assertEquals(dispatcher.resolve(Double.class), asList(h2, h1));
+        dispatcher.add(Number.class, h3);
+        assertEquals(dispatcher.resolve(Double.class), asList(h2, h3, h1));
+
+        dispatcher.remove(h3);
+        assertEquals(dispatcher.resolve(Double.class), asList(h2, h1));
+        Iterator<Handler> it = dispatcher.get(Number.class);
+        assertSame(it.next(), h1);
+        assertFalse(it.hasNext());
+
+        dispatcher.removeIf(h -> h == h2);
+        assertEquals(dispatcher.resolve(Double.class), singletonList(h1));
+        assertFalse(dispatcher.get(Double.class).hasNext());
+        assertEquals(dispatcher.getAll(), singleton(h1));
+    }
+
+    public static class Unloadable implements Serializable { }
+
+    private static class IsolatingClassLoader extends ClassLoader {
+        public IsolatingClassLoader() {
+            super(TypeDispatcherTest.class.getClassLoader());
+        }
+
+        @Override protected Class<?> loadClass(String name, boolean resolve)
+                throws ClassNotFoundException {
+            if (!name.equals(Unloadable.class.getName()))
+                return super.loadClass(name, resolve);
+            String path = name.replace('.', '/') + ".class";
+            try (InputStream in = getParent().getResourceAsStream(path);
+                 ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+                if (in == null)
+                    throw new ClassNotFoundException(name);
+                byte[] buf = new byte[4096];
+                for (int n = in.read(buf); n >= 0; n = in.read(buf))
+                    out.write(buf, 0, n);
+                return defineClass(name, out.toByteArray(), 0, out.size());
+            } catch (IOException e) {
+                throw new ClassNotFoundException(name, e);
+            }
+        }
+    }
+
+    @Test
+    public void testResolveDoesNotRetainClasses() throws Exception {
+        TestDispatcher dispatcher = new TestDispatcher();
+        Handler handler = new Handler();
+        dispatcher.add(Serializable.class, handler);
+        Class<?> cls = new IsolatingClassLoader().loadClass(Unloadable.class.getName());
+        assertNotSame(cls, Unloadable.class);
+        assertEquals(dispatcher.resolve(cls), singletonList(handler));
+
+        WeakReference<Class<?>> ref = new WeakReference<>(cls);
+        //noinspection UnusedAssignment
+        cls = null;
+        for (int i = 0; i < 100 && ref.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertNull(ref.get());
+        assertEquals(dispatcher.resolve(Double.class), singletonList(handler));
+    }
+
+    @Test
+    public void testAddAll() {
+        TestDispatcher dispatcher = new TestDispatcher();
+        Handler h1 = new Handler(), h2 = new Handler();
+        dispatcher.addAll(asList(Double.class, Integer.class), h1);
+        dispatcher.addAll(asList(Integer.class, Number.class), h2);
+        assertEquals(dispatcher.resolve(Double.class), asList(h1, h2));
+        assertEquals(dispatcher.resolve(Integer.class), asList(h2, h1));
+        assertEquals(dispatcher.resolve(Long.class), singletonList(h2));
+        assertEquals(dispatcher.getAll(), new HashSet<>(asList(h1, h2)));
+
+        dispatcher.remove(h1);
+        assertEquals(dispatcher.resolve(Integer.class), singletonList(h2));
+        assertEquals(dispatcher.getAll(), singleton(h2));
+    }
+
+    @Test
+    public void testConcurrentGetAndAdd() throws Exception {
+        TestDispatcher dispatcher = new TestDispatcher();
+        Handler first = new Handler();
+        dispatcher.add(Number.class, first);
+        ExecutorService exec = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> reader = exec.submit(() -> {
+                for (int i = 0; i < 20000; i++) {
+                    boolean found = false;
+                    for (Iterator<Handler> it = dispatcher.get(3.14); it.hasNext(); )
+                        found |= it.next() == first;
+                    assertTrue(found);
+                }
+            });
+            Future<?> writer = exec.submit(() -> {
+                for (int i = 0; i < 2000; i++) {
+                    Handler h = new Handler();
+                    dispatcher.add(i % 2 == 0 ? Double.class : Number.class, h);
+                    dispatcher.remove(h);
+                }
+            });
+            writer.get();
+            reader.get();
+        } finally {
+            exec.shutdown();
+            assertTrue(exec.awaitTermination(10, TimeUnit.SECONDS));
+        }
+        assertEquals(dispatcher.resolve(Double.class), singletonList(first));
+    }
+}
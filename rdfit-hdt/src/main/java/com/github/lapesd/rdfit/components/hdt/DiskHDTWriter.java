@@ -0,0 +1,375 @@
+/*
+ *    Copyright 2021 Alexis Armin Huf
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.github.lapesd.rdfit.components.hdt;
+
+import com.github.lapesd.rdfit.util.Utils;
+import org.rdfhdt.hdt.exceptions.ParserException;
+import org.rdfhdt.hdt.hdt.HDT;
+import org.rdfhdt.hdt.hdt.HDTManager;
+import org.rdfhdt.hdt.hdt.impl.HDTImpl;
+import org.rdfhdt.hdt.listener.ProgressListener;
+import org.rdfhdt.hdt.options.HDTOptions;
+import org.rdfhdt.hdt.options.HDTSpecification;
+import org.rdfhdt.hdt.rdf.TripleWriter;
+import org.rdfhdt.hdt.triples.TripleString;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.lang.String.format;
+
+/**
+ * A {@link TripleWriter} that builds HDT files larger than the heap.
+ *
+ * Triples are buffered into chunks whose size is derived from a memory budget. Each chunk
+ * is converted into a small HDT by a worker thread and spilled into a temporary directory.
+ * When this writer is closed, spilled HDTs are merged pairwise (in parallel) with the
+ * disk-based HDT concatenation of hdt-java, until a single HDT remains, which is moved to
+ * the output file. Optionally, the co-index (<code>.index.v1-1</code>) is also created.
+ *
+ * Instances are not thread-safe: {@link #addTriple(TripleString)} must be called from
+ * a single thread.
+ */
+public class DiskHDTWriter implements TripleWriter {
+    private static final Logger logger = LoggerFactory.getLogger(DiskHDTWriter.class);
+    /**
+     * Estimated heap usage of a buffered triple, in addition to its characters.
+     */
+    private static final int TRIPLE_OVERHEAD = 112;
+    /**
+     * In-memory HDT generation needs roughly this many times the size of the chunk.
+     */
+    private static final int GENERATION_FACTOR = 4;
+    private static final @Nonnull AtomicInteger nextWriterId = new AtomicInteger(1);
+
+    private final @Nonnull File file;
+    private final @Nonnull String baseIRI;
+    private final @Nonnull HDTOptions options;
+    private final @Nonnull ProgressListener progress;
+    private final boolean createIndex;
+    private final long chunkBytes;
+    private final @Nonnull File workDir;
+    private final @Nonnull ExecutorService executor;
+    private final @Nonnull Semaphore chunkPermits;
+    private final @Nonnull List<Future<File>> chunks = new ArrayList<>();
+    private @Nonnull List<TripleString> buffer = new ArrayList<>();
+    private long bufferBytes, triples;
+    private int nextSpillId;
+    private boolean closed;
+
+    public static class Builder {
+        private final @Nonnull File file;
+        private @Nullable String baseIRI;
+        private @Nullable File tempDir;
+        private long memoryBudget = Runtime.getRuntime().maxMemory() / 2;
+        private int threads = Runtime.getRuntime().availableProcessors();
+        private boolean createIndex;
+        private @Nullable ProgressListener progress;
+        private @Nullable HDTOptions options;
+
+        public Builder(@Nonnull File file) {
+            this.file = file;
+        }
+
+        /**
+         * Base IRI of the generated HDT. Default is the file URI.
+         */
+        public @Nonnull Builder baseIRI(@Nullable String baseIRI) {
+            this.baseIRI = baseIRI;
+            return this;
+        }
+
+        /**
+         * Directory where spill files will be created. Default is the system temp dir.
+         */
+        public @Nonnull Builder tempDir(@Nullable File tempDir) {
+            this.tempDir = tempDir;
+            return this;
+        }
+
+        /**
+         * Approximate number of heap bytes that buffered triples and in-memory chunk
+         * generation may use. Default is half of the maximum heap size.
+         */
+        public @Nonnull Builder memoryBudget(long bytes) {
+            if (bytes <= 0)
+                throw new IllegalArgumentException("memoryBudget must be positive");
+            this.memoryBudget = bytes;
+            return this;
+        }
+
+        /**
+         * Number of threads converting chunks and merging spilled HDTs.
+         * Default is the number of available processors.
+         */
+        public @Nonnull Builder threads(int threads) {
+            if (threads < 1)
+                throw new IllegalArgumentException("threads must be at least 1");
+            this.threads = threads;
+            return this;
+        }
+
+        /**
+         * Whether to create the co-index (<code>.index.v1-1</code>) file next to the HDT.
+         */
+        public @Nonnull Builder createIndex(boolean createIndex) {
+            this.createIndex = createIndex;
+            return this;
+        }
+        public @Nonnull Builder createIndex() { return createIndex(true); }
+
+        /**
+         * Listener that will receive progress messages. It may be called concurrently
+         * from multiple threads. By default, progress is logged at the debug level.
+         */
+        public @Nonnull Builder progress(@Nullable ProgressListener progress) {
+            this.progress = progress;
+            return this;
+        }
+
+        /**
+         * Options given to hdt-java. Default is a new {@link HDTSpecification}.
+         */
+        public @Nonnull Builder options(@Nullable HDTOptions options) {
+            this.options = options;
+            return this;
+        }
+
+        public @Nonnull File getFile() {
+            return file;
+        }
+
+        /**
+         * Create the writer and its temporary directory.
+         *
+         * @return a new {@link DiskHDTWriter}
+         * @throws IOException if the temporary directory could not be created
+         */
+        public @Nonnull DiskHDTWriter build() throws IOException {
+            return new DiskHDTWriter(this);
+        }
+    }
+
+    public static @Nonnull Builder builder(@Nonnull File file) {
+        return new Builder(file);
+    }
+
+    protected DiskHDTWriter(@Nonnull Builder builder) throws IOException {
+        this.file = builder.file;
+        this.baseIRI = builder.baseIRI != null ? builder.baseIRI
+                                               : Utils.toASCIIString(file.toURI());
+        this.options = builder.options != null ? builder.options : new HDTSpecification();
+        if (builder.progress != null) {
+            this.progress = builder.progress;
+        } else {
+            this.progress = (level, message) -> logger.debug("{}: {}: {}", file, level, message);
+        }
+        this.createIndex = builder.createIndex;
+        int threads = builder.threads;
+        this.chunkBytes = Math.max(1, builder.memoryBudget / ((long)threads*GENERATION_FACTOR));
+        File tempDir = builder.tempDir;
+        this.workDir = (tempDir == null ? Files.createTempDirectory("rdfit-hdt-")
+                                        : Files.createTempDirectory(tempDir.toPath(), "rdfit-hdt-")
+                       ).toFile();
+        String name = "DiskHDTWriter-" + nextWriterId.getAndIncrement();
+        AtomicInteger threadId = new AtomicInteger(0);
+        this.executor = Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, name + "-" + threadId.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.chunkPermits = new Semaphore(threads);
+    }
+
+    public @Nonnull File getFile() {
+        return file;
+    }
+
+    /**
+     * @return number of triples given to {@link #addTriple(TripleString)} so far.
+     */
+    public long getTriples() {
+        return triples;
+    }
+
+    @Override public void addTriple(@Nonnull TripleString triple) throws IOException {
+        if (closed)
+            throw new IllegalStateException(this+" is closed");
+        // CharSequences may be reused by the caller
+        String s = triple.getSubject().toString(), p = triple.getPredicate().toString(),
+               o = triple.getObject().toString();
+        buffer.add(new TripleString(s, p, o));
+        ++triples;
+        bufferBytes += TRIPLE_OVERHEAD + 2L*(s.length() + p.length() + o.length());
+        if (bufferBytes >= chunkBytes)
+            spillBuffer();
+    }
+
+    private @Nonnull File nextSpillFile() {
+        return new File(workDir, format("%06d.hdt", nextSpillId++));
+    }
+
+    private @Nonnull ProgressListener progress(@Nonnull String prefix) {
+        return (level, message) -> progress.notifyProgress(level, prefix + message);
+    }
+
+    private void spillBuffer() throws IOException {
+        if (buffer.isEmpty())
+            return;
+        List<TripleString> chunk = buffer;
+        buffer = new ArrayList<>();
+        bufferBytes = 0;
+        File spill = nextSpillFile();
+        try {
+            chunkPermits.acquire(); // bounds the number of chunks in memory
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for chunk generation");
+        }
+        int index = chunks.size();
+        try {
+            chunks.add(executor.submit(() -> {
+                try {
+                    writeChunk(chunk, spill, progress("chunk " + index + ": "));
+                    return spill;
+                } finally {
+                    chunkPermits.release();
+                }
+            }));
+        } catch (RejectedExecutionException e) {
+            chunkPermits.release();
+            throw new IOException(this+" rejected chunk generation", e);
+        }
+    }
+
+    private void writeChunk(@Nonnull List<TripleString> chunk, @Nonnull File spill,
+                            @Nonnull ProgressListener listener)
+            throws IOException, ParserException {
+        try (HDT hdt = HDTManager.generateHDT(chunk.iterator(), baseIRI, options, listener)) {
+            hdt.saveToHDT(spill.getAbsolutePath(), listener);
+        }
+    }
+
+    private @Nonnull File cat(@Nonnull File left, @Nonnull File right, @Nonnull File out,
+                              @Nonnull ProgressListener listener) throws IOException {
+        File catDir = new File(out.getPath() + ".cat");
+        if (!catDir.mkdirs())
+            throw new IOException("Could not create directory "+catDir);
+        try (HDT l = HDTManager.mapHDT(left.getAbsolutePath(), listener);
+             HDT r = HDTManager.mapHDT(right.getAbsolutePath(), listener);
+             HDTImpl merged = new HDTImpl(options)) {
+            merged.cat(catDir.getAbsolutePath() + File.separator, l, r, listener);
+            merged.saveToHDT(out.getAbsolutePath(), listener);
+        } finally {
+            deleteRecursively(catDir);
+        }
+        deleteRecursively(left);
+        deleteRecursively(right);
+        return out;
+    }
+
+    private static @Nonnull <T> List<T> await(@Nonnull List<Future<T>> futures)
+            throws IOException {
+        List<T> list = new ArrayList<>(futures.size());
+        try {
+            for (Future<T> future : futures)
+                list.add(future.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for HDT generation");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException)
+                throw (IOException) cause;
+            throw new IOException("HDT generation failed", cause);
+        }
+        return list;
+    }
+
+    private @Nonnull File merge(@Nonnull List<File> files) throws IOException {
+        for (int round = 1; files.size() > 1; ++round) {
+            List<Future<File>> merged = new ArrayList<>();
+            for (int i = 0; i + 1 < files.size(); i += 2) {
+                File left = files.get(i), right = files.get(i+1), out = nextSpillFile();
+                ProgressListener listener = progress(format("merge round %d (%d/%d): ",
+                                                            round, i/2+1, files.size()/2));
+                merged.add(executor.submit(() -> cat(left, right, out, listener)));
+            }
+            List<File> next = await(merged);
+            if (files.size() % 2 == 1)
+                next.add(files.get(files.size()-1));
+            files = next;
+        }
+        return files.get(0);
+    }
+
+    /**
+     * Merge all spilled HDTs into the output file, create the co-index if requested and
+     * remove all temporary files.
+     *
+     * @throws IOException if HDT generation failed or if files could not be written
+     */
+    @Override public void close() throws IOException {
+        if (closed)
+            return;
+        closed = true;
+        try {
+            if (chunks.isEmpty()) {
+                writeChunk(buffer, file, progress("single chunk: "));
+            } else {
+                spillBuffer();
+                File merged = merge(await(chunks));
+                Files.move(merged.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+            buffer = Collections.emptyList();
+            if (createIndex) {
+                HDTManager.mapIndexedHDT(file.getAbsolutePath(), progress("co-index: ")).close();
+            }
+        } catch (ParserException e) {
+            throw new IOException("hdt-java rejected a triple", e);
+        } finally {
+            executor.shutdownNow();
+            deleteRecursively(workDir);
+        }
+    }
+
+    private static void deleteRecursively(@Nonnull File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children)
+                deleteRecursively(child);
+        }
+        if (file.exists() && !file.delete())
+            logger.warn("Failed to delete temporary file {}", file);
+    }
+
+    @Override public @Nonnull String toString() {
+        return format("%s{file=%s, triples=%d}", Utils.toString(this), file, triples);
+    }
+}
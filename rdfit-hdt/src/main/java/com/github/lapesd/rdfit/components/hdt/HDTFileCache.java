@@ -0,0 +1,294 @@
+/*
+ *    Copyright 2021 Alexis Armin Huf
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.github.lapesd.rdfit.components.hdt;
+
+import com.github.lapesd.rdfit.util.Utils;
+import org.rdfhdt.hdt.hdt.HDT;
+import org.rdfhdt.hdt.hdt.HDTManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import static java.lang.String.format;
+
+/**
+ * Shares memory-mapped {@link HDT}s of local files among concurrent readers.
+ *
+ * Files are mapped with {@link HDTManager#mapHDT(String)}, thus the HDT contents are not
+ * copied into the heap. Mappings are keyed by the canonical path, the modification time and
+ * the size of the file: if a file is replaced, new {@link #acquire(File)} calls will map
+ * the new file while holders of the old mapping keep using it.
+ *
+ * Each {@link #acquire(File)} must be matched by a {@link Handle#close()}. Once unreferenced,
+ * a mapping is kept open for future {@link #acquire(File)} calls unless it is stale or if
+ * there are more than {@link #getMaxIdle()} unreferenced mappings, in which case the least
+ * recently used are closed.
+ *
+ * Files are mapped outside of the lock that guards the cache: mapping a large file only
+ * blocks concurrent {@link #acquire(File)} calls for that same file.
+ */
+public class HDTFileCache {
+    private static final Logger logger = LoggerFactory.getLogger(HDTFileCache.class);
+    private static final byte[] MAGIC = "$HDT".getBytes(StandardCharsets.US_ASCII);
+    public static final int DEFAULT_MAX_IDLE = 4;
+    public static final @Nonnull HDTFileCache INSTANCE = new HDTFileCache();
+
+    private final @Nonnull Map<Key, Entry> entries = new HashMap<>();
+    private final @Nonnull LinkedHashSet<Entry> idle = new LinkedHashSet<>();
+    private int maxIdle = DEFAULT_MAX_IDLE;
+
+    private static final class Key {
+        final @Nonnull String path;
+        final long lastModified, length;
+
+        Key(@Nonnull File file) throws IOException {
+            this.path = file.getCanonicalPath();
+            this.lastModified = file.lastModified();
+            this.length = file.length();
+        }
+
+        boolean isStale() {
+            File file = new File(path);
+            return file.lastModified() != lastModified || file.length() != length;
+        }
+
+        @Override public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return lastModified == key.lastModified && length == key.length
+                    && path.equals(key.path);
+        }
+
+        @Override public int hashCode() {
+            return Objects.hash(path, lastModified, length);
+        }
+
+        @Override public String toString() {
+            return path+"@"+lastModified;
+        }
+    }
+
+    private static final class Entry {
+        final @Nonnull Key key;
+        final @Nonnull CompletableFuture<HDT> mapping = new CompletableFuture<>();
+        int references;
+
+        Entry(@Nonnull Key key) {
+            this.key = key;
+        }
+
+        @Nonnull HDT getHDT() {
+            HDT hdt = mapping.getNow(null);
+            assert hdt != null : "Entry not yet mapped";
+            return hdt;
+        }
+
+        void await() throws IOException {
+            try {
+                mapping.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting mapping of "+key);
+            } catch (ExecutionException e) {
+                throw new IOException("Failed to map "+key, e.getCause());
+            }
+        }
+    }
+
+    /**
+     * A reference to a shared {@link HDT}. Closing releases the reference and never
+     * closes the {@link HDT} directly.
+     */
+    public final class Handle implements AutoCloseable {
+        private final @Nonnull Entry entry;
+        private boolean closed;
+
+        private Handle(@Nonnull Entry entry) {
+            this.entry = entry;
+        }
+
+        public @Nonnull HDT getHDT() {
+            return entry.getHDT();
+        }
+
+        @Override public void close() {
+            synchronized (HDTFileCache.this) {
+                if (closed) return;
+                closed = true;
+                release(entry);
+            }
+        }
+
+        @Override public @Nonnull String toString() {
+            return format("%s{%s}", Utils.toString(this), entry.key);
+        }
+    }
+
+    /**
+     * Whether the file starts with the HDT magic cookie. Compressed files or files of other
+     * syntaxes yield false.
+     *
+     * @param file the file to check
+     * @return true iff the file could be mapped by {@link #acquire(File)}.
+     */
+    public static boolean isHDTFile(@Nonnull File file) {
+        if (!file.isFile())
+            return false;
+        byte[] buf = new byte[MAGIC.length];
+        try (InputStream in = new FileInputStream(file)) {
+            int n = 0;
+            for (int r = 0; n < buf.length && r >= 0; n += r)
+                r = in.read(buf, n, buf.length - n);
+            return n >= buf.length && Arrays.equals(buf, MAGIC);
+        } catch (IOException e) {
+            logger.debug("isHDTFile({}) failed", file, e);
+            return false;
+        }
+    }
+
+    public synchronized int getMaxIdle() {
+        return maxIdle;
+    }
+
+    /**
+     * Change the maximum number of unreferenced mappings kept open
+     *
+     * @param maxIdle the new maximum, 0 closes mappings as soon as they are released
+     */
+    public synchronized void setMaxIdle(int maxIdle) {
+        if (maxIdle < 0)
+            throw new IllegalArgumentException("maxIdle="+maxIdle+" < 0");
+        this.maxIdle = maxIdle;
+        trimIdle(maxIdle);
+    }
+
+    /**
+     * @return number of open mappings (referenced or not)
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Close all mappings that currently have no references.
+     */
+    public synchronized void closeIdle() {
+        trimIdle(0);
+    }
+
+    /**
+     * Get a (possibly shared) memory-mapped {@link HDT} for the file.
+     *
+     * @param file an HDT file
+     * @return a {@link Handle} that must be closed once the {@link HDT} is no longer used
+     * @throws IOException if the file could not be mapped
+     */
+    public @Nonnull Handle acquire(@Nonnull File file) throws IOException {
+        Key key = new Key(file);
+        Entry entry;
+        boolean map = false;
+        synchronized (this) {
+            entry = entries.get(key);
+            if (entry == null) {
+                entries.put(key, entry = new Entry(key));
+                map = true;
+            } else {
+                idle.remove(entry);
+            }
+            ++entry.references;
+        }
+        if (map) {
+            try {
+                entry.mapping.complete(map(key.path));
+                logger.debug("Mapped {}", key);
+            } catch (Throwable t) {
+                synchronized (this) {
+                    entries.remove(key, entry);
+                    --entry.references;
+                }
+                entry.mapping.completeExceptionally(t);
+                throw t;
+            }
+        } else {
+            try {
+                entry.await();
+            } catch (IOException e) {
+                synchronized (this) {
+                    --entry.references;
+                }
+                throw e;
+            }
+        }
+        return new Handle(entry);
+    }
+
+    /**
+     * Map the HDT file. This is called without holding the lock of this cache.
+     *
+     * @param path canonical path of the file
+     * @return the mapped {@link HDT}
+     * @throws IOException if the file could not be mapped
+     */
+    protected @Nonnull HDT map(@Nonnull String path) throws IOException {
+        return HDTManager.mapHDT(path);
+    }
+
+    private void release(@Nonnull Entry entry) {
+        assert Thread.holdsLock(this);
+        assert entry.references > 0;
+        if (--entry.references > 0)
+            return;
+        if (entry.key.isStale()) {
+            close(entry);
+        } else {
+            idle.add(entry);
+            trimIdle(maxIdle);
+        }
+    }
+
+    private void trimIdle(int max) {
+        assert Thread.holdsLock(this);
+        while (idle.size() > max)
+            close(idle.iterator().next()); // eldest first
+    }
+
+    private void close(@Nonnull Entry entry) {
+        entries.remove(entry.key);
+        idle.remove(entry);
+        try {
+            entry.getHDT().close();
+            logger.debug("Unmapped {}", entry.key);
+        } catch (IOException e) {
+            logger.error("Failed to close HDT mapped from {}", entry.key, e);
+        }
+    }
+
+    @Override public @Nonnull String toString() {
+        return format("%s{size=%d, maxIdle=%d}", Utils.toString(this), size(), getMaxIdle());
+    }
+}
@@ -19,6 +19,7 @@ package com.github.lapesd.rdfit.components.hdt;
 import com.github.lapesd.rdfit.RDFItFactory;
 import com.github.lapesd.rdfit.RIt;
 import com.github.lapesd.rdfit.components.hdt.listeners.HDTBufferFeeder;
+import com.github.lapesd.rdfit.components.hdt.listeners.HDTDiskFeeder;
 import com.github.lapesd.rdfit.components.hdt.listeners.HDTFileFeeder;
 import com.github.lapesd.rdfit.errors.RDFItException;
 import com.github.lapesd.rdfit.impl.DefaultRDFItFactory;
@@ -76,6 +77,65 @@ public class HDTHelpers {
         return toHDTFile(file, factory.iterateTriples(TripleString.class, srcs));
     }
 
+    /**
+     * Write all triples into an HDT file using a {@link DiskHDTWriter}, which does not
+     * require the whole dictionary to fit in memory.
+     *
+     * @param builder configuration of the {@link DiskHDTWriter} (including output file)
+     * @param rdfIt triples to write. Will be closed
+     * @return the written HDT file
+     * @throws RDFItException if parsing or HDT generation failed
+     */
+    public static @Nonnull File
+    toHDTFile(@Nonnull DiskHDTWriter.Builder builder,
+              @Nonnull RDFIt<TripleString> rdfIt) throws RDFItException {
+        File file = builder.getFile();
+        try (RDFIt<TripleString> it = rdfIt;
+             DiskHDTWriter w = builder.build()) {
+            while (it.hasNext())
+                w.addTriple(it.next());
+        } catch (IOException|RuntimeException|Error e) {
+            if (file.exists() && !deleteWithIndex(file))
+                logger.warn("Failed to delete {} after {}({})", file, e.getClass(), e.getMessage());
+            throw new RDFItException(NoSource.INSTANCE, e);
+        }
+        return file;
+    }
+    public static @Nonnull File toHDTFile(@Nonnull DiskHDTWriter.Builder builder,
+                                          @Nonnull Object... srcs) throws RDFItException {
+        return toHDTFile(DefaultRDFItFactory.get(), builder, srcs);
+    }
+    public static @Nonnull File toHDTFile(@Nonnull RDFItFactory factory,
+                                          @Nonnull DiskHDTWriter.Builder builder,
+                                          @Nonnull Object... srcs) throws RDFItException {
+        if (srcs.length == 1 && srcs[0] instanceof RDFIt) {
+            RDFIt<?> it = (RDFIt<?>) srcs[0];
+            return toHDTFile(builder, ConvertingRDFIt.createIf(TripleString.class, it));
+        }
+        return toHDTFile(builder, factory.iterateTriples(TripleString.class, srcs));
+    }
+
+    /**
+     * Generate an HDT file with a {@link DiskHDTWriter} and map it into memory.
+     *
+     * Unlike {@link #toHDT(RDFIt)}, the dictionary need not fit in the heap. The caller
+     * owns the file at {@link DiskHDTWriter.Builder#getFile()}.
+     *
+     * @param builder configuration of the {@link DiskHDTWriter} (including output file)
+     * @param sources sources of triples
+     * @return a memory-mapped {@link HDT}, which must be closed by the caller
+     * @throws RDFItException if parsing, HDT generation or mapping failed
+     */
+    public static @Nonnull HDT toHDT(@Nonnull DiskHDTWriter.Builder builder,
+                                     @Nonnull Object... sources) throws RDFItException {
+        File file = toHDTFile(builder, sources);
+        try {
+            return HDTManager.mapHDT(file.getAbsolutePath(), null);
+        } catch (IOException e) {
+            throw new RDFItException(NoSource.INSTANCE, "Failed to map HDT file "+file, e);
+        }
+    }
+
     public static @Nonnull HDT
     toHDT(@Nonnull RDFIt<TripleString> it) throws RDFItException {
         String baseURI = "file:hdt-in-memory-"+ UUID.randomUUID();
@@ -104,6 +164,10 @@ public class HDTHelpers {
     public static @Nonnull HDTBufferFeeder feeder() throws IOException {
         return new HDTBufferFeeder();
     }
+    public static @Nonnull HDTDiskFeeder
+    diskFeeder(@Nonnull DiskHDTWriter.Builder builder) throws IOException {
+        return new HDTDiskFeeder(builder);
+    }
 
     public static boolean deleteWithIndex(@Nonnull File hdtFile) {
         try {
@@ -17,6 +17,7 @@
 package com.github.lapesd.rdfit.components.hdt;
 
 import com.github.lapesd.rdfit.RDFItFactory;
+import com.github.lapesd.rdfit.components.hdt.parsers.iterator.HDTIdItParser;
 import com.github.lapesd.rdfit.components.hdt.parsers.iterator.HDTItParser;
 import com.github.lapesd.rdfit.components.parsers.JavaParsers;
 import com.github.lapesd.rdfit.components.parsers.ParserRegistry;
@@ -32,10 +33,12 @@ import javax.annotation.Nonnull;
 public class HDTParsers {
     /**
      * Calls {@link #registerAll(ParserRegistry)} with {@link RDFItFactory#getParserRegistry()}
+     * and registers a {@link HDTRangeSplitter} for parallel iteration of HDT files.
      * @param factory the {@link RDFItFactory}
      */
     public static void registerAll(@Nonnull RDFItFactory factory) {
         registerAll(factory.getParserRegistry());
+        factory.getNormalizerRegistry().registerSplitter(new HDTRangeSplitter());
     }
 
     /**
@@ -46,15 +49,19 @@ public class HDTParsers {
         JavaParsers.registerWithTripleClass(registry, TripleString.class);
         registry.register(new IterableListenerParser(TripleString.class, null));
         registry.register(new TripleArrayListenerParser(TripleString.class));
+        // registered first so that HDTItParser is preferred unless HDTTripleID is requested
+        registry.register(new HDTIdItParser());
         registry.register(new HDTItParser());
     }
 
     /**
      * Calls {@link #unregisterAll(ParserRegistry)} with {@link RDFItFactory#getParserRegistry()}
+     * and removes any {@link HDTRangeSplitter}.
      * @param factory the {@link RDFItFactory}
      */
     public static void unregisterAll(@Nonnull RDFItFactory factory) {
         unregisterAll(factory.getParserRegistry());
+        factory.getNormalizerRegistry().unregisterSplitterIf(HDTRangeSplitter.class::isInstance);
     }
 
     /**
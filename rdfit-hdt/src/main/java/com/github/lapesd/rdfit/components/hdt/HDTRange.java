@@ -0,0 +1,97 @@
+/*
+ *    Copyright 2021 Alexis Armin Huf
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.github.lapesd.rdfit.components.hdt;
+
+import com.github.lapesd.rdfit.util.Utils;
+import org.rdfhdt.hdt.hdt.HDT;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.File;
+
+import static java.lang.String.format;
+
+/**
+ * A source with the triples at positions <code>[begin, end)</code> of the bitmap triples
+ * of an HDT file or of an {@link HDT} object.
+ *
+ * Ranges of the same HDT are created by {@link HDTRangeSplitter} and can be iterated
+ * independently and concurrently. Ranges of a file share a single memory mapping through
+ * {@link HDTFileCache#INSTANCE}. {@link HDT} objects are never closed by parsers.
+ */
+public class HDTRange {
+    private final @Nullable File file;
+    private final @Nullable HDT hdt;
+    private final long begin, end;
+
+    private HDTRange(@Nullable File file, @Nullable HDT hdt, long begin, long end) {
+        if (begin < 0 || end < begin)
+            throw new IllegalArgumentException("Bad range ["+begin+", "+end+")");
+        this.file = file;
+        this.hdt = hdt;
+        this.begin = begin;
+        this.end = end;
+    }
+
+    public HDTRange(@Nonnull File file, long begin, long end) {
+        this(file, null, begin, end);
+    }
+
+    public HDTRange(@Nonnull HDT hdt, long begin, long end) {
+        this(null, hdt, begin, end);
+    }
+
+    /**
+     * @return the HDT file, or null if this is a range of {@link #getHDT()}.
+     */
+    public @Nullable File getFile() {
+        return file;
+    }
+
+    /**
+     * @return the {@link HDT} object, or null if this is a range of {@link #getFile()}.
+     */
+    public @Nullable HDT getHDT() {
+        return hdt;
+    }
+
+    /**
+     * @return position of the first triple in this range
+     */
+    public long getBegin() {
+        return begin;
+    }
+
+    /**
+     * @return position of the first triple after this range
+     */
+    public long getEnd() {
+        return end;
+    }
+
+    /**
+     * @return number of triples in this range
+     */
+    public long size() {
+        return end - begin;
+    }
+
+    @Override public @Nonnull String toString() {
+        return format("%s{%s,range=[%d,%d)}", Utils.toString(this),
+                      file != null ? file : hdt, begin, end);
+    }
+}
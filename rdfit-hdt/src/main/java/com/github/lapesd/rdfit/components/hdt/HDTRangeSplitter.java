@@ -0,0 +1,153 @@
+/*
+ *    Copyright 2021 Alexis Armin Huf
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.github.lapesd.rdfit.components.hdt;
+
+import com.github.lapesd.rdfit.components.SourceSplitter;
+import com.github.lapesd.rdfit.errors.RDFItException;
+import com.github.lapesd.rdfit.source.RDFFile;
+import com.github.lapesd.rdfit.util.Utils;
+import org.rdfhdt.hdt.hdt.HDT;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+
+import static java.lang.String.format;
+import static java.util.Arrays.asList;
+import static java.util.Collections.unmodifiableSet;
+
+/**
+ * Splits uncompressed HDT {@link RDFFile}s and {@link HDT} objects into {@link HDTRange}s
+ * of contiguous triple positions, to be iterated concurrently.
+ *
+ * Unlike text files, HDT files are split by number of triples: the chunkBytes hint given to
+ * {@link #split(Object, long)} is ignored. Sources are split into at most
+ * {@link #getPartitions()} ranges of at least {@link #getMinTriples()} triples each.
+ */
+public class HDTRangeSplitter implements SourceSplitter {
+    /**
+     * Default value for {@link #getMinTriples()}.
+     */
+    public static final long DEFAULT_MIN_TRIPLES = 64 * 1024;
+    private static final @Nonnull Set<Class<?>> CLASSES = unmodifiableSet(new HashSet<>(asList(
+            RDFFile.class, HDT.class
+    )));
+
+    private volatile int partitions = Runtime.getRuntime().availableProcessors();
+    private volatile long minTriples = DEFAULT_MIN_TRIPLES;
+
+    /**
+     * Maximum number of ranges into which a single HDT is split.
+     *
+     * @return the number of partitions. Defaults to the number of available processors
+     */
+    public int getPartitions() {
+        return partitions;
+    }
+
+    /**
+     * Change the value of {@link #getPartitions()}.
+     *
+     * @param partitions the new number of partitions. Values smaller than 2 disable splitting
+     */
+    public void setPartitions(int partitions) {
+        this.partitions = partitions;
+    }
+
+    /**
+     * Minimum number of triples in each range. HDTs with fewer than twice this number of
+     * triples are not split.
+     *
+     * @return the minimum number of triples per range
+     */
+    public long getMinTriples() {
+        return minTriples;
+    }
+
+    /**
+     * Change the value of {@link #getMinTriples()}.
+     *
+     * @param minTriples the new minimum. Values smaller than 1 are treated as 1
+     */
+    public void setMinTriples(long minTriples) {
+        this.minTriples = Math.max(1, minTriples);
+    }
+
+    @Override public @Nonnull Collection<Class<?>> acceptedClasses() {
+        return CLASSES;
+    }
+
+    @Override public @Nullable List<HDTRange> split(@Nonnull Object source, long chunkBytes) {
+        if (source instanceof HDT) {
+            HDT hdt = (HDT) source;
+            long[] bounds = boundaries(hdt.getTriples().getNumberOfElements());
+            if (bounds == null)
+                return null;
+            List<HDTRange> ranges = new ArrayList<>(bounds.length - 1);
+            for (int i = 1; i < bounds.length; i++)
+                ranges.add(new HDTRange(hdt, bounds[i-1], bounds[i]));
+            return ranges;
+        } else if (source instanceof RDFFile) {
+            RDFFile rdfFile = (RDFFile) source;
+            File file = rdfFile.getFile();
+            if (rdfFile.getDeleteOnClose() || rdfFile.getDecorator() != null
+                                           || !HDTFileCache.isHDTFile(file)) {
+                return null;
+            }
+            long[] bounds;
+            // the mapping remains idle in the cache, to be shared by the ranges
+            try (HDTFileCache.Handle handle = HDTFileCache.INSTANCE.acquire(file)) {
+                bounds = boundaries(handle.getHDT().getTriples().getNumberOfElements());
+            } catch (IOException e) {
+                throw new RDFItException(source, "Problem mapping HDT file "+file, e);
+            }
+            if (bounds == null)
+                return null;
+            rdfFile.close(); // may have been opened to detect the syntax
+            List<HDTRange> ranges = new ArrayList<>(bounds.length - 1);
+            for (int i = 1; i < bounds.length; i++)
+                ranges.add(new HDTRange(file, bounds[i-1], bounds[i]));
+            return ranges;
+        }
+        return null;
+    }
+
+    /**
+     * Compute the boundaries of ranges over triples positions.
+     *
+     * @param triples total number of triples
+     * @return null if there should be a single range, else an array where range i is
+     *         <code>[array[i], array[i+1])</code>, with array[0] = 0 and the last element
+     *         equal to triples.
+     */
+    @Nullable long[] boundaries(long triples) {
+        long n = Math.min(partitions, triples / minTriples);
+        if (n < 2)
+            return null;
+        long[] bounds = new long[(int) n + 1];
+        for (int i = 1; i <= n; i++)
+            bounds[i] = triples * i / n; // triples * n never overflows for real HDTs
+        return bounds;
+    }
+
+    @Override public @Nonnull String toString() {
+        return format("%s{partitions=%d,minTriples=%d}", Utils.toString(this),
+                      partitions, minTriples);
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ *    Copyright 2021 Alexis Armin Huf
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.github.lapesd.rdfit.components.hdt;
+
+import com.github.lapesd.rdfit.util.Utils;
+import org.rdfhdt.hdt.dictionary.Dictionary;
+import org.rdfhdt.hdt.enums.TripleComponentRole;
+
+import javax.annotation.Nonnull;
+
+import static java.lang.String.format;
+
+/**
+ * Decodes dictionary IDs of an HDT file into their string representation, remembering
+ * recently decoded IDs.
+ *
+ * There is one direct-mapped cache per {@link TripleComponentRole}, since the same ID may
+ * denote different terms in different roles. Cached entries are immutable, thus instances
+ * can be shared by multiple threads (concurrent misses may decode the same ID twice).
+ *
+ * Once the {@link Dictionary} is released (e.g., its HDT is closed), {@link #close()} must
+ * be called, so that later {@link #decode(long, TripleComponentRole)} calls fail with an
+ * {@link IllegalStateException} instead of reading a closed dictionary.
+ */
+public class HDTTermDecoder {
+    public static final int DEFAULT_CAPACITY = 4096;
+
+    private static final class Entry {
+        final long id;
+        final @Nonnull String term;
+
+        Entry(long id, @Nonnull String term) {
+            this.id = id;
+            this.term = term;
+        }
+    }
+
+    private final @Nonnull Dictionary dictionary;
+    private final @Nonnull Entry[][] caches;
+    private final int mask;
+    private volatile boolean closed = false;
+
+    public HDTTermDecoder(@Nonnull Dictionary dictionary) {
+        this(dictionary, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Create a decoder
+     *
+     * @param dictionary the dictionary of the HDT file
+     * @param capacity number of entries cached for each {@link TripleComponentRole}.
+     *                 Will be rounded up to a power of two.
+     */
+    public HDTTermDecoder(@Nonnull Dictionary dictionary, int capacity) {
+        if (capacity < 1)
+            throw new IllegalArgumentException("capacity="+capacity+" < 1");
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity)
+            size <<= 1;
+        this.dictionary = dictionary;
+        this.caches = new Entry[TripleComponentRole.values().length][size];
+        this.mask = size - 1;
+    }
+
+    public @Nonnull Dictionary getDictionary() {
+        return dictionary;
+    }
+
+    /**
+     * Get the string of a term in the dictionary
+     *
+     * @param id the dictionary ID
+     * @param role the role (subject, predicate or object) of id
+     * @return the term, in the same representation used by
+     *         {@link org.rdfhdt.hdt.triples.TripleString}
+     * @throws IllegalArgumentException if id is not in the dictionary
+     * @throws IllegalStateException if this decoder was closed
+     */
+    public @Nonnull String decode(long id, @Nonnull TripleComponentRole role) {
+        if (closed) {
+            throw new IllegalStateException("Cannot decode ID "+id+" as "+role+": "+this+
+                                            " was closed together with its HDT");
+        }
+        Entry[] cache = caches[role.ordinal()];
+        int idx = (int)(id ^ (id >>> 32)) & mask;
+        Entry e = cache[idx];
+        if (e != null && e.id == id)
+            return e.term;
+        CharSequence seq = dictionary.idToString(id, role);
+        if (seq == null)
+            throw new IllegalArgumentException("ID "+id+" not found as "+role+" in "+dictionary);
+        String term = seq.toString();
+        cache[idx] = new Entry(id, term);
+        return term;
+    }
+
+    /**
+     * Whether {@link #close()} was called.
+     *
+     * @return true iff closed
+     */
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Mark the dictionary as released. Subsequent {@link #decode(long, TripleComponentRole)}
+     * calls throw {@link IllegalStateException}. This does not close the dictionary.
+     */
+    public void close() {
+        closed = true;
+    }
+
+    @Override public @Nonnull String toString() {
+        return format("%s{dictionary=%s, capacity=%d}", Utils.toString(this),
+                      Utils.toString(dictionary), mask+1);
+    }
+}
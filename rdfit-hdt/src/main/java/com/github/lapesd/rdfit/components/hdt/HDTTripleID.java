@@ -0,0 +1,136 @@
+/*
+ *    Copyright 2021 Alexis Armin Huf
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.github.lapesd.rdfit.components.hdt;
+
+import org.rdfhdt.hdt.enums.TripleComponentRole;
+import org.rdfhdt.hdt.triples.TripleID;
+import org.rdfhdt.hdt.triples.TripleString;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Objects;
+
+/**
+ * An HDT triple represented by its dictionary IDs.
+ *
+ * Terms are only decoded (through the shared {@link HDTTermDecoder}) when first accessed.
+ * Code that only inspects IDs (e.g., filtering or counting by predicate) never decodes
+ * strings. Instances are immutable, except for the lazily decoded terms, whose
+ * initialization is benign under races.
+ *
+ * Decoding reads the dictionary of the HDT, which is only guaranteed to remain open until
+ * the {@link com.github.lapesd.rdfit.iterator.RDFIt} that produced the instance is closed
+ * (explicitly or upon exhaustion). After that, IDs and already decoded terms remain
+ * available, but {@link #getSubject()}, {@link #getPredicate()}, {@link #getObject()}
+ * and {@link #toTripleString()} throw
+ * {@link IllegalStateException} for terms that were not yet decoded. Note that iterators
+ * may be closed before their values are consumed (e.g., by parallel iteration or
+ * read-ahead in conversions): decode (or convert) instances before handing them over if
+ * the terms will be needed.
+ */
+public class HDTTripleID {
+    private final long subjectID, predicateID, objectID;
+    private final @Nonnull HDTTermDecoder decoder;
+    private @Nullable String subject, predicate, object;
+
+    public HDTTripleID(long subjectID, long predicateID, long objectID,
+                       @Nonnull HDTTermDecoder decoder) {
+        this.subjectID = subjectID;
+        this.predicateID = predicateID;
+        this.objectID = objectID;
+        this.decoder = decoder;
+    }
+
+    public HDTTripleID(@Nonnull TripleID tripleID, @Nonnull HDTTermDecoder decoder) {
+        this(tripleID.getSubject(), tripleID.getPredicate(), tripleID.getObject(), decoder);
+    }
+
+    public long getSubjectID() {
+        return subjectID;
+    }
+    public long getPredicateID() {
+        return predicateID;
+    }
+    public long getObjectID() {
+        return objectID;
+    }
+    public @Nonnull HDTTermDecoder getDecoder() {
+        return decoder;
+    }
+
+    /**
+     * Get the decoded subject.
+     *
+     * @return the subject, in {@link TripleString} representation
+     * @throws IllegalStateException if not yet decoded and the HDT was released
+     */
+    public @Nonnull String getSubject() {
+        String s = subject;
+        if (s == null)
+            subject = s = decoder.decode(subjectID, TripleComponentRole.SUBJECT);
+        return s;
+    }
+    /**
+     * Get the decoded predicate.
+     *
+     * @return the predicate, in {@link TripleString} representation
+     * @throws IllegalStateException if not yet decoded and the HDT was released
+     */
+    public @Nonnull String getPredicate() {
+        String s = predicate;
+        if (s == null)
+            predicate = s = decoder.decode(predicateID, TripleComponentRole.PREDICATE);
+        return s;
+    }
+    /**
+     * Get the decoded object.
+     *
+     * @return the object, in {@link TripleString} representation
+     * @throws IllegalStateException if not yet decoded and the HDT was released
+     */
+    public @Nonnull String getObject() {
+        String s = object;
+        if (s == null)
+            object = s = decoder.decode(objectID, TripleComponentRole.OBJECT);
+        return s;
+    }
+
+    /**
+     * @return a {@link TripleString} with the decoded terms of this triple
+     * @throws IllegalStateException if some term was not yet decoded and the HDT was released
+     */
+    public @Nonnull TripleString toTripleString() {
+        return new TripleString(getSubject(), getPredicate(), getObject());
+    }
+
+    @Override public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof HDTTripleID)) return false;
+        HDTTripleID that = (HDTTripleID) o;
+        return subjectID == that.subjectID && predicateID == that.predicateID
+                && objectID == that.objectID
+                && decoder.getDictionary() == that.decoder.getDictionary();
+    }
+
+    @Override public int hashCode() {
+        return Objects.hash(subjectID, predicateID, objectID);
+    }
+
+    @Override public @Nonnull String toString() {
+        return String.format("HDTTripleID{%d %d %d}", subjectID, predicateID, objectID);
+    }
+}
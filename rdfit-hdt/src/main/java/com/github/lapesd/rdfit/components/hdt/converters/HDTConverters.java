@@ -22,10 +22,12 @@ import com.github.lapesd.rdfit.components.annotations.Accepts;
 import com.github.lapesd.rdfit.components.annotations.Outputs;
 import com.github.lapesd.rdfit.components.converters.ConversionManager;
 import com.github.lapesd.rdfit.components.converters.DetachedBaseConverter;
+import com.github.lapesd.rdfit.components.hdt.HDTTripleID;
 import com.github.lapesd.rdfit.components.jena.converters.JenaConverters;
 import com.github.lapesd.rdfit.errors.ConversionException;
 import com.github.lapesd.rdfit.util.Literal;
 import com.github.lapesd.rdfit.util.LiteralParser;
+import com.github.lapesd.rdfit.util.TermCache;
 import org.apache.jena.datatypes.RDFDatatype;
 import org.apache.jena.datatypes.TypeMapper;
 import org.apache.jena.datatypes.xsd.XSDDatatype;
@@ -35,8 +37,8 @@ import org.apache.jena.graph.Triple;
 import org.rdfhdt.hdt.triples.TripleString;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import java.util.*;
-import java.util.regex.Pattern;
 
 import static org.apache.jena.graph.NodeFactory.createBlankNode;
 import static org.apache.jena.graph.NodeFactory.createLiteral;
@@ -45,14 +47,15 @@ import static org.apache.jena.graph.NodeFactory.createLiteral;
  * Registers/unregisters converters between Jena and HDT triples
  */
 public class HDTConverters {
-    private static final @Nonnull Pattern INT_RX = Pattern.compile("[+-]?[0-9]+");
-    private static final @Nonnull Pattern DEC_RX = Pattern.compile("[+-]?[0-9]*\\.[0-9]+");
-    private static final @Nonnull Pattern DOUBLE_RX = Pattern.compile(
-            "([+-]?[0-9]|[+-]?\\.[0-9]+|[+-]?[0-9]+\\.[0-9]+)[eE]([+-]?[0-9]+)");
     private static final @Nonnull Map<String, String> PREFIXES;
     private static final @Nonnull List<Converter> CONVERTERS = Arrays.asList(
-            TripleString2Triple.INSTANCE, Triple2TripleString.INSTANCE
+            TripleString2Triple.INSTANCE, Triple2TripleString.INSTANCE,
+            TripleID2TripleString.INSTANCE, TripleID2Triple.INSTANCE
     );
+    private static final @Nonnull ThreadLocal<LiteralParser> PARSER
+            = ThreadLocal.withInitial(LiteralParser::new);
+    private static final @Nonnull TermCache<String, RDFDatatype> DATATYPES
+            = new TermCache<>(256);
 
     static {
         Map<String, String> map = new HashMap<>();
@@ -64,58 +67,182 @@ public class HDTConverters {
 
     /**
      * Convert a string used in a {@link TripleString} to a jena {@link Node}
+     *
+     * IRIs, blank nodes, numbers and literals in the form HDT uses to store them
+     * ({@code "lex"}, {@code "lex"@lang} and {@code "lex"^^<iri>}, without escapes) are
+     * handled in a single scan of seq. Other literal syntaxes go through a per-thread
+     * {@link LiteralParser}.
+     *
      * @param seq an RDF term
      * @return representation of the RDF term as a Jena {@link Node}
      */
     public static @Nonnull Node hdtStringToNode(@Nonnull CharSequence seq) {
-        if (seq.length() == 0) return createBlankNode();
+        int len = seq.length();
+        if (len == 0) return createBlankNode();
         char f = seq.charAt(0);
-        String string = seq.toString();
-        if (string.equalsIgnoreCase("false") || string.equalsIgnoreCase("true")) {
-            return createLiteral(string.toLowerCase(), XSDDatatype.XSDboolean);
-        } else  if (f=='"' || f=='\'' || f>='0' && f<='9' || f=='.' || f=='-' || f=='+') {
-            Literal lit = new LiteralParser().parse(string);
-            if (lit.isLang()) {
-                return createLiteral(lit.getLexicalForm(), lit.getLangTag());
-            } else if (!lit.isQuoted()) {
-                String lex = lit.getLexicalForm();
-                if (INT_RX.matcher(lex).matches()) {
-                    return  createLiteral(lex, XSDDatatype.XSDinteger);
-                } else if (DEC_RX.matcher(lex).matches()) {
-                    return createLiteral(lex, XSDDatatype.XSDdecimal);
-                } else if (DOUBLE_RX.matcher(lex).matches()) {
-                    return createLiteral(lex, XSDDatatype.XSDdouble);
-                } else {
-                    throw new IllegalArgumentException("Literal "+lit+" is not valid Turtle");
-                }
-            } else if (lit.isTyped()) {
-                String iri;
-                if (lit.isIRITyped()) {
-                    iri = lit.getTypeIRI();
-                } else {
-                    assert lit.isPrefixTyped();
-                    String name = lit.getTypePrefixName();
-                    if (name == null)
-                        throw new IllegalArgumentException("null prefix name for datatype in " + lit);
-                    name = name.trim().toLowerCase().replaceAll("[0-9_-]+$", "");
-                    String prefix = PREFIXES.getOrDefault(name, null);
-                    if (prefix == null)
-                        throw new IllegalArgumentException("Unknown prefix " + name + " in " + lit);
-                    iri = prefix + lit.getTypeLocalName();
-                }
-                assert iri != null;
-                RDFDatatype dt = TypeMapper.getInstance().getSafeTypeByName(iri);
-                assert dt != null;
-                return createLiteral(lit.getLexicalForm(), dt);
-            } else { // plain literal (becomes xsd:string)
-                return createLiteral(lit.getLexicalForm());
-            }
+        if (isBoolean(seq, len)) {
+            return createLiteral(f == 't' || f == 'T' ? "true" : "false",
+                                 XSDDatatype.XSDboolean);
+        } else if (f == '"') {
+            Node node = quotedToNode(seq, len);
+            return node != null ? node : literalToNode(seq.toString());
+        } else if (f>='0' && f<='9' || f=='-' || f=='+') {
+            RDFDatatype dt = numericType(seq, len);
+            return dt != null ? createLiteral(seq.toString(), dt) : literalToNode(seq.toString());
+        } else if (f == '\'' || f == '.') {
+            return literalToNode(seq.toString());
         } else if (f == '_') {
-            if (string.length() < 3)
+            if (len < 3)
                 return createBlankNode();
-            return createBlankNode(string.subSequence(2, string.length()).toString());
+            return createBlankNode(seq.subSequence(2, len).toString());
         } else {
-            return NodeFactory.createURI(string);
+            return NodeFactory.createURI(seq.toString());
+        }
+    }
+
+    private static boolean isBoolean(@Nonnull CharSequence seq, int len) {
+        String expected = len == 4 ? "true" : (len == 5 ? "false" : null);
+        if (expected == null)
+            return false;
+        for (int i = 0; i < len; i++) {
+            if (Character.toLowerCase(seq.charAt(i)) != expected.charAt(i))
+                return false;
+        }
+        return true;
+    }
+
+    private static boolean isLangChar(char c) {
+        return c == '-' || (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z')
+                        || (c >= '0' && c <= '9');
+    }
+
+    private static @Nonnull RDFDatatype datatype(@Nonnull String iri) {
+        return DATATYPES.get(iri, i -> TypeMapper.getInstance().getSafeTypeByName(i));
+    }
+
+    /**
+     * Scan a {@code "lex"}, {@code "lex"@lang} or {@code "lex"^^<iri>} literal.
+     *
+     * @return the literal or null if seq requires the full {@link LiteralParser}
+     */
+    private static @Nullable Node quotedToNode(@Nonnull CharSequence seq, int len) {
+        int close = 1;
+        for (; close < len; ++close) {
+            char c = seq.charAt(close);
+            if (c == '"') break;
+            else if (c == '\\') return null;
+        }
+        if (close == 1 || close == len)
+            return null; // empty, triple-quoted or unterminated
+        int suffix = close + 1;
+        if (suffix == len)
+            return createLiteral(seq.subSequence(1, close).toString());
+        char c = seq.charAt(suffix);
+        if (c == '@') {
+            if (suffix + 1 == len)
+                return null;
+            for (int i = suffix + 1; i < len; i++) {
+                if (!isLangChar(seq.charAt(i))) return null;
+            }
+            return createLiteral(seq.subSequence(1, close).toString(),
+                                 seq.subSequence(suffix + 1, len).toString());
+        } else if (c == '^') {
+            int iriStart = suffix + 3, iriEnd = len - 1;
+            if (iriStart >= iriEnd || seq.charAt(suffix+1) != '^' || seq.charAt(suffix+2) != '<'
+                                   || seq.charAt(iriEnd) != '>' || seq.charAt(iriEnd-1) == '.') {
+                return null;
+            }
+            for (int i = iriStart; i < iriEnd; i++) {
+                if (seq.charAt(i) == '>') return null;
+            }
+            RDFDatatype dt = datatype(seq.subSequence(iriStart, iriEnd).toString());
+            return createLiteral(seq.subSequence(1, close).toString(), dt);
+        }
+        return null;
+    }
+
+    private static int skipDigits(@Nonnull CharSequence seq, int i, int len) {
+        while (i < len) {
+            char c = seq.charAt(i);
+            if (c < '0' || c > '9') break;
+            ++i;
+        }
+        return i;
+    }
+
+    /**
+     * Classify seq as a turtle INTEGER, DECIMAL or DOUBLE.
+     *
+     * @return the datatype or null if seq is none of these
+     */
+    private static @Nullable RDFDatatype numericType(@Nonnull CharSequence seq, int len) {
+        int i = 0;
+        char c = seq.charAt(0);
+        if (c == '+' || c == '-') ++i;
+        int intEnd = skipDigits(seq, i, len);
+        boolean hasInt = intEnd > i, hasDot = false, hasFrac = false;
+        i = intEnd;
+        if (i < len && seq.charAt(i) == '.') {
+            hasDot = true;
+            int fracEnd = skipDigits(seq, ++i, len);
+            hasFrac = fracEnd > i;
+            i = fracEnd;
+        }
+        if (i == len) {
+            if (!hasDot)
+                return hasInt ? XSDDatatype.XSDinteger : null;
+            return hasFrac ? XSDDatatype.XSDdecimal : null;
+        }
+        c = seq.charAt(i);
+        if ((c != 'e' && c != 'E') || !(hasInt || hasFrac))
+            return null;
+        if (++i < len && ((c = seq.charAt(i)) == '+' || c == '-'))
+            ++i;
+        int expEnd = skipDigits(seq, i, len);
+        return expEnd > i && expEnd == len ? XSDDatatype.XSDdouble : null;
+    }
+
+    private static @Nonnull String stripTrailingDigits(@Nonnull String name) {
+        int end = name.length();
+        while (end > 0) {
+            char c = name.charAt(end-1);
+            if ((c < '0' || c > '9') && c != '_' && c != '-') break;
+            --end;
+        }
+        return end == name.length() ? name : name.substring(0, end);
+    }
+
+    private static @Nonnull Node literalToNode(@Nonnull String string) {
+        Literal lit = PARSER.get().parse(string);
+        if (lit.isLang()) {
+            return createLiteral(lit.getLexicalForm(), lit.getLangTag());
+        } else if (!lit.isQuoted()) {
+            String lex = lit.getLexicalForm();
+            RDFDatatype dt = lex.isEmpty() ? null : numericType(lex, lex.length());
+            if (dt == null)
+                throw new IllegalArgumentException("Literal "+lit+" is not valid Turtle");
+            return createLiteral(lex, dt);
+        } else if (lit.isTyped()) {
+            String iri;
+            if (lit.isIRITyped()) {
+                iri = lit.getTypeIRI();
+            } else {
+                assert lit.isPrefixTyped();
+                String name = lit.getTypePrefixName();
+                if (name == null)
+                    throw new IllegalArgumentException("null prefix name for datatype in " + lit);
+                name = stripTrailingDigits(name.trim().toLowerCase());
+                String prefix = PREFIXES.getOrDefault(name, null);
+                if (prefix == null)
+                    throw new IllegalArgumentException("Unknown prefix " + name + " in " + lit);
+                iri = prefix + lit.getTypeLocalName();
+            }
+            assert iri != null;
+            RDFDatatype dt = datatype(iri);
+            assert dt != null;
+            return createLiteral(lit.getLexicalForm(), dt);
+        } else { // plain literal (becomes xsd:string)
+            return createLiteral(lit.getLexicalForm());
         }
     }
 
@@ -156,6 +283,47 @@ public class HDTConverters {
         }
     }
 
+    /**
+     * Decodes an {@link HDTTripleID} into a {@link TripleString}
+     */
+    @Accepts(HDTTripleID.class) @Outputs(TripleString.class)
+    public static class TripleID2TripleString extends DetachedBaseConverter {
+        public static final @Nonnull TripleID2TripleString INSTANCE = new TripleID2TripleString();
+
+        @Override public @Nonnull TripleString convert(@Nonnull Object input)
+                throws ConversionException {
+            try {
+                return ((HDTTripleID) input).toTripleString();
+            } catch (IllegalArgumentException e) {
+                throw new ConversionException(input, this, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Decodes an {@link HDTTripleID} directly into a Jena {@link Triple}
+     */
+    @Accepts(HDTTripleID.class) @Outputs(Triple.class)
+    public static class TripleID2Triple extends DetachedBaseConverter {
+        public static final @Nonnull TripleID2Triple INSTANCE = new TripleID2Triple();
+
+        @Override public @Nonnull Triple convert(@Nonnull Object input) throws ConversionException {
+            HDTTripleID id = (HDTTripleID) input;
+            try {
+                Node s = hdtStringToNode(id.getSubject());
+                Node p = hdtStringToNode(id.getPredicate());
+                Node o = hdtStringToNode(id.getObject());
+                if (s.isLiteral() || p.isLiteral()) {
+                    throw new ConversionException(id, this,
+                                                  "Expected resource in "+id.toTripleString());
+                }
+                return new Triple(s, p, o);
+            } catch (IllegalArgumentException e) {
+                throw new ConversionException(id, this, "Cannot convert "+id+": "+e.getMessage());
+            }
+        }
+    }
+
     /**
      * Convers Jena {@link Triple}s into {@link TripleString}s
      */
@@ -168,14 +336,15 @@ public class HDTConverters {
         /**
          * Convert a single jena {@link Node} into a String for use in a {@link TripleString}
          *
+         * Literals without language tag are always written with an explicit datatype
+         * (<code>xsd:string</code> if none is set).
+         *
          * @param builder buffer to use when building bnodes and literals (not used for IRIs)
          * @param node the input node
-         * @param in the triple that contains the node
-         * @return a {@link CharSequence} with the HDT representation of the node
-         * @throws ConversionException if something goes wrong.
+         * @return the HDT representation of the node or null if node is not concrete
          */
-        private @Nonnull String toHDTString(@Nonnull StringBuilder builder, @Nonnull Node node,
-                                                  @Nonnull Triple in) throws ConversionException {
+        public static @Nullable String toHDTString(@Nonnull StringBuilder builder,
+                                                   @Nonnull Node node) {
             if (node.isBlank()) {
                 builder.setLength(0);
                 String string = node.toString();
@@ -197,11 +366,20 @@ public class HDTConverters {
                     return builder.append("\"^^<").append(uri).append('>').toString();
                 }
             } else {
-                throw new ConversionException(in, this, "non-concrete node "+node);
+                return null;
             }
         }
 
-        private void writeLexical(@Nonnull StringBuilder builder, @Nonnull String lexicalForm) {
+        private @Nonnull String toHDTString(@Nonnull StringBuilder builder, @Nonnull Node node,
+                                            @Nonnull Triple in) throws ConversionException {
+            String string = toHDTString(builder, node);
+            if (string == null)
+                throw new ConversionException(in, this, "non-concrete node "+node);
+            return string;
+        }
+
+        private static void writeLexical(@Nonnull StringBuilder builder,
+                                         @Nonnull String lexicalForm) {
             for (int i = 0, len = lexicalForm.length(); i < len; i++) {
                 char c = lexicalForm.charAt(i);
                 if (c == '\n') {
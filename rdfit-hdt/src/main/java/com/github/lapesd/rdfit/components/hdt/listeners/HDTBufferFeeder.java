@@ -27,6 +27,7 @@ public class HDTBufferFeeder extends HDTFeeder {
     }
 
     public @Nonnull byte[] getBuffer() {
+        assert outputStream != null;
         return ((ByteArrayOutputStream)outputStream).toByteArray();
     }
 }
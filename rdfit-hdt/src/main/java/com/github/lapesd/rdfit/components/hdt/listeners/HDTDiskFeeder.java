@@ -0,0 +1,49 @@
+/*
+ *    Copyright 2021 Alexis Armin Huf
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.github.lapesd.rdfit.components.hdt.listeners;
+
+import com.github.lapesd.rdfit.components.hdt.DiskHDTWriter;
+import com.github.lapesd.rdfit.util.Utils;
+
+import javax.annotation.Nonnull;
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * An {@link HDTFeeder} that writes an HDT file larger than memory using a
+ * {@link DiskHDTWriter}.
+ */
+public class HDTDiskFeeder extends HDTFeeder {
+    private final @Nonnull File file;
+
+    public HDTDiskFeeder(@Nonnull DiskHDTWriter.Builder builder) throws IOException {
+        this(builder.build());
+    }
+
+    public HDTDiskFeeder(@Nonnull DiskHDTWriter writer) {
+        super(writer);
+        this.file = writer.getFile();
+    }
+
+    public @Nonnull File getFile() {
+        return file;
+    }
+
+    @Override public @Nonnull String toString() {
+        return String.format("%s{file=%s}", Utils.toString(this), file.getAbsolutePath());
+    }
+}
@@ -28,6 +28,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import java.io.IOException;
 import java.io.OutputStream;
 
@@ -35,12 +36,26 @@ public class HDTFeeder extends TripleListenerBase<TripleString> {
     private static final Logger logger = LoggerFactory.getLogger(HDTFeeder.class);
     private static final HDTSpecification SPEC = new HDTSpecification();
     private final TripleWriter writer;
-    protected final @Nonnull OutputStream outputStream;
+    protected final @Nullable OutputStream outputStream;
 
     public HDTFeeder(@Nonnull OutputStream out,
                      @Nonnull String baseIRI) throws IOException {
+        this(HDTManager.getHDTWriter(out, baseIRI, SPEC), out);
+    }
+
+    /**
+     * Feed triples into the given {@link TripleWriter}, which will be closed on {@link #finish()}.
+     *
+     * @param writer the {@link TripleWriter}, e.g., a
+     *               {@link com.github.lapesd.rdfit.components.hdt.DiskHDTWriter}
+     */
+    public HDTFeeder(@Nonnull TripleWriter writer) {
+        this(writer, null);
+    }
+
+    protected HDTFeeder(@Nonnull TripleWriter writer, @Nullable OutputStream out) {
         super(TripleString.class);
-        this.writer = HDTManager.getHDTWriter(out, baseIRI, SPEC);
+        this.writer = writer;
         this.outputStream = out;
     }
 
@@ -0,0 +1,414 @@
+/*
+ *    Copyright 2021 Alexis Armin Huf
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.github.lapesd.rdfit.components.hdt.normalizers;
+
+import com.github.lapesd.rdfit.RDFItFactory;
+import com.github.lapesd.rdfit.components.annotations.Accepts;
+import com.github.lapesd.rdfit.components.hdt.DiskHDTWriter;
+import com.github.lapesd.rdfit.components.hdt.listeners.HDTDiskFeeder;
+import com.github.lapesd.rdfit.components.normalizers.BaseSourceNormalizer;
+import com.github.lapesd.rdfit.errors.InconvertibleException;
+import com.github.lapesd.rdfit.errors.RDFItException;
+import com.github.lapesd.rdfit.impl.DefaultRDFItFactory;
+import com.github.lapesd.rdfit.source.RDFFile;
+import com.github.lapesd.rdfit.source.syntax.RDFLangs;
+import com.github.lapesd.rdfit.source.syntax.impl.RDFLang;
+import com.github.lapesd.rdfit.util.Utils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.lang.String.format;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+/**
+ * Opt-in normalizer that replaces text RDF files with a previously generated HDT sidecar.
+ *
+ * For every {@link RDFFile} in one of the accepted syntaxes, this normalizer looks for a
+ * sidecar HDT file either next to the file (with {@link #SUFFIX} appended to its name) or
+ * inside a cache directory. The sidecar is only used if its metadata (path, size,
+ * last-modified time and a SHA-256 hash of the whole content) still matches the text file.
+ * The hash is only computed if all other metadata matches. If the sidecar is
+ * fresh, the {@link RDFFile} is replaced by an HDT {@link RDFFile}, which will be memory-mapped
+ * by the HDT parsers. Else, the text file is returned unchanged, and a sidecar is generated
+ * in background (with a {@link HDTDiskFeeder}) so that the next read can use it.
+ *
+ * This normalizer is not registered by default. Register it with
+ * {@link com.github.lapesd.rdfit.components.normalizers.SourceNormalizerRegistry#register(
+ * com.github.lapesd.rdfit.components.SourceNormalizer)}.
+ */
+@Accepts(RDFFile.class)
+public class HDTSidecarNormalizer extends BaseSourceNormalizer {
+    private static final Logger logger = LoggerFactory.getLogger(HDTSidecarNormalizer.class);
+    public static final @Nonnull String SUFFIX = ".rdfit.hdt";
+    public static final @Nonnull String META_SUFFIX = ".meta";
+    public static final @Nonnull Set<RDFLang> DEFAULT_LANGS = Collections.unmodifiableSet(
+            new HashSet<>(Arrays.asList(RDFLangs.NT, RDFLangs.TTL, RDFLangs.RDFXML,
+                                        RDFLangs.OWL, RDFLangs.RDFJSON)));
+    private static final AtomicInteger nextThreadId = new AtomicInteger(1);
+
+    private final @Nonnull RDFItFactory factory;
+    private final @Nullable File cacheDir;
+    private final @Nonnull Executor executor;
+    private final @Nonnull Set<String> pending = ConcurrentHashMap.newKeySet();
+    private @Nonnull Set<RDFLang> langs = DEFAULT_LANGS;
+    private int hashSampleBytes = 0;
+    private long memoryBudget = -1;
+    private int writerThreads = 1;
+
+    public HDTSidecarNormalizer() {
+        this(null);
+    }
+
+    public HDTSidecarNormalizer(@Nullable File cacheDir) {
+        this(DefaultRDFItFactory.get(), cacheDir);
+    }
+
+    public HDTSidecarNormalizer(@Nonnull RDFItFactory factory, @Nullable File cacheDir) {
+        this(factory, cacheDir, Executors.newSingleThreadExecutor(r -> {
+            String name = "HDTSidecarNormalizer-" + nextThreadId.getAndIncrement();
+            Thread thread = new Thread(r, name);
+            thread.setDaemon(true);
+            return thread;
+        }));
+    }
+
+    /**
+     * Create a normalizer.
+     *
+     * @param factory {@link RDFItFactory} used to parse text files when writing sidecars
+     * @param cacheDir if non-null, sidecars are stored in this directory instead of
+     *                 next to the text files.
+     * @param executor where sidecar generation tasks will run
+     */
+    public HDTSidecarNormalizer(@Nonnull RDFItFactory factory, @Nullable File cacheDir,
+                                @Nonnull Executor executor) {
+        this.factory = factory;
+        this.cacheDir = cacheDir;
+        this.executor = executor;
+    }
+
+    public @Nonnull HDTSidecarNormalizer langs(@Nonnull Collection<RDFLang> langs) {
+        for (RDFLang lang : langs) {
+            if (lang.isBinary() || RDFLangs.HDT.equals(lang))
+                throw new IllegalArgumentException("Binary syntax "+lang+" not allowed");
+        }
+        this.langs = Collections.unmodifiableSet(new HashSet<>(langs));
+        return this;
+    }
+
+    /**
+     * Hash only this number of bytes from the start and from the end of the text file (files
+     * up to twice this size are hashed entirely). By default the whole file is hashed.
+     *
+     * Sampling makes checks of large files cheaper, but a same-sized change in the middle of
+     * a file that keeps its last-modified time (e.g., <code>cp -p</code>) will not be
+     * detected and the stale sidecar will be used.
+     *
+     * @param bytes number of bytes, or zero or negative to hash the whole file (the default)
+     * @return this normalizer
+     */
+    public @Nonnull HDTSidecarNormalizer hashSampleBytes(int bytes) {
+        this.hashSampleBytes = bytes;
+        return this;
+    }
+
+    /**
+     * Memory budget for {@link DiskHDTWriter.Builder#memoryBudget(long)}.
+     *
+     * @param bytes budget in bytes, or zero or negative to use the {@link DiskHDTWriter} default
+     * @return this normalizer
+     */
+    public @Nonnull HDTSidecarNormalizer memoryBudget(long bytes) {
+        this.memoryBudget = bytes;
+        return this;
+    }
+
+    public @Nonnull HDTSidecarNormalizer writerThreads(int threads) {
+        if (threads < 1)
+            throw new IllegalArgumentException("threads="+threads+" < 1");
+        this.writerThreads = threads;
+        return this;
+    }
+
+    public @Nullable File getCacheDir() {
+        return cacheDir;
+    }
+
+    /**
+     * Get where the sidecar for the given text file is (or would be) stored.
+     *
+     * @param file the text RDF file
+     * @return the sidecar HDT file, which may not exist
+     */
+    public @Nonnull File getSidecar(@Nonnull File file) {
+        File canonical = canonical(file);
+        if (cacheDir == null)
+            return new File(canonical.getPath() + SUFFIX);
+        String key = toHex(sha256(canonical.getPath().getBytes(StandardCharsets.UTF_8)));
+        return new File(cacheDir, key.substring(0, 16) + "-" + canonical.getName() + SUFFIX);
+    }
+
+    /**
+     * Whether a sidecar for the given file is currently being written.
+     *
+     * @param file the text RDF file
+     * @return true iff there is a pending sidecar generation for the file
+     */
+    public boolean isPending(@Nonnull File file) {
+        return pending.contains(canonical(file).getPath());
+    }
+
+    @Override public @Nonnull Object normalize(@Nonnull Object source) {
+        if (!(source instanceof RDFFile))
+            return source;
+        RDFFile rdfFile = (RDFFile) source;
+        if (rdfFile.getDeleteOnClose() || rdfFile.getDecorator() != null)
+            return source;
+        File file = canonical(rdfFile.getFile());
+        if (!file.isFile() || pending.contains(file.getPath()))
+            return source;
+        RDFLang lang;
+        try {
+            lang = rdfFile.getOrDetectLang();
+        } catch (IOException|RDFItException e) {
+            logger.debug("{}: failed to detect syntax of {}", this, source, e);
+            return source;
+        }
+        if (RDFLangs.TRIG.equals(lang) && RDFLangs.TTL.equals(RDFLangs.fromExtension(file)))
+            lang = RDFLangs.TTL; // detector cannot tell Turtle from TriG without graphs
+        if (!langs.contains(lang))
+            return source;
+        File sidecar = getSidecar(file);
+        try {
+            if (isFresh(file, sidecar)) {
+                logger.debug("{}: using sidecar {} for {}", this, sidecar, file);
+                rdfFile.close();
+                return new RDFFile(sidecar, RDFLangs.HDT, rdfFile.getBaseIRI());
+            }
+        } catch (IOException e) {
+            logger.warn("{}: failed to check sidecar {} for {}", this, sidecar, file, e);
+        }
+        schedule(file, lang, rdfFile.getBaseIRI(), sidecar);
+        return source;
+    }
+
+    private void schedule(@Nonnull File file, @Nonnull RDFLang lang, @Nonnull String baseIRI,
+                          @Nonnull File sidecar) {
+        String key = file.getPath();
+        if (!pending.add(key))
+            return; // another thread is writing the sidecar
+        try {
+            executor.execute(() -> {
+                try {
+                    writeSidecar(file, lang, baseIRI, sidecar);
+                } catch (Throwable t) {
+                    logger.warn("{}: failed to write sidecar {} for {}",
+                                this, sidecar, file, t);
+                } finally {
+                    pending.remove(key);
+                }
+            });
+        } catch (RuntimeException e) {
+            pending.remove(key);
+            logger.warn("{}: could not schedule sidecar generation for {}", this, file, e);
+        }
+    }
+
+    private void writeSidecar(@Nonnull File file, @Nonnull RDFLang lang, @Nonnull String baseIRI,
+                              @Nonnull File sidecar) throws IOException {
+        long length = file.length(), lastModified = file.lastModified();
+        String hash = hash(file);
+        File dir = sidecar.getAbsoluteFile().getParentFile();
+        if (!dir.isDirectory() && !dir.mkdirs())
+            throw new IOException("Could not create directory "+dir);
+        File tmp = Files.createTempFile(dir.toPath(), sidecar.getName(), ".tmp").toFile();
+        File metaTmp = new File(tmp.getPath() + META_SUFFIX);
+        boolean ok = false;
+        try {
+            DiskHDTWriter.Builder builder = DiskHDTWriter.builder(tmp).baseIRI(baseIRI)
+                                                         .tempDir(dir).threads(writerThreads);
+            if (memoryBudget > 0)
+                builder.memoryBudget(memoryBudget);
+            SidecarFeeder feeder = new SidecarFeeder(builder);
+            factory.parse(feeder, new RDFFile(file, lang, baseIRI));
+            if (feeder.isFailed()) {
+                logger.info("{}: will not publish sidecar for {}, since parsing failed",
+                            this, file);
+                return;
+            }
+            if (file.length() != length || file.lastModified() != lastModified) {
+                logger.info("{}: {} changed while its sidecar was written", this, file);
+                return;
+            }
+            Properties meta = new Properties();
+            meta.setProperty("path", file.getPath());
+            meta.setProperty("length", String.valueOf(length));
+            meta.setProperty("lastModified", String.valueOf(lastModified));
+            meta.setProperty("hash", hash);
+            meta.setProperty("hashSample", String.valueOf(hashSampleBytes));
+            meta.setProperty("sidecarLength", String.valueOf(tmp.length()));
+            try (FileOutputStream out = new FileOutputStream(metaTmp)) {
+                meta.store(out, "rdfit HDT sidecar");
+            }
+            File metaFile = metaFile(sidecar);
+            Files.deleteIfExists(metaFile.toPath()); // sidecar is stale until meta is moved
+            move(tmp, sidecar);
+            move(metaTmp, metaFile);
+            ok = true;
+            logger.debug("{}: wrote sidecar {} for {}", this, sidecar, file);
+        } finally {
+            if (!ok) {
+                Files.deleteIfExists(tmp.toPath());
+                Files.deleteIfExists(metaTmp.toPath());
+            }
+        }
+    }
+
+    private boolean isFresh(@Nonnull File file, @Nonnull File sidecar) throws IOException {
+        File metaFile = metaFile(sidecar);
+        if (!sidecar.isFile() || !metaFile.isFile())
+            return false;
+        Properties meta = new Properties();
+        try (FileInputStream in = new FileInputStream(metaFile)) {
+            meta.load(in);
+        }
+        if (!file.getPath().equals(meta.getProperty("path"))
+                || !String.valueOf(file.length()).equals(meta.getProperty("length"))
+                || !String.valueOf(file.lastModified()).equals(meta.getProperty("lastModified"))
+                || !String.valueOf(sidecar.length()).equals(meta.getProperty("sidecarLength"))
+                || !String.valueOf(hashSampleBytes).equals(meta.getProperty("hashSample"))) {
+            return false;
+        }
+        return hash(file).equals(meta.getProperty("hash"));
+    }
+
+    private @Nonnull String hash(@Nonnull File file) throws IOException {
+        MessageDigest md = sha256();
+        long length = file.length();
+        md.update(String.valueOf(length).getBytes(StandardCharsets.UTF_8));
+        byte[] buffer = new byte[8192];
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            if (hashSampleBytes <= 0 || length <= 2L*hashSampleBytes) {
+                update(md, raf, 0, length, buffer);
+            } else {
+                update(md, raf, 0, hashSampleBytes, buffer);
+                update(md, raf, length - hashSampleBytes, hashSampleBytes, buffer);
+            }
+        }
+        return toHex(md.digest());
+    }
+
+    private static void update(@Nonnull MessageDigest md, @Nonnull RandomAccessFile raf,
+                               long offset, long length,
+                               @Nonnull byte[] buffer) throws IOException {
+        raf.seek(offset);
+        while (length > 0) {
+            int n = raf.read(buffer, 0, (int) Math.min(buffer.length, length));
+            if (n < 0)
+                throw new EOFException("File shrank while hashing");
+            md.update(buffer, 0, n);
+            length -= n;
+        }
+    }
+
+    private static void move(@Nonnull File from, @Nonnull File to) throws IOException {
+        Path src = from.toPath(), dst = to.toPath();
+        try {
+            Files.move(src, dst, ATOMIC_MOVE, REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(src, dst, REPLACE_EXISTING);
+        }
+    }
+
+    private static @Nonnull File metaFile(@Nonnull File sidecar) {
+        return new File(sidecar.getPath() + META_SUFFIX);
+    }
+
+    private static @Nonnull File canonical(@Nonnull File file) {
+        try {
+            return file.getCanonicalFile();
+        } catch (IOException e) {
+            return file.getAbsoluteFile();
+        }
+    }
+
+    private static @Nonnull MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("SHA-256 is required by the JVM spec", e);
+        }
+    }
+
+    private static @Nonnull byte[] sha256(@Nonnull byte[] data) {
+        return sha256().digest(data);
+    }
+
+    private static @Nonnull String toHex(@Nonnull byte[] data) {
+        StringBuilder b = new StringBuilder(data.length*2);
+        for (byte value : data)
+            b.append(format("%02x", value & 0xff));
+        return b.toString();
+    }
+
+    static class SidecarFeeder extends HDTDiskFeeder {
+        private volatile boolean failed;
+
+        public SidecarFeeder(@Nonnull DiskHDTWriter.Builder builder) throws IOException {
+            super(builder);
+        }
+
+        public boolean isFailed() {
+            return failed;
+        }
+
+        @Override public boolean notifySourceError(@Nonnull RDFItException e) {
+            failed = true;
+            return super.notifySourceError(e);
+        }
+
+        @Override public boolean notifyParseError(@Nonnull String message) {
+            failed = true; // the sidecar would silently lack the skipped triples
+            return super.notifyParseError(message);
+        }
+
+        @Override public boolean notifyInconvertibleTriple(@Nonnull InconvertibleException e) {
+            failed = true;
+            return super.notifyInconvertibleTriple(e);
+        }
+    }
+
+    @Override public @Nonnull String toString() {
+        return format("%s{cacheDir=%s}", Utils.toString(this), cacheDir);
+    }
+}
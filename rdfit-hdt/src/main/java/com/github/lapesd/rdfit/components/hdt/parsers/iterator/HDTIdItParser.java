@@ -0,0 +1,70 @@
+/*
+ *    Copyright 2021 Alexis Armin Huf
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.github.lapesd.rdfit.components.hdt.parsers.iterator;
+
+import com.github.lapesd.rdfit.components.hdt.HDTTermDecoder;
+import com.github.lapesd.rdfit.components.hdt.HDTTripleID;
+import com.github.lapesd.rdfit.errors.RDFItException;
+import com.github.lapesd.rdfit.iterator.RDFIt;
+import org.rdfhdt.hdt.hdt.HDT;
+import org.rdfhdt.hdt.triples.TripleID;
+
+import javax.annotation.Nonnull;
+import java.util.Iterator;
+
+/**
+ * An {@link com.github.lapesd.rdfit.components.ItParser} over {@link HDT} objects that
+ * iterates dictionary IDs, yielding {@link HDTTripleID}s.
+ *
+ * This parser is selected when {@link HDTTripleID} is requested as the triple class.
+ * Terms are decoded only when accessed or when the {@link HDTTripleID} is converted, which
+ * must happen before the {@link RDFIt} is closed (see {@link HDTTripleID}).
+ * {@link com.github.lapesd.rdfit.components.hdt.HDTRange}s and
+ * {@link com.github.lapesd.rdfit.source.PatternSource}s are also accepted.
+ */
+public class HDTIdItParser extends HDTItParser {
+    /**
+     * Default constructor
+     */
+    public HDTIdItParser() {
+        super(HDTTripleID.class);
+    }
+
+    @Override public @Nonnull <T> RDFIt<T> parse(@Nonnull Object source) {
+        LoadedHDT loaded = loadHDT(source);
+        HDT hdt = loaded.getHDT();
+        HDTTermDecoder decoder;
+        Iterator<TripleID> ids;
+        try {
+            decoder = new HDTTermDecoder(hdt.getDictionary());
+            ids = searchIDs(source, hdt);
+        } catch (RuntimeException e) {
+            loaded.close();
+            throw new RDFItException(source, "Unexpected exception iterating "+source, e);
+        }
+        Iterator<HDTTripleID> it = new Iterator<HDTTripleID>() {
+            @Override public boolean hasNext() {
+                return ids.hasNext();
+            }
+
+            @Override public HDTTripleID next() {
+                return new HDTTripleID(ids.next(), decoder); // TripleID instance is reused
+            }
+        };
+        return new LoadedHDTRDFIt<>(HDTTripleID.class, it, source, loaded, decoder);
+    }
+}
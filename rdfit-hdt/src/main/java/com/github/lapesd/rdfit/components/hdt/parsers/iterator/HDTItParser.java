@@ -16,48 +16,89 @@
 
 package com.github.lapesd.rdfit.components.hdt.parsers.iterator;
 
+import com.github.lapesd.rdfit.components.hdt.HDTFileCache;
+import com.github.lapesd.rdfit.components.hdt.HDTRange;
+import com.github.lapesd.rdfit.components.hdt.HDTTermDecoder;
+import com.github.lapesd.rdfit.components.hdt.HDTTripleID;
 import com.github.lapesd.rdfit.components.parsers.BaseItParser;
 import com.github.lapesd.rdfit.errors.RDFItException;
 import com.github.lapesd.rdfit.iterator.IterationElement;
 import com.github.lapesd.rdfit.iterator.PlainRDFIt;
 import com.github.lapesd.rdfit.iterator.RDFIt;
+import com.github.lapesd.rdfit.source.PatternSource;
+import com.github.lapesd.rdfit.source.RDFFile;
 import com.github.lapesd.rdfit.source.RDFInputStream;
 import com.github.lapesd.rdfit.source.syntax.RDFLangs;
+import org.apache.jena.datatypes.xsd.XSDDatatype;
+import org.apache.jena.graph.Node;
+import org.apache.jena.rdf.model.RDFNode;
+import org.rdfhdt.hdt.dictionary.Dictionary;
+import org.rdfhdt.hdt.enums.TripleComponentRole;
 import org.rdfhdt.hdt.exceptions.NotFoundException;
 import org.rdfhdt.hdt.hdt.HDT;
 import org.rdfhdt.hdt.hdt.HDTManager;
-import org.rdfhdt.hdt.triples.IteratorTripleString;
+import org.rdfhdt.hdt.triples.IteratorTripleID;
+import org.rdfhdt.hdt.triples.TripleID;
 import org.rdfhdt.hdt.triples.TripleString;
+import org.rdfhdt.hdt.triples.Triples;
+import org.rdfhdt.hdt.triples.impl.BitmapTriples;
+import org.rdfhdt.hdt.triples.impl.BitmapTriplesIterator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.File;
 import java.io.IOException;
-import java.util.HashSet;
-import java.util.Set;
+import java.util.*;
 
+import static com.github.lapesd.rdfit.components.hdt.converters.HDTConverters.Triple2TripleString.toHDTString;
 import static java.util.Arrays.asList;
 import static java.util.Collections.unmodifiableSet;
 
 /**
  * An {@link com.github.lapesd.rdfit.components.ItParser} over {@link HDT} objects.
+ *
+ * {@link HDTRange}s (see {@link com.github.lapesd.rdfit.components.hdt.HDTRangeSplitter})
+ * are also accepted, yielding only the triples in the range.
+ *
+ * {@link PatternSource}s without graph over an HDT source are evaluated with
+ * {@link Triples#search(TripleID)}. Pattern terms may be {@link String}s (IRIs), Jena
+ * {@link Node}s or {@link RDFNode}s.
  */
 public class HDTItParser extends BaseItParser {
     private static final Logger logger = LoggerFactory.getLogger(HDTItParser.class);
+    private static final @Nonnull String XSD_STRING_SUFFIX
+            = "\"^^<"+XSDDatatype.XSDstring.getURI()+">";
+    private static final @Nonnull TripleComponentRole[] ROLES = {
+            TripleComponentRole.SUBJECT, TripleComponentRole.PREDICATE, TripleComponentRole.OBJECT
+    };
     private static final @Nonnull Set<Class<?>> CLASSES = unmodifiableSet(new HashSet<>(asList(
-            RDFInputStream.class, HDT.class
+            RDFInputStream.class, HDT.class, HDTRange.class, PatternSource.class
     )));
 
     /**
      * Default constructor
      */
     public HDTItParser() {
-        super(CLASSES, TripleString.class, IterationElement.TRIPLE);
+        this(TripleString.class);
+    }
+
+    protected HDTItParser(@Nonnull Class<?> valueClass) {
+        super(CLASSES, valueClass, IterationElement.TRIPLE);
     }
 
     @Override public boolean canParse(@Nonnull Object source) {
         if (!super.canParse(source)) return false;
 
+        if (source instanceof PatternSource) {
+            PatternSource pattern = (PatternSource) source;
+            Object inner = pattern.getSource();
+            return pattern.getGraph() == null && toHDTStrings(pattern) != null
+                    && !(inner instanceof PatternSource) && !(inner instanceof HDTRange)
+                    && canParse(inner);
+        }
+
         if (source instanceof RDFInputStream) {
             try {
                 return RDFLangs.HDT.equals(((RDFInputStream)source).getOrDetectLang());
@@ -66,29 +107,263 @@ public class HDTItParser extends BaseItParser {
                 return true;
             }
         }
-        return source instanceof HDT;
+        return source instanceof HDT || source instanceof HDTRange;
     }
 
-    @Override public @Nonnull <T> RDFIt<T> parse(@Nonnull Object source) {
-        HDT hdt;
+    /**
+     * Convert the terms of a {@link PatternSource} into their {@link TripleString}
+     * representation.
+     *
+     * @param pattern the pattern
+     * @return array with subject, predicate and object (null for wildcards) or null if
+     *         some term is not understood.
+     */
+    protected static @Nullable String[] toHDTStrings(@Nonnull PatternSource pattern) {
+        Object[] terms = {pattern.getSubject(), pattern.getPredicate(), pattern.getObject()};
+        String[] strings = new String[terms.length];
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < terms.length; i++) {
+            Object term = terms[i];
+            if (term instanceof RDFNode)
+                term = ((RDFNode) term).asNode();
+            if (term == null || (term instanceof Node && !((Node) term).isConcrete()))
+                continue; // wildcard
+            if (term instanceof String)
+                strings[i] = (String) term;
+            else if (term instanceof Node)
+                strings[i] = toHDTString(builder, (Node) term);
+            if (strings[i] == null)
+                return null;
+        }
+        return strings;
+    }
+
+    /**
+     * Get the dictionary ID of a term in {@link TripleString} representation.
+     *
+     * Literals typed as <code>xsd:string</code> are also looked up as plain literals,
+     * since HDT files generated by other tools may use either form.
+     *
+     * @return the ID or a value &lt;= 0 if the term is not in the dictionary
+     */
+    private static long toId(@Nonnull Dictionary dictionary, @Nonnull String string,
+                             @Nonnull TripleComponentRole role) {
+        long id = dictionary.stringToId(string, role);
+        if (id <= 0 && string.endsWith(XSD_STRING_SUFFIX)) {
+            String plain = string.substring(0, string.length() - XSD_STRING_SUFFIX.length() + 1);
+            id = dictionary.stringToId(plain, role);
+        }
+        return id;
+    }
+
+    /**
+     * An {@link HDT} obtained by {@link #loadHDT(Object)}, which must be closed once the
+     * {@link HDT} is no longer in use.
+     */
+    protected static class LoadedHDT implements AutoCloseable {
+        private final @Nonnull HDT hdt;
+        private final @Nullable AutoCloseable release;
+
+        public LoadedHDT(@Nonnull HDT hdt, @Nullable AutoCloseable release) {
+            this.hdt = hdt;
+            this.release = release;
+        }
+
+        public @Nonnull HDT getHDT() {
+            return hdt;
+        }
+
+        @Override public void close() {
+            if (release == null)
+                return;
+            try {
+                release.close();
+            } catch (Exception e) {
+                logger.error("Failed to release HDT {}", hdt, e);
+            }
+        }
+    }
+
+    /**
+     * An {@link RDFIt} that closes a {@link LoadedHDT} (and the {@link HDTTermDecoder}
+     * over its dictionary, if any) when closed.
+     */
+    protected static class LoadedHDTRDFIt<T> extends PlainRDFIt<T> {
+        private final @Nonnull LoadedHDT loaded;
+        private final @Nullable HDTTermDecoder decoder;
+
+        public LoadedHDTRDFIt(@Nonnull Class<?> valueClass, @Nonnull Iterator<?> iterator,
+                              @Nonnull Object source, @Nonnull LoadedHDT loaded,
+                              @Nullable HDTTermDecoder decoder) {
+            super(valueClass, IterationElement.TRIPLE, iterator, source);
+            this.loaded = loaded;
+            this.decoder = decoder;
+        }
+
+        public LoadedHDTRDFIt(@Nonnull Class<?> valueClass, @Nonnull Iterator<?> iterator,
+                              @Nonnull Object source, @Nonnull LoadedHDT loaded) {
+            this(valueClass, iterator, source, loaded, null);
+        }
+
+        @Override public void close() {
+            boolean first = !closed;
+            try {
+                super.close();
+            } finally {
+                if (first) {
+                    if (decoder != null)
+                        decoder.close();
+                    loaded.close();
+                }
+            }
+        }
+    }
+
+    /**
+     * Get the {@link HDT} for a source accepted by {@link #canParse(Object)}.
+     *
+     * {@link RDFFile}s that contain an uncompressed HDT are memory-mapped and shared
+     * through {@link HDTFileCache#INSTANCE}. Other {@link RDFInputStream}s are loaded into
+     * memory. {@link HDT} sources are used as-is and are not closed. {@link HDTRange}s
+     * get the {@link HDT} of their file or object. {@link PatternSource}s get the {@link HDT}
+     * of their inner source.
+     *
+     * @param source the source
+     * @return the {@link LoadedHDT}, to be closed once iteration finishes
+     * @throws RDFItException if the source could not be read
+     */
+    protected @Nonnull LoadedHDT loadHDT(@Nonnull Object source) {
+        if (source instanceof PatternSource)
+            return loadHDT(((PatternSource) source).getSource());
+        if (source instanceof HDTRange) {
+            HDTRange range = (HDTRange) source;
+            File file = range.getFile();
+            if (file == null)
+                return new LoadedHDT(Objects.requireNonNull(range.getHDT()), null);
+            try {
+                HDTFileCache.Handle handle = HDTFileCache.INSTANCE.acquire(file);
+                return new LoadedHDT(handle.getHDT(), handle);
+            } catch (Throwable t) {
+                throw new RDFItException(source, "Problem mapping HDT file " + file, t);
+            }
+        }
+        if (source instanceof RDFFile) {
+            RDFFile rdfFile = (RDFFile) source;
+            File file = rdfFile.getFile();
+            if (!rdfFile.getDeleteOnClose() && HDTFileCache.isHDTFile(file)) {
+                rdfFile.close(); // may have been opened to detect the syntax
+                try {
+                    HDTFileCache.Handle handle = HDTFileCache.INSTANCE.acquire(file);
+                    return new LoadedHDT(handle.getHDT(), handle);
+                } catch (Throwable t) {
+                    throw new RDFItException(source, "Problem mapping HDT file " + file, t);
+                }
+            }
+        }
         if (source instanceof RDFInputStream) {
+            HDT hdt;
             try (RDFInputStream ris = (RDFInputStream) source) {
                 hdt = HDTManager.loadHDT(ris.getBufferedInputStream());
             } catch (Throwable t) {
                 throw new RDFItException(source, "Problem reading input " + source, t);
             }
+            return new LoadedHDT(hdt, hdt);
         } else if (source instanceof HDT) {
-            hdt = (HDT) source;
+            return new LoadedHDT((HDT) source, null);
         } else {
             throw new IllegalArgumentException("parse() called with unsupported source type");
         }
+    }
 
-        IteratorTripleString it;
+    /**
+     * Get an iterator over the IDs of all triples in source, or only those in the
+     * {@link HDTRange} if source is a range, or only those matching the pattern if
+     * source is a {@link PatternSource}.
+     *
+     * @param source the source given to {@link #loadHDT(Object)}
+     * @param hdt the {@link HDT} loaded for source
+     * @return a new {@link Iterator}, whose {@link TripleID} instances may be reused
+     *         between next() calls.
+     * @throws RDFItException if the range is not within the triples of hdt or if the pattern
+     *                        cannot be evaluated by HDT
+     */
+    protected static @Nonnull Iterator<TripleID> searchIDs(@Nonnull Object source,
+                                                           @Nonnull HDT hdt) {
+        Triples triples = hdt.getTriples();
+        if (source instanceof PatternSource) {
+            PatternSource pattern = (PatternSource) source;
+            String[] strings = toHDTStrings(pattern);
+            if (strings == null || pattern.getGraph() != null)
+                throw new RDFItException(source, "Pattern cannot be evaluated over HDT");
+            Dictionary dictionary = hdt.getDictionary();
+            long[] ids = new long[strings.length];
+            for (int i = 0; i < strings.length; i++) {
+                if (strings[i] == null)
+                    continue; // wildcard
+                if ((ids[i] = toId(dictionary, strings[i], ROLES[i])) <= 0)
+                    return Collections.emptyIterator(); // term not in HDT, no triple matches
+            }
+            return triples.search(new TripleID(ids[0], ids[1], ids[2]));
+        }
+        if (!(source instanceof HDTRange))
+            return triples.searchAll();
+        HDTRange range = (HDTRange) source;
+        long begin = range.getBegin(), end = range.getEnd();
+        if (end > triples.getNumberOfElements()) {
+            throw new RDFItException(source, "Range beyond the "+triples.getNumberOfElements()
+                                             +" triples of the HDT. Was the file replaced?");
+        }
+        if (begin == end)
+            return Collections.emptyIterator();
+        if (triples instanceof BitmapTriples)
+            return new BitmapTriplesIterator((BitmapTriples) triples, begin, end);
+        IteratorTripleID it = triples.searchAll();
+        if (it.canGoTo()) {
+            it.goTo(begin);
+        } else {
+            for (long i = 0; i < begin && it.hasNext(); i++)
+                it.next();
+        }
+        return new Iterator<TripleID>() {
+            private long remaining = end - begin;
+
+            @Override public boolean hasNext() {
+                return remaining > 0 && it.hasNext();
+            }
+
+            @Override public TripleID next() {
+                if (!hasNext())
+                    throw new NoSuchElementException();
+                --remaining;
+                return it.next();
+            }
+        };
+    }
+
+    @Override public @Nonnull <T> RDFIt<T> parse(@Nonnull Object source) {
+        LoadedHDT loaded = loadHDT(source);
+        Iterator<?> it;
         try {
-            it = hdt.search(null, null, null);
-        } catch (NotFoundException e) {
+            if (source instanceof HDTRange || source instanceof PatternSource) {
+                HDT hdt = loaded.getHDT();
+                HDTTermDecoder decoder = new HDTTermDecoder(hdt.getDictionary());
+                Iterator<TripleID> ids = searchIDs(source, hdt);
+                it = new Iterator<TripleString>() {
+                    @Override public boolean hasNext() {
+                        return ids.hasNext();
+                    }
+
+                    @Override public TripleString next() {
+                        return new HDTTripleID(ids.next(), decoder).toTripleString();
+                    }
+                };
+            } else {
+                it = loaded.getHDT().search(null, null, null);
+            }
+        } catch (NotFoundException|RuntimeException e) {
+            loaded.close();
             throw new RDFItException(source, "Unexpected exception  search()ing "+source, e);
         }
-        return new PlainRDFIt<>(TripleString.class, IterationElement.TRIPLE, it, source);
+        return new LoadedHDTRDFIt<>(TripleString.class, it, source, loaded);
     }
 }
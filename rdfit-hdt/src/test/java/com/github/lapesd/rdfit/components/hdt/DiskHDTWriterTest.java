@@ -0,0 +1,177 @@
+/*
+ *    Copyright 2021 Alexis Armin Huf
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.github.lapesd.rdfit.components.hdt;
+
+import org.rdfhdt.hdt.hdt.HDT;
+import org.rdfhdt.hdt.hdt.HDTManager;
+import org.rdfhdt.hdt.options.HDTSpecification;
+import org.rdfhdt.hdt.triples.IteratorTripleString;
+import org.rdfhdt.hdt.triples.TripleString;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import javax.annotation.Nonnull;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static java.util.Arrays.asList;
+import static org.testng.Assert.*;
+
+public class DiskHDTWriterTest {
+    private static final String EX = "http://example.org/";
+    private File dir;
+
+    @BeforeMethod
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("rdfit-hdt").toFile();
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        File[] files = dir.listFiles();
+        if (files != null) {
+            for (File file : files)
+                assertTrue(file.delete(), "Failed to delete "+file);
+        }
+        assertTrue(dir.delete());
+    }
+
+    private static @Nonnull List<TripleString> createTriples(int count) {
+        List<TripleString> list = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            String s = (i % 7 == 0 ? "_:b" : EX+"s/") + (i % 97);
+            String o = i % 3 == 0 ? "\"lit "+i+"\"" : EX+"s/"+(i % 89);
+            list.add(new TripleString(s, EX+"p/"+(i % 5), o));
+        }
+        return list;
+    }
+
+    private static @Nonnull Set<List<String>> toSet(@Nonnull Iterator<TripleString> it) {
+        Set<List<String>> set = new HashSet<>();
+        while (it.hasNext()) {
+            TripleString t = it.next();
+            set.add(asList(t.getSubject().toString(), t.getPredicate().toString(),
+                           t.getObject().toString()));
+        }
+        return set;
+    }
+
+    private static @Nonnull File[] indexFiles(@Nonnull File hdtFile) {
+        File[] files = hdtFile.getParentFile().listFiles(
+                (d, n) -> n.startsWith(hdtFile.getName() + ".index"));
+        return files == null ? new File[0] : files;
+    }
+
+    @DataProvider public Object[][] writeData() {
+        return Stream.of(
+                asList(0, 1, 1 << 20, false),
+                asList(1, 1, 1 << 20, false),
+                asList(10, 1, 1 << 20, true),
+                asList(2000, 1, 1 << 20, false),
+                asList(2000, 1, 160 << 10, false),
+                asList(2000, 3, 480 << 10, false),
+                asList(2000, 4, 640 << 10, true),
+                asList(3000, 2, 256 << 10, true)
+        ).map(List::toArray).toArray(Object[][]::new);
+    }
+
+    @Test(dataProvider = "writeData")
+    public void testWrite(int count, int threads, int memoryBudget,
+                          boolean createIndex) throws Exception {
+        File file = new File(dir, "out.hdt");
+        List<TripleString> triples = createTriples(count);
+        AtomicInteger progressCalls = new AtomicInteger();
+        DiskHDTWriter.Builder builder = DiskHDTWriter.builder(file).tempDir(dir)
+                .threads(threads).memoryBudget(memoryBudget).createIndex(createIndex)
+                .progress((level, message) -> progressCalls.incrementAndGet());
+        try (DiskHDTWriter writer = builder.build()) {
+            for (TripleString t : triples)
+                writer.addTriple(t);
+            for (TripleString t : triples.subList(0, Math.min(10, count)))
+                writer.addTriple(t); // duplicates must be removed
+        }
+        assertTrue(file.exists());
+        assertEquals(indexFiles(file).length, createIndex ? 1 : 0);
+        assertEquals(new HashSet<>(asList(Objects.requireNonNull(dir.list()))),
+                     createIndex ? new HashSet<>(asList("out.hdt", "out.hdt.index.v1-1"))
+                                 : Collections.singleton("out.hdt"));
+        if (count > 0)
+            assertTrue(progressCalls.get() > 0);
+
+        Set<List<String>> expected = toSet(triples.iterator());
+        try (HDT hdt = HDTManager.mapHDT(file.getAbsolutePath())) {
+            IteratorTripleString it = hdt.search("", "", "");
+            assertEquals(toSet(it), expected);
+            assertEquals(hdt.getTriples().getNumberOfElements(), expected.size());
+        }
+    }
+
+    @Test
+    public void testSameAsInMemory() throws Exception {
+        File file = new File(dir, "out.hdt");
+        List<TripleString> triples = createTriples(3000);
+        try (DiskHDTWriter writer = DiskHDTWriter.builder(file).tempDir(dir)
+                .threads(2).memoryBudget(256 << 10).build()) {
+            for (TripleString t : triples)
+                writer.addTriple(t);
+        }
+        try (HDT disk = HDTManager.mapHDT(file.getAbsolutePath());
+             HDT mem = HDTManager.generateHDT(triples.iterator(), "file:mem",
+                                              new HDTSpecification(), (l, m) -> {})) {
+            assertEquals(disk.getDictionary().getNumberOfElements(),
+                         mem.getDictionary().getNumberOfElements());
+            assertEquals(disk.getDictionary().getNshared(), mem.getDictionary().getNshared());
+            assertEquals(toSet(disk.search("", "", "")), toSet(mem.search("", "", "")));
+        }
+    }
+
+    @Test
+    public void testTripleStringsAreCopied() throws Exception {
+        File file = new File(dir, "out.hdt");
+        TripleString reused = new TripleString();
+        StringBuilder object = new StringBuilder();
+        try (DiskHDTWriter writer = DiskHDTWriter.builder(file).tempDir(dir).build()) {
+            for (int i = 0; i < 3; i++) {
+                object.setLength(0);
+                object.append(EX).append("o/").append(i);
+                reused.setAll(EX+"s", EX+"p", object);
+                writer.addTriple(reused);
+            }
+        }
+        try (HDT hdt = HDTManager.mapHDT(file.getAbsolutePath())) {
+            assertEquals(hdt.getTriples().getNumberOfElements(), 3);
+        }
+    }
+
+    @Test
+    public void testAddAfterClose() throws Exception {
+        File file = new File(dir, "out.hdt");
+        DiskHDTWriter writer = DiskHDTWriter.builder(file).tempDir(dir).build();
+        writer.addTriple(new TripleString(EX+"s", EX+"p", EX+"o"));
+        writer.close();
+        writer.close(); // no-op
+        expectThrows(IllegalStateException.class,
+                     () -> writer.addTriple(new TripleString(EX+"s", EX+"p", EX+"o2")));
+        assertEquals(writer.getTriples(), 1);
+    }
+}
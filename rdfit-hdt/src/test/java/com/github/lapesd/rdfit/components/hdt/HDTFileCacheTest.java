@@ -0,0 +1,210 @@
+/*
+ *    Copyright 2021 Alexis Armin Huf
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.github.lapesd.rdfit.components.hdt;
+
+import com.github.lapesd.rdfit.components.converters.impl.DefaultConversionManager;
+import com.github.lapesd.rdfit.components.normalizers.CoreSourceNormalizers;
+import com.github.lapesd.rdfit.components.normalizers.DefaultSourceNormalizerRegistry;
+import com.github.lapesd.rdfit.components.parsers.DefaultParserRegistry;
+import com.github.lapesd.rdfit.impl.DefaultRDFItFactory;
+import com.github.lapesd.rdfit.iterator.RDFIt;
+import org.rdfhdt.hdt.hdt.HDT;
+import org.rdfhdt.hdt.hdt.HDTManager;
+import org.rdfhdt.hdt.options.HDTSpecification;
+import org.rdfhdt.hdt.triples.TripleString;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import javax.annotation.Nonnull;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Arrays.asList;
+import static org.testng.Assert.*;
+
+public class HDTFileCacheTest {
+    private static final String EX = "http://example.org/";
+    private final List<File> tempFiles = new ArrayList<>();
+    private HDTFileCache cache;
+
+    @BeforeMethod public void setUp() {
+        cache = new HDTFileCache();
+    }
+
+    @AfterMethod public void tearDown() {
+        cache.closeIdle();
+        for (File file : tempFiles)
+            assertTrue(!file.exists() || file.delete());
+        tempFiles.clear();
+    }
+
+    private @Nonnull File createHDT(@Nonnull TripleString... triples) throws Exception {
+        File file = Files.createTempFile("rdfit", ".hdt").toFile();
+        tempFiles.add(file);
+        try (HDT hdt = HDTManager.generateHDT(asList(triples).iterator(), EX,
+                                             new HDTSpecification(), (level, message) -> {})) {
+            hdt.saveToHDT(file.getAbsolutePath(), null);
+        }
+        return file;
+    }
+
+    @Test public void testIsHDTFile() throws Exception {
+        File hdt = createHDT(new TripleString(EX+"s", EX+"p", EX+"o"));
+        File nt = Files.createTempFile("rdfit", ".nt").toFile();
+        tempFiles.add(nt);
+        try (FileOutputStream out = new FileOutputStream(nt)) {
+            out.write(("<"+EX+"s> <"+EX+"p> <"+EX+"o> .\n").getBytes(UTF_8));
+        }
+        assertTrue(HDTFileCache.isHDTFile(hdt));
+        assertFalse(HDTFileCache.isHDTFile(nt));
+        assertFalse(HDTFileCache.isHDTFile(new File(nt.getPath()+".missing")));
+    }
+
+    @Test public void testShareAndRelease() throws Exception {
+        File file = createHDT(new TripleString(EX+"s", EX+"p", EX+"o"));
+        HDTFileCache.Handle h1 = cache.acquire(file);
+        HDTFileCache.Handle h2 = cache.acquire(file);
+        assertSame(h2.getHDT(), h1.getHDT());
+        assertEquals(h1.getHDT().getTriples().getNumberOfElements(), 1);
+        assertEquals(cache.size(), 1);
+
+        h1.close();
+        h1.close(); // no effect
+        h2.close();
+        assertEquals(cache.size(), 1); // idle, but still mapped
+
+        HDTFileCache.Handle h3 = cache.acquire(file);
+        assertSame(h3.getHDT(), h2.getHDT());
+        h3.close();
+        cache.closeIdle();
+        assertEquals(cache.size(), 0);
+    }
+
+    @Test public void testMaxIdle() throws Exception {
+        cache.setMaxIdle(1);
+        File f1 = createHDT(new TripleString(EX+"s1", EX+"p", EX+"o"));
+        File f2 = createHDT(new TripleString(EX+"s2", EX+"p", EX+"o"));
+        cache.acquire(f1).close();
+        cache.acquire(f2).close();
+        assertEquals(cache.size(), 1);
+        cache.setMaxIdle(0);
+        assertEquals(cache.size(), 0);
+    }
+
+    @Test public void testReplacedFile() throws Exception {
+        File file = createHDT(new TripleString(EX+"s", EX+"p", EX+"o"));
+        HDTFileCache.Handle old = cache.acquire(file);
+        File replacement = createHDT(new TripleString(EX+"s", EX+"p", EX+"o1"),
+                                     new TripleString(EX+"s", EX+"p", EX+"o2"));
+        Files.copy(replacement.toPath(), file.toPath(),
+                   StandardCopyOption.REPLACE_EXISTING);
+        assertTrue(file.setLastModified(file.lastModified() + 2000));
+
+        try (HDTFileCache.Handle fresh = cache.acquire(file)) {
+            assertNotSame(fresh.getHDT(), old.getHDT());
+            assertEquals(fresh.getHDT().getTriples().getNumberOfElements(), 2);
+            assertEquals(cache.size(), 2);
+            old.close(); // stale: closed immediately
+            assertEquals(cache.size(), 1);
+        }
+    }
+
+    @Test public void testMapOutsideLock() throws Exception {
+        File slow = createHDT(new TripleString(EX+"s1", EX+"p", EX+"o"));
+        File fast = createHDT(new TripleString(EX+"s2", EX+"p", EX+"o"));
+        String slowPath = slow.getCanonicalPath();
+        CountDownLatch mapping = new CountDownLatch(1), proceed = new CountDownLatch(1);
+        cache = new HDTFileCache() {
+            @Override protected @Nonnull HDT map(@Nonnull String path) throws IOException {
+                if (path.equals(slowPath)) {
+                    mapping.countDown();
+                    try {
+                        assertTrue(proceed.await(10, TimeUnit.SECONDS));
+                    } catch (InterruptedException e) {
+                        throw new InterruptedIOException();
+                    }
+                }
+                return super.map(path);
+            }
+        };
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<HDTFileCache.Handle> first = executor.submit(() -> cache.acquire(slow));
+            assertTrue(mapping.await(10, TimeUnit.SECONDS));
+            Future<HDTFileCache.Handle> second = executor.submit(() -> cache.acquire(slow));
+
+            // other files can be acquired and released while slow is being mapped
+            cache.acquire(fast).close();
+            assertEquals(cache.size(), 2);
+            assertFalse(first.isDone());
+            assertFalse(second.isDone());
+
+            proceed.countDown();
+            try (HDTFileCache.Handle h1 = first.get(10, TimeUnit.SECONDS);
+                 HDTFileCache.Handle h2 = second.get(10, TimeUnit.SECONDS)) {
+                assertSame(h1.getHDT(), h2.getHDT());
+                assertEquals(h1.getHDT().getTriples().getNumberOfElements(), 1);
+            }
+        } finally {
+            proceed.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test public void testMapFailure() throws Exception {
+        File nt = Files.createTempFile("rdfit", ".nt").toFile();
+        tempFiles.add(nt);
+        Files.write(nt.toPath(), ("<"+EX+"s> <"+EX+"p> <"+EX+"o>.\n").getBytes(UTF_8));
+        for (int i = 0; i < 2; i++) {
+            expectThrows(IOException.class, () -> cache.acquire(nt));
+            assertEquals(cache.size(), 0);
+        }
+    }
+
+    @Test public void testConcurrentIteratorsShareMapping() throws Exception {
+        File file = createHDT(new TripleString(EX+"s", EX+"p", EX+"o1"),
+                              new TripleString(EX+"s", EX+"p", EX+"o2"));
+        DefaultRDFItFactory factory = new DefaultRDFItFactory(new DefaultParserRegistry(),
+                new DefaultConversionManager(), new DefaultSourceNormalizerRegistry());
+        CoreSourceNormalizers.registerAll(factory);
+        HDTParsers.registerAll(factory);
+        int before = HDTFileCache.INSTANCE.size();
+        try (RDFIt<TripleString> a = factory.iterateTriples(TripleString.class, file);
+             RDFIt<TripleString> b = factory.iterateTriples(TripleString.class, file)) {
+            assertTrue(a.hasNext());
+            assertTrue(b.hasNext());
+            assertEquals(HDTFileCache.INSTANCE.size(), before+1);
+            int count = 0;
+            while (a.hasNext() && b.hasNext()) {
+                assertEquals(a.next().toString(), b.next().toString());
+                ++count;
+            }
+            assertEquals(count, 2);
+        }
+        HDTFileCache.INSTANCE.closeIdle();
+        assertEquals(HDTFileCache.INSTANCE.size(), 0);
+    }
+}
@@ -18,6 +18,7 @@ package com.github.lapesd.rdfit.components.hdt;
 
 import com.github.lapesd.rdfit.RIt;
 import com.github.lapesd.rdfit.components.hdt.listeners.HDTBufferFeeder;
+import com.github.lapesd.rdfit.components.hdt.listeners.HDTDiskFeeder;
 import com.github.lapesd.rdfit.components.hdt.listeners.HDTFileFeeder;
 import com.github.lapesd.rdfit.iterator.IterationElement;
 import com.github.lapesd.rdfit.iterator.PlainRDFIt;
@@ -127,4 +128,35 @@ public class HDTHelpersTest {
         HDT hdt = HDTManager.loadHDT(new ByteArrayInputStream(listener.getBuffer()));
         checkHDT(hdt);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testWriteIteratorToFileOnDisk() throws IOException, NotFoundException {
+        File file = createFile();
+        DiskHDTWriter.Builder builder = DiskHDTWriter.builder(file).memoryBudget(1024)
+                                                     .threads(2);
+        assertSame(HDTHelpers.toHDTFile(builder, createIt()), file);
+        try (HDT hdt = HDTManager.mapHDT(file.getAbsolutePath())) {
+            checkHDT(hdt);
+        }
+    }
+
+    @Test
+    public void testWriteSourcesToMappedHDT() throws IOException, NotFoundException {
+        File file = createFile();
+        try (HDT hdt = HDTHelpers.toHDT(DiskHDTWriter.builder(file), TRIPLES)) {
+            checkHDT(hdt);
+        }
+    }
+
+    @Test
+    public void testListenToDiskFeeder() throws IOException, NotFoundException {
+        File file = createFile();
+        HDTDiskFeeder listener = HDTHelpers.diskFeeder(DiskHDTWriter.builder(file)
+                                                                    .memoryBudget(1024));
+        assertSame(listener.getFile(), file);
+        RIt.parse(listener, TRIPLES);
+        try (HDT hdt = HDTManager.mapHDT(file.getAbsolutePath())) {
+            checkHDT(hdt);
+        }
+    }
+}
@@ -0,0 +1,217 @@
+/*
+ *    Copyright 2021 Alexis Armin Huf
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.github.lapesd.rdfit.components.hdt;
+
+import com.github.lapesd.rdfit.components.converters.impl.DefaultConversionManager;
+import com.github.lapesd.rdfit.components.hdt.parsers.iterator.HDTIdItParser;
+import com.github.lapesd.rdfit.components.hdt.parsers.iterator.HDTItParser;
+import com.github.lapesd.rdfit.components.normalizers.CoreSourceNormalizers;
+import com.github.lapesd.rdfit.components.normalizers.DefaultSourceNormalizerRegistry;
+import com.github.lapesd.rdfit.components.parsers.DefaultParserRegistry;
+import com.github.lapesd.rdfit.errors.RDFItException;
+import com.github.lapesd.rdfit.impl.DefaultRDFItFactory;
+import com.github.lapesd.rdfit.iterator.ParallelFlatMapRDFIt;
+import com.github.lapesd.rdfit.iterator.RDFIt;
+import com.github.lapesd.rdfit.listener.TripleListenerBase;
+import com.github.lapesd.rdfit.source.RDFFile;
+import org.rdfhdt.hdt.hdt.HDT;
+import org.rdfhdt.hdt.hdt.HDTManager;
+import org.rdfhdt.hdt.options.HDTSpecification;
+import org.rdfhdt.hdt.triples.TripleString;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import javax.annotation.Nonnull;
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static java.util.stream.Collectors.toList;
+import static org.testng.Assert.*;
+
+public class HDTRangeSplitterTest {
+    private static final String EX = "http://example.org/";
+    private static final int TRIPLES = 1000;
+
+    private File file;
+    private List<String> expected;
+    private DefaultRDFItFactory factory;
+
+    @BeforeClass public void beforeClass() throws Exception {
+        List<TripleString> triples = new ArrayList<>();
+        for (int i = 0; i < TRIPLES; i++)
+            triples.add(new TripleString(EX+"s"+i/7, EX+"p"+i%3, "\""+i+"\""));
+        file = Files.createTempFile("rdfit", ".hdt").toFile();
+        try (HDT hdt = HDTManager.generateHDT(triples.iterator(), EX,
+                                             new HDTSpecification(), (level, message) -> {})) {
+            hdt.saveToHDT(file.getAbsolutePath(), null);
+        }
+        try (HDT hdt = HDTManager.loadHDT(file.getAbsolutePath())) {
+            expected = new ArrayList<>();
+            hdt.search(null, null, null).forEachRemaining(t -> expected.add(t.toString()));
+        }
+        assertEquals(expected.size(), TRIPLES);
+
+        factory = new DefaultRDFItFactory(new DefaultParserRegistry(),
+                new DefaultConversionManager(), new DefaultSourceNormalizerRegistry());
+        CoreSourceNormalizers.registerAll(factory);
+        HDTParsers.registerAll(factory);
+        factory.getNormalizerRegistry().unregisterSplitterIf(HDTRangeSplitter.class::isInstance);
+        factory.getNormalizerRegistry().registerSplitter(createSplitter(4, 100));
+    }
+
+    @AfterClass public void afterClass() {
+        factory.close();
+        HDTFileCache.INSTANCE.closeIdle();
+        assertTrue(file.delete());
+    }
+
+    private static @Nonnull HDTRangeSplitter createSplitter(int partitions, long minTriples) {
+        HDTRangeSplitter splitter = new HDTRangeSplitter();
+        splitter.setPartitions(partitions);
+        splitter.setMinTriples(minTriples);
+        return splitter;
+    }
+
+    @DataProvider public @Nonnull Object[][] boundariesData() {
+        return Stream.of(
+                asArray(4, 10, 100, new long[] {0, 25, 50, 75, 100}),
+                asArray(4, 10, 10, null),
+                asArray(4, 10, 19, null),
+                asArray(4, 10, 20, new long[] {0, 10, 20}),
+                asArray(3, 10, 100, new long[] {0, 33, 66, 100}),
+                asArray(1, 10, 100, null),
+                asArray(4, 1, 0, null)
+        ).toArray(Object[][]::new);
+    }
+
+    private static @Nonnull Object[] asArray(Object... args) {
+        return args;
+    }
+
+    @Test(dataProvider = "boundariesData")
+    public void testBoundaries(int partitions, long minTriples, long triples, long[] expected) {
+        HDTRangeSplitter splitter = createSplitter(partitions, minTriples);
+        assertEquals(splitter.boundaries(triples), expected);
+    }
+
+    private static @Nonnull List<String> parse(@Nonnull HDTItParser parser,
+                                               @Nonnull List<HDTRange> ranges) {
+        List<String> list = new ArrayList<>();
+        for (HDTRange range : ranges) {
+            assertTrue(parser.canParse(range));
+            try (RDFIt<Object> it = parser.parse(range)) {
+                while (it.hasNext()) {
+                    Object triple = it.next();
+                    list.add(triple instanceof HDTTripleID
+                             ? ((HDTTripleID) triple).toTripleString().toString()
+                             : triple.toString());
+                }
+            }
+        }
+        return list;
+    }
+
+    @Test public void testSplitFile() {
+        List<HDTRange> ranges = createSplitter(4, 100).split(new RDFFile(file), 1);
+        assertNotNull(ranges);
+        assertEquals(ranges.size(), 4);
+        assertEquals(ranges.get(0).getBegin(), 0);
+        for (int i = 1; i < ranges.size(); i++)
+            assertEquals(ranges.get(i).getBegin(), ranges.get(i-1).getEnd());
+        assertEquals(ranges.get(3).getEnd(), TRIPLES);
+        assertEquals(ranges.stream().mapToLong(HDTRange::size).sum(), TRIPLES);
+
+        assertEquals(parse(new HDTItParser(), ranges), expected);
+        assertEquals(parse(new HDTIdItParser(), ranges), expected);
+    }
+
+    @Test public void testSplitHDT() throws Exception {
+        try (HDT hdt = HDTManager.loadHDT(file.getAbsolutePath())) {
+            List<HDTRange> ranges = createSplitter(3, 100).split(hdt, 1);
+            assertNotNull(ranges);
+            assertEquals(ranges.size(), 3);
+            assertEquals(parse(new HDTItParser(), ranges), expected);
+        }
+    }
+
+    @Test public void testDoNotSplit() {
+        assertNull(createSplitter(4, TRIPLES).split(new RDFFile(file), 1));
+        assertNull(createSplitter(4, 100).split(new RDFFile(file, true), 1));
+    }
+
+    @Test public void testRangeBeyondHDT() {
+        HDTRange range = new HDTRange(file, 0, TRIPLES+1);
+        expectThrows(RDFItException.class, () -> new HDTItParser().parse(range));
+        assertEquals(parse(new HDTItParser(), singletonRange(TRIPLES, TRIPLES)),
+                     new ArrayList<String>());
+    }
+
+    private @Nonnull List<HDTRange> singletonRange(long begin, long end) {
+        List<HDTRange> list = new ArrayList<>();
+        list.add(new HDTRange(file, begin, end));
+        return list;
+    }
+
+    @Test public void testIterateParallel() {
+        for (ParallelFlatMapRDFIt.Merge merge : ParallelFlatMapRDFIt.Merge.values()) {
+            List<String> actual = new ArrayList<>();
+            try (RDFIt<TripleString> it = factory.iterateTriplesParallel(4, merge,
+                                                         TripleString.class, file)) {
+                it.forEachRemaining(t -> actual.add(t.toString()));
+            }
+            if (merge == ParallelFlatMapRDFIt.Merge.ORDERED) {
+                assertEquals(actual, expected);
+            } else {
+                assertEquals(actual.stream().sorted().collect(toList()),
+                             expected.stream().sorted().collect(toList()));
+            }
+        }
+    }
+
+    @Test public void testParallelStream() {
+        try (Stream<TripleString> stream = factory.streamTriples(TripleString.class, file)) {
+            List<String> actual = stream.parallel().map(TripleString::toString)
+                                        .collect(Collectors.toList());
+            assertEquals(actual, expected);
+        }
+    }
+
+    @Test public void testParseParallel() {
+        List<String> actual = new ArrayList<>();
+        factory.parseParallel(4, () -> new TripleListenerBase<TripleString>(TripleString.class) {
+            private final List<String> triples = new ArrayList<>();
+
+            @Override public void triple(@Nonnull TripleString triple) {
+                triples.add(triple.toString());
+            }
+
+            @Override public void finish() {
+                synchronized (actual) {
+                    actual.addAll(triples);
+                }
+            }
+        }, all -> assertEquals(all.size(), 4), file);
+        assertEquals(actual.stream().sorted().collect(toList()),
+                     expected.stream().sorted().collect(toList()));
+    }
+}
@@ -19,6 +19,8 @@ package com.github.lapesd.rdfit.components.hdt.converters;
 import com.github.lapesd.rdfit.components.converters.ConversionFinder;
 import com.github.lapesd.rdfit.components.converters.ConversionManager;
 import com.github.lapesd.rdfit.components.converters.impl.DefaultConversionManager;
+import com.github.lapesd.rdfit.components.hdt.HDTTermDecoder;
+import com.github.lapesd.rdfit.components.hdt.HDTTripleID;
 import com.github.lapesd.rdfit.errors.ConversionException;
 import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.apache.jena.datatypes.xsd.XSDDatatype;
@@ -31,6 +33,9 @@ import org.apache.jena.rdf.model.impl.LiteralImpl;
 import org.apache.jena.rdf.model.impl.PropertyImpl;
 import org.apache.jena.rdf.model.impl.ResourceImpl;
 import org.apache.jena.sparql.core.Quad;
+import org.rdfhdt.hdt.hdt.HDT;
+import org.rdfhdt.hdt.hdt.HDTManager;
+import org.rdfhdt.hdt.options.HDTSpecification;
 import org.rdfhdt.hdt.triples.TripleString;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.DataProvider;
@@ -39,12 +44,13 @@ import org.testng.annotations.Test;
 import javax.annotation.Nonnull;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Stream;
 
 import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
 import static org.apache.commons.lang3.tuple.ImmutablePair.of;
 import static org.apache.jena.graph.NodeFactory.*;
-import static org.testng.Assert.assertEquals;
-import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.*;
 
 public class HDTConvertersTest {
     private static final String EX = "http://example.org/";
@@ -98,4 +104,57 @@ public class HDTConvertersTest {
         assertEquals(finder.getConversionPath().convert(in), expected);
     }
 
-}
\ No newline at end of file
+    @DataProvider public Object[][] termData() {
+        String xsd = "http://www.w3.org/2001/XMLSchema#";
+        return Stream.of(
+                asList(EX+"a", createURI(EX+"a")),
+                asList("_:b1", createBlankNode("b1")),
+                asList("TRUE", createLiteral("true", XSDDatatype.XSDboolean)),
+                asList("False", createLiteral("false", XSDDatatype.XSDboolean)),
+                asList("-12", createLiteral("-12", XSDDatatype.XSDinteger)),
+                asList("+1.5", createLiteral("+1.5", XSDDatatype.XSDdecimal)),
+                asList(".5", createLiteral("5", XSDDatatype.XSDinteger)),
+                asList("1.5e-3", createLiteral("1.5e-3", XSDDatatype.XSDdouble)),
+                asList("12E3", createLiteral("12E3", XSDDatatype.XSDdouble)),
+                asList("\"\"", createLiteral("")),
+                asList("\"a b\"", createLiteral("a b")),
+                asList("\"a\nb\"@pt-BR", createLiteral("a\nb", "pt-BR")),
+                asList("\"a\"@en_US", createLiteral("a", "en-US")),
+                asList("\"1\"^^<"+xsd+"int>", createLiteral("1", XSDDatatype.XSDint)),
+                asList("\"1\"^^xsd2:int", createLiteral("1", XSDDatatype.XSDint)),
+                asList("\"a\\\"b\"", createLiteral("a\\\"b"))
+        ).map(List::toArray).toArray(Object[][]::new);
+    }
+
+    @Test(dataProvider = "termData")
+    public void testHdtStringToNode(@Nonnull String string, @Nonnull Node expected) {
+        assertEquals(HDTConverters.hdtStringToNode(string), expected);
+        assertEquals(HDTConverters.hdtStringToNode(new StringBuilder(string)), expected);
+    }
+
+    @Test public void testBadNumber() {
+        for (String string : asList("1.", "1e", "1x", "+", "1e+"))
+            expectThrows(IllegalArgumentException.class, () -> HDTConverters.hdtStringToNode(string));
+    }
+
+    @Test public void testConvertTripleID() throws Exception {
+        HDT hdt = HDTManager.generateHDT(
+                singletonList(new TripleString(EX+"s", EX+"p", "\"1\"@en")).iterator(),
+                EX, new HDTSpecification(), (level, message) -> {});
+        HDTTermDecoder decoder = new HDTTermDecoder(hdt.getDictionary());
+        HDTTripleID id = new HDTTripleID(hdt.getTriples().searchAll().next(), decoder);
+        Triple expected = new Triple(createURI(EX+"s"), createURI(EX+"p"),
+                                     createLiteral("1", "en"));
+
+        ConversionFinder finder = mgr.findPath(id, Triple.class);
+        assertTrue(finder.hasNext());
+        assertEquals(finder.convert(id), expected);
+        assertEquals(finder.getConversionPath().size(), 1);
+
+        finder = mgr.findPath(id, TripleString.class);
+        assertTrue(finder.hasNext());
+        TripleString ts = (TripleString) finder.convert(id);
+        assertEquals(ts.getSubject().toString(), EX+"s");
+        assertEquals(ts.getObject().toString(), "\"1\"@en");
+    }
+}
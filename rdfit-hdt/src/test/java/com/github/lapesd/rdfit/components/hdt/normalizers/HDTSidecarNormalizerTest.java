@@ -0,0 +1,264 @@
+/*
+ *    Copyright 2021 Alexis Armin Huf
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.github.lapesd.rdfit.components.hdt.normalizers;
+
+import com.github.lapesd.rdfit.RIt;
+import com.github.lapesd.rdfit.components.converters.impl.DefaultConversionManager;
+import com.github.lapesd.rdfit.components.hdt.DiskHDTWriter;
+import com.github.lapesd.rdfit.components.normalizers.DefaultSourceNormalizerRegistry;
+import com.github.lapesd.rdfit.components.parsers.DefaultParserRegistry;
+import com.github.lapesd.rdfit.impl.DefaultRDFItFactory;
+import com.github.lapesd.rdfit.iterator.RDFIt;
+import com.github.lapesd.rdfit.source.RDFFile;
+import com.github.lapesd.rdfit.source.RDFInputStream;
+import com.github.lapesd.rdfit.source.syntax.RDFLangs;
+import org.rdfhdt.hdt.triples.TripleString;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import javax.annotation.Nonnull;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static java.util.stream.Collectors.toList;
+import static org.testng.Assert.*;
+
+public class HDTSidecarNormalizerTest {
+    private static final String EX = "http://example.org/";
+    private static final String XSD = "http://www.w3.org/2001/XMLSchema#";
+    private static final String TTL = "@prefix ex: <"+EX+">.\n" +
+            "ex:s1 ex:p ex:o1, \"lit\".\n" +
+            "ex:s2 ex:p ex:o2.\n";
+    private static final Set<String> TTL_TRIPLES = new HashSet<>();
+
+    static {
+        TTL_TRIPLES.add(EX+"s1 "+EX+"p "+EX+"o1");
+        TTL_TRIPLES.add(EX+"s1 "+EX+"p \"lit\"^^<"+XSD+"string>");
+        TTL_TRIPLES.add(EX+"s2 "+EX+"p "+EX+"o2");
+    }
+
+    private File dir;
+    private DefaultRDFItFactory factory;
+
+    @BeforeMethod
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("rdfit-sidecar").toFile();
+        factory = new DefaultRDFItFactory(new DefaultParserRegistry(),
+                new DefaultConversionManager(), new DefaultSourceNormalizerRegistry());
+        RIt.init(factory);
+    }
+
+    @AfterMethod
+    public void tearDown() throws IOException {
+        factory.close();
+        try (Stream<Path> paths = Files.walk(dir.toPath())) {
+            for (Path path : paths.sorted((l, r) -> r.compareTo(l)).collect(toList()))
+                Files.delete(path);
+        }
+    }
+
+    private @Nonnull File createFile(@Nonnull String name,
+                                     @Nonnull String content) throws IOException {
+        File file = new File(dir, name);
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    private @Nonnull Set<String> read(@Nonnull Object source) {
+        Set<String> set = new HashSet<>();
+        try (RDFIt<TripleString> it = factory.iterateTriples(TripleString.class, source)) {
+            while (it.hasNext()) {
+                TripleString t = it.next();
+                set.add(t.getSubject()+" "+t.getPredicate()+" "+t.getObject());
+            }
+        }
+        return set;
+    }
+
+    private @Nonnull HDTSidecarNormalizer createNormalizer(File cacheDir) {
+        HDTSidecarNormalizer normalizer;
+        normalizer = new HDTSidecarNormalizer(factory, cacheDir, Runnable::run);
+        factory.getNormalizerRegistry().register(normalizer);
+        return normalizer;
+    }
+
+    @Test
+    public void testWriteThenUseSidecar() throws IOException {
+        File file = createFile("data.ttl", TTL);
+        HDTSidecarNormalizer normalizer = createNormalizer(null);
+        File sidecar = normalizer.getSidecar(file);
+        assertEquals(sidecar, new File(file.getCanonicalPath() + HDTSidecarNormalizer.SUFFIX));
+        assertFalse(sidecar.exists());
+
+        assertEquals(read(file), TTL_TRIPLES); // parses text and writes sidecar
+        assertTrue(sidecar.isFile());
+        assertTrue(new File(sidecar.getPath()+HDTSidecarNormalizer.META_SUFFIX).isFile());
+
+        Object normalized = normalizer.normalize(new RDFFile(file));
+        assertTrue(normalized instanceof RDFFile);
+        assertEquals(((RDFFile) normalized).getFile(), sidecar);
+        assertEquals(((RDFFile) normalized).getLang(), RDFLangs.HDT);
+        ((RDFFile) normalized).close();
+
+        assertEquals(read(file), TTL_TRIPLES); // now comes from the sidecar
+        assertFalse(normalizer.isPending(file));
+    }
+
+    @Test
+    public void testModifiedFileInvalidatesSidecar() throws IOException {
+        File file = createFile("data.ttl", TTL);
+        HDTSidecarNormalizer normalizer = createNormalizer(null);
+        assertEquals(read(file), TTL_TRIPLES);
+        File sidecar = normalizer.getSidecar(file);
+        assertTrue(sidecar.isFile());
+
+        String extra = TTL + "ex:s3 ex:p ex:o3.\n";
+        Files.write(file.toPath(), extra.getBytes(StandardCharsets.UTF_8));
+        Set<String> expected = new HashSet<>(TTL_TRIPLES);
+        expected.add(EX+"s3 "+EX+"p "+EX+"o3");
+
+        HDTSidecarNormalizer inert = new HDTSidecarNormalizer(factory, null, r -> {});
+        RDFFile original = new RDFFile(file);
+        assertSame(inert.normalize(original), original); // stale sidecar not used
+        original.close();
+
+        assertEquals(read(file), expected); // re-parses text, rewrites sidecar
+        Object normalized = normalizer.normalize(new RDFFile(file));
+        assertTrue(normalized instanceof RDFFile);
+        assertEquals(((RDFFile) normalized).getFile(), sidecar);
+        ((RDFFile) normalized).close();
+        assertEquals(read(file), expected);
+    }
+
+    @Test
+    public void testSameSizeChangeDetectedByHash() throws IOException {
+        File file = createFile("data.ttl", TTL);
+        HDTSidecarNormalizer normalizer = createNormalizer(null);
+        assertEquals(read(file), TTL_TRIPLES);
+        long lastModified = file.lastModified();
+
+        String changed = TTL.replace("o2", "o9");
+        Files.write(file.toPath(), changed.getBytes(StandardCharsets.UTF_8));
+        assertTrue(file.setLastModified(lastModified));
+
+        HDTSidecarNormalizer inert = new HDTSidecarNormalizer(factory, null, r -> {});
+        RDFFile original = new RDFFile(file);
+        assertSame(inert.normalize(original), original);
+        original.close();
+        assertTrue(read(file).contains(EX+"s2 "+EX+"p "+EX+"o9"));
+    }
+
+    @Test
+    public void testMiddleChangeWithSameSizeAndMTime() throws IOException {
+        StringBuilder b = new StringBuilder(TTL);
+        while (b.length() < 3*1024*1024)
+            b.append("ex:s1 ex:p ex:o1.\n");
+        String content = b.toString();
+        File file = createFile("big.ttl", content);
+        HDTSidecarNormalizer normalizer = createNormalizer(null);
+        assertEquals(read(file), TTL_TRIPLES);
+        File sidecar = normalizer.getSidecar(file);
+        assertTrue(sidecar.isFile());
+        long lastModified = file.lastModified();
+
+        int middle = content.length() / 2;
+        middle = content.indexOf("ex:o1", middle);
+        String changed = content.substring(0, middle) + "ex:o3"
+                       + content.substring(middle + "ex:o3".length());
+        Files.write(file.toPath(), changed.getBytes(StandardCharsets.UTF_8));
+        assertTrue(file.setLastModified(lastModified));
+
+        HDTSidecarNormalizer inert = new HDTSidecarNormalizer(factory, null, r -> {});
+        RDFFile original = new RDFFile(file);
+        assertSame(inert.normalize(original), original); // whole-file hash detects it
+        original.close();
+    }
+
+    @Test
+    public void testParseErrorFailsSidecar() throws IOException {
+        File tmp = new File(dir, "feeder.hdt");
+        HDTSidecarNormalizer.SidecarFeeder feeder;
+        feeder = new HDTSidecarNormalizer.SidecarFeeder(DiskHDTWriter.builder(tmp));
+        assertFalse(feeder.isFailed());
+        assertTrue(feeder.notifyParseError("recoverable error"));
+        assertTrue(feeder.isFailed());
+        feeder.finish();
+        assertTrue(!tmp.exists() || tmp.delete());
+    }
+
+    @Test
+    public void testCacheDir() throws IOException {
+        File cacheDir = new File(dir, "cache");
+        File file = createFile("data.ttl", TTL);
+        HDTSidecarNormalizer normalizer = createNormalizer(cacheDir);
+        File sidecar = normalizer.getSidecar(file);
+        assertEquals(sidecar.getParentFile(), cacheDir);
+        assertTrue(sidecar.getName().endsWith("-data.ttl"+HDTSidecarNormalizer.SUFFIX));
+
+        assertEquals(read(file), TTL_TRIPLES);
+        assertTrue(sidecar.isFile());
+        assertFalse(new File(file.getPath()+HDTSidecarNormalizer.SUFFIX).exists());
+        assertEquals(read(file), TTL_TRIPLES);
+    }
+
+    @Test
+    public void testBackgroundExecutor() throws Exception {
+        File file = createFile("data.ttl", TTL);
+        HDTSidecarNormalizer normalizer = new HDTSidecarNormalizer(factory, null);
+        factory.getNormalizerRegistry().register(normalizer);
+        assertEquals(read(file), TTL_TRIPLES);
+        for (int i = 0; i < 500 && normalizer.isPending(file); i++)
+            Thread.sleep(20);
+        assertFalse(normalizer.isPending(file));
+        assertTrue(normalizer.getSidecar(file).isFile());
+        assertEquals(read(file), TTL_TRIPLES);
+    }
+
+    @Test
+    public void testIgnoresUnsupportedSources() throws IOException {
+        HDTSidecarNormalizer normalizer = new HDTSidecarNormalizer(factory, null, r -> {
+            throw new AssertionError("Should not schedule");
+        });
+        File nq = createFile("data.nq", "<"+EX+"s> <"+EX+"p> <"+EX+"o> <"+EX+"g>.\n");
+        RDFFile nqFile = new RDFFile(nq, RDFLangs.NQ);
+        assertSame(normalizer.normalize(nqFile), nqFile);
+        nqFile.close();
+
+        File ttl = createFile("data.ttl", TTL);
+        RDFFile temp = new RDFFile(ttl, RDFLangs.TTL, true);
+        assertSame(normalizer.normalize(temp), temp);
+        temp.setDeleteOnClose(false).close();
+
+        RDFFile decorated = RDFFile.builder(ttl).lang(RDFLangs.TTL)
+                                   .decorator((is, lang, base, name) -> is).build();
+        assertSame(normalizer.normalize(decorated), decorated);
+        decorated.close();
+
+        RDFInputStream ris = new RDFInputStream(
+                new ByteArrayInputStream(TTL.getBytes(StandardCharsets.UTF_8)), RDFLangs.TTL);
+        assertSame(normalizer.normalize(ris), ris);
+        assertFalse(normalizer.getSidecar(ttl).exists());
+    }
+}
@@ -16,8 +16,10 @@
 
 package com.github.lapesd.rdfit.components.hdt.parsers.iterator;
 
+import com.github.lapesd.rdfit.RIt;
 import com.github.lapesd.rdfit.components.converters.impl.DefaultConversionManager;
 import com.github.lapesd.rdfit.components.hdt.HDTParsers;
+import com.github.lapesd.rdfit.components.hdt.HDTTripleID;
 import com.github.lapesd.rdfit.components.normalizers.CoreSourceNormalizers;
 import com.github.lapesd.rdfit.components.normalizers.DefaultSourceNormalizerRegistry;
 import com.github.lapesd.rdfit.components.parsers.DefaultParserRegistry;
@@ -27,10 +29,15 @@ import com.github.lapesd.rdfit.errors.RDFItException;
 import com.github.lapesd.rdfit.impl.DefaultRDFItFactory;
 import com.github.lapesd.rdfit.iterator.RDFIt;
 import com.github.lapesd.rdfit.listener.TripleListenerBase;
+import com.github.lapesd.rdfit.source.PatternSource;
 import com.github.lapesd.rdfit.source.RDFFile;
 import com.github.lapesd.rdfit.source.RDFInputStream;
 import com.github.lapesd.rdfit.source.syntax.RDFLangs;
 import com.github.lapesd.rdfit.util.Utils;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.rdf.model.ResourceFactory;
+import org.rdfhdt.hdt.enums.TripleComponentRole;
 import org.rdfhdt.hdt.hdt.HDT;
 import org.rdfhdt.hdt.hdt.HDTManager;
 import org.rdfhdt.hdt.options.HDTSpecification;
@@ -49,15 +56,16 @@ import java.net.URL;
 import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Stream;
 
 import static java.util.Arrays.asList;
 import static java.util.Collections.emptyList;
 import static java.util.Collections.singletonList;
-import static org.testng.Assert.assertEquals;
-import static org.testng.Assert.fail;
+import static org.testng.Assert.*;
 
 public class HDTItParserTest {
     private static final String EX = "http://example.org/";
@@ -150,6 +158,64 @@ public class HDTItParserTest {
         assertTripleStringsEqual(expected, actual);
     }
 
+    @Test(dataProvider = "testData")
+    public void testIterateIds(Object source, @Nonnull List<TripleString> expected) {
+        if (!(source instanceof HDT) && !(source instanceof File))
+            return; // ID iteration requires an actual HDT
+        List<TripleString> actual = new ArrayList<>();
+        Set<Long> predicates = new HashSet<>();
+        try (RDFIt<HDTTripleID> it = factory.iterateTriples(HDTTripleID.class, source)) {
+            while (it.hasNext()) {
+                HDTTripleID id = it.next();
+                predicates.add(id.getPredicateID());
+                actual.add(id.toTripleString());
+                assertSame(id.getSubject(), id.getSubject()); // decoded once
+            }
+        }
+        assertEquals(predicates.size(), 2);
+        assertTripleStringsEqual(expected, actual);
+    }
+
+    @Test(dataProvider = "testData")
+    public void testDecodeIdsAfterClose(Object source, @Nonnull List<TripleString> expected) {
+        if (!(source instanceof HDT) && !(source instanceof File))
+            return; // ID iteration requires an actual HDT
+        List<HDTTripleID> ids = new ArrayList<>();
+        try (RDFIt<HDTTripleID> it = factory.iterateTriples(HDTTripleID.class, source)) {
+            assertTrue(it.hasNext());
+            ids.add(it.next());
+            assertNotNull(ids.get(0).toTripleString()); // decode while open
+            it.forEachRemaining(ids::add); // closes it once exhausted
+        }
+        HDTTripleID decoded = ids.get(0);
+        assertTrue(decoded.getDecoder().isClosed());
+        assertNotNull(decoded.toTripleString()); // already decoded
+        for (HDTTripleID id : ids.subList(1, ids.size())) {
+            assertTrue(id.getSubjectID() > 0); // IDs remain available
+            expectThrows(IllegalStateException.class, id::getPredicate);
+            expectThrows(IllegalStateException.class, id::toTripleString);
+        }
+    }
+
+    @Test public void testIdParserNotSelectedForTripleString() throws Exception {
+        File f = createFile();
+        HDT hdt = HDTManager.generateHDT(singletonList(new TripleString(S1, P1, O1)).iterator(),
+                                         f.toURI().toString(), new HDTSpecification(),
+                                         (level, message) -> {});
+        try (RDFIt<TripleString> it = factory.iterateTriples(TripleString.class, hdt)) {
+            assertTrue(it.hasNext());
+            Object next = it.next();
+            assertTrue(next instanceof TripleString);
+        }
+        try (RDFIt<HDTTripleID> it = factory.iterateTriples(HDTTripleID.class, hdt)) {
+            assertTrue(it.hasNext());
+            HDTTripleID id = it.next();
+            assertEquals(id.getObject(), O1);
+            assertSame(id.getDecoder().decode(id.getObjectID(), TripleComponentRole.OBJECT),
+                       id.getObject());
+        }
+    }
+
     @Test(dataProvider = "testData")
     public void testParse(Object source, @Nonnull List<TripleString> expected) {
         String expectedBaseIRI;
@@ -236,4 +302,111 @@ public class HDTItParserTest {
                      expectedBaseIRI == null ? emptyList() : singletonList(expectedBaseIRI));
     }
 
-}
\ No newline at end of file
+
+    @DataProvider public Object[][] patternData() throws Exception {
+        File f = createFile();
+        TripleWriter writer = HDTManager.getHDTWriter(f.getAbsolutePath(), f.toURI().toString(),
+                                                      new HDTSpecification());
+        List<TripleString> all = asList(new TripleString(S1, P1, O1),
+                                        new TripleString(S1, P2, O2),
+                                        new TripleString(S2, P1, "\"lit\""),
+                                        new TripleString(S2, P2, O1));
+        for (TripleString t : all)
+            writer.addTriple(t);
+        writer.close();
+        HDT hdt = HDTManager.generateHDT(all.iterator(), "file://nowhere.hdt",
+                                         new HDTSpecification(), (level, message) -> {});
+
+        Node s1 = NodeFactory.createURI(S1), p1 = NodeFactory.createURI(P1);
+        Node lit = NodeFactory.createLiteral("lit");
+        List<List<Object>> rows = new ArrayList<>();
+        for (Object source : asList(f, new RDFFile(f), hdt)) {
+            rows.addAll(asList(
+                    asList(RIt.pattern(source, S1, null, null), all.subList(0, 2)),
+                    asList(RIt.pattern(source, null, P1, null), asList(all.get(0), all.get(2))),
+                    asList(RIt.pattern(source, null, null, O1), asList(all.get(0), all.get(3))),
+                    asList(RIt.pattern(source, s1, p1, null), singletonList(all.get(0))),
+                    asList(RIt.pattern(source, ResourceFactory.createResource(S2), null, null),
+                           all.subList(2, 4)),
+                    asList(RIt.pattern(source, null, null, lit), singletonList(all.get(2))),
+                    asList(RIt.pattern(source, Node.ANY, null, null), all),
+                    asList(RIt.pattern(source, EX+"missing", null, null), emptyList()),
+                    asList(RIt.pattern(source, O1, null, null), emptyList())
+            ));
+        }
+        return rows.stream().map(List::toArray).toArray(Object[][]::new);
+    }
+
+    private static @Nonnull Set<String> toStrings(@Nonnull Collection<TripleString> triples) {
+        Set<String> set = new HashSet<>();
+        for (TripleString t : triples)
+            set.add(t.getSubject()+" "+t.getPredicate()+" "+t.getObject());
+        return set;
+    }
+
+    @Test(dataProvider = "patternData")
+    public void testIteratePattern(@Nonnull PatternSource source,
+                                   @Nonnull List<TripleString> expected) {
+        assertTrue(new HDTItParser().canParse(factory.getNormalizerRegistry().normalize(source)));
+        List<TripleString> actual = new ArrayList<>();
+        try (RDFIt<TripleString> it = factory.iterateTriples(TripleString.class, source)) {
+            it.forEachRemaining(actual::add);
+        }
+        assertEquals(toStrings(actual), toStrings(expected));
+        assertEquals(actual.size(), expected.size());
+
+        actual.clear();
+        try (RDFIt<HDTTripleID> it = factory.iterateTriples(HDTTripleID.class, source)) {
+            it.forEachRemaining(id -> actual.add(id.toTripleString()));
+        }
+        assertEquals(toStrings(actual), toStrings(expected));
+        assertEquals(actual.size(), expected.size());
+    }
+
+    @Test(dataProvider = "patternData")
+    public void testParsePattern(@Nonnull PatternSource source,
+                                 @Nonnull List<TripleString> expected) {
+        List<TripleString> actual = new ArrayList<>();
+        List<Throwable> exceptions = new ArrayList<>();
+        factory.parse(new TripleListenerBase<TripleString>(TripleString.class) {
+            @Override public void triple(@Nonnull TripleString triple) {
+                actual.add(triple);
+            }
+
+            @Override
+            public boolean notifySourceError(@Nonnull RDFItException e) {
+                exceptions.add(e);
+                return true;
+            }
+        }, source);
+        assertEquals(exceptions, emptyList());
+        assertEquals(toStrings(actual), toStrings(expected));
+        assertEquals(actual.size(), expected.size());
+    }
+
+    @Test
+    public void testPatternFallback() throws Exception {
+        HDT hdt = HDTManager.generateHDT(asList(new TripleString(S1, P1, O1),
+                                                new TripleString(S2, P1, O2)).iterator(),
+                                         "file://nowhere.hdt", new HDTSpecification(),
+                                         (level, message) -> {});
+        // triples never match a graph
+        PatternSource graphPattern = RIt.pattern(hdt, S1, null, null, EX+"G");
+        assertFalse(new HDTItParser().canParse(graphPattern));
+        List<TripleString> actual = new ArrayList<>();
+        DefaultRDFItFactory defFactory = DefaultRDFItFactory.get();
+        try (RDFIt<TripleString> it = defFactory.iterateTriples(TripleString.class, graphPattern)) {
+            it.forEachRemaining(actual::add);
+        }
+        assertEquals(actual, emptyList());
+
+        // a list of TripleStrings is filtered after parsing
+        List<TripleString> list = asList(new TripleString(S1, P1, O1),
+                                         new TripleString(S2, P1, O2));
+        PatternSource listPattern = RIt.pattern(list, null, null, O2);
+        try (RDFIt<TripleString> it = defFactory.iterateTriples(TripleString.class, listPattern)) {
+            it.forEachRemaining(actual::add);
+        }
+        assertEquals(toStrings(actual), toStrings(singletonList(list.get(1))));
+    }
+}
@@ -23,12 +23,20 @@ import com.github.lapesd.rdfit.components.parsers.BaseListenerParser;
 import com.github.lapesd.rdfit.errors.InterruptParsingException;
 import com.github.lapesd.rdfit.errors.RDFItException;
 import com.github.lapesd.rdfit.listener.RDFListener;
+import com.github.lapesd.rdfit.source.RDFFileSlice;
 import com.github.lapesd.rdfit.source.RDFInputStream;
 import com.github.lapesd.rdfit.source.syntax.RDFLangs;
 import com.github.lapesd.rdfit.source.syntax.impl.RDFLang;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
 import org.apache.jena.graph.Triple;
 import org.apache.jena.riot.Lang;
 import org.apache.jena.riot.RDFDataMgr;
+import org.apache.jena.riot.RDFParser;
+import org.apache.jena.riot.lang.BlankNodeAllocator;
+import org.apache.jena.riot.lang.BlankNodeAllocatorFixedSeedHash;
+import org.apache.jena.riot.lang.LabelToNode;
+import org.apache.jena.riot.system.MapWithScope;
 import org.apache.jena.sparql.core.Quad;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -36,9 +44,7 @@ import org.slf4j.LoggerFactory;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.io.IOException;
-import java.util.Collections;
-import java.util.HashSet;
-import java.util.Set;
+import java.util.*;
 
 public class JenaInputStreamParser extends BaseListenerParser {
     public static final Logger logger = LoggerFactory.getLogger(JenaInputStreamParser.class);
@@ -73,6 +79,23 @@ public class JenaInputStreamParser extends BaseListenerParser {
         }
     }
 
+    /**
+     * Same label in two slices of the same file yields the same blank node. Unlabeled blank
+     * nodes (<code>[]</code> and collections) are fresh, and thus distinct across slices.
+     */
+    private static @Nonnull LabelToNode createLabelToNode(@Nonnull RDFFileSlice slice) {
+        BlankNodeAllocator labeled = new BlankNodeAllocatorFixedSeedHash(slice.getBlankNodeScope());
+        Map<String, Node> map = new HashMap<>();
+        return new LabelToNode(new MapWithScope.ScopePolicy<String, Node, Node>() {
+            @Override public Map<String, Node> getScope(Node scope) { return map; }
+            @Override public void clear() { map.clear(); }
+        }, new MapWithScope.Allocator<String, Node, Node>() {
+            @Override public Node alloc(Node scope, String label) { return labeled.alloc(label); }
+            @Override public Node create() { return NodeFactory.createBlankNode(); }
+            @Override public void reset() { }
+        });
+    }
+
     @Override
     public void parse(@Nonnull Object source,
                       @Nonnull RDFListener<?, ?> listener) throws InterruptParsingException {
@@ -81,7 +104,11 @@ public class JenaInputStreamParser extends BaseListenerParser {
             RDFLang lang = ris.getOrDetectLang();
             Lang jLang = JenaHelpers.toJenaLang(RDFLangs.generalize(lang));
             ListenerStreamRDF adaptor = new ListenerStreamRDF(listener, source, ris.getBaseIRI());
-            if (ris.hasBaseIRI())
+            if (ris instanceof RDFFileSlice) {
+                LabelToNode labelToNode = createLabelToNode((RDFFileSlice) ris);
+                RDFParser.create().source(ris.getInputStream()).lang(jLang)
+                         .base(ris.getBaseIRI()).labelToNode(labelToNode).parse(adaptor);
+            } else if (ris.hasBaseIRI())
                 RDFDataMgr.parse(adaptor, ris.getInputStream(), ris.getBaseIRI(), jLang);
             else
                 RDFDataMgr.parse(adaptor, ris.getInputStream(), jLang);
@@ -16,9 +16,11 @@
 
 package com.github.lapesd.rdfit.components.jena.parsers.listener;
 
+import com.github.lapesd.rdfit.RIt;
 import com.github.lapesd.rdfit.components.converters.impl.DefaultConversionManager;
 import com.github.lapesd.rdfit.components.converters.util.ConversionCache;
 import com.github.lapesd.rdfit.components.jena.JenaParsers;
+import com.github.lapesd.rdfit.components.jena.JenaPatternMatcher;
 import com.github.lapesd.rdfit.components.normalizers.CoreSourceNormalizers;
 import com.github.lapesd.rdfit.components.normalizers.DefaultSourceNormalizerRegistry;
 import com.github.lapesd.rdfit.components.parsers.DefaultParserRegistry;
@@ -26,14 +28,18 @@ import com.github.lapesd.rdfit.errors.InconvertibleException;
 import com.github.lapesd.rdfit.errors.InterruptParsingException;
 import com.github.lapesd.rdfit.errors.RDFItException;
 import com.github.lapesd.rdfit.impl.DefaultRDFItFactory;
+import com.github.lapesd.rdfit.iterator.ParallelFlatMapRDFIt;
+import com.github.lapesd.rdfit.listener.QuadListenerBase;
 import com.github.lapesd.rdfit.listener.RDFListenerBase;
 import com.github.lapesd.rdfit.listener.TripleListenerBase;
 import com.github.lapesd.rdfit.source.RDFFile;
+import com.github.lapesd.rdfit.source.RDFFileSlice;
 import com.github.lapesd.rdfit.source.RDFInputStream;
 import com.github.lapesd.rdfit.source.syntax.impl.RDFLang;
 import com.github.lapesd.rdfit.util.NoSource;
 import org.apache.jena.ext.com.google.common.collect.Lists;
 import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Node;
 import org.apache.jena.graph.Triple;
 import org.apache.jena.rdf.model.*;
 import org.apache.jena.rdf.model.impl.LiteralImpl;
@@ -42,6 +48,9 @@ import org.apache.jena.rdf.model.impl.ResourceImpl;
 import org.apache.jena.riot.Lang;
 import org.apache.jena.riot.RDFDataMgr;
 import org.apache.jena.riot.RDFFormat;
+import org.apache.jena.atlas.iterator.Iter;
+import org.apache.jena.sparql.core.DatasetGraph;
+import org.apache.jena.sparql.core.DatasetGraphFactory;
 import org.apache.jena.sparql.core.Quad;
 import org.apache.jena.sparql.graph.GraphFactory;
 import org.apache.jena.vocabulary.RDF;
@@ -58,6 +67,7 @@ import java.nio.file.Files;
 import java.util.*;
 import java.util.function.BiFunction;
 import java.util.function.Supplier;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import static com.github.lapesd.rdfit.components.converters.util.ConversionPathSingletonCache.createCache;
@@ -507,4 +517,185 @@ public class JenaParsersTest {
         assertEquals(messages, emptyList());
     }
 
-}
\ No newline at end of file
+    @DataProvider public @Nonnull Object[][] parallelSplitData() {
+        return Stream.of(
+                asList(false, ParallelFlatMapRDFIt.Merge.ORDERED),
+                asList(false, ParallelFlatMapRDFIt.Merge.UNORDERED),
+                asList(true, ParallelFlatMapRDFIt.Merge.UNORDERED)
+        ).map(List::toArray).toArray(Object[][]::new);
+    }
+
+    @Test(dataProvider = "parallelSplitData")
+    public void testParallelSplitNT(boolean parse,
+                                    @Nonnull ParallelFlatMapRDFIt.Merge merge) throws IOException {
+        StringBuilder b = new StringBuilder();
+        for (int i = 0; i < 400; i++) {
+            b.append("_:b").append(i % 7).append(" <").append(EX).append("p> <")
+             .append(EX).append("O").append(i).append("> .\n");
+            b.append("<").append(EX).append("S").append(i).append("> <").append(EX)
+             .append("q> _:b").append((i * 3) % 7).append(" .\n");
+        }
+        File file = toFile(b.toString());
+        Graph expected = GraphFactory.createDefaultGraph();
+        RDFDataMgr.read(expected, new FileInputStream(file), Lang.NTRIPLES);
+        assertEquals(expected.size(), 800);
+
+        List<Triple> actual = Collections.synchronizedList(new ArrayList<>());
+        long oldSplitBytes = factory.getParallelSplitBytes();
+        factory.setParallelSplitBytes(512);
+        try {
+            RDFFile source = new RDFFile(file, NT);
+            assertNotNull(RDFFileSlice.splitLines(source, 512));
+            if (parse) {
+                factory.parseParallel(4, () -> new TripleListenerBase<Triple>(Triple.class) {
+                    @Override public void triple(@Nonnull Triple triple) {
+                        actual.add(triple);
+                    }
+                }, ls -> {}, source);
+            } else {
+                factory.iterateTriplesParallel(4, merge, Triple.class, source)
+                       .forEachRemaining(actual::add);
+            }
+        } finally {
+            factory.setParallelSplitBytes(oldSplitBytes);
+        }
+        Graph actualGraph = GraphFactory.createDefaultGraph();
+        actual.forEach(actualGraph::add);
+        assertEquals(actual.size(), 800);
+        assertTrue(actualGraph.isIsomorphicWith(expected));
+        Set<Node> bNodes = new HashSet<>();
+        for (Triple t : actual) {
+            if (t.getSubject().isBlank()) bNodes.add(t.getSubject());
+            if (t.getObject().isBlank())  bNodes.add(t.getObject());
+        }
+        assertEquals(bNodes.size(), 7);
+        if (merge == ParallelFlatMapRDFIt.Merge.ORDERED) {
+            List<Node> expectedNonBlank = new ArrayList<>(), actualNonBlank = new ArrayList<>();
+            for (int i = 0; i < 400; i++) {
+                expectedNonBlank.add(createURI(EX+"O"+i));
+                expectedNonBlank.add(createURI(EX+"S"+i));
+            }
+            for (Triple t : actual)
+                actualNonBlank.add(t.getSubject().isBlank() ? t.getObject() : t.getSubject());
+            assertEquals(actualNonBlank, expectedNonBlank);
+        }
+    }
+
+    @Test
+    public void testParallelStreamSplitNT() throws IOException {
+        StringBuilder b = new StringBuilder();
+        for (int i = 0; i < 400; i++) {
+            b.append("<").append(EX).append("S").append(i).append("> <").append(EX)
+             .append("p> _:b").append(i % 7).append(" .\n");
+        }
+        File file = toFile(b.toString());
+        List<Triple> actual;
+        long oldSplitBytes = factory.getParallelSplitBytes();
+        factory.setParallelSplitBytes(512);
+        try (Stream<Triple> stream = factory.streamTriples(Triple.class, new RDFFile(file, NT))) {
+            actual = stream.parallel().collect(Collectors.toList());
+        } finally {
+            factory.setParallelSplitBytes(oldSplitBytes);
+        }
+        assertEquals(actual.size(), 400);
+        for (int i = 0; i < 400; i++)
+            assertEquals(actual.get(i).getSubject(), createURI(EX+"S"+i));
+        Set<Node> bNodes = new HashSet<>();
+        for (Triple t : actual) bNodes.add(t.getObject());
+        assertEquals(bNodes.size(), 7);
+    }
+
+    @Test(dataProvider = "parallelSplitData")
+    public void testParallelSplitTriG(boolean parse,
+                                      @Nonnull ParallelFlatMapRDFIt.Merge merge) throws IOException {
+        StringBuilder b = new StringBuilder("@prefix : <"+EX+"> .\n");
+        for (int i = 0; i < 100; i++) {
+            b.append(":s").append(i).append(" :p [ :q \"\"\"v\n. ").append(i).append("\"\"\" ], ")
+             .append("_:b").append(i % 5).append(" ;\n  :r ( :a").append(i).append(" 1.5 ) .\n");
+            if (i % 20 == 0) {
+                b.append("@prefix ex").append(i).append(": <").append(EX).append(i).append("/> .\n")
+                 .append(":g").append(i).append(" { ex").append(i).append(":s :p _:b")
+                 .append(i % 5).append(" . }\n");
+            }
+        }
+        File file = toFile(b.toString());
+        DatasetGraph expected = DatasetGraphFactory.create();
+        RDFDataMgr.read(expected, new FileInputStream(file), Lang.TRIG);
+
+        DatasetGraph actual = DatasetGraphFactory.create();
+        List<Quad> quads = Collections.synchronizedList(new ArrayList<>());
+        long oldSplitBytes = factory.getParallelSplitBytes();
+        factory.setParallelSplitBytes(256);
+        try {
+            RDFFile source = new RDFFile(file, TRIG);
+            List<RDFFileSlice> slices = RDFFileSlice.split(source, 256);
+            assertNotNull(slices);
+            assertTrue(slices.size() > 10);
+            if (parse) {
+                factory.parseParallel(4, () -> new QuadListenerBase<Quad>(Quad.class) {
+                    @Override public void quad(@Nonnull Quad quad) {
+                        quads.add(quad);
+                    }
+                }, ls -> {}, source);
+            } else {
+                factory.iterateQuadsParallel(4, merge, Quad.class, source)
+                       .forEachRemaining(quads::add);
+            }
+        } finally {
+            factory.setParallelSplitBytes(oldSplitBytes);
+        }
+        quads.forEach(actual::add);
+        assertEquals(quads.size(), Iter.count(expected.find()));
+        assertTrue(actual.getDefaultGraph().isIsomorphicWith(expected.getDefaultGraph()));
+        List<Node> graphNames = Iter.toList(expected.listGraphNodes());
+        assertEquals(new HashSet<>(Iter.toList(actual.listGraphNodes())), new HashSet<>(graphNames));
+        for (Node name : graphNames)
+            assertTrue(actual.getGraph(name).isIsomorphicWith(expected.getGraph(name)));
+        assertEquals(blankNodes(actual).size(), blankNodes(expected).size());
+    }
+
+    @DataProvider public @Nonnull Object[][] graphPatternData() {
+        return Stream.of(
+                asList(EX+"G1", null, asList(T1, new Triple(createURI(EX+"S2"), createURI(EX+"P"),
+                                                          createURI(EX+"O")))),
+                asList(createURI(EX+"G1"), createURI(EX+"S2"),
+                       singletonList(new Triple(createURI(EX+"S2"), createURI(EX+"P"),
+                                                createURI(EX+"O")))),
+                asList(createURI(EX+"G2"), null, singletonList(T1)),
+                asList(EX+"G3", null, emptyList())
+        ).map(List::toArray).toArray(Object[][]::new);
+    }
+
+    @Test(dataProvider = "graphPatternData")
+    public void testGraphPatternOnTripleListener(@Nonnull Object graph, @Nullable Object subject,
+                                                 @Nonnull List<Triple> expected) {
+        File file = toFile("@prefix : <"+EX+"> .\n" +
+                           ":S :P :O .\n" +
+                           ":S3 :P :O .\n" +
+                           ":G1 { :S :P :O . :S2 :P :O . }\n" +
+                           ":G2 { :S :P :O . }\n");
+        factory.getParserRegistry().registerMatcher(new JenaPatternMatcher());
+        List<Triple> actual = new ArrayList<>();
+        try {
+            Object pattern = RIt.pattern(new RDFFile(file, TRIG), subject, null, null, graph);
+            factory.parse(new TripleListenerBase<Triple>(Triple.class) {
+                @Override public void triple(@Nonnull Triple triple) {
+                    actual.add(triple);
+                }
+            }, pattern);
+        } finally {
+            factory.getParserRegistry().unregisterMatcherIf(JenaPatternMatcher.class::isInstance);
+        }
+        assertEquals(new HashSet<>(actual), new HashSet<>(expected));
+        assertEquals(actual.size(), expected.size());
+    }
+
+    private static @Nonnull Set<Node> blankNodes(@Nonnull DatasetGraph dsg) {
+        Set<Node> set = new HashSet<>();
+        dsg.find().forEachRemaining(q -> {
+            if (q.getSubject().isBlank()) set.add(q.getSubject());
+            if (q.getObject().isBlank())  set.add(q.getObject());
+        });
+        return set;
+    }
+}
@@ -21,6 +21,7 @@ import com.github.lapesd.rdfit.components.Converter;
 import com.github.lapesd.rdfit.components.annotations.Accepts;
 import com.github.lapesd.rdfit.components.annotations.Outputs;
 import com.github.lapesd.rdfit.errors.ConversionException;
+import com.github.lapesd.rdfit.util.TermCache;
 import org.apache.jena.datatypes.RDFDatatype;
 import org.apache.jena.datatypes.TypeMapper;
 import org.apache.jena.datatypes.xsd.XSDDatatype;
@@ -92,6 +93,30 @@ public class JenaRDF4JConverters {
 
     private static final @Nonnull SimpleValueFactory VF = SimpleValueFactory.getInstance();
 
+    private static final @Nonnull TermCache<Node, Value> NODE2VALUE = new TermCache<>();
+    private static final @Nonnull TermCache<Value, Node> VALUE2NODE = new TermCache<>();
+
+    /**
+     * Remove all cached terms from the caches used by {@link #node2value(Node)} and
+     * {@link #value2node(Value)}.
+     */
+    public static void clearTermCaches() {
+        NODE2VALUE.clear();
+        VALUE2NODE.clear();
+    }
+
+    private static @Nonnull Value createLiteral(@Nonnull Node node) {
+        RDFDatatype dt = node.getLiteralDatatype();
+        String uri = (dt == null ? XSDDatatype.XSDstring : dt).getURI();
+        return VF.createLiteral(node.getLiteralLexicalForm(), VF.createIRI(uri));
+    }
+
+    private static @Nonnull Node createLiteral(@Nonnull Literal literal) {
+        String uri = literal.getDatatype().toString();
+        RDFDatatype dt = TypeMapper.getInstance().getSafeTypeByName(uri);
+        return NodeFactory.createLiteral(literal.getLabel(), dt);
+    }
+
     /**
      * Convert a Jena {@link Node} into an RDF4J {@link Value}
      * @param node a Jena {@link Node}
@@ -104,7 +129,7 @@ public class JenaRDF4JConverters {
         } else if (node.isBlank()) {
             return VF.createBNode(node.getBlankNodeLabel());
         } else if (node.isURI()) {
-            return VF.createIRI(node.getURI());
+            return NODE2VALUE.get(node, n -> VF.createIRI(n.getURI()));
         } else if (node instanceof Node_Triple) {
             Triple triple = ((Node_Triple) node).get();
             Statement stmt = Triple2RDF4J.INSTANCE.convert(triple);
@@ -113,10 +138,10 @@ public class JenaRDF4JConverters {
             String lang = node.getLiteralLanguage();
             if (lang != null && !lang.isEmpty()) {
                 return VF.createLiteral(node.getLiteralLexicalForm(), lang);
+            } else if (TermCache.isCacheableLiteral(node.getLiteralLexicalForm().length())) {
+                return NODE2VALUE.get(node, JenaRDF4JConverters::createLiteral);
             } else {
-                RDFDatatype dt = node.getLiteralDatatype();
-                String uri = (dt == null ? XSDDatatype.XSDstring : dt).getURI();
-                return VF.createLiteral(node.getLiteralLexicalForm(), VF.createIRI(uri));
+                return createLiteral(node);
             }
         } else {
             throw new IllegalArgumentException("Cannot convert Jena "+node+" to RDF4J");
@@ -146,15 +171,15 @@ public class JenaRDF4JConverters {
         } else if (value.isBNode()) {
             return NodeFactory.createBlankNode(((BNode)value).getID());
         } else if (value.isIRI()) {
-            return NodeFactory.createURI(value.toString());
+            return VALUE2NODE.get(value, v -> NodeFactory.createURI(v.toString()));
         } else if (value.isLiteral()) {
             Literal l = (Literal) value;
             if (l.getLanguage().isPresent()) {
                 return NodeFactory.createLiteral(l.getLabel(), l.getLanguage().get());
+            } else if (TermCache.isCacheableLiteral(l.getLabel().length())) {
+                return VALUE2NODE.get(l, v -> createLiteral((Literal) v));
             } else {
-                String uri = l.getDatatype().toString();
-                RDFDatatype dt = TypeMapper.getInstance().getSafeTypeByName(uri);
-                return NodeFactory.createLiteral(l.getLabel(), dt);
+                return createLiteral(l);
             }
         } else if (value.isTriple()) {
             org.eclipse.rdf4j.model.Triple t = (org.eclipse.rdf4j.model.Triple) value;
@@ -38,8 +38,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 import static java.util.Arrays.asList;
-import static org.testng.Assert.assertEquals;
-import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.*;
 
 public class JenaRDF4JConvertersTest {
     private ConversionManager mgr;
@@ -115,4 +114,26 @@ public class JenaRDF4JConvertersTest {
         assertEquals(actual, expected);
     }
 
-}
\ No newline at end of file
+
+    @Test public void testTermCache() throws ConversionException {
+        JenaRDF4JConverters.clearTermCaches();
+        Value iri = JenaRDF4JConverters.node2value(S1);
+        assertSame(JenaRDF4JConverters.node2value(NodeFactory.createURI(EX+"S1")), iri);
+        Value literal = JenaRDF4JConverters.node2value(O5);
+        assertSame(JenaRDF4JConverters.node2value(O5), literal);
+        assertEquals(literal, VF.createLiteral("O5"));
+
+        // language tags and blank nodes are never cached
+        Value lang = JenaRDF4JConverters.node2value(O4);
+        assertNotSame(JenaRDF4JConverters.node2value(O4), lang);
+        assertEquals(JenaRDF4JConverters.node2value(O4), lang);
+        assertNotSame(JenaRDF4JConverters.node2value(S2), JenaRDF4JConverters.node2value(S2));
+
+        Node node = JenaRDF4JConverters.value2node(rS1);
+        assertSame(JenaRDF4JConverters.value2node(VF.createIRI(EX+"S1")), node);
+        assertEquals(node, S1);
+        Node lit = JenaRDF4JConverters.value2node(VF.createLiteral("O5"));
+        assertSame(JenaRDF4JConverters.value2node(VF.createLiteral("O5")), lit);
+        assertEquals(lit, O5);
+    }
+}
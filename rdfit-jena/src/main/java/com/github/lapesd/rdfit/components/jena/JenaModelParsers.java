@@ -67,6 +67,7 @@ public class JenaModelParsers {
         JavaParsers.registerWithTripleClass(registry, Statement.class);
         JavaParsers.registerWithTripleClass(registry, Triple.class);
         JavaParsers.registerWithQuadClass(registry, Quad.class);
+        registry.registerMatcher(new JenaPatternMatcher());
     }
     public static void registerItParsers(@Nonnull RDFItFactory factory) {
         registerItParsers(factory.getParserRegistry());
@@ -92,6 +93,7 @@ public class JenaModelParsers {
     }
     public static void unregisterAllItParsers(@Nonnull ParserRegistry registry) {
         registry.unregisterIf(p -> IT_CLASSES.contains(p.getClass()));
+        registry.unregisterMatcherIf(JenaPatternMatcher.class::isInstance);
     }
     public static void unregisterAllItParsers(@Nonnull RDFItFactory factory) {
         unregisterAllItParsers(factory.getParserRegistry());
@@ -0,0 +1,126 @@
+/*
+ *    Copyright 2021 Alexis Armin Huf
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.github.lapesd.rdfit.components.jena;
+
+import com.github.lapesd.rdfit.components.PatternMatcher;
+import com.github.lapesd.rdfit.source.PatternSource;
+import com.github.lapesd.rdfit.util.Utils;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.rdf.model.RDFNode;
+import org.apache.jena.rdf.model.Statement;
+import org.apache.jena.sparql.core.Quad;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.unmodifiableSet;
+
+/**
+ * A {@link PatternMatcher} for Jena {@link Triple}s, {@link Statement}s and {@link Quad}s.
+ *
+ * Understands {@link Node}, {@link RDFNode} and {@link String} (IRI) terms.
+ */
+public class JenaPatternMatcher implements PatternMatcher {
+    private static final @Nonnull Set<Class<?>> CLASSES = unmodifiableSet(new HashSet<>(asList(
+            Triple.class, Statement.class, Quad.class
+    )));
+
+    /**
+     * Convert a pattern term into a {@link Node}.
+     *
+     * @param term the term
+     * @return {@link Node#ANY} if term is null or a variable, a {@link Node} or null if
+     *         term is not understood.
+     */
+    public static @Nullable Node toNode(@Nullable Object term) {
+        if (term == null)
+            return Node.ANY;
+        if (term instanceof Node)
+            return ((Node) term).isVariable() ? Node.ANY : (Node) term;
+        if (term instanceof RDFNode)
+            return ((RDFNode) term).asNode();
+        if (term instanceof String)
+            return NodeFactory.createURI((String) term);
+        return null;
+    }
+
+    /**
+     * Convert all terms of a pattern into {@link Node}s.
+     *
+     * @param pattern the pattern
+     * @return array with graph, subject, predicate and object, in that order, or null if
+     *         some term is not understood by {@link #toNode(Object)}.
+     */
+    public static @Nullable Node[] toNodes(@Nonnull PatternSource pattern) {
+        Node g = toNode(pattern.getGraph()), s = toNode(pattern.getSubject()),
+             p = toNode(pattern.getPredicate()), o = toNode(pattern.getObject());
+        if (g == null || s == null || p == null || o == null)
+            return null;
+        return new Node[] {g, s, p, o};
+    }
+
+    @Override public @Nonnull Collection<Class<?>> acceptedClasses() {
+        return CLASSES;
+    }
+
+    @Override public @Nullable Predicate<Object> createPredicate(@Nonnull PatternSource pattern) {
+        Node[] nodes = toNodes(pattern);
+        if (nodes == null)
+            return null;
+        Node g = nodes[0], s = nodes[1], p = nodes[2], o = nodes[3];
+        boolean anyGraph = g == Node.ANY;
+        return value -> {
+            Triple t;
+            if (value instanceof Quad) {
+                Quad q = (Quad) value;
+                if (!g.matches(q.getGraph()))
+                    return false;
+                t = q.asTriple();
+            } else if (!anyGraph) {
+                return false; // only quads have a graph
+            } else {
+                t = value instanceof Triple ? (Triple) value : ((Statement) value).asTriple();
+            }
+            // Node.ANY.matches() accepts anything, concrete nodes check equality
+            return s.matches(t.getSubject()) && p.matches(t.getPredicate())
+                                             && o.matches(t.getObject());
+        };
+    }
+
+    @Override
+    public @Nullable Predicate<String> createGraphPredicate(@Nonnull PatternSource pattern) {
+        Node g = toNode(pattern.getGraph());
+        if (g == null)
+            return null;
+        if (g == Node.ANY)
+            return name -> true;
+        String expected = g.isURI() ? g.getURI()
+                        : (g.isBlank() ? "_:"+g.getBlankNodeLabel() : g.toString());
+        return expected::equals;
+    }
+
+    @Override public @Nonnull String toString() {
+        return Utils.toString(this);
+    }
+}
@@ -16,33 +16,67 @@
 
 package com.github.lapesd.rdfit.components.jena.parsers.iterator;
 
+import com.github.lapesd.rdfit.components.jena.JenaPatternMatcher;
 import com.github.lapesd.rdfit.components.parsers.BaseItParser;
 import com.github.lapesd.rdfit.iterator.PlainRDFIt;
 import com.github.lapesd.rdfit.iterator.RDFIt;
+import com.github.lapesd.rdfit.source.PatternSource;
+import org.apache.jena.graph.Node;
 import org.apache.jena.query.Dataset;
 import org.apache.jena.sparql.core.DatasetGraph;
 import org.apache.jena.sparql.core.Quad;
 
 import javax.annotation.Nonnull;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.Set;
 
 import static com.github.lapesd.rdfit.iterator.IterationElement.QUAD;
 import static java.util.Arrays.asList;
 import static java.util.Collections.unmodifiableSet;
 
+/**
+ * Iterates the quads of a {@link Dataset} or {@link DatasetGraph}.
+ *
+ * A {@link PatternSource} over a dataset is evaluated with
+ * {@link DatasetGraph#find(Node, Node, Node, Node)}.
+ */
 public class DatasetItParser extends BaseItParser {
     private static final @Nonnull Set<Class<?>> CLASSES = unmodifiableSet(new HashSet<>(asList(
-            Dataset.class, DatasetGraph.class
+            Dataset.class, DatasetGraph.class, PatternSource.class
     )));
 
     public DatasetItParser() {
         super(CLASSES, Quad.class, QUAD);
     }
 
+    private static boolean isDataset(@Nonnull Object source) {
+        return source instanceof DatasetGraph || source instanceof Dataset;
+    }
+
+    private static @Nonnull DatasetGraph toDatasetGraph(@Nonnull Object source) {
+        return source instanceof DatasetGraph ? (DatasetGraph) source
+                                              : ((Dataset) source).asDatasetGraph();
+    }
+
+    @Override public boolean canParse(@Nonnull Object source) {
+        if (source instanceof PatternSource) {
+            PatternSource pattern = (PatternSource) source;
+            return isDataset(pattern.getSource()) && JenaPatternMatcher.toNodes(pattern) != null;
+        }
+        return isDataset(source);
+    }
+
     @Override public @Nonnull <T> RDFIt<T> parse(@Nonnull Object source) {
-        DatasetGraph dsg = source instanceof DatasetGraph ? (DatasetGraph) source
-                                                          : ((Dataset) source).asDatasetGraph();
-        return new PlainRDFIt<>(Quad.class, QUAD, dsg.find(), source);
+        Iterator<Quad> it;
+        if (source instanceof PatternSource) {
+            PatternSource pattern = (PatternSource) source;
+            Node[] n = JenaPatternMatcher.toNodes(pattern);
+            assert n != null;
+            it = toDatasetGraph(pattern.getSource()).find(n[0], n[1], n[2], n[3]);
+        } else {
+            it = toDatasetGraph(source).find();
+        }
+        return new PlainRDFIt<>(Quad.class, QUAD, it, source);
     }
 }
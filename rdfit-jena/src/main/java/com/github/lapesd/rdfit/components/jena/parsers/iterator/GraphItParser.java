@@ -16,24 +16,66 @@
 
 package com.github.lapesd.rdfit.components.jena.parsers.iterator;
 
+import com.github.lapesd.rdfit.components.jena.JenaPatternMatcher;
 import com.github.lapesd.rdfit.components.parsers.BaseItParser;
 import com.github.lapesd.rdfit.iterator.IterationElement;
 import com.github.lapesd.rdfit.iterator.PlainRDFIt;
 import com.github.lapesd.rdfit.iterator.RDFIt;
+import com.github.lapesd.rdfit.source.PatternSource;
 import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Node;
 import org.apache.jena.graph.Triple;
 import org.apache.jena.util.iterator.ExtendedIterator;
 
 import javax.annotation.Nonnull;
-import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
 
+import static java.util.Arrays.asList;
+import static java.util.Collections.unmodifiableSet;
+
+/**
+ * Iterates the triples of a {@link Graph}.
+ *
+ * A {@link PatternSource} over a {@link Graph} is evaluated with {@link Graph#find(Node, Node, Node)}.
+ */
 public class GraphItParser extends BaseItParser {
+    private static final @Nonnull Set<Class<?>> CLASSES = unmodifiableSet(new HashSet<>(asList(
+            Graph.class, PatternSource.class
+    )));
+
     public GraphItParser() {
-        super(Collections.singleton(Graph.class), Triple.class, IterationElement.TRIPLE);
+        super(CLASSES, Triple.class, IterationElement.TRIPLE);
+    }
+
+    /**
+     * Tests whether pattern can be evaluated by {@link Graph#find(Node, Node, Node)}.
+     *
+     * @param pattern the pattern source
+     * @return true iff the pattern has no graph, all terms are understood by
+     *         {@link JenaPatternMatcher} and the inner source is of class innerClass
+     */
+    static boolean canFind(@Nonnull PatternSource pattern, @Nonnull Class<?> innerClass) {
+        return innerClass.isInstance(pattern.getSource()) && pattern.getGraph() == null
+                && JenaPatternMatcher.toNodes(pattern) != null;
+    }
+
+    @Override public boolean canParse(@Nonnull Object source) {
+        if (source instanceof PatternSource)
+            return canFind((PatternSource) source, Graph.class);
+        return source instanceof Graph;
     }
 
     @Override public @Nonnull <T> RDFIt<T> parse(@Nonnull Object source) {
-        ExtendedIterator<Triple> it = ((Graph) source).find();
+        ExtendedIterator<Triple> it;
+        if (source instanceof PatternSource) {
+            PatternSource pattern = (PatternSource) source;
+            Node[] n = JenaPatternMatcher.toNodes(pattern);
+            assert n != null;
+            it = ((Graph) pattern.getSource()).find(n[1], n[2], n[3]);
+        } else {
+            it = ((Graph) source).find();
+        }
         return new PlainRDFIt<>(Triple.class, IterationElement.TRIPLE, it, source);
     }
 }
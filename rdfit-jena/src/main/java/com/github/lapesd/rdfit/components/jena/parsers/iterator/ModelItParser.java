@@ -16,24 +16,56 @@
 
 package com.github.lapesd.rdfit.components.jena.parsers.iterator;
 
+import com.github.lapesd.rdfit.components.jena.JenaPatternMatcher;
 import com.github.lapesd.rdfit.components.parsers.BaseItParser;
 import com.github.lapesd.rdfit.iterator.IterationElement;
 import com.github.lapesd.rdfit.iterator.PlainRDFIt;
 import com.github.lapesd.rdfit.iterator.RDFIt;
+import com.github.lapesd.rdfit.source.PatternSource;
+import org.apache.jena.graph.Node;
 import org.apache.jena.rdf.model.Model;
 import org.apache.jena.rdf.model.Statement;
-import org.apache.jena.rdf.model.StmtIterator;
 
 import javax.annotation.Nonnull;
-import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
 
+import static java.util.Arrays.asList;
+import static java.util.Collections.unmodifiableSet;
+
+/**
+ * Iterates the statements of a {@link Model}.
+ *
+ * A {@link PatternSource} over a {@link Model} is evaluated with
+ * {@link org.apache.jena.graph.Graph#find(Node, Node, Node)} on the {@link Model#getGraph()}.
+ */
 public class ModelItParser extends BaseItParser {
+    private static final @Nonnull Set<Class<?>> CLASSES = unmodifiableSet(new HashSet<>(asList(
+            Model.class, PatternSource.class
+    )));
+
     public ModelItParser() {
-        super(Collections.singleton(Model.class), Statement.class, IterationElement.TRIPLE);
+        super(CLASSES, Statement.class, IterationElement.TRIPLE);
+    }
+
+    @Override public boolean canParse(@Nonnull Object source) {
+        if (source instanceof PatternSource)
+            return GraphItParser.canFind((PatternSource) source, Model.class);
+        return source instanceof Model;
     }
 
     @Override public @Nonnull <T> RDFIt<T> parse(@Nonnull Object source) {
-        StmtIterator it = ((Model) source).listStatements();
+        Iterator<Statement> it;
+        if (source instanceof PatternSource) {
+            PatternSource pattern = (PatternSource) source;
+            Node[] n = JenaPatternMatcher.toNodes(pattern);
+            assert n != null;
+            Model model = (Model) pattern.getSource();
+            it = model.getGraph().find(n[1], n[2], n[3]).mapWith(model::asStatement);
+        } else {
+            it = ((Model) source).listStatements();
+        }
         return new PlainRDFIt<>(Statement.class, IterationElement.TRIPLE, it, source);
     }
 }
@@ -17,6 +17,7 @@
 package com.github.lapesd.rdfit.components.jena;
 
 import com.github.lapesd.rdfit.RDFItFactory;
+import com.github.lapesd.rdfit.RIt;
 import com.github.lapesd.rdfit.components.converters.impl.DefaultConversionManager;
 import com.github.lapesd.rdfit.components.normalizers.DefaultSourceNormalizerRegistry;
 import com.github.lapesd.rdfit.components.parsers.DefaultParserRegistry;
@@ -24,8 +25,11 @@ import com.github.lapesd.rdfit.errors.InconvertibleException;
 import com.github.lapesd.rdfit.errors.InterruptParsingException;
 import com.github.lapesd.rdfit.errors.RDFItException;
 import com.github.lapesd.rdfit.impl.DefaultRDFItFactory;
+import com.github.lapesd.rdfit.iterator.RDFIt;
 import com.github.lapesd.rdfit.listener.RDFListenerBase;
+import com.github.lapesd.rdfit.source.PatternSource;
 import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Node;
 import org.apache.jena.graph.Triple;
 import org.apache.jena.query.Dataset;
 import org.apache.jena.query.DatasetFactory;
@@ -57,6 +61,7 @@ import static org.apache.jena.query.QueryExecutionFactory.create;
 import static org.apache.jena.rdf.model.ResourceFactory.*;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.expectThrows;
 
 public class JenaModelParsersTest {
     private static final @Nonnull String EX = "http://example.org/";
@@ -68,6 +73,10 @@ public class JenaModelParsersTest {
     private Statement stmt;
     private Triple triple;
     private Quad defQuad, exQuad, sQuad;
+    private Graph pGraph;
+    private Model pModel;
+    private DatasetGraph pDs;
+    private Triple tSPO, tSPO2, tS2PO, tSQO;
 
     @BeforeClass
     public void setUp() {
@@ -96,6 +105,18 @@ public class JenaModelParsersTest {
         defQuad = new Quad(Quad.defaultGraphIRI, triple);
         exQuad = new Quad(createURI(EX), triple);
         sQuad = new Quad(createURI(EX+"S"), triple);
+
+        tSPO = triple;
+        tSPO2 = new Triple(createURI(EX+"S"), createURI(EX+"P"), createURI(EX+"O2"));
+        tS2PO = new Triple(createURI(EX+"S2"), createURI(EX+"P"), createURI(EX+"O"));
+        tSQO = new Triple(createURI(EX+"S"), createURI(EX+"Q"), createURI(EX+"O"));
+        pGraph = GraphFactory.createDefaultGraph();
+        for (Triple t : asList(tSPO, tSPO2, tS2PO, tSQO))
+            pGraph.add(t);
+        pModel = ModelFactory.createModelForGraph(pGraph);
+        pDs = DatasetGraphFactory.create();
+        pDs.addGraph(createURI(EX+"G"), pGraph);
+        pDs.getDefaultGraph().add(tSPO);
     }
 
     @DataProvider public Object[][] iterateData() {
@@ -169,6 +190,85 @@ public class JenaModelParsersTest {
         assertEquals(actual.size(), expected.size());
     }
 
+    @DataProvider public Object[][] patternData() {
+        Node s = createURI(EX+"S"), p = createURI(EX+"P"), o = createURI(EX+"O");
+        Node g = createURI(EX+"G");
+        List<Triple> list = asList(tSPO, tSPO2, tS2PO, tSQO);
+        return Stream.of(
+                // native Graph.find()
+                asList(RIt.pattern(pGraph, s, null, null), Triple.class,
+                       asList(tSPO, tSPO2, tSQO)),
+                asList(RIt.pattern(pGraph, null, EX+"P", o), Triple.class, asList(tSPO, tS2PO)),
+                asList(RIt.pattern(pGraph, Node.ANY, p, createURI(EX+"X")), Triple.class,
+                       emptyList()),
+                asList(RIt.pattern(pModel, createResource(EX+"S"), createProperty(EX+"P"), null),
+                       Triple.class, asList(tSPO, tSPO2)),
+                asList(RIt.pattern(pModel, s, null, o), Statement.class,
+                       asList(pModel.asStatement(tSPO), pModel.asStatement(tSQO))),
+                // native DatasetGraph.find()
+                asList(RIt.pattern(pDs, s, p, o), Quad.class,
+                       asList(new Quad(g, tSPO), new Quad(Quad.defaultGraphIRI, tSPO))),
+                asList(RIt.pattern(pDs, null, null, o, EX+"G"), Quad.class,
+                       asList(new Quad(g, tSPO), new Quad(g, tS2PO), new Quad(g, tSQO))),
+                // triples have no graph
+                asList(RIt.pattern(pGraph, s, p, o, g), Triple.class, emptyList()),
+                // filtering fallback
+                asList(RIt.pattern(list, s, p, null), Triple.class, asList(tSPO, tSPO2)),
+                asList(RIt.pattern(list, null, EX+"Q", null), Statement.class,
+                       singletonList(pModel.asStatement(tSQO))),
+                asList(RIt.pattern(list, s, p, null, g), Triple.class, emptyList())
+        ).map(List::toArray).toArray(Object[][]::new);
+    }
+
+    @Test(dataProvider = "patternData")
+    public void testIteratePattern(@Nonnull PatternSource in, @Nonnull Class<?> valueClass,
+                                   @Nonnull List<?> expected) {
+        List<Object> actual = new ArrayList<>();
+        if (valueClass.equals(Quad.class))
+            factory.iterateQuads(valueClass, in).forEachRemaining(actual::add);
+        else
+            factory.iterateTriples(valueClass, in).forEachRemaining(actual::add);
+        assertEquals(new HashSet<>(actual), new HashSet<>(expected));
+        assertEquals(actual.size(), expected.size());
+    }
+
+    @Test(dataProvider = "patternData")
+    public void testParsePattern(@Nonnull PatternSource in, @Nonnull Class<?> valueClass,
+                                 @Nonnull List<?> expected) {
+        boolean quads = valueClass.equals(Quad.class);
+        List<Object> actual = new ArrayList<>();
+        List<Exception> exceptions = new ArrayList<>();
+        //noinspection unchecked
+        Class<Object> cls = (Class<Object>) valueClass;
+        factory.parse(new RDFListenerBase<Object, Object>(quads ? null : cls, quads ? cls : null) {
+            @Override public void triple(@Nonnull Object triple) {
+                actual.add(triple);
+            }
+
+            @Override public void quad(@Nonnull Object quad) {
+                actual.add(quad);
+            }
+
+            @Override public boolean notifySourceError(@Nonnull RDFItException e) {
+                exceptions.add(e);
+                return super.notifySourceError(e);
+            }
+        }, in);
+        assertEquals(exceptions, emptyList());
+        assertEquals(new HashSet<>(actual), new HashSet<>(expected));
+        assertEquals(actual.size(), expected.size());
+    }
+
+    @Test
+    public void testUnsupportedPatternTerm() {
+        PatternSource in = RIt.pattern(pGraph, 23, null, null);
+        expectThrows(RDFItException.class, () -> {
+            try (RDFIt<Triple> it = factory.iterateTriples(Triple.class, in)) {
+                it.forEachRemaining(t -> {});
+            }
+        });
+    }
+
     @DataProvider public Object[][] parseData() {
         return Stream.of(
                 asList(model, Statement.class, null, singleton(stmt), emptyList()),
@@ -22,10 +22,13 @@ import com.github.lapesd.rdfit.components.rdf4j.parsers.RDF4JFormat;
 import com.github.lapesd.rdfit.errors.InterruptParsingException;
 import com.github.lapesd.rdfit.errors.RDFItException;
 import com.github.lapesd.rdfit.listener.RDFListener;
+import com.github.lapesd.rdfit.source.RDFFileSlice;
 import com.github.lapesd.rdfit.source.RDFInputStream;
 import com.github.lapesd.rdfit.source.syntax.RDFLangs;
 import com.github.lapesd.rdfit.source.syntax.impl.RDFLang;
+import org.eclipse.rdf4j.model.BNode;
 import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
 import org.eclipse.rdf4j.rio.*;
 import org.eclipse.rdf4j.rio.helpers.BasicParserSettings;
 import org.slf4j.Logger;
@@ -108,6 +111,21 @@ public class RDF4JInputStreamParser extends BaseListenerParser {
     private static class EndParseException extends RuntimeException {
     }
 
+    /**
+     * Prefixes blank node labels with the file-wide scope of a {@link RDFFileSlice}.
+     */
+    private static class ScopedBNodeValueFactory extends SimpleValueFactory {
+        private final @Nonnull String prefix;
+
+        public ScopedBNodeValueFactory(@Nonnull RDFFileSlice slice) {
+            this.prefix = "genid-" + slice.getBlankNodeScope().toString().replace("-", "") + "-";
+        }
+
+        @Override public BNode createBNode(String nodeID) {
+            return super.createBNode(prefix + nodeID);
+        }
+    }
+
     @Override
     public void parse(@Nonnull Object source,
                       @Nonnull RDFListener<?, ?> listener) throws InterruptParsingException {
@@ -117,6 +135,11 @@ public class RDF4JInputStreamParser extends BaseListenerParser {
             RDFParser parser = Rio.createParser(fmt);
             for (RioSetting<?> setting : nonFatalErrors)
                 parser.getParserConfig().addNonFatalError(setting);
+            if (ris instanceof RDFFileSlice) {
+                // same label in two slices of the same file must yield the same blank node
+                parser.getParserConfig().set(BasicParserSettings.PRESERVE_BNODE_IDS, true);
+                parser.setValueFactory(new ScopedBNodeValueFactory((RDFFileSlice) ris));
+            }
             parser.setRDFHandler(handler);
             parser.setParseErrorListener(new ParseErrorListener() {
                 @Override public void warning(String msg, long l, long c) {
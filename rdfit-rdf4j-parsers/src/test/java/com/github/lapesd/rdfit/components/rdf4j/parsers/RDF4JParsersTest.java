@@ -25,17 +25,19 @@ import com.github.lapesd.rdfit.errors.InconvertibleException;
 import com.github.lapesd.rdfit.errors.InterruptParsingException;
 import com.github.lapesd.rdfit.errors.RDFItException;
 import com.github.lapesd.rdfit.impl.DefaultRDFItFactory;
+import com.github.lapesd.rdfit.iterator.ParallelFlatMapRDFIt;
 import com.github.lapesd.rdfit.iterator.RDFIt;
 import com.github.lapesd.rdfit.listener.RDFListenerBase;
 import com.github.lapesd.rdfit.listener.TripleListenerBase;
 import com.github.lapesd.rdfit.source.RDFBytesInputStream;
+import com.github.lapesd.rdfit.source.RDFFile;
+import com.github.lapesd.rdfit.source.RDFFileSlice;
 import com.github.lapesd.rdfit.source.RDFInputStream;
 import com.github.lapesd.rdfit.source.syntax.RDFLangs;
 import com.github.lapesd.rdfit.source.syntax.impl.RDFLang;
-import org.eclipse.rdf4j.model.IRI;
-import org.eclipse.rdf4j.model.Resource;
-import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.*;
 import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.model.util.Models;
 import org.eclipse.rdf4j.rio.RDFFormat;
 import org.eclipse.rdf4j.rio.RDFWriter;
 import org.eclipse.rdf4j.rio.Rio;
@@ -48,6 +50,7 @@ import javax.annotation.Nonnull;
 import java.io.*;
 import java.net.URISyntaxException;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.*;
 
 import static java.util.Arrays.asList;
@@ -343,4 +346,95 @@ public class RDF4JParsersTest {
         assertEqualStatements(triples, expected);
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testParallelSplitNQ() throws IOException {
+        StringBuilder b = new StringBuilder();
+        for (int i = 0; i < 400; i++) {
+            b.append("_:b").append(i % 7).append(" <").append(EX).append("p> <")
+             .append(EX).append("O").append(i).append("> <").append(EX).append("G1> .\n");
+            b.append("<").append(EX).append("S").append(i).append("> <").append(EX)
+             .append("q> _:b").append((i * 3) % 7).append(" .\n");
+        }
+        File file = Files.createTempFile("rdfit", ".nq").toFile();
+        file.deleteOnExit();
+        try {
+            Files.write(file.toPath(), b.toString().getBytes(StandardCharsets.UTF_8));
+            Model expected = Rio.parse(new FileInputStream(file), "", RDFFormat.NQUADS);
+            assertEquals(expected.size(), 800);
+
+            DefaultRDFItFactory factory = (DefaultRDFItFactory) this.factory;
+            List<Statement> actual = new ArrayList<>();
+            long oldSplitBytes = factory.getParallelSplitBytes();
+            factory.setParallelSplitBytes(512);
+            try {
+                RDFFile source = new RDFFile(file, RDFLangs.NQ);
+                assertNotNull(RDFFileSlice.splitLines(source, 512));
+                factory.iterateQuadsParallel(4, ParallelFlatMapRDFIt.Merge.UNORDERED,
+                                             Statement.class, source)
+                       .forEachRemaining(actual::add);
+            } finally {
+                factory.setParallelSplitBytes(oldSplitBytes);
+            }
+            assertEquals(actual.size(), 800);
+            assertTrue(Models.isomorphic(actual, expected));
+            Set<Value> bNodes = new HashSet<>();
+            for (Statement s : actual) {
+                if (s.getSubject() instanceof BNode) bNodes.add(s.getSubject());
+                if (s.getObject()  instanceof BNode) bNodes.add(s.getObject());
+            }
+            assertEquals(bNodes.size(), 7);
+        } finally {
+            assertTrue(file.delete());
+        }
+    }
+
+    @Test
+    public void testParallelSplitTurtle() throws IOException {
+        StringBuilder b = new StringBuilder("@prefix : <"+EX+"> .\n");
+        for (int i = 0; i < 100; i++) {
+            b.append(":s").append(i).append(" :p [ :q \"\"\"v\n. ").append(i).append("\"\"\" ], ")
+             .append("_:b").append(i % 5).append(" ;\n  :r :o").append(i).append(" .\n");
+        }
+        File file = Files.createTempFile("rdfit", ".ttl").toFile();
+        file.deleteOnExit();
+        try {
+            Files.write(file.toPath(), b.toString().getBytes(StandardCharsets.UTF_8));
+            Model expected = Rio.parse(new FileInputStream(file), "", RDFFormat.TURTLE);
+            assertEquals(expected.size(), 400);
+
+            DefaultRDFItFactory factory = (DefaultRDFItFactory) this.factory;
+            List<Statement> actual = new ArrayList<>();
+            long oldSplitBytes = factory.getParallelSplitBytes();
+            factory.setParallelSplitBytes(256);
+            try {
+                RDFFile source = new RDFFile(file, RDFLangs.TTL);
+                List<RDFFileSlice> slices = RDFFileSlice.split(source, 256);
+                assertNotNull(slices);
+                assertTrue(slices.size() > 10);
+                factory.iterateTriplesParallel(4, ParallelFlatMapRDFIt.Merge.ORDERED,
+                                               Statement.class, source)
+                       .forEachRemaining(actual::add);
+            } finally {
+                factory.setParallelSplitBytes(oldSplitBytes);
+            }
+            assertEquals(actual.size(), 400);
+            Set<Statement> ground = new HashSet<>(), exGround = new HashSet<>();
+            Set<Value> bNodes = new HashSet<>(), exBNodes = new HashSet<>();
+            for (Statement s : actual) {
+                if (s.getSubject() instanceof BNode) bNodes.add(s.getSubject());
+                if (s.getObject()  instanceof BNode) bNodes.add(s.getObject());
+                else if (!(s.getSubject() instanceof BNode)) ground.add(s);
+            }
+            for (Statement s : expected) {
+                if (s.getSubject() instanceof BNode) exBNodes.add(s.getSubject());
+                if (s.getObject()  instanceof BNode) exBNodes.add(s.getObject());
+                else if (!(s.getSubject() instanceof BNode)) exGround.add(s);
+            }
+            assertEquals(ground, exGround);
+            assertEquals(bNodes.size(), exBNodes.size());
+            assertEquals(bNodes.size(), 105);
+        } finally {
+            assertTrue(file.delete());
+        }
+    }
+}
@@ -96,6 +96,7 @@ public class RDF4JModelParsers {
 
     public static void registerItParsers(@Nonnull ParserRegistry registry) {
         for (Supplier<ItParser> supplier : IT_SUPPLIERS) registry.register(supplier.get());
+        registry.registerMatcher(new RDF4JPatternMatcher());
     }
     public static void registerItParsers(@Nonnull RDFItFactory factory) {
         registerItParsers(factory.getParserRegistry());
@@ -120,6 +121,7 @@ public class RDF4JModelParsers {
 
     public static void unregisterItParsers(@Nonnull ParserRegistry registry) {
         registry.unregisterIf(p -> IT_CLASSES.contains(p.getClass()));
+        registry.unregisterMatcherIf(RDF4JPatternMatcher.class::isInstance);
     }
     public static void unregisterItParsers(@Nonnull RDFItFactory factory) {
         unregisterItParsers(factory.getParserRegistry());
@@ -0,0 +1,128 @@
+/*
+ *    Copyright 2021 Alexis Armin Huf
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.github.lapesd.rdfit.components.rdf4j;
+
+import com.github.lapesd.rdfit.components.PatternMatcher;
+import com.github.lapesd.rdfit.source.PatternSource;
+import com.github.lapesd.rdfit.util.Utils;
+import org.eclipse.rdf4j.model.BNode;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.function.Predicate;
+
+/**
+ * A {@link PatternMatcher} for RDF4J {@link Statement}s.
+ *
+ * Understands {@link Value} and {@link String} (IRI) terms. The graph of the pattern is
+ * compared to {@link Statement#getContext()}.
+ */
+public class RDF4JPatternMatcher implements PatternMatcher {
+    /**
+     * Marks a term that is not understood by {@link #toValue(Object)}
+     */
+    private static final @Nonnull Value UNKNOWN = SimpleValueFactory.getInstance()
+            .createIRI("urn:rdfit:rdf4j:unknown-pattern-term");
+
+    /**
+     * Convert all terms of a pattern into {@link Value}s.
+     *
+     * @param pattern the pattern
+     * @return array with graph, subject, predicate and object, in that order (null entries
+     *         are wildcards), or null if some term is not a {@link Value} nor a {@link String}.
+     */
+    public static @Nullable Value[] toValues(@Nonnull PatternSource pattern) {
+        Value[] values = {toValue(pattern.getGraph()), toValue(pattern.getSubject()),
+                          toValue(pattern.getPredicate()), toValue(pattern.getObject())};
+        for (Value v : values) {
+            if (v == UNKNOWN) return null;
+        }
+        return values;
+    }
+
+    /**
+     * Tests whether the terms in values have the types required by the
+     * {@code getStatements(Resource, IRI, Value, Resource...)}-like methods in RDF4J.
+     *
+     * @param values output of {@link #toValues(PatternSource)}
+     * @return true iff graph and subject are {@link Resource}s and predicate is an {@link IRI}
+     */
+    public static boolean isIndexable(@Nullable Value[] values) {
+        return values != null
+                && (values[0] == null || values[0] instanceof Resource)
+                && (values[1] == null || values[1] instanceof Resource)
+                && (values[2] == null || values[2] instanceof IRI);
+    }
+
+    /**
+     * Contexts argument for {@code getStatements(Resource, IRI, Value, Resource...)}.
+     *
+     * @param values output of {@link #toValues(PatternSource)}
+     * @return an empty array (any context) or an array with the graph
+     */
+    public static @Nonnull Resource[] toContexts(@Nonnull Value[] values) {
+        return values[0] == null ? new Resource[0] : new Resource[] {(Resource) values[0]};
+    }
+
+    private static @Nullable Value toValue(@Nullable Object term) {
+        if (term == null || term instanceof Value)
+            return (Value) term;
+        if (term instanceof String)
+            return SimpleValueFactory.getInstance().createIRI((String) term);
+        return UNKNOWN;
+    }
+
+    @Override public @Nonnull Collection<Class<?>> acceptedClasses() {
+        return Collections.singleton(Statement.class);
+    }
+
+    @Override public @Nullable Predicate<Object> createPredicate(@Nonnull PatternSource pattern) {
+        Value[] v = toValues(pattern);
+        if (v == null)
+            return null;
+        Value g = v[0], s = v[1], p = v[2], o = v[3];
+        return value -> {
+            Statement st = (Statement) value;
+            return (g == null || g.equals(st.getContext()))
+                    && (s == null || s.equals(st.getSubject()))
+                    && (p == null || p.equals(st.getPredicate()))
+                    && (o == null || o.equals(st.getObject()));
+        };
+    }
+
+    @Override
+    public @Nullable Predicate<String> createGraphPredicate(@Nonnull PatternSource pattern) {
+        Value g = toValue(pattern.getGraph());
+        if (g == UNKNOWN)
+            return null;
+        if (g == null)
+            return name -> true;
+        String expected = g instanceof BNode ? "_:"+((BNode) g).getID() : g.stringValue();
+        return expected::equals;
+    }
+
+    @Override public @Nonnull String toString() {
+        return Utils.toString(this);
+    }
+}
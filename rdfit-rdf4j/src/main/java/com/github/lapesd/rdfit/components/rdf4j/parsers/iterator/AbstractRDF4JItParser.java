@@ -21,12 +21,17 @@ import com.github.lapesd.rdfit.errors.RDFItException;
 import com.github.lapesd.rdfit.iterator.ErrorRDFIt;
 import com.github.lapesd.rdfit.iterator.IterationElement;
 import com.github.lapesd.rdfit.iterator.RDFIt;
+import com.github.lapesd.rdfit.source.PatternSource;
 import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.Value;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.util.Collection;
 
+import static com.github.lapesd.rdfit.components.rdf4j.RDF4JPatternMatcher.isIndexable;
+import static com.github.lapesd.rdfit.components.rdf4j.RDF4JPatternMatcher.toValues;
+
 public abstract class AbstractRDF4JItParser extends BaseItParser {
     public AbstractRDF4JItParser(@Nonnull Collection<Class<?>> acceptedClasses,
                                  @Nonnull IterationElement itElement) {
@@ -44,6 +49,35 @@ public abstract class AbstractRDF4JItParser extends BaseItParser {
         return createError(source, msg, null);
     }
 
+    /**
+     * Tests whether source is a {@link PatternSource} over an instance of innerClass whose
+     * terms can be given to the RDF4J {@code getStatements()}-like methods.
+     *
+     * @param source the source
+     * @param innerClass required class of {@link PatternSource#getSource()}
+     * @return true iff source is such a {@link PatternSource}
+     */
+    protected static boolean
+    isIndexablePattern(@Nonnull Object source, @Nonnull Class<?> innerClass) {
+        if (!(source instanceof PatternSource))
+            return false;
+        PatternSource pattern = (PatternSource) source;
+        return innerClass.isInstance(pattern.getSource()) && isIndexable(toValues(pattern));
+    }
+
+    /**
+     * Get the values of a pattern accepted by {@link #isIndexablePattern(Object, Class)}.
+     *
+     * @param pattern the {@link PatternSource}
+     * @return graph, subject, predicate and object, with null for wildcards
+     */
+    protected static @Nonnull Value[] indexableValues(@Nonnull PatternSource pattern) {
+        Value[] values = toValues(pattern);
+        if (!isIndexable(values))
+            throw new RDFItException(pattern, "Pattern terms are not indexable RDF4J Values");
+        return values;
+    }
+
     protected abstract @Nonnull RDFIt<Statement> doParse(@Nonnull Object source) throws Exception;
 
     @SuppressWarnings("unchecked")
@@ -19,21 +19,55 @@ package com.github.lapesd.rdfit.components.rdf4j.parsers.iterator;
 import com.github.lapesd.rdfit.components.rdf4j.parsers.iterator.impl.RepositoryResultRDFIt;
 import com.github.lapesd.rdfit.iterator.IterationElement;
 import com.github.lapesd.rdfit.iterator.RDFIt;
+import com.github.lapesd.rdfit.source.PatternSource;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Resource;
 import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.Value;
 import org.eclipse.rdf4j.repository.RepositoryConnection;
 import org.eclipse.rdf4j.repository.RepositoryResult;
 
 import javax.annotation.Nonnull;
-import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
 
+import static com.github.lapesd.rdfit.components.rdf4j.RDF4JPatternMatcher.toContexts;
+import static java.util.Arrays.asList;
+import static java.util.Collections.unmodifiableSet;
+
+/**
+ * Iterates the statements in a {@link RepositoryConnection}.
+ *
+ * A {@link PatternSource} over a connection is evaluated with
+ * {@link RepositoryConnection#getStatements(Resource, IRI, Value, Resource...)}.
+ */
 public class ConnectionItParser extends AbstractRDF4JItParser {
+    private static final @Nonnull Set<Class<?>> CLASSES = unmodifiableSet(new HashSet<>(asList(
+            RepositoryConnection.class, PatternSource.class
+    )));
+
     public ConnectionItParser(@Nonnull IterationElement iterationElement) {
-        super(Collections.singleton(RepositoryConnection.class), iterationElement);
+        super(CLASSES, iterationElement);
+    }
+
+    static @Nonnull RepositoryResult<Statement>
+    getStatements(@Nonnull RepositoryConnection conn, @Nonnull Object source) {
+        if (source instanceof PatternSource) {
+            Value[] v = indexableValues((PatternSource) source);
+            return conn.getStatements((Resource) v[1], (IRI) v[2], v[3], toContexts(v));
+        }
+        return conn.getStatements(null, null, null);
+    }
+
+    @Override public boolean canParse(@Nonnull Object source) {
+        return source instanceof RepositoryConnection
+                || isIndexablePattern(source, RepositoryConnection.class);
     }
 
     @Override protected @Nonnull  RDFIt<Statement> doParse(@Nonnull Object source) {
-        RepositoryResult<Statement> results;
-        results = ((RepositoryConnection) source).getStatements(null, null, null);
+        RepositoryConnection conn = (RepositoryConnection)
+                (source instanceof PatternSource ? ((PatternSource) source).getSource() : source);
+        RepositoryResult<Statement> results = getStatements(conn, source);
         return new RepositoryResultRDFIt(itElement(), source, null, results);
     }
 }
@@ -19,19 +19,50 @@ package com.github.lapesd.rdfit.components.rdf4j.parsers.iterator;
 import com.github.lapesd.rdfit.iterator.IterationElement;
 import com.github.lapesd.rdfit.iterator.PlainRDFIt;
 import com.github.lapesd.rdfit.iterator.RDFIt;
+import com.github.lapesd.rdfit.source.PatternSource;
+import org.eclipse.rdf4j.model.IRI;
 import org.eclipse.rdf4j.model.Model;
+import org.eclipse.rdf4j.model.Resource;
 import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.Value;
 
 import javax.annotation.Nonnull;
-import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
 
+import static com.github.lapesd.rdfit.components.rdf4j.RDF4JPatternMatcher.toContexts;
+import static java.util.Arrays.asList;
+import static java.util.Collections.unmodifiableSet;
+
+/**
+ * Iterates the statements of a {@link Model}.
+ *
+ * A {@link PatternSource} over a {@link Model} is evaluated with
+ * {@link Model#filter(Resource, IRI, Value, Resource...)}.
+ */
 public class ModelItParser extends AbstractRDF4JItParser {
+    private static final @Nonnull Set<Class<?>> CLASSES = unmodifiableSet(new HashSet<>(asList(
+            Model.class, PatternSource.class
+    )));
+
     public ModelItParser(@Nonnull IterationElement itElement) {
-        super(Collections.singleton(Model.class), itElement);
+        super(CLASSES, itElement);
+    }
+
+    @Override public boolean canParse(@Nonnull Object source) {
+        return source instanceof Model || isIndexablePattern(source, Model.class);
     }
 
     @Override protected @Nonnull RDFIt<Statement> doParse(@Nonnull Object source) {
-        return new PlainRDFIt<>(Statement.class, itElement(),
-                                ((Model)source).iterator(), source);
+        Model model;
+        if (source instanceof PatternSource) {
+            PatternSource pattern = (PatternSource) source;
+            Value[] v = indexableValues(pattern);
+            model = ((Model) pattern.getSource())
+                    .filter((Resource) v[1], (IRI) v[2], v[3], toContexts(v));
+        } else {
+            model = (Model) source;
+        }
+        return new PlainRDFIt<>(Statement.class, itElement(), model.iterator(), source);
     }
 }
@@ -19,22 +19,49 @@ package com.github.lapesd.rdfit.components.rdf4j.parsers.iterator;
 import com.github.lapesd.rdfit.components.rdf4j.parsers.iterator.impl.RepositoryResultRDFIt;
 import com.github.lapesd.rdfit.iterator.IterationElement;
 import com.github.lapesd.rdfit.iterator.RDFIt;
+import com.github.lapesd.rdfit.source.PatternSource;
 import org.eclipse.rdf4j.model.Statement;
 import org.eclipse.rdf4j.repository.Repository;
 import org.eclipse.rdf4j.repository.RepositoryConnection;
 import org.eclipse.rdf4j.repository.RepositoryResult;
 
 import javax.annotation.Nonnull;
-import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
 
+import static java.util.Arrays.asList;
+import static java.util.Collections.unmodifiableSet;
+
+/**
+ * Iterates the statements in a {@link Repository}.
+ *
+ * A {@link PatternSource} over a repository is evaluated with
+ * {@link RepositoryConnection#getStatements(org.eclipse.rdf4j.model.Resource,
+ * org.eclipse.rdf4j.model.IRI, org.eclipse.rdf4j.model.Value, org.eclipse.rdf4j.model.Resource...)}.
+ */
 public class RepositoryItParser extends AbstractRDF4JItParser {
+    private static final @Nonnull Set<Class<?>> CLASSES = unmodifiableSet(new HashSet<>(asList(
+            Repository.class, PatternSource.class
+    )));
+
     public RepositoryItParser(@Nonnull IterationElement itElement) {
-        super(Collections.singleton(Repository.class), itElement);
+        super(CLASSES, itElement);
+    }
+
+    @Override public boolean canParse(@Nonnull Object source) {
+        return source instanceof Repository || isIndexablePattern(source, Repository.class);
     }
 
     @Override protected @Nonnull RDFIt<Statement> doParse(@Nonnull Object source) {
-        RepositoryConnection conn = ((Repository) source).getConnection();
-        RepositoryResult<Statement> results = conn.getStatements(null, null, null);
-        return new RepositoryResultRDFIt(itElement(), source, conn, results);
+        Repository repo = (Repository)
+                (source instanceof PatternSource ? ((PatternSource) source).getSource() : source);
+        RepositoryConnection conn = repo.getConnection();
+        try {
+            RepositoryResult<Statement> results = ConnectionItParser.getStatements(conn, source);
+            return new RepositoryResultRDFIt(itElement(), source, conn, results);
+        } catch (RuntimeException e) {
+            conn.close();
+            throw e;
+        }
     }
 }
@@ -17,6 +17,7 @@
 package com.github.lapesd.rdfit.components.rdf4j.parsers;
 
 import com.github.lapesd.rdfit.RDFItFactory;
+import com.github.lapesd.rdfit.RIt;
 import com.github.lapesd.rdfit.components.converters.impl.DefaultConversionManager;
 import com.github.lapesd.rdfit.components.normalizers.DefaultSourceNormalizerRegistry;
 import com.github.lapesd.rdfit.components.parsers.DefaultParserRegistry;
@@ -28,6 +29,7 @@ import com.github.lapesd.rdfit.impl.DefaultRDFItFactory;
 import com.github.lapesd.rdfit.iterator.RDFIt;
 import com.github.lapesd.rdfit.listener.RDFListenerBase;
 import com.github.lapesd.rdfit.listener.TripleListenerBase;
+import com.github.lapesd.rdfit.source.PatternSource;
 import org.eclipse.rdf4j.model.BNode;
 import org.eclipse.rdf4j.model.IRI;
 import org.eclipse.rdf4j.model.Literal;
@@ -49,8 +51,10 @@ import java.util.*;
 import java.util.stream.Stream;
 
 import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
 import static java.util.Collections.singletonList;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.expectThrows;
 
 public class RDF4JModelParsersTest {
     private static final String EX = "http://example.org/";
@@ -232,4 +236,90 @@ public class RDF4JModelParsersTest {
         assertEquals(exceptions, Collections.emptyList());
     }
 
-}
\ No newline at end of file
+
+    @DataProvider public Object[][] patternData() {
+        SimpleValueFactory f = SimpleValueFactory.getInstance();
+        DynamicModel model = new DynamicModelFactory().createEmptyModel();
+        model.add(S1, P1, O1);
+        model.add(S1, P1, O2);
+        model.add(S2, P1, O1, G1);
+
+        List<Statement> list = asList(f.createStatement(S2, P1, O1),
+                                      f.createStatement(S1, P1, O2));
+
+        SailRepository repo = new SailRepository(new MemoryStore());
+        try (SailRepositoryConnection conn = repo.getConnection()) {
+            conn.add(f.createStatement(S1, P1, O1));
+            conn.add(f.createStatement(S1, P1, O2), G1);
+        }
+        Statement sp1o1 = f.createStatement(S1, P1, O1), sp1o2 = f.createStatement(S1, P1, O2);
+        Statement s2p1o1g1 = f.createStatement(S2, P1, O1, G1);
+        Statement sp1o2g1 = f.createStatement(S1, P1, O2, G1);
+
+        return Stream.of(
+                // Model.filter()
+                asList(RIt.pattern(model, S1, null, null), asList(sp1o1, sp1o2)),
+                asList(RIt.pattern(model, null, null, O1), asList(sp1o1, s2p1o1g1)),
+                asList(RIt.pattern(model, null, EX+"P1", O1, EX+"G1"), singletonList(s2p1o1g1)),
+                // getStatements()
+                asList(RIt.pattern(repo, null, P1, null), asList(sp1o1, sp1o2g1)),
+                asList(RIt.pattern(repo, null, null, null, G1), singletonList(sp1o2g1)),
+                asList(RIt.pattern(repo.getConnection(), S1, EX+"P1", O1), singletonList(sp1o1)),
+                // not indexable: a literal is never a subject
+                asList(RIt.pattern(repo, O2, null, null), emptyList()),
+                // filtering fallback
+                asList(RIt.pattern(list, null, P1, O1), singletonList(list.get(0))),
+                asList(RIt.pattern(list, S1, null, null), singletonList(sp1o2)),
+                asList(RIt.pattern(list, null, null, null, G1), emptyList())
+        ).map(List::toArray).toArray(Object[][]::new);
+    }
+
+    @Test(dataProvider = "patternData")
+    public void testIteratePattern(@Nonnull PatternSource in,
+                                   @Nonnull Collection<Statement> expected) {
+        List<Statement> actual = new ArrayList<>();
+        try (RDFIt<Statement> it = factory.iterateQuads(Statement.class, in)) {
+            it.forEachRemaining(actual::add);
+        }
+        assertEquals(new HashSet<>(actual), new HashSet<>(expected));
+        assertEquals(actual.size(), expected.size());
+    }
+
+    @Test(dataProvider = "patternData")
+    public void testParsePattern(@Nonnull PatternSource in,
+                                 @Nonnull Collection<Statement> expected) {
+        List<Exception> exceptions = new ArrayList<>();
+        List<Statement> actual = new ArrayList<>();
+        factory.parse(new RDFListenerBase<Statement, Statement>(Statement.class, Statement.class) {
+            @Override public void triple(@Nonnull Statement triple) {
+                actual.add(triple);
+            }
+
+            @Override public void quad(@Nonnull Statement quad) {
+                actual.add(quad);
+            }
+
+            @Override
+            public boolean notifySourceError(@Nonnull RDFItException e) {
+                exceptions.add(e);
+                return true;
+            }
+        }, in);
+
+        assertEquals(new HashSet<>(actual), new HashSet<>(expected));
+        assertEquals(actual.size(), expected.size());
+        assertEquals(exceptions, Collections.emptyList());
+    }
+
+    @Test
+    public void testUnsupportedPatternTerm() {
+        DynamicModel model = new DynamicModelFactory().createEmptyModel();
+        model.add(S1, P1, O1);
+        PatternSource in = RIt.pattern(model, null, null, 23);
+        expectThrows(RDFItException.class, () -> {
+            try (RDFIt<Statement> it = factory.iterateTriples(Statement.class, in)) {
+                it.forEachRemaining(s -> {});
+            }
+        });
+    }
+}
@@ -0,0 +1,386 @@
+/*
+ *    Copyright 2021 Alexis Armin Huf
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.github.lapesd.rdfit.reactive;
+
+import com.github.lapesd.rdfit.RDFItFactory;
+import com.github.lapesd.rdfit.errors.InconvertibleException;
+import com.github.lapesd.rdfit.errors.InterruptParsingException;
+import com.github.lapesd.rdfit.errors.RDFItException;
+import com.github.lapesd.rdfit.impl.DefaultRDFItFactory;
+import com.github.lapesd.rdfit.iterator.IterationElement;
+import com.github.lapesd.rdfit.listener.RDFListenerBase;
+import com.github.lapesd.rdfit.util.Utils;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static com.github.lapesd.rdfit.iterator.IterationElement.QUAD;
+import static com.github.lapesd.rdfit.iterator.IterationElement.TRIPLE;
+import static java.lang.String.format;
+
+/**
+ * A Reactive Streams {@link Publisher} of the triples (or quads) in a set of sources.
+ *
+ * Each {@link Subscriber} gets its own parse of the sources, as in
+ * {@link RDFItFactory#parse(com.github.lapesd.rdfit.listener.RDFListener, Object...)}.
+ * Parsing starts on the first {@link Subscription#request(long)} and runs in a task of
+ * the factory {@link RDFItFactory#getParserExecutor()}. That task delivers
+ * {@link Subscriber#onNext(Object)} signals while there is outstanding demand and waits
+ * (suspending the parser) when there is none. Thus the subscriber threads never block, but
+ * the parser executor thread stays parked (in a {@link Condition}, which does not pin
+ * virtual threads) while demand is zero, until {@link Subscription#request(long)} or
+ * {@link Subscription#cancel()} is called: size the executor for one thread per active
+ * subscription.
+ * {@link Subscription#cancel()} stops the parser at the next triple/quad.
+ *
+ * Parse errors and inconvertible triples/quads are delivered with
+ * {@link Subscriber#onError(Throwable)}. A null source is reported to every subscriber with
+ * {@link Subscriber#onError(Throwable)} right after
+ * {@link Subscriber#onSubscribe(Subscription)}, without waiting for demand. Sources that
+ * can be consumed only once (e.g., {@link java.io.InputStream}s) should not be shared by
+ * more than one subscriber.
+ *
+ * This class can be given directly to Reactor (<code>Flux.from()</code>) and RxJava
+ * (<code>Flowable.fromPublisher()</code>). On Java 9+,
+ * <code>org.reactivestreams.FlowAdapters.toFlowPublisher()</code> converts it into a
+ * {@link java.util.concurrent.Flow.Publisher}.
+ *
+ * @param <T> the triple or quad type
+ */
+public class RDFPublisher<T> implements Publisher<T> {
+    private static final Logger logger = LoggerFactory.getLogger(RDFPublisher.class);
+
+    private final @Nonnull RDFItFactory factory;
+    private final @Nonnull IterationElement itElement;
+    private final @Nonnull Class<T> valueClass;
+    private final @Nonnull Object[] sources;
+
+    public RDFPublisher(@Nonnull RDFItFactory factory, @Nonnull IterationElement itElement,
+                        @Nonnull Class<T> valueClass, @Nonnull Object... sources) {
+        this.factory = factory;
+        this.itElement = itElement;
+        this.valueClass = valueClass;
+        this.sources = Arrays.copyOf(sources, sources.length);
+    }
+
+    /**
+     * Create a {@link RDFPublisher} of triples using the {@link DefaultRDFItFactory}.
+     *
+     * @param <T> the triple type
+     * @param tripleClass the {@link Class} of T
+     * @param sources the sources to parse
+     * @return a new {@link RDFPublisher}
+     */
+    public static @Nonnull <T> RDFPublisher<T> triples(@Nonnull Class<T> tripleClass,
+                                                       @Nonnull Object... sources) {
+        return triples(DefaultRDFItFactory.get(), tripleClass, sources);
+    }
+
+    /**
+     * Create a {@link RDFPublisher} of triples using the given factory.
+     *
+     * @param <T> the triple type
+     * @param factory the {@link RDFItFactory} that will parse sources
+     * @param tripleClass the {@link Class} of T
+     * @param sources the sources to parse
+     * @return a new {@link RDFPublisher}
+     */
+    public static @Nonnull <T> RDFPublisher<T> triples(@Nonnull RDFItFactory factory,
+                                                       @Nonnull Class<T> tripleClass,
+                                                       @Nonnull Object... sources) {
+        return new RDFPublisher<>(factory, TRIPLE, tripleClass, sources);
+    }
+
+    /**
+     * Create a {@link RDFPublisher} of quads using the {@link DefaultRDFItFactory}.
+     *
+     * @param <Q> the quad type
+     * @param quadClass the {@link Class} of Q
+     * @param sources the sources to parse
+     * @return a new {@link RDFPublisher}
+     */
+    public static @Nonnull <Q> RDFPublisher<Q> quads(@Nonnull Class<Q> quadClass,
+                                                     @Nonnull Object... sources) {
+        return quads(DefaultRDFItFactory.get(), quadClass, sources);
+    }
+
+    /**
+     * Create a {@link RDFPublisher} of quads using the given factory.
+     *
+     * @param <Q> the quad type
+     * @param factory the {@link RDFItFactory} that will parse sources
+     * @param quadClass the {@link Class} of Q
+     * @param sources the sources to parse
+     * @return a new {@link RDFPublisher}
+     */
+    public static @Nonnull <Q> RDFPublisher<Q> quads(@Nonnull RDFItFactory factory,
+                                                     @Nonnull Class<Q> quadClass,
+                                                     @Nonnull Object... sources) {
+        return new RDFPublisher<>(factory, QUAD, quadClass, sources);
+    }
+
+    private @Nullable RDFItException checkSources() {
+        for (int i = 0; i < sources.length; i++) {
+            if (sources[i] == null)
+                return new RDFItException(Arrays.asList(sources), "null source at index "+i);
+        }
+        return null;
+    }
+
+    public @Nonnull IterationElement itElement() {
+        return itElement;
+    }
+
+    public @Nonnull Class<T> valueClass() {
+        return valueClass;
+    }
+
+    @Override public void subscribe(@Nonnull Subscriber<? super T> subscriber) {
+        //noinspection ConstantConditions
+        if (subscriber == null)
+            throw new NullPointerException("null subscriber");
+        RDFSubscription s = new RDFSubscription(subscriber);
+        try {
+            subscriber.onSubscribe(s);
+        } catch (Throwable t) {
+            logger.error("{}: ignoring exception from {}.onSubscribe()", this, subscriber, t);
+            s.cancel();
+        }
+        s.subscribed();
+    }
+
+    private class RDFSubscription extends RDFListenerBase<Object, Object>
+            implements Subscription, Runnable {
+        private final @Nonnull Subscriber<? super T> subscriber;
+        private final @Nonnull ReentrantLock lock = new ReentrantLock();
+        private final @Nonnull Condition demanded = lock.newCondition();
+        private long demand = 0;
+        private boolean subscribed = false, started = false, cancelled = false;
+        private @Nullable Throwable error;
+
+        @SuppressWarnings("unchecked")
+        public RDFSubscription(@Nonnull Subscriber<? super T> subscriber) {
+            super(itElement.isTriple() ? (Class<Object>) valueClass : null,
+                  itElement.isQuad()   ? (Class<Object>) valueClass : null);
+            this.subscriber = subscriber;
+        }
+
+        /* --- --- --- Subscription --- --- --- */
+
+        /**
+         * Called once {@link Subscriber#onSubscribe(Subscription)} returns. Parsing does not
+         * start before this, since onNext() must not be called during onSubscribe().
+         */
+        public void subscribed() {
+            boolean start;
+            lock.lock();
+            try {
+                subscribed = true;
+                if (error == null && !cancelled) {
+                    error = checkSources();
+                    cancelled = error != null;
+                }
+                start = !started && (demand > 0 || error != null);
+                started |= start;
+            } finally {
+                lock.unlock();
+            }
+            if (start)
+                startParsing();
+        }
+
+        @Override public void request(long n) {
+            boolean start;
+            lock.lock();
+            try {
+                if (cancelled)
+                    return;
+                if (n <= 0) {
+                    if (error == null) {
+                        error = new IllegalArgumentException("request("+n+"): n must be > 0 " +
+                                                             "(Reactive Streams rule 3.9)");
+                    }
+                    cancelled = true;
+                } else {
+                    demand = demand + n < 0 ? Long.MAX_VALUE : demand + n;
+                }
+                start = subscribed && !started;
+                started |= start;
+                demanded.signalAll();
+            } finally {
+                lock.unlock();
+            }
+            if (start)
+                startParsing();
+        }
+
+        @Override public void cancel() {
+            lock.lock();
+            try {
+                cancelled = true;
+                demanded.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void startParsing() {
+            try {
+                factory.getParserExecutor().execute(this);
+            } catch (RejectedExecutionException e) {
+                lock.lock();
+                try {
+                    if (error == null)
+                        error = new RDFItException(Arrays.asList(sources),
+                                                   "Parser executor rejected parsing", e);
+                    cancelled = true;
+                } finally {
+                    lock.unlock();
+                }
+                terminate();
+            }
+        }
+
+        @Override public void run() {
+            boolean skip;
+            lock.lock();
+            try {
+                skip = cancelled;
+            } finally {
+                lock.unlock();
+            }
+            if (!skip) {
+                try {
+                    factory.parse(this, sources);
+                } catch (InterruptParsingException ignored) {
+                } catch (Throwable t) {
+                    lock.lock();
+                    try {
+                        if (error == null) error = t;
+                    } finally {
+                        lock.unlock();
+                    }
+                }
+            }
+            terminate();
+        }
+
+        /**
+         * Deliver onError or onComplete, unless the subscriber has cancelled.
+         */
+        private void terminate() {
+            Throwable error;
+            lock.lock();
+            try {
+                error = this.error;
+                if (cancelled && error == null)
+                    return;
+                cancelled = true;
+            } finally {
+                lock.unlock();
+            }
+            try {
+                if (error != null) subscriber.onError(error);
+                else               subscriber.onComplete();
+            } catch (Throwable t) {
+                logger.error("{}: ignoring exception thrown from {}.on{}()", RDFPublisher.this,
+                             subscriber, error != null ? "Error" : "Complete", t);
+            }
+        }
+
+        /* --- --- --- RDFListener --- --- --- */
+
+        private void emit(@Nonnull Object value) {
+            lock.lock();
+            try {
+                boolean interrupted = false;
+                while (demand == 0 && !cancelled) {
+                    try {
+                        demanded.await();
+                    } catch (InterruptedException e) {
+                        interrupted = true;
+                        cancelled = true;
+                    }
+                }
+                if (interrupted)
+                    Thread.currentThread().interrupt();
+                if (cancelled)
+                    throw new InterruptParsingException();
+                if (demand != Long.MAX_VALUE)
+                    --demand;
+            } finally {
+                lock.unlock();
+            }
+            try {
+                subscriber.onNext(valueClass.cast(value));
+            } catch (Throwable t) {
+                logger.error("{}: {}.onNext() threw, cancelling", RDFPublisher.this, subscriber, t);
+                cancel();
+                throw new InterruptParsingException();
+            }
+        }
+
+        @Override public void triple(@Nonnull Object triple) {
+            emit(triple);
+        }
+
+        @Override public void quad(@Nonnull Object quad) {
+            emit(quad);
+        }
+
+        private boolean fail(@Nonnull RDFItException e) {
+            lock.lock();
+            try {
+                if (error == null && !cancelled)
+                    error = e;
+            } finally {
+                lock.unlock();
+            }
+            return false;
+        }
+
+        @Override public boolean notifyInconvertibleTriple(@Nonnull InconvertibleException e) {
+            return fail(e);
+        }
+
+        @Override public boolean notifyInconvertibleQuad(@Nonnull InconvertibleException e) {
+            return fail(e);
+        }
+
+        @Override public boolean notifySourceError(@Nonnull RDFItException e) {
+            return fail(e);
+        }
+
+        @Override public @Nonnull String toString() {
+            return format("%s{publisher=%s}", Utils.toString(this), RDFPublisher.this);
+        }
+    }
+
+    @Override public @Nonnull String toString() {
+        return format("%s{%s, %s, sources=%d}", Utils.toString(this), itElement,
+                      Utils.compactClass(valueClass), sources.length);
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ *    Copyright 2021 Alexis Armin Huf
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.github.lapesd.rdfit.reactive;
+
+import com.github.lapesd.rdfit.components.converters.impl.DefaultConversionManager;
+import com.github.lapesd.rdfit.components.normalizers.DefaultSourceNormalizerRegistry;
+import com.github.lapesd.rdfit.components.parsers.DefaultParserRegistry;
+import com.github.lapesd.rdfit.components.parsers.JavaParsers;
+import com.github.lapesd.rdfit.errors.RDFItException;
+import com.github.lapesd.rdfit.impl.DefaultRDFItFactory;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Arrays.asList;
+import static org.testng.Assert.*;
+
+public class RDFPublisherTest {
+    private DefaultRDFItFactory factory;
+
+    private static class CollectingSubscriber implements Subscriber<String> {
+        final @Nonnull List<String> values = Collections.synchronizedList(new ArrayList<>());
+        final @Nonnull CountDownLatch subscribed = new CountDownLatch(1);
+        final @Nonnull CountDownLatch terminated = new CountDownLatch(1);
+        volatile Subscription subscription;
+        volatile Throwable error;
+        volatile boolean completed;
+
+        @Override public void onSubscribe(@Nonnull Subscription s) {
+            subscription = s;
+            subscribed.countDown();
+        }
+
+        @Override public void onNext(@Nonnull String s) {
+            values.add(s);
+        }
+
+        @Override public void onError(@Nonnull Throwable t) {
+            error = t;
+            terminated.countDown();
+        }
+
+        @Override public void onComplete() {
+            completed = true;
+            terminated.countDown();
+        }
+
+        void awaitValues(int count) throws InterruptedException {
+            long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (values.size() < count && System.nanoTime() < end)
+                Thread.sleep(1);
+            assertEquals(values.size(), count);
+        }
+    }
+
+    private static @Nonnull List<String> triples(int count) {
+        List<String> list = new ArrayList<>();
+        for (int i = 0; i < count; i++)
+            list.add("t" + i);
+        return list;
+    }
+
+    @BeforeMethod
+    public void setUp() {
+        factory = new DefaultRDFItFactory(new DefaultParserRegistry(),
+                                          new DefaultConversionManager(),
+                                          new DefaultSourceNormalizerRegistry());
+        JavaParsers.registerWithTripleClass(factory, String.class);
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        factory.close();
+    }
+
+    @Test(timeOut = 10000)
+    public void testDemandSuspendsParser() throws InterruptedException {
+        List<String> data = triples(100);
+        CollectingSubscriber subscriber = new CollectingSubscriber();
+        RDFPublisher.triples(factory, String.class, data).subscribe(subscriber);
+        assertTrue(subscriber.subscribed.await(5, TimeUnit.SECONDS));
+        Thread.sleep(50);
+        assertEquals(subscriber.values.size(), 0); // nothing parsed without demand
+        assertEquals(factory.getParserExecutor().getActiveTasks(), 0);
+
+        subscriber.subscription.request(10);
+        subscriber.awaitValues(10);
+        Thread.sleep(50);
+        assertEquals(subscriber.values.size(), 10); // parser suspended
+        assertEquals(subscriber.terminated.getCount(), 1);
+
+        subscriber.subscription.request(Long.MAX_VALUE);
+        assertTrue(subscriber.terminated.await(5, TimeUnit.SECONDS));
+        assertTrue(subscriber.completed);
+        assertNull(subscriber.error);
+        assertEquals(subscriber.values, data);
+    }
+
+    @Test(timeOut = 10000)
+    public void testManySources() throws InterruptedException {
+        List<String> a = triples(30), b = asList("x", "y");
+        CollectingSubscriber subscriber = new CollectingSubscriber();
+        RDFPublisher.triples(factory, String.class, a, b).subscribe(subscriber);
+        subscriber.subscription.request(Long.MAX_VALUE);
+        assertTrue(subscriber.terminated.await(5, TimeUnit.SECONDS));
+        List<String> expected = new ArrayList<>(a);
+        expected.addAll(b);
+        assertEquals(subscriber.values, expected);
+        assertTrue(subscriber.completed);
+    }
+
+    @Test(timeOut = 10000)
+    public void testCancelStopsParser() throws InterruptedException {
+        CollectingSubscriber subscriber = new CollectingSubscriber();
+        RDFPublisher.triples(factory, String.class, triples(100)).subscribe(subscriber);
+        subscriber.subscription.request(3);
+        subscriber.awaitValues(3);
+        assertEquals(factory.getParserExecutor().getActiveTasks(), 1);
+
+        subscriber.subscription.cancel();
+        long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (factory.getParserExecutor().getActiveTasks() > 0 && System.nanoTime() < end)
+            Thread.sleep(1);
+        assertEquals(factory.getParserExecutor().getActiveTasks(), 0);
+        assertEquals(subscriber.values.size(), 3);
+        assertEquals(subscriber.terminated.getCount(), 1); // no signals after cancel
+    }
+
+    @Test(timeOut = 10000)
+    public void testParseErrorIsSignalled() throws InterruptedException {
+        CollectingSubscriber subscriber = new CollectingSubscriber();
+        Object noParser = new Object();
+        RDFPublisher.triples(factory, String.class, triples(2), noParser).subscribe(subscriber);
+        subscriber.subscription.request(Long.MAX_VALUE);
+        assertTrue(subscriber.terminated.await(5, TimeUnit.SECONDS));
+        assertEquals(subscriber.values, triples(2));
+        assertFalse(subscriber.completed);
+        assertTrue(subscriber.error instanceof RDFItException);
+    }
+
+    @Test(timeOut = 10000)
+    public void testNullSourceFailsWithoutDemand() throws InterruptedException {
+        CollectingSubscriber subscriber = new CollectingSubscriber();
+        RDFPublisher.triples(factory, String.class, triples(2), null).subscribe(subscriber);
+        assertTrue(subscriber.terminated.await(5, TimeUnit.SECONDS));
+        assertEquals(subscriber.values, Collections.emptyList());
+        assertFalse(subscriber.completed);
+        assertTrue(subscriber.error instanceof RDFItException);
+    }
+}
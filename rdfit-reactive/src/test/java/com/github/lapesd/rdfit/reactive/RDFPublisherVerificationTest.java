@@ -0,0 +1,68 @@
+/*
+ *    Copyright 2021 Alexis Armin Huf
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.github.lapesd.rdfit.reactive;
+
+import com.github.lapesd.rdfit.components.converters.impl.DefaultConversionManager;
+import com.github.lapesd.rdfit.components.normalizers.DefaultSourceNormalizerRegistry;
+import com.github.lapesd.rdfit.components.parsers.DefaultParserRegistry;
+import com.github.lapesd.rdfit.components.parsers.JavaParsers;
+import com.github.lapesd.rdfit.impl.DefaultRDFItFactory;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.tck.PublisherVerification;
+import org.reactivestreams.tck.TestEnvironment;
+import org.testng.annotations.AfterClass;
+
+import javax.annotation.Nonnull;
+import java.util.AbstractList;
+import java.util.List;
+
+public class RDFPublisherVerificationTest extends PublisherVerification<String> {
+    private final @Nonnull DefaultRDFItFactory factory;
+
+    public RDFPublisherVerificationTest() {
+        super(new TestEnvironment(1000));
+        factory = new DefaultRDFItFactory(new DefaultParserRegistry(),
+                                          new DefaultConversionManager(),
+                                          new DefaultSourceNormalizerRegistry());
+        JavaParsers.registerWithTripleClass(factory, String.class);
+    }
+
+    @AfterClass
+    public void afterClass() {
+        factory.close();
+    }
+
+    @Override public @Nonnull Publisher<String> createPublisher(long elements) {
+        List<String> list = new AbstractList<String>() {
+            @Override public String get(int index) {
+                return "t" + index;
+            }
+            @Override public int size() {
+                return (int) elements;
+            }
+        };
+        return RDFPublisher.triples(factory, String.class, list);
+    }
+
+    @Override public @Nonnull Publisher<String> createFailedPublisher() {
+        return RDFPublisher.triples(factory, String.class, (Object) null);
+    }
+
+    @Override public long maxElementsFromPublisher() {
+        return Integer.MAX_VALUE;
+    }
+}